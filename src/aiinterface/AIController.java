@@ -1,21 +1,25 @@
 package aiinterface;
 
-import java.util.LinkedList;
+import java.util.concurrent.locks.LockSupport;
 
+import enumerate.AIDeadlinePolicy;
+import enumerate.FrameDeliveryPolicy;
 import grpc.PlayerAgent;
 import informationcontainer.RoundResult;
 import manager.InputManager;
-import setting.LaunchSetting;
 import struct.AudioData;
 import struct.FrameData;
 import struct.GameData;
 import struct.Key;
 import struct.ScreenData;
+import util.JfrEvents;
+import util.LatencyHistogram;
 
 /**
- * Class that manages AI threads and processes.
+ * Class that manages AI threads and processes.<br>
+ * The controller runs on a thread started by {@link AIThreads}.
  */
-public class AIController extends Thread {
+public class AIController implements Runnable {
 
 	private char deviceType;
     /**
@@ -35,7 +39,7 @@ public class AIController extends Thread {
     /**
      * Flag indicating whether a match has started.
      */
-    private boolean isFighting;
+    private volatile boolean isFighting;
 
     /**
      * Entered keys.
@@ -48,24 +52,137 @@ public class AIController extends Thread {
     private final static int DELAY = 15;
 
     /**
-     * List to store frame data.
+     * The frame data published by the game loop, of which the AI reads the
+     * one DELAY frames old.
+     *
+     * @see FrameRingBuffer
+     */
+    private FrameRingBuffer framesData;
+
+    /**
+     * Which of the delayed frames the AI is given.
      */
-    private LinkedList<FrameData> framesData;
+    private FrameDeliveryPolicy deliveryPolicy;
+
+    /**
+     * The frame data last given to the AI, which is given again if no newer
+     * frame can be read, or {@code null} if none has been given yet.<br>
+     * Used only by the thread of the AI.
+     */
+    private FrameData lastFrameData;
+
+    /**
+     * Empty frame data used before the game starts.
+     */
+    private static final FrameData EMPTY_FRAME = new FrameData();
 
     /**
      * Data containing screen information.
      */
-    private ScreenData screenData;
+    private volatile ScreenData screenData;
 
-    private AudioData audioData;
+    private volatile AudioData audioData;
+
+    /**
+     * The screen data and the audio data given to the AI in its last turn, which the game does not recycle until
+     * the AI starts its next turn.<br>
+     * Written only by the thread of the AI.
+     *
+     * @see #isUsing(Object)
+     */
+    private volatile ScreenData usedScreenData;
+    private volatile AudioData usedAudioData;
     
     private boolean isRoundEnd;
     private RoundResult roundResult;
 
     /**
-     * Synchronization object for starting each AI process simultaneously.
+     * The number of frames signalled to this AI when it last started
+     * processing.
+     *
+     * @see ThreadController#getFrameSignal(boolean)
+     */
+    private volatile long frameSignal;
+
+    /**
+     * The time the frame being processed was signalled.
+     *
+     * @see ThreadController#getSignalTime()
+     */
+    private volatile long signalTime;
+
+    /**
+     * The frame signal of the frame for which the current key was given.<br>
+     * Guarded by the instance.
+     */
+    private long keySignal;
+
+    /**
+     * The time in nanoseconds the AI has to give its key after a frame is signalled.
+     */
+    private long deadlineNanos;
+
+    /**
+     * Which key is used when the AI did not give a key for the current frame in time.
+     */
+    private AIDeadlinePolicy deadlinePolicy;
+
+    /**
+     * The key with no button pressed, used by {@link AIDeadlinePolicy#NEUTRAL_KEY}.
+     */
+    private final Key neutralKey = new Key();
+
+    /**
+     * The histogram of the time from the signal of a frame to the key of the AI.<br>
+     * Guarded by the instance.
+     */
+    private final LatencyHistogram thinkTimes = new LatencyHistogram();
+
+    /**
+     * The number of keys given after the deadline.<br>
+     * Guarded by the instance.
      */
-    private Object waitObj;
+    private long missedDeadlineCount;
+
+    /**
+     * The number of frames in which the game read a key which was not given for the current frame.<br>
+     * Guarded by the instance.
+     */
+    private long staleKeyCount;
+
+    /**
+     * The number of frames of a round the AI never received because a newer frame was delivered instead.<br>
+     * Written only by the thread of the AI.
+     */
+    private volatile long skippedFrameCount;
+
+    /**
+     * The number of the last frame delivered to the AI, or -1 before the first frame.<br>
+     * Used only by the thread of the AI.
+     */
+    private int lastFrameNumber;
+
+    /**
+     * The round of the last frame delivered to the AI.
+     *
+     * @see #lastFrameNumber
+     */
+    private int lastRound;
+
+    /**
+     * The thread running the controller, which is unparked at the end of the game.
+     */
+    private volatile Thread runner;
+
+    /**
+     * The thread controller of the match the AI is playing.
+     */
+    private ThreadController threadController;
+
+    /**
+     * Whether the screen data is hidden from the AI.
+     */
+    private boolean noVisual;
     
     //private List<Double> durations = new ArrayList<>();
 
@@ -87,17 +204,33 @@ public class AIController extends Thread {
     /**
      * Initializes with the provided parameters.
      *
-     * @param waitFrame    Synchronization object for starting each AI process
-     * @param gameData     Instance of a class containing immutable game information such as screen width and max HP
-     * @param playerNumber the character's side flag: {@code true} if P1, {@code false} if P2
+     * @param threadController the thread controller of the match, which signals the frames to the AI
+     * @param gameData         Instance of a class containing immutable game information such as screen width and max HP
+     * @param playerNumber     the character's side flag: {@code true} if P1, {@code false} if P2
      * @see GameData
+     * @see ThreadController
      */
-    public void initialize(Object waitFrame, GameData gameData, boolean playerNumber) {
-        this.waitObj = waitFrame;
+    public void initialize(ThreadController threadController, GameData gameData, boolean playerNumber) {
+        this.threadController = threadController;
         //this.gameData = gameData;
         this.playerNumber = playerNumber;
+        this.noVisual = gameData.getMatchSetting().isNoVisual(playerNumber);
+        this.frameSignal = threadController.getFrameSignal(playerNumber);
+        this.deadlineNanos = gameData.getMatchSetting().getAiDeadline() * 1000L;
+        this.deadlinePolicy = gameData.getMatchSetting().getAiDeadlinePolicy();
+        this.deliveryPolicy = gameData.getMatchSetting().getFrameDeliveryPolicy();
+        this.lastFrameData = null;
+        synchronized (this) {
+            this.keySignal = this.frameSignal;
+            this.thinkTimes.reset();
+            this.missedDeadlineCount = 0;
+            this.staleKeyCount = 0;
+        }
+        this.skippedFrameCount = 0;
+        this.lastFrameNumber = -1;
+        this.lastRound = -1;
         this.key = new Key();
-        this.framesData = new LinkedList<FrameData>();
+        this.framesData = new FrameRingBuffer(DELAY);
         this.clear();
         this.isFighting = true;
         this.isRoundEnd = false;
@@ -123,62 +256,101 @@ public class AIController extends Thread {
     
     @Override
     public void run() {
+        this.runner = Thread.currentThread();
+        this.threadController.setWaiter(this.playerNumber, this.runner);
         while (isFighting) {
-            synchronized (this.waitObj) {
-                try {
-                    this.waitObj.wait();
-                } catch (InterruptedException e) {
-                    e.printStackTrace();
-                }
+            while (this.isFighting && this.frameSignal == this.threadController.getFrameSignal(this.playerNumber)) {
+                LockSupport.park(this);
             }
+            this.frameSignal = this.threadController.getFrameSignal(this.playerNumber);
+            this.signalTime = this.threadController.getSignalTime();
 
+            JfrEvents.AiTurn event = new JfrEvents.AiTurn();
+            event.begin();
+            int frame = -1;
+            int round = -1;
+            int skipped = 0;
             if (isRoundEnd) {
+            	round = this.roundResult != null ? this.roundResult.getRound() : -1;
             	this.grpc.onRoundEnd(roundResult);
             	this.isRoundEnd = false;
             	this.roundResult = null;
             } else {
             	boolean isControl;
+            	FrameData latest = this.framesData.peekLatest();
 
                 try {
-                    isControl = this.framesData.getLast().getCharacter(this.playerNumber).isControl();
+                    isControl = latest.getCharacter(this.playerNumber).isControl();
                 } catch (NullPointerException e) {
                     // while game is not started
                     isControl = false;
                 }
 
-                FrameData frameData = !this.framesData.isEmpty() ? new FrameData(this.framesData.removeFirst()) : new FrameData();
+                // with LATEST, the newest frame which is DELAY frames old wins, and older frames which were not delivered are skipped
+                FrameData delayed = this.deliveryPolicy == FrameDeliveryPolicy.LATEST
+                        ? this.framesData.pollLatest() : this.framesData.poll();
+                if (delayed != null) {
+                    this.lastFrameData = delayed;
+                }
+                // a frame published after the signal may already have been read, so the last frame is given again
+                // instead of empty data. The frames are read-only snapshots shared with the game and the other AI,
+                // so they are not copied
+                FrameData frameData = this.lastFrameData != null ? this.lastFrameData : EMPTY_FRAME;
+                frame = frameData.getFramesNumber();
+                round = frameData.getRound();
+                if (frame >= 0) {
+                    if (round == this.lastRound && frame > this.lastFrameNumber + 1) {
+                        skipped = frame - this.lastFrameNumber - 1;
+                        this.skippedFrameCount += skipped;
+                    }
+                    this.lastFrameNumber = frame;
+                    this.lastRound = round;
+                }
                 
+                ScreenData screenData = useScreenData();
+                AudioData audioData = useAudioData();
                 if (this.deviceType == InputManager.DEVICE_TYPE_AI) {
-                	this.ai.getInformation(frameData, isControl);
-        	        this.ai.getAudioData(this.audioData);
+                	// visual data aren't provided to sound-only AI
+                	this.ai.getInformation(this.noVisual ? frameData.withoutVisualData() : frameData, isControl);
+        	        this.ai.getAudioData(audioData);
         	        // screen raw data isn't provided to sound-only AI
-        	        if (!LaunchSetting.noVisual[this.playerNumber ? 0: 1]){
-        	            this.ai.getScreenData(this.screenData);
-        	        } else {
-        	        	frameData.removeVisualData();
+        	        if (!this.noVisual){
+        	            this.ai.getScreenData(screenData);
         	        }
         	        
         	        this.ai.processing();
         	        this.setInput(this.ai.input());
                 } else if (this.deviceType == InputManager.DEVICE_TYPE_GRPC) {
                 	if (this.grpc.isReady()) {
-                		this.grpc.setInformation(isControl, frameData, audioData, screenData, this.framesData.getLast());
+                		this.grpc.setInformation(isControl, frameData, audioData, screenData, latest);
                     	this.grpc.onGameUpdate();
                 	}
                 }
             }
-	        ThreadController.getInstance().notifyEndProcess(this.playerNumber);
+	        event.set(frame, round, this.playerNumber);
+	        event.setSkippedFrames(skipped);
+	        event.commit();
+	        this.threadController.notifyEndProcess(this.playerNumber);
         }
     }
 
     /**
      * Returns input information from the AI.<br>
-     * Returns an empty key if there is no input information.
+     * Returns an empty key if there is no input information.<br>
+     * If the AI has not given a key for the last signalled frame, the key is counted as stale, and a neutral key is
+     * returned instead with {@link AIDeadlinePolicy#NEUTRAL_KEY}.
      *
      * @return Input information from the AI
      * @see Key
      */
     public synchronized Key getInput() {
+        if (this.keySignal != this.threadController.getFrameSignal(this.playerNumber)) {
+            this.staleKeyCount++;
+            if (this.deadlinePolicy == AIDeadlinePolicy.NEUTRAL_KEY) {
+                return this.neutralKey;
+            }
+        }
+
         if (this.key != null) {
             return this.key;
         } else {
@@ -187,31 +359,90 @@ public class AIController extends Thread {
     }
 
     /**
-     * Sets input information from the AI.
+     * Sets input information from the AI for the frame being processed.<br>
+     * The time since the frame was signalled is recorded, and a key given after the deadline is counted as missed
+     * and discarded with {@link AIDeadlinePolicy#SKIP}.
      *
      * @param key Input information from the AI
      */
     public synchronized void setInput(Key key) {
+        long thinkNanos = System.nanoTime() - this.signalTime;
+        this.thinkTimes.record(thinkNanos);
+        if (thinkNanos > this.deadlineNanos) {
+            this.missedDeadlineCount++;
+            if (this.deadlinePolicy == AIDeadlinePolicy.SKIP) {
+                return;
+            }
+        }
+
         this.key = new Key(key);
+        this.keySignal = this.frameSignal;
+    }
+
+    /**
+     * Returns the histogram of the time from the signal of a frame to the key of the AI.<br>
+     * The histogram is updated by the thread of the AI, so it should be read after the game ends.
+     *
+     * @return the histogram of the think time in nanoseconds
+     */
+    public synchronized LatencyHistogram getThinkTimes() {
+        return this.thinkTimes;
+    }
+
+    /**
+     * Returns the number of keys the AI gave after its deadline.
+     *
+     * @return the number of missed deadlines
+     */
+    public synchronized long getMissedDeadlineCount() {
+        return this.missedDeadlineCount;
+    }
+
+    /**
+     * Returns the number of frames in which the game read a key the AI had not given for the current frame.
+     *
+     * @return the number of stale keys
+     */
+    public synchronized long getStaleKeyCount() {
+        return this.staleKeyCount;
+    }
+
+    /**
+     * Returns the number of frames the AI never received because a newer frame was delivered instead, which
+     * happens when the AI is slower than the game.
+     *
+     * @return the number of skipped frames
+     */
+    public long getSkippedFrameCount() {
+        return this.skippedFrameCount;
+    }
+
+    /**
+     * Returns a summary of the think time of the AI, of its missed deadlines and of the skipped frames.
+     *
+     * @return the summary
+     */
+    public synchronized String getDeadlineReport() {
+        return String.format(
+                "think time p50 %.1f us p99 %.1f us max %.1f us, %d of %d keys missed the %.1f ms deadline, %d stale keys (%s), %d skipped frames (%s)",
+                this.thinkTimes.getPercentile(50) / 1000.0, this.thinkTimes.getPercentile(99) / 1000.0,
+                this.thinkTimes.getMax() / 1000.0, this.missedDeadlineCount, this.thinkTimes.getCount(),
+                this.deadlineNanos / 1000000.0, this.staleKeyCount, this.deadlinePolicy, this.skippedFrameCount,
+                this.deliveryPolicy);
     }
 
     /**
      * Sets frame data after a match process.<br>
-     * If the list size is greater than DELAY, removes the oldest frame data.
+     * The frame data is published to the AI thread without locking, and only
+     * the DELAY newest frames are kept for the AI.<br>
+     * Called only by the thread of the game loop.
      *
      * @param fd Frame data after a match process
      * @see FrameData
+     * @see FrameRingBuffer
      */
-    public synchronized void setFrameData(FrameData fd) {
-        if (fd != null) {
-            this.framesData.addLast(fd);
-        } else {
-            this.framesData.addLast(new FrameData());
-        }
-
-        while (this.framesData.size() > DELAY) {
-            this.framesData.removeFirst();
-        }
+    public void setFrameData(FrameData fd) {
+        this.framesData.publish(fd != null ? fd : EMPTY_FRAME);
     }
 
     /**
@@ -220,24 +451,66 @@ public class AIController extends Thread {
      * @param screenData Screen data after a match process
      * @see ScreenData
      */
-    public synchronized void setScreenData(ScreenData screenData) {
+    public void setScreenData(ScreenData screenData) {
         this.screenData = screenData;
     }
 
-    public synchronized void setAudioData(AudioData audioData) {
+    public void setAudioData(AudioData audioData) {
         this.audioData = audioData;
     }
 
     /**
-     * Clears the stored frame data in the list.<br>
-     * Then adds DELAY-1 empty frame data to the list.
+     * Returns whether the AI may still read the screen data or the audio data, because they were given to it in its
+     * last turn or are the newest ones it has not read yet.<br>
+     * The game recycles only the data which no AI uses.
+     *
+     * @param data the screen data or the audio data
+     * @return {@code true} if the AI may still read the data, {@code false} otherwise
      */
-    public synchronized void clear() {
-        if (this.framesData != null) {
-            this.framesData.clear();
+    public boolean isUsing(Object data) {
+        return data == this.screenData || data == this.audioData || data == this.usedScreenData
+                || data == this.usedAudioData;
+    }
+
+    /**
+     * Marks the newest screen data as used by the AI, and returns it.<br>
+     * The newest data are read again after they are marked, so the game, which recycles only the data that are
+     * neither the newest nor marked, cannot recycle them in between.
+     *
+     * @return the newest screen data
+     */
+    private ScreenData useScreenData() {
+        ScreenData screenData;
+        do {
+            screenData = this.screenData;
+            this.usedScreenData = screenData;
+        } while (screenData != this.screenData);
+        return screenData;
+    }
+
+    /**
+     * Marks the newest audio data as used by the AI, and returns them, in the same way as {@link #useScreenData()}.
+     *
+     * @return the newest audio data
+     */
+    private AudioData useAudioData() {
+        AudioData audioData;
+        do {
+            audioData = this.audioData;
+            this.usedAudioData = audioData;
+        } while (audioData != this.audioData);
+        return audioData;
+    }
 
-            while (this.framesData.size() < DELAY) {
-                this.framesData.add(new FrameData());
+    /**
+     * Clears the stored frame data by publishing DELAY empty frame data, which
+     * the AI reads until the frames of the new round are DELAY frames old.<br>
+     * Called only by the thread of the game loop.
+     */
+    public void clear() {
+        if (this.framesData != null) {
+            for (int i = 0; i < DELAY; i++) {
+                this.framesData.publish(EMPTY_FRAME);
             }
         }
     }
@@ -265,8 +538,9 @@ public class AIController extends Thread {
         if (this.deviceType == InputManager.DEVICE_TYPE_AI) {
             this.ai.close();
     	}
-        synchronized (this.waitObj) {
-            this.waitObj.notifyAll();
+        Thread thread = this.runner;
+        if (thread != null) {
+            LockSupport.unpark(thread);
         }
     }
 }
@@ -89,7 +89,10 @@ public interface AIInterface {
 	void roundEnd(int p1Hp, int p2Hp, int frames);
 
 	/**
-	 * Gets the screen information in each frame.
+	 * Gets the screen information in each frame.<br>
+	 * The game reuses the instance and its pixel data for a later frame once
+	 * the AI has started processing the next frame, so an AI which keeps the
+	 * screens of earlier frames has to copy them.
 	 *
 	 * @param sd
 	 *            the screen information such as the pixel data, it will be empty in blind mode.
@@ -99,6 +102,9 @@ public interface AIInterface {
 
 	/**
 	 * Gets the audio information in each frame.<br>
+	 * Like the screen information, the instance and its arrays are reused for
+	 * a later frame once the AI has started processing the next frame, so an
+	 * AI which keeps the audio of earlier frames has to copy the arrays.<br>
 	 * For more details on the data structure, please see
 	 * <a href="https://tinyurl.com/DareFightingICE/AI" target="blank">https://tinyurl.com/DareFightingICE/AI</a>.
 	 * @param ad
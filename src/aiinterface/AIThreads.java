@@ -0,0 +1,184 @@
+package aiinterface;
+
+import java.lang.reflect.Method;
+import java.util.ArrayList;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+import setting.FlagSetting;
+
+/**
+ * The threads running the AI controllers of a game or a match.<br>
+ * The controllers are started by {@link #start(AIController, boolean)} and
+ * {@link #close()} waits for their threads to end after
+ * {@link AIController#gameEnd()}, so no thread of an AI outlives its match
+ * without being reported.<br>
+ * With {@link FlagSetting#virtualThreadFlag}, the controllers run on virtual
+ * threads, so that a host playing many matches at the same time is not limited
+ * by the number of OS threads. The virtual threads are created through
+ * reflection, because they need Java 21 while the game is built for Java 17.
+ * When they are not available, platform threads are used, and the option
+ * "--virtual-threads" logs a warning.
+ */
+public class AIThreads implements AutoCloseable {
+
+	/**
+	 * The maximum time in milliseconds {@link #close()} waits for each thread.
+	 */
+	public static final long JOIN_TIMEOUT = 3000;
+
+	/**
+	 * The factory of virtual threads, or {@code null} if they are not
+	 * available.
+	 */
+	private static final ThreadFactory VIRTUAL_FACTORY = createVirtualFactory();
+
+	/**
+	 * The number of platform threads created, used in their names.
+	 */
+	private static final AtomicInteger PLATFORM_COUNT = new AtomicInteger();
+
+	/**
+	 * The name of the threads.
+	 */
+	private final String name;
+
+	/**
+	 * The threads started by this instance.
+	 */
+	private final ArrayList<Thread> threads;
+
+	/**
+	 * The class constructor.
+	 *
+	 * @param name
+	 *            the name of the threads, followed by the player
+	 */
+	public AIThreads(String name) {
+		this.name = name;
+		this.threads = new ArrayList<Thread>(2);
+	}
+
+	/**
+	 * Returns whether virtual threads are available in this Java runtime.
+	 *
+	 * @return {@code true} if virtual threads are available, {@code false}
+	 *         otherwise
+	 */
+	public static boolean isVirtualAvailable() {
+		return VIRTUAL_FACTORY != null;
+	}
+
+	/**
+	 * Returns a factory of the threads of AI processing.<br>
+	 * The threads are virtual if {@link FlagSetting#virtualThreadFlag} is set
+	 * and virtual threads are available, and platform threads otherwise.
+	 *
+	 * @param name
+	 *            the name of the platform threads
+	 * @return the thread factory
+	 */
+	public static ThreadFactory newThreadFactory(String name) {
+		if (FlagSetting.virtualThreadFlag && VIRTUAL_FACTORY != null) {
+			return VIRTUAL_FACTORY;
+		}
+		return runnable -> new Thread(runnable, name + "-" + PLATFORM_COUNT.incrementAndGet());
+	}
+
+	/**
+	 * Returns an executor of the tasks of AI processing, such as the calls of
+	 * a gRPC server.<br>
+	 * With virtual threads, each task runs on a new virtual thread of the
+	 * executor of the Java runtime, or of a cached thread pool if that executor
+	 * cannot be created. Otherwise, the tasks run on a fixed number of platform
+	 * threads.
+	 *
+	 * @param name
+	 *            the name of the platform threads
+	 * @param platformThreads
+	 *            the number of platform threads
+	 * @return the executor
+	 */
+	public static ExecutorService newExecutor(String name, int platformThreads) {
+		if (FlagSetting.virtualThreadFlag && VIRTUAL_FACTORY != null) {
+			ExecutorService executor = createVirtualExecutor();
+			return executor != null ? executor : Executors.newCachedThreadPool(VIRTUAL_FACTORY);
+		}
+		return Executors.newFixedThreadPool(platformThreads, newThreadFactory(name));
+	}
+
+	/**
+	 * Starts running an AI controller on a new thread.
+	 *
+	 * @param ai
+	 *            the AI controller, which is initialized
+	 * @param playerNumber
+	 *            the character's side flag: {@code true} if P1, {@code false}
+	 *            if P2
+	 */
+	public synchronized void start(AIController ai, boolean playerNumber) {
+		Thread thread = newThreadFactory(this.name).newThread(ai);
+		thread.setName(this.name + (playerNumber ? "-P1" : "-P2"));
+		this.threads.add(thread);
+		thread.start();
+	}
+
+	/**
+	 * Waits for the threads of the AI controllers to end, and forgets them.
+	 * <br>
+	 * Called after {@link AIController#gameEnd()}. A thread which is still
+	 * running after {@link #JOIN_TIMEOUT} is interrupted and reported.
+	 */
+	@Override
+	public synchronized void close() {
+		for (Thread thread : this.threads) {
+			try {
+				thread.join(JOIN_TIMEOUT);
+			} catch (InterruptedException e) {
+				Thread.currentThread().interrupt();
+				break;
+			}
+			if (thread.isAlive()) {
+				thread.interrupt();
+				Logger.getAnonymousLogger().log(Level.WARNING,
+						thread.getName() + " did not end within " + JOIN_TIMEOUT + " ms");
+			}
+		}
+		this.threads.clear();
+	}
+
+	/**
+	 * Creates the factory of virtual threads with the API of Java 21.
+	 *
+	 * @return the factory of virtual threads, or {@code null} if they are not
+	 *         available
+	 */
+	private static ThreadFactory createVirtualFactory() {
+		try {
+			Object builder = Thread.class.getMethod("ofVirtual").invoke(null);
+			Method factory = Class.forName("java.lang.Thread$Builder").getMethod("factory");
+			return (ThreadFactory) factory.invoke(builder);
+		} catch (ReflectiveOperationException | RuntimeException e) {
+			return null;
+		}
+	}
+
+	/**
+	 * Creates the executor running each task on a new virtual thread with the
+	 * API of Java 21.
+	 *
+	 * @return the executor, or {@code null} if it is not available
+	 */
+	private static ExecutorService createVirtualExecutor() {
+		try {
+			return (ExecutorService) Executors.class.getMethod("newVirtualThreadPerTaskExecutor").invoke(null);
+		} catch (ReflectiveOperationException | RuntimeException e) {
+			return null;
+		}
+	}
+
+}
@@ -1,8 +1,10 @@
 package aiinterface;
 
+import java.util.Collections;
 import java.util.Deque;
 import java.util.LinkedList;
 
+import enumerate.Action;
 import struct.FrameData;
 import struct.Key;
 
@@ -28,6 +30,18 @@ public class CommandCenter {
 	 */
 	private boolean playerNumber;
 
+	/**
+	 * The keys of each action when the character faces right, indexed by
+	 * {@link Action#ordinal()}.
+	 */
+	private static final Key[][] FRONT_KEYS = createKeyTable(true);
+
+	/**
+	 * The keys of each action when the character faces left, indexed by
+	 * {@link Action#ordinal()}.
+	 */
+	private static final Key[][] BACK_KEYS = createKeyTable(false);
+
 	/**
 	 * Class constructor.
 	 */
@@ -51,6 +65,26 @@ public class CommandCenter {
 		}
 	}
 
+	/**
+	 * Stores the keys of the action in the list of keys waiting to be
+	 * executed, in the same way as {@link #commandCall(String)} with the name
+	 * of the action.<br>
+	 * The keys are taken from a table built once and shared by all instances
+	 * instead of being parsed from the command, so they must not be modified.
+	 * This method is meant for the simulator, which never modifies keys.<br>
+	 * If there are unexecuted keys in the list, this method does nothing.
+	 *
+	 * @param action
+	 *            the action
+	 */
+	public void commandCall(Action action) {
+		// If there is no unexecuted key in the list
+		if (this.skillKey.isEmpty()) {
+			Key[][] table = this.frameData.isFront(this.playerNumber) ? FRONT_KEYS : BACK_KEYS;
+			Collections.addAll(this.skillKey, table[action.ordinal()]);
+		}
+	}
+
 	/**
 	 * Converts the action name to a command and creates a key corresponding to the command.
 	 *
@@ -58,135 +92,124 @@ public class CommandCenter {
 	 *            an action name
 	 */
 	private void actionToCommand(String str) {
+		createKeys(toCommand(str), this.frameData.isFront(this.playerNumber), this.skillKey);
+	}
+
+	/**
+	 * Converts the action name to a command.
+	 *
+	 * @param str
+	 *            an action name
+	 * @return the command name
+	 */
+	private static String toCommand(String str) {
 		switch (str) {
 		case "FORWARD_WALK":
-			createKeys("6");
-			break;
+			return "6";
 		case "DASH":
-			createKeys("6 5 6");
-			break;
+			return "6 5 6";
 		case "BACK_STEP":
-			createKeys("4 5 4");
-			break;
+			return "4 5 4";
 		case "CROUCH":
-			createKeys("2");
-			break;
+			return "2";
 		case "JUMP":
-			createKeys("8");
-			break;
+			return "8";
 		case "FOR_JUMP":
-			createKeys("9");
-			break;
+			return "9";
 		case "BACK_JUMP":
-			createKeys("7");
-			break;
+			return "7";
 		case "STAND_GUARD":
-			createKeys("4");
-			break;
+			return "4";
 		case "CROUCH_GUARD":
-			createKeys("1");
-			break;
+			return "1";
 		case "AIR_GUARD":
-			createKeys("7");
-			break;
+			return "7";
 		case "THROW_A":
-			createKeys("4 _ A");
-			break;
+			return "4 _ A";
 		case "THROW_B":
-			createKeys("4 _ B");
-			break;
+			return "4 _ B";
 		case "STAND_A":
-			createKeys("A");
-			break;
+			return "A";
 		case "STAND_B":
-			createKeys("B");
-			break;
+			return "B";
 		case "CROUCH_A":
-			createKeys("2 _ A");
-			break;
+			return "2 _ A";
 		case "CROUCH_B":
-			createKeys("2 _ B");
-			break;
+			return "2 _ B";
 		case "AIR_A":
-			createKeys("A");
-			break;
+			return "A";
 		case "AIR_B":
-			createKeys("B");
-			break;
+			return "B";
 		case "AIR_DA":
-			createKeys("2 _ A");
-			break;
+			return "2 _ A";
 		case "AIR_DB":
-			createKeys("2 _ B");
-			break;
+			return "2 _ B";
 		case "STAND_FA":
-			createKeys("6 _ A");
-			break;
+			return "6 _ A";
 		case "STAND_FB":
-			createKeys("6 _ B");
-			break;
+			return "6 _ B";
 		case "CROUCH_FA":
-			createKeys("3 _ A");
-			break;
+			return "3 _ A";
 		case "CROUCH_FB":
-			createKeys("3 _ B");
-			break;
+			return "3 _ B";
 		case "AIR_FA":
-			createKeys("9 _ A");
-			break;
+			return "9 _ A";
 		case "AIR_FB":
-			createKeys("9 _ B");
-			break;
+			return "9 _ B";
 		case "AIR_UA":
-			createKeys("8 _ A");
-			break;
+			return "8 _ A";
 		case "AIR_UB":
-			createKeys("8 _ B");
-			break;
+			return "8 _ B";
 		case "STAND_D_DF_FA":
-			createKeys("2 3 6 _ A");
-			break;
+			return "2 3 6 _ A";
 		case "STAND_D_DF_FB":
-			createKeys("2 3 6 _ B");
-			break;
+			return "2 3 6 _ B";
 		case "STAND_F_D_DFA":
-			createKeys("6 2 3 _ A");
-			break;
+			return "6 2 3 _ A";
 		case "STAND_F_D_DFB":
-			createKeys("6 2 3 _ B");
-			break;
+			return "6 2 3 _ B";
 		case "STAND_D_DB_BA":
-			createKeys("2 1 4 _ A");
-			break;
+			return "2 1 4 _ A";
 		case "STAND_D_DB_BB":
-			createKeys("2 1 4 _ B");
-			break;
+			return "2 1 4 _ B";
 		case "AIR_D_DF_FA":
-			createKeys("2 3 6 _ A");
-			break;
+			return "2 3 6 _ A";
 		case "AIR_D_DF_FB":
-			createKeys("2 3 6 _ B");
-			break;
+			return "2 3 6 _ B";
 		case "AIR_F_D_DFA":
-			createKeys("6 2 3 _ A");
-			break;
+			return "6 2 3 _ A";
 		case "AIR_F_D_DFB":
-			createKeys("6 2 3 _ B");
-			break;
+			return "6 2 3 _ B";
 		case "AIR_D_DB_BA":
-			createKeys("2 1 4 _ A");
-			break;
+			return "2 1 4 _ A";
 		case "AIR_D_DB_BB":
-			createKeys("2 1 4 _ B");
-			break;
+			return "2 1 4 _ B";
 		case "STAND_D_DF_FC":
-			createKeys("2 3 6 _ C");
-			break;
+			return "2 3 6 _ C";
 		default:
-			createKeys(str);
-			break;
+			return str;
 		}
+	}
+
+	/**
+	 * Creates the keys of every action, indexed by {@link Action#ordinal()}.
+	 *
+	 * @param front
+	 *            the character's facing direction. {@code true} if the
+	 *            character is facing right, {@code false} otherwise.
+	 * @return the keys of every action
+	 */
+	private static Key[][] createKeyTable(boolean front) {
+		Action[] actions = Action.values();
+		Key[][] table = new Key[actions.length][];
 
+		LinkedList<Key> keys = new LinkedList<Key>();
+		for (Action action : actions) {
+			keys.clear();
+			createKeys(toCommand(action.name()), front, keys);
+			table[action.ordinal()] = keys.toArray(new Key[keys.size()]);
+		}
+		return table;
 	}
 
 	/**
@@ -194,11 +217,16 @@ public class CommandCenter {
 	 *
 	 * @param str
 	 *            a command name
+	 * @param front
+	 *            the character's facing direction. {@code true} if the
+	 *            character is facing right, {@code false} otherwise.
+	 * @param skillKey
+	 *            the list to which the keys are added
 	 */
-	private void createKeys(String str) {
+	private static void createKeys(String str, boolean front, Deque<Key> skillKey) {
 		Key buf;
 		String[] commands = str.split(" ");
-		if (!this.frameData.isFront(playerNumber)){
+		if (!front){
 			commands = reverseKey(commands);
 		}
 
@@ -288,6 +316,31 @@ public class CommandCenter {
 		return new LinkedList<Key>(this.skillKey);
 	}
 
+	/**
+	 * Replaces the contents of the specified list with the keys waiting to be
+	 * executed.<br>
+	 * This is the allocation-free counterpart of {@link #getSkillKeys()}.
+	 *
+	 * @param keys
+	 *            the list to be filled with the keys waiting to be executed
+	 */
+	public void copySkillKeys(Deque<Key> keys) {
+		keys.clear();
+		keys.addAll(this.skillKey);
+	}
+
+	/**
+	 * Replaces the list of keys waiting to be executed with the specified
+	 * keys.
+	 *
+	 * @param keys
+	 *            the keys waiting to be executed
+	 */
+	public void setSkillKeys(Deque<Key> keys) {
+		this.skillKey.clear();
+		this.skillKey.addAll(keys);
+	}
+
 	/**
 	 * Deletes all the keys from the list of keys waiting to be executed.
 	 */
@@ -312,7 +365,7 @@ public class CommandCenter {
 	 *
 	 * @return an array that contains the command after processing
 	 */
-	private String[] reverseKey(String[] commands) {
+	private static String[] reverseKey(String[] commands) {
 		String[] buffer = new String[commands.length];
 		for (int i = 0; i < commands.length; i++) {
 			if (commands[i].equals("L") || commands[i].equals("4")) {
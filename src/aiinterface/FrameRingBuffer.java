@@ -0,0 +1,212 @@
+package aiinterface;
+
+import java.lang.invoke.VarHandle;
+
+import struct.FrameData;
+
+/**
+ * A fixed-capacity ring buffer of frame data passed from the game loop to an
+ * AI controller.<br>
+ * The buffer has a single producer, the thread of the game loop, and a single
+ * consumer, the thread of the AI. Every published frame has a sequence
+ * number, and the consumer reads the frames among the {@code delay} newest
+ * ones either in order with {@link #poll()}, or newest first with
+ * {@link #pollLatest()}, which skips the older frames it has not read, so
+ * neither side takes a lock or allocates.<br>
+ * The slots are written like a sequence lock: the producer marks a slot as
+ * being written before it replaces the frame, and the consumer retries if the
+ * mark of the slot changed while it read the frame. The capacity is at least
+ * twice the delay, so the producer only overwrites a slot the consumer is
+ * reading if the consumer is stalled for more than {@code delay} frames in
+ * the middle of a read.
+ */
+public class FrameRingBuffer {
+
+	/**
+	 * The sequence number of a slot which is being written.
+	 */
+	private static final long WRITING = -1;
+
+	/**
+	 * The frames of the slots.
+	 */
+	private final FrameData[] frames;
+
+	/**
+	 * The sequence numbers of the frames of the slots, or {@link #WRITING}.
+	 */
+	private final long[] sequences;
+
+	/**
+	 * The mask of a sequence number giving the index of its slot.
+	 */
+	private final int mask;
+
+	/**
+	 * The number of the newest frames the consumer can read.
+	 */
+	private final int delay;
+
+	/**
+	 * The sequence number of the next frame to be published.<br>
+	 * Written only by the producer.
+	 */
+	private volatile long head;
+
+	/**
+	 * The sequence number following the last frame read by the consumer.<br>
+	 * Used only by the consumer.
+	 */
+	private long cursor;
+
+	/**
+	 * The class constructor.
+	 *
+	 * @param delay
+	 *            the number of frames kept for the consumer: the consumer
+	 *            reads the frame published {@code delay - 1} frames before the
+	 *            newest one
+	 */
+	public FrameRingBuffer(int delay) {
+		int capacity = Integer.highestOneBit(Math.max(2, delay) * 4 - 1);
+		this.frames = new FrameData[capacity];
+		this.sequences = new long[capacity];
+		this.mask = capacity - 1;
+		this.delay = delay;
+		for (int i = 0; i < capacity; i++) {
+			this.sequences[i] = WRITING;
+		}
+	}
+
+	/**
+	 * Publishes a frame.<br>
+	 * Called only by the producer.
+	 *
+	 * @param frameData
+	 *            the frame data, which is not {@code null}. It is shared
+	 *            with the consumer and must not be changed afterwards.
+	 */
+	public void publish(FrameData frameData) {
+		long sequence = this.head;
+		int index = (int) sequence & this.mask;
+
+		this.sequences[index] = WRITING;
+		VarHandle.storeStoreFence();
+		this.frames[index] = frameData;
+		VarHandle.storeStoreFence();
+		this.sequences[index] = sequence;
+
+		// the volatile write publishes the slot to the consumer
+		this.head = sequence + 1;
+	}
+
+	/**
+	 * Reads the next frame for the consumer.<br>
+	 * It is the oldest frame which has not been read yet among the
+	 * {@code delay} newest frames. Called only by the consumer.
+	 *
+	 * @return the frame data, or {@code null} if every kept frame has already
+	 *         been read
+	 */
+	public FrameData poll() {
+		return poll(false);
+	}
+
+	/**
+	 * Reads the newest frame the consumer may read, which is the one
+	 * published {@code delay - 1} frames before the newest one, and skips the
+	 * older frames which have not been read.<br>
+	 * A consumer slower than the producer thus keeps reading frames which are
+	 * {@code delay - 1} frames old, instead of falling further behind. Called
+	 * only by the consumer.
+	 *
+	 * @return the frame data, or {@code null} if the frame has already been
+	 *         read or fewer than {@code delay} frames have been published
+	 */
+	public FrameData pollLatest() {
+		return poll(true);
+	}
+
+	/**
+	 * Reads a frame for the consumer.
+	 *
+	 * @param latest
+	 *            {@code true} to read only the newest frame the consumer may
+	 *            read, or {@code false} to read the oldest frame which has not
+	 *            been read among the {@code delay} newest frames
+	 * @return the frame data, or {@code null} if there is no frame to read
+	 */
+	private FrameData poll(boolean latest) {
+		while (true) {
+			long head = this.head;
+			long sequence = head - this.delay;
+			if (latest) {
+				if (sequence < this.cursor) {
+					return null;
+				}
+			} else {
+				sequence = Math.max(this.cursor, sequence);
+				if (sequence >= head) {
+					return null;
+				}
+			}
+
+			FrameData frameData = read(sequence);
+			if (frameData != null) {
+				this.cursor = sequence + 1;
+				return frameData;
+			}
+			// the slot was overwritten while it was read: read a newer frame
+		}
+	}
+
+	/**
+	 * Returns the newest frame without consuming it.<br>
+	 * Called only by the consumer.
+	 *
+	 * @return the newest frame data, or {@code null} if no frame has been
+	 *         published
+	 */
+	public FrameData peekLatest() {
+		while (true) {
+			long head = this.head;
+			if (head == 0) {
+				return null;
+			}
+
+			FrameData frameData = read(head - 1);
+			if (frameData != null) {
+				return frameData;
+			}
+		}
+	}
+
+	/**
+	 * Returns the sequence number of the next frame to be published, which is
+	 * the number of published frames.
+	 *
+	 * @return the sequence number of the next frame
+	 */
+	public long getSequence() {
+		return this.head;
+	}
+
+	/**
+	 * Reads the frame of a sequence number.
+	 *
+	 * @param sequence
+	 *            the sequence number
+	 * @return the frame data, or {@code null} if the slot was overwritten or
+	 *         was being written
+	 */
+	private FrameData read(long sequence) {
+		int index = (int) sequence & this.mask;
+		long before = this.sequences[index];
+		VarHandle.loadLoadFence();
+		FrameData frameData = this.frames[index];
+		VarHandle.loadLoadFence();
+		long after = this.sequences[index];
+		return before == sequence && after == sequence ? frameData : null;
+	}
+
+}
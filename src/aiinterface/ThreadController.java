@@ -1,5 +1,12 @@
 package aiinterface;
 
+import java.util.concurrent.Phaser;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.concurrent.locks.LockSupport;
+
 /**
  * Class that handles thread-related processes such as AI execution timing.
  */
@@ -11,41 +18,60 @@ public class ThreadController {
 	private static ThreadController threadController = new ThreadController();
 
 	/**
-     * Object managing the start timing of P1's AI processing.
+     * The number of frames signalled to P1's and P2's AI.<br>
+     * An AI which is still busy when a frame is signalled sees that the value
+     * changed when it is done, so it does not miss the frame.
      */
-	private Object AI1;
+	private AtomicLongArray frameSignals;
 
 	/**
-     * Object managing the start timing of P2's AI processing.
+     * The threads of P1's and P2's AI, which are unparked when a frame is
+     * signalled, or {@code null} if no AI waits.
      */
-	private Object AI2;
+	private AtomicReferenceArray<Thread> waiters;
 
 	/**
-     * Flag indicating whether P1's AI processing is complete.<br>
-     * Used only in Fastmode.
+     * The time the last frame was signalled, as given by {@link System#nanoTime()}.
      */
-	private boolean processedAI1;
+	private volatile long signalTime;
 
 	/**
-     * Flag indicating whether P2's AI processing is complete.<br>
+     * The barrier on which the game loop waits until every AI has finished
+     * processing the current frame.<br>
+     * One party is registered for each AI, and a phase advances when all of
+     * them have arrived. {@code null} while no AI is running.<br>
      * Used only in Fastmode.
      */
-	private boolean processedAI2;
+	private volatile Phaser endFrame;
+
+	/**
+     * The phase of {@link #endFrame} in which P1's and P2's AI last arrived,
+     * which prevents an AI late by more than one frame from arriving twice in
+     * the same phase.
+     */
+	private int[] arrivedPhases;
+
+	/**
+     * The number of frames waited for on {@link #endFrame}.
+     */
+	private long frameCount;
 
 	/**
-     * Synchronization object for starting each AI process simultaneously.
+     * The number of frames in which the AIs did not finish within the timeout.
      */
-	private Object endFrame;
+	private long timeoutCount;
 
 	/**
-     * Class constructor to initialize field variables.
+     * Class constructor to initialize field variables.<br>
+     * The game uses the sole instance returned by {@link #getInstance()}, and
+     * a match running concurrently with others creates its own instance.
      */
-	private ThreadController() {
-		this.AI1 = new Object();
-		this.AI2 = new Object();
-		this.endFrame = new Object();
+	public ThreadController() {
+		this.frameSignals = new AtomicLongArray(2);
+		this.waiters = new AtomicReferenceArray<Thread>(2);
+		this.arrivedPhases = new int[2];
 
-		resetProcessedFlag();
+		resetEndFrame(0);
 	}
 
 	/**
@@ -58,79 +84,178 @@ public class ThreadController {
 	}
 
 	/**
-     * Resume processing for each AI.
+     * Resume processing for each AI.<br>
+     * The frame is counted before the AIs are unparked, so an AI which is not
+     * waiting at that moment processes it as soon as it is done with the
+     * previous one. No lock is taken.
      */
 	public void resetAllAIsObj() {
-		synchronized (this.AI1) {
-			this.AI1.notifyAll();
-		}
-		synchronized (this.AI2) {
-			this.AI2.notifyAll();
+		this.signalTime = System.nanoTime();
+		for (int i = 0; i < 2; i++) {
+			this.frameSignals.incrementAndGet(i);
+			Thread waiter = this.waiters.get(i);
+			if (waiter != null) {
+				LockSupport.unpark(waiter);
+			}
 		}
 	}
 
 	/**
-     * Return the synchronization object for the specified character.
+     * Return the time the last frame was signalled to the AIs, from which
+     * the deadlines of the AIs are measured.
+     *
+     * @return The time given by {@link System#nanoTime()}
+     */
+	public long getSignalTime() {
+		return this.signalTime;
+	}
+
+	/**
+     * Register the thread of the specified character's AI, which is unparked
+     * when a frame is signalled.<br>
+     * The thread must be registered before it reads the frame signal it waits
+     * for to change.
      *
      * @param playerNumber
      *            The character's side flag: {@code true} if P1, {@code false} if P2.
+     * @param thread
+     *            The thread of the AI, or {@code null} to unregister it
+     */
+	public void setWaiter(boolean playerNumber, Thread thread) {
+		this.waiters.set(playerNumber ? 0 : 1, thread);
+	}
+
+	/**
+     * Return the number of frames signalled to the specified character's AI
+     * by {@link #resetAllAIsObj()}.<br>
+     * An AI parks until this value differs from the one of the frame it
+     * processed last.
      *
-     * @return The synchronization object for the specified character
+     * @param playerNumber
+     *            The character's side flag: {@code true} if P1, {@code false} if P2.
+     *
+     * @return The number of frames signalled to the AI
      */
-	public Object getAIsObject(boolean playerNumber) {
-		if (playerNumber)
-			return this.AI1;
-		else
-			return this.AI2;
+	public long getFrameSignal(boolean playerNumber) {
+		return this.frameSignals.get(playerNumber ? 0 : 1);
 	}
 
 	/**
-     * Get the object indicating the completion of one frame of game processing.
+     * Replace the barrier of the end of a frame with a new one for the
+     * specified number of AIs, and reset the timeout statistics.<br>
+     * Called when AIs are started or closed.
      *
-     * @return The object indicating the completion of one frame of game processing.
+     * @param parties
+     *            The number of running AIs
      */
-	public Object getEndFrame() {
-		return this.endFrame;
+	public synchronized void resetEndFrame(int parties) {
+		Phaser old = this.endFrame;
+		if (old != null) {
+			old.forceTermination();
+		}
+
+		this.endFrame = parties > 0 ? new Phaser(parties) : null;
+		this.arrivedPhases[0] = this.arrivedPhases[1] = -1;
+		this.frameCount = 0;
+		this.timeoutCount = 0;
 	}
 
 	/**
-     * Reset the flag indicating whether each AI's processing is complete to {@code false}.<br>
-     * Used only in Fastmode.
+     * Return the current phase of the barrier of the end of a frame.<br>
+     * The game loop reads it before resuming the AIs, and then passes it to
+     * {@link #awaitEndFrame(int, long)}.
+     *
+     * @return The current phase, or a negative value if no AI is running
      */
-	private void resetProcessedFlag() {
-		this.processedAI1 = false;
-		this.processedAI2 = false;
+	public int getEndFramePhase() {
+		Phaser barrier = this.endFrame;
+		return barrier != null ? barrier.getPhase() : -1;
 	}
 
 	/**
-     * Set the flag indicating the completion of one frame of processing for the specified character.<br>
-     * After setting, check whether both AIs have finished processing.<br>
-     * Used only in Fastmode.
+     * Wait until every AI has finished processing the frame of the specified
+     * phase, or until the timeout elapses.<br>
+     * It returns immediately if the AIs have already finished, so no
+     * notification can be missed. Used only in Fastmode.
      *
-     * @param playerNumber
-     *            The character's side flag: {@code true} if P1, {@code false} if P2.
+     * @param phase
+     *            The phase returned by {@link #getEndFramePhase()} before the
+     *            AIs were resumed
+     * @param timeout
+     *            The maximum time to wait in milliseconds. Zero or a negative
+     *            value means waiting without a limit.
+     *
+     * @return {@code true} if the AIs finished in time, {@code false} if the
+     *         wait timed out
      */
-	synchronized public void notifyEndProcess(boolean playerNumber) {
-		if (playerNumber) {
-			this.processedAI1 = true;
-		} else {
-			this.processedAI2 = true;
+	public boolean awaitEndFrame(int phase, long timeout) {
+		Phaser barrier = this.endFrame;
+		if (barrier == null || phase < 0) {
+			return true;
+		}
+
+		boolean finished = true;
+		try {
+			if (timeout > 0) {
+				barrier.awaitAdvanceInterruptibly(phase, timeout, TimeUnit.MILLISECONDS);
+			} else {
+				barrier.awaitAdvanceInterruptibly(phase);
+			}
+		} catch (TimeoutException e) {
+			finished = false;
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+			finished = false;
 		}
-		this.checkEndFrame();
+
+		synchronized (this) {
+			this.frameCount++;
+			if (!finished) {
+				this.timeoutCount++;
+			}
+		}
+		return finished;
 	}
 
 	/**
-     * Check whether both AIs have finished processing for the current frame.<br>
-     * If both have finished, start processing for the next frame.<br>
+     * Return the number of frames waited for since the AIs were started.
+     *
+     * @return The number of frames waited for
+     */
+	public synchronized long getFrameCount() {
+		return this.frameCount;
+	}
+
+	/**
+     * Return the number of frames in which the AIs did not finish processing
+     * within the timeout since they were started.
+     *
+     * @return The number of timed out frames
+     */
+	public synchronized long getTimeoutCount() {
+		return this.timeoutCount;
+	}
+
+	/**
+     * Notify that the specified character's AI has finished processing one
+     * frame, and advance the barrier of the end of a frame when every AI has
+     * finished.<br>
      * Used only in Fastmode.
+     *
+     * @param playerNumber
+     *            The character's side flag: {@code true} if P1, {@code false} if P2.
      */
-	private void checkEndFrame() {
-		if (this.processedAI1 && this.processedAI2) {
-			synchronized (this.endFrame) {
-				this.endFrame.notifyAll();
-			}
-			this.processedAI1 = false;
-			this.processedAI2 = false;
+	synchronized public void notifyEndProcess(boolean playerNumber) {
+		Phaser barrier = this.endFrame;
+		if (barrier == null) {
+			return;
+		}
+
+		int index = playerNumber ? 0 : 1;
+		int phase = barrier.getPhase();
+		if (phase >= 0 && this.arrivedPhases[index] != phase) {
+			this.arrivedPhases[index] = phase;
+			barrier.arrive();
 		}
 	}
 
@@ -39,19 +39,20 @@ public class CommandTable {
 		boolean pushA = false;
 		boolean pushB = false;
 		boolean pushC = false;
-		int charIndex = character.isPlayerNumber() ? 0 : 1;
+		boolean playerNumber = character.isPlayerNumber();
 
 		KeyData temp;
 
 		// get current key state
 		temp = input.removeLast();
-		nowKeyData = temp.getKeys()[charIndex];
+		nowKeyData = temp.getKey(playerNumber);
 
 		// Determine input only at the moment a button is pressed. Holding a button is treated as flicking.
 		if (!input.isEmpty()) {
-			pushA = nowKeyData.A && !input.getLast().getKeys()[charIndex].A;
-			pushB = nowKeyData.B && !input.getLast().getKeys()[charIndex].B;
-			pushC = nowKeyData.C && !input.getLast().getKeys()[charIndex].C;
+			Key lastKey = input.getLast().getKey(playerNumber);
+			pushA = nowKeyData.A && !lastKey.A;
+			pushB = nowKeyData.B && !lastKey.B;
+			pushC = nowKeyData.C && !lastKey.C;
 		} else {
 			pushA = nowKeyData.A;
 			pushB = nowKeyData.B;
@@ -65,7 +66,7 @@ public class CommandTable {
 		int commandLength = 0;
 		for (Iterator<KeyData> i = input.descendingIterator(); i.hasNext() && commandLength < 3;) {
 
-			lever = i.next().getKeys()[charIndex].getLever(character.isFront());
+			lever = i.next().getKey(playerNumber).getLever(character.isFront());
 
 			if (lever != commandList[commandLength]) {
 				if (commandList[commandLength] != 5)
@@ -97,7 +98,7 @@ public class CommandTable {
 		boolean pushC = false;
 
 		// get current key state
-		Key nowKey = new Key(input.removeLast());
+		Key nowKey = input.removeLast();
 
 		// The decision as input only at the moment you press the button. Press
 		// keeps flick.
@@ -3,10 +3,21 @@ package core;
 import java.awt.Font;
 import java.io.File;
 import java.io.IOException;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
 import java.util.logging.Level;
 import java.util.logging.Logger;
 
+import aiinterface.AIThreads;
+import enumerate.AIDeadlinePolicy;
 import enumerate.BackgroundType;
+import enumerate.FrameDeliveryPolicy;
+import enumerate.FramePacingPolicy;
 import enumerate.GameSceneName;
 import gamescene.Grpc;
 import gamescene.HomeMenu;
@@ -22,6 +33,7 @@ import manager.InputManager;
 import setting.FlagSetting;
 import setting.GameSetting;
 import setting.LaunchSetting;
+import setting.MatchSetting;
 import setting.ResourceSetting;
 import util.DeleteFiles;
 
@@ -107,6 +119,15 @@ public class Game extends GameManager {
                 //  FlagSetting.muteFlag = true;
                     FlagSetting.automationFlag = true;
                     break;
+                case "--headless":
+                    FlagSetting.headless = true;
+                    // set before any AWT class is loaded, which reads it only once
+                    System.setProperty("java.awt.headless", "true");
+                    FlagSetting.enableWindow = false;
+                    FlagSetting.fastModeFlag = true;
+                    FlagSetting.muteFlag = true;
+                    FlagSetting.automationFlag = true;
+                    break;
                 case "--fastmode":
                     FlagSetting.fastModeFlag = true;
                     FlagSetting.automationFlag = true;
@@ -114,6 +135,15 @@ public class Game extends GameManager {
                 case "--json":
                     FlagSetting.jsonFlag = true;
                     break;
+                case "--profile":
+                    FlagSetting.profileFlag = true;
+                    break;
+                case "--virtual-threads":
+                    FlagSetting.virtualThreadFlag = true;
+                    if (!AIThreads.isVirtualAvailable()) {
+                        Logger.getAnonymousLogger().log(Level.WARNING, "Virtual threads need Java 21 or later: AIs run on platform threads");
+                    }
+                    break;
                 case "--limithp":
                     // --limithp P1_HP P2_HP
                     FlagSetting.limitHpFlag = true;
@@ -159,6 +189,52 @@ public class Game extends GameManager {
                 	FlagSetting.grpc = true;
                 	FlagSetting.grpcAuto = true;
                 	break;
+                case "--rollout-cache":
+                    LaunchSetting.rolloutCacheSize = Integer.parseInt(options[++i]);
+                    break;
+                case "--frame-timeout":
+                    LaunchSetting.frameTimeout = Integer.parseInt(options[++i]);
+                    break;
+                case "--threads":
+                    LaunchSetting.tournamentThreads = Integer.parseInt(options[++i]);
+                    break;
+                case "--characters":
+                    String[] characters = options[++i].split(",");
+                    for (int j = 0; j < characters.length; j++) {
+                        characters[j] = getCharacterName(characters[j]);
+                    }
+                    LaunchSetting.tournamentCharacters = characters;
+                    break;
+                case "--resume":
+                    LaunchSetting.tournamentResultPath = options[++i];
+                    break;
+                case "--ai-deadline":
+                    LaunchSetting.aiDeadline = (int) (Double.parseDouble(options[++i]) * 1000);
+                    break;
+                case "--ai-deadline-policy":
+                    String deadlinePolicy = options[++i].toUpperCase(Locale.ENGLISH).replace('-', '_');
+                    try {
+                        LaunchSetting.aiDeadlinePolicy = AIDeadlinePolicy.valueOf(deadlinePolicy);
+                    } catch (IllegalArgumentException e) {
+                        Logger.getAnonymousLogger().log(Level.WARNING, "Arguments error: unknown AI deadline policy. -> " + options[i] + " ?");
+                    }
+                    break;
+                case "--frame-delivery":
+                    String delivery = options[++i].toUpperCase(Locale.ENGLISH).replace('-', '_');
+                    try {
+                        LaunchSetting.frameDeliveryPolicy = FrameDeliveryPolicy.valueOf(delivery);
+                    } catch (IllegalArgumentException e) {
+                        Logger.getAnonymousLogger().log(Level.WARNING, "Arguments error: unknown frame delivery policy. -> " + options[i] + " ?");
+                    }
+                    break;
+                case "--pacing":
+                    String pacing = options[++i].toUpperCase(Locale.ENGLISH).replace('-', '_');
+                    try {
+                        LaunchSetting.framePacingPolicy = FramePacingPolicy.valueOf(pacing);
+                    } catch (IllegalArgumentException e) {
+                        Logger.getAnonymousLogger().log(Level.WARNING, "Arguments error: unknown frame pacing policy. -> " + options[i] + " ?");
+                    }
+                    break;
                 default:
                     Logger.getAnonymousLogger().log(Level.WARNING, "Arguments error: unknown format is exist. -> " + options[i] + " ?");
             }
@@ -168,9 +244,11 @@ public class Game extends GameManager {
 
     @Override
     public void initialize() {
-        // Initialize the font to be used
-        Font awtFont = new Font("Times New Roman", Font.BOLD, 24);
-        GraphicManager.getInstance().setLetterFont(new LetterImage(awtFont, true));
+        // Initialize the font to be used, unless nothing is drawn
+        if (!FlagSetting.headless) {
+            Font awtFont = new Font("Times New Roman", Font.BOLD, 24);
+            GraphicManager.getInstance().setLetterFont(new LetterImage(awtFont, true));
+        }
 
         createLogDirectories();
 
@@ -192,6 +270,11 @@ public class Game extends GameManager {
                 if (AIContainer.allAINameList.size() < 2) {
                     Logger.getAnonymousLogger().log(Level.INFO, "Cannot launch FightingICE with Round-robin mode.");
                     this.isExitFlag = true;
+                } else if (FlagSetting.headless) {
+                    // Nothing is displayed, so play the matches concurrently instead of going through the scenes
+                    runTournament();
+                    this.isExitFlag = true;
+                    return;
                 }
             }
             if (!LaunchSetting.soundName.equals("Default")) {
@@ -232,6 +315,33 @@ public class Game extends GameManager {
         return "ZEN"; // Default character
     }
 
+    /**
+     * Plays a round-robin tournament between all AIs in "./data/ai" with a
+     * pool of concurrent matches, and writes the results of each match to the
+     * results file as soon as it is over.
+     *
+     * @see Tournament
+     */
+    private void runTournament() {
+        List<String> characters = LaunchSetting.tournamentCharacters != null
+                ? Arrays.asList(LaunchSetting.tournamentCharacters)
+                : new ArrayList<String>(new LinkedHashSet<String>(Arrays.asList(LaunchSetting.characterNames)));
+        String resultPath = LaunchSetting.tournamentResultPath;
+        if (resultPath == null) {
+            String timeInfo = LocalDateTime.now().format(DateTimeFormatter.ofPattern("yyyy.MM.dd-HH.mm.ss", Locale.ENGLISH));
+            resultPath = "./log/point/Tournament_" + timeInfo + ".csv";
+        }
+
+        Tournament tournament = new Tournament(MatchSetting.fromLaunchSetting(), AIContainer.allAINameList, characters,
+                LaunchSetting.repeatNumber, LaunchSetting.tournamentThreads, resultPath);
+        tournament.setReplayDirectory("./log/replay/");
+        try {
+            tournament.run();
+        } catch (IOException e) {
+            Logger.getAnonymousLogger().log(Level.SEVERE, "Fail to write the results of the tournament", e);
+        }
+    }
+
     /**
      * Creates log directories if they do not exist.
      */
@@ -0,0 +1,436 @@
+package core;
+
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.Callable;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+import aiinterface.AIController;
+import aiinterface.AIInterface;
+import aiinterface.AIThreads;
+import aiinterface.ThreadController;
+import fighting.Fighting;
+import informationcontainer.RoundResult;
+import input.KeyData;
+import loader.ResourceLoader;
+import setting.FlagSetting;
+import setting.GameSetting;
+import setting.MatchSetting;
+import struct.AudioData;
+import struct.FrameData;
+import struct.GameData;
+import struct.Key;
+import struct.ScreenData;
+import util.JfrEvents;
+import util.LogWriter;
+
+/**
+ * A match between two AIs played without the game scenes.<br>
+ * A match has its own settings, fight, AI controllers and thread controller
+ * instead of the ones of the process, so several matches can run concurrently
+ * in one process, for example by submitting them to an
+ * {@link java.util.concurrent.ExecutorService}. The game loop of a match
+ * follows {@link gamescene.Play} in fast mode: each frame is processed as soon
+ * as both AIs have processed the previous one, or the timeout of the settings
+ * has elapsed.<br>
+ * The display and the sound are shared by the process, so matches can only be
+ * played in headless mode.
+ *
+ * @see MatchSetting
+ * @see FlagSetting#headless
+ */
+public class Match implements Callable<List<RoundResult>> {
+
+	/**
+	 * The settings of the match.
+	 */
+	private final MatchSetting matchSetting;
+
+	/**
+	 * The AI controllers of P1 and P2. An element is {@code null} if the
+	 * player does not input any key.
+	 */
+	private final AIController[] ais;
+
+	/**
+	 * The thread controller synchronizing the game loop and the AIs of this
+	 * match.
+	 */
+	private final ThreadController threadController;
+
+	/**
+	 * The threads running the AI controllers of this match.
+	 */
+	private final AIThreads aiThreads;
+
+	/**
+	 * The results of the rounds played so far.
+	 */
+	private final ArrayList<RoundResult> roundResults;
+
+	/**
+	 * The number of frames of each round played so far, including the break
+	 * before it, in which the AIs did not finish processing within the
+	 * timeout.
+	 */
+	private final ArrayList<Long> roundTimeoutCounts;
+
+	/**
+	 * The directory the replay file is written to, or {@code null} if no
+	 * replay file is written.
+	 */
+	private String replayDirectory;
+
+	/**
+	 * The screen data given to the AIs, which is black in headless mode.
+	 */
+	private ScreenData screenData;
+
+	/**
+	 * The audio data given to the AIs, which is silent in headless mode.
+	 */
+	private AudioData audioData;
+
+	/**
+	 * The number of frames in which the AIs did not finish processing within
+	 * the timeout.
+	 */
+	private long timeoutCount;
+
+	/**
+	 * The class constructor that plays a match between the specified AIs.
+	 *
+	 * @param matchSetting
+	 *            the settings of the match, which are copied
+	 * @param p1
+	 *            the AI of P1, or {@code null} if P1 does not input any key
+	 * @param p2
+	 *            the AI of P2, or {@code null} if P2 does not input any key
+	 */
+	public Match(MatchSetting matchSetting, AIInterface p1, AIInterface p2) {
+		this(matchSetting, p1 != null ? new AIController(p1) : null, p2 != null ? new AIController(p2) : null);
+	}
+
+	/**
+	 * The class constructor that plays a match between the specified AI
+	 * controllers, which must not have been started.
+	 *
+	 * @param matchSetting
+	 *            the settings of the match, which are copied
+	 * @param p1
+	 *            the AI controller of P1, or {@code null}
+	 * @param p2
+	 *            the AI controller of P2, or {@code null}
+	 */
+	private Match(MatchSetting matchSetting, AIController p1, AIController p2) {
+		this.matchSetting = new MatchSetting(matchSetting);
+		this.ais = new AIController[] { p1, p2 };
+		this.threadController = new ThreadController();
+		this.aiThreads = new AIThreads("Match-AI");
+		this.roundResults = new ArrayList<RoundResult>();
+		this.roundTimeoutCounts = new ArrayList<Long>();
+		this.replayDirectory = null;
+	}
+
+	/**
+	 * Creates a match between the AIs whose names are given by the settings.
+	 * <br>
+	 * Each AI is loaded from its jar file in "./data/ai/" with a class loader
+	 * of its own, so the AIs of concurrent matches do not share static state.
+	 *
+	 * @param matchSetting
+	 *            the settings of the match, which are copied
+	 * @return the match
+	 * @throws IllegalArgumentException
+	 *             if an AI cannot be loaded
+	 */
+	public static Match load(MatchSetting matchSetting) {
+		AIController[] controllers = new AIController[2];
+		for (int i = 0; i < 2; i++) {
+			String aiName = matchSetting.getAiName(i == 0);
+			controllers[i] = ResourceLoader.getInstance().loadAI(aiName);
+			if (controllers[i] == null) {
+				throw new IllegalArgumentException("Cannot load AI: " + aiName);
+			}
+		}
+
+		return new Match(matchSetting, controllers[0], controllers[1]);
+	}
+
+	/**
+	 * Sets the directory the replay file of the match is written to.
+	 *
+	 * @param replayDirectory
+	 *            the path of the directory ending with a separator, or
+	 *            {@code null} if no replay file is written
+	 */
+	public void setReplayDirectory(String replayDirectory) {
+		this.replayDirectory = replayDirectory;
+	}
+
+	/**
+	 * Returns the settings of the match.
+	 *
+	 * @return the settings of the match
+	 */
+	public MatchSetting getMatchSetting() {
+		return this.matchSetting;
+	}
+
+	/**
+	 * Returns the number of frames in which the AIs did not finish processing
+	 * within the timeout, which is known when the match is over.
+	 *
+	 * @return the number of timed out frames
+	 */
+	public long getTimeoutCount() {
+		return this.timeoutCount;
+	}
+
+	/**
+	 * Returns the number of frames of a round, including the break before it,
+	 * in which the AIs did not finish processing within the timeout.
+	 *
+	 * @param round
+	 *            the round number, starting from 1
+	 * @return the number of timed out frames of the round
+	 * @throws IndexOutOfBoundsException
+	 *             if the round has not been played
+	 */
+	public long getRoundTimeoutCount(int round) {
+		return this.roundTimeoutCounts.get(round - 1);
+	}
+
+	/**
+	 * Plays all rounds of the match.<br>
+	 * A match can be played only once.
+	 *
+	 * @return the results of the rounds
+	 * @throws IllegalStateException
+	 *             if the process is not in headless mode
+	 */
+	@Override
+	public List<RoundResult> call() {
+		if (!FlagSetting.headless) {
+			throw new IllegalStateException("Matches can only be played in headless mode");
+		}
+
+		Fighting fighting = new Fighting(this.matchSetting);
+		fighting.initialize();
+		GameData gameData = new GameData(fighting.getCharacters(), this.matchSetting);
+		DataOutputStream dos = openReplayFile();
+
+		this.screenData = new ScreenData();
+		this.audioData = AudioData.getSilentInstance();
+		startAI(gameData);
+
+		try {
+			for (int round = 1; round <= this.matchSetting.getRoundMax(); round++) {
+				long timeoutCount = this.threadController.getTimeoutCount();
+				this.roundResults.add(playRound(fighting, round, dos));
+				this.roundTimeoutCounts.add(this.threadController.getTimeoutCount() - timeoutCount);
+			}
+		} finally {
+			for (AIController ai : this.ais) {
+				if (ai != null) {
+					ai.gameEnd();
+				}
+			}
+			this.aiThreads.close();
+			for (int i = 0; i < 2; i++) {
+				if (this.ais[i] != null) {
+					Logger.getAnonymousLogger().log(Level.INFO, String.format("Match %s vs %s: P%d %s",
+							this.matchSetting.getAiName(true), this.matchSetting.getAiName(false), i + 1,
+							this.ais[i].getDeadlineReport()));
+				}
+			}
+			this.timeoutCount = this.threadController.getTimeoutCount();
+			Logger.getAnonymousLogger().log(Level.INFO,
+					String.format("Match %s vs %s: %d of %d frames timed out", this.matchSetting.getAiName(true),
+							this.matchSetting.getAiName(false), this.timeoutCount,
+							this.threadController.getFrameCount()));
+			this.threadController.resetEndFrame(0);
+
+			fighting.close();
+			if (dos != null) {
+				try {
+					dos.close();
+				} catch (IOException e) {
+					e.printStackTrace();
+				}
+			}
+		}
+
+		return new ArrayList<RoundResult>(this.roundResults);
+	}
+
+	/**
+	 * Initializes the AI controllers and starts their threads.
+	 *
+	 * @param gameData
+	 *            the game data given to the AIs
+	 */
+	private void startAI(GameData gameData) {
+		int parties = 0;
+		for (AIController ai : this.ais) {
+			if (ai != null) {
+				parties++;
+			}
+		}
+		this.threadController.resetEndFrame(parties);
+
+		for (int i = 0; i < 2; i++) {
+			if (this.ais[i] != null) {
+				this.ais[i].initialize(this.threadController, gameData, i == 0);
+				this.aiThreads.start(this.ais[i], i == 0);
+			}
+		}
+	}
+
+	/**
+	 * Plays one round of the match, including the break before it.
+	 *
+	 * @param fighting
+	 *            the fight of the match
+	 * @param round
+	 *            the round number
+	 * @param dos
+	 *            the output stream of the replay file, or {@code null}
+	 * @return the result of the round
+	 */
+	private RoundResult playRound(Fighting fighting, int round, DataOutputStream dos) {
+		fighting.initRound();
+		for (AIController ai : this.ais) {
+			if (ai != null) {
+				ai.clear();
+			}
+		}
+
+		FrameData emptyFrame = new FrameData();
+		for (int i = 0; i < GameSetting.BREAKTIME_FRAME_NUMBER; i++) {
+			setFrameData(emptyFrame);
+			fighting.initRound();
+		}
+
+		FrameData frameData;
+		KeyData keyData = new KeyData();
+		for (int nowFrame = 0;; nowFrame++) {
+			keyData.set(true, getInput(this.ais[0]));
+			keyData.set(false, getInput(this.ais[1]));
+			JfrEvents.Fight event = new JfrEvents.Fight();
+			event.begin();
+			fighting.processingFight(nowFrame, keyData);
+			event.set(nowFrame, round, null);
+			event.commit();
+			frameData = fighting.createFrameData(nowFrame, round);
+
+			if (dos != null) {
+				LogWriter.getInstance().outputLog(dos, keyData, fighting.getCharacters());
+			}
+			setFrameData(frameData);
+
+			if (isBeaten(frameData) || isTimeOver(nowFrame)) {
+				break;
+			}
+		}
+
+		fighting.processingRoundEnd();
+		RoundResult roundResult = new RoundResult(frameData, this.matchSetting);
+		for (AIController ai : this.ais) {
+			if (ai != null) {
+				ai.informRoundResult(roundResult);
+			}
+		}
+
+		return roundResult;
+	}
+
+	/**
+	 * Gives the frame data to the AIs and waits until they have processed it.
+	 *
+	 * @param frameData
+	 *            the frame data
+	 */
+	private void setFrameData(FrameData frameData) {
+		for (AIController ai : this.ais) {
+			if (ai != null) {
+				// the frame data is a read-only snapshot, so both AIs share it without copying
+				ai.setFrameData(frameData);
+				ai.setScreenData(this.screenData);
+				ai.setAudioData(this.audioData);
+			}
+		}
+
+		int phase = this.threadController.getEndFramePhase();
+		this.threadController.resetAllAIsObj();
+		this.threadController.awaitEndFrame(phase, this.matchSetting.getFrameTimeout());
+	}
+
+	/**
+	 * Returns the key input of an AI.
+	 *
+	 * @param ai
+	 *            the AI controller, or {@code null}
+	 * @return the key input of the AI, or {@code null} if there is no AI
+	 */
+	private static Key getInput(AIController ai) {
+		return ai != null ? ai.getInput() : null;
+	}
+
+	/**
+	 * Returns whether a character has been beaten in HP mode.
+	 *
+	 * @param frameData
+	 *            the frame data of the current frame
+	 * @return {@code true} if P1 or P2 has been beaten, {@code false} otherwise
+	 */
+	private boolean isBeaten(FrameData frameData) {
+		return this.matchSetting.isLimitHp()
+				&& (frameData.getCharacter(true).getHp() <= 0 || frameData.getCharacter(false).getHp() <= 0);
+	}
+
+	/**
+	 * Returns whether the time limit of a round has elapsed.
+	 *
+	 * @param nowFrame
+	 *            the current frame
+	 * @return {@code true} if the time limit has elapsed, {@code false}
+	 *         otherwise
+	 */
+	private boolean isTimeOver(int nowFrame) {
+		if (this.matchSetting.isTrainingMode()) {
+			return nowFrame == Integer.MAX_VALUE;
+		} else {
+			return nowFrame >= GameSetting.ROUND_FRAME_NUMBER - 1;
+		}
+	}
+
+	/**
+	 * Opens the replay file of the match and writes its header.
+	 *
+	 * @return the output stream of the replay file, or {@code null} if no
+	 *         replay file is written
+	 */
+	private DataOutputStream openReplayFile() {
+		if (this.replayDirectory == null) {
+			return null;
+		}
+
+		String timeInfo = LocalDateTime.now()
+				.format(DateTimeFormatter.ofPattern("yyyy.MM.dd-HH.mm.ss.SSS", Locale.ENGLISH));
+		String fileName = LogWriter.getInstance().createOutputFileName(this.replayDirectory, timeInfo,
+				this.matchSetting);
+		DataOutputStream dos = ResourceLoader.getInstance().openDataOutputStream(fileName + ".dat");
+		if (dos != null) {
+			LogWriter.getInstance().writeHeader(dos, this.matchSetting);
+		}
+		return dos;
+	}
+
+}
@@ -0,0 +1,387 @@
+package core;
+
+import java.io.BufferedReader;
+import java.io.File;
+import java.io.FileReader;
+import java.io.IOException;
+import java.io.PrintWriter;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+import informationcontainer.RoundResult;
+import loader.ResourceLoader;
+import setting.MatchSetting;
+
+/**
+ * A round-robin tournament between AIs played by concurrent matches.<br>
+ * Every ordered pairing of two different AIs is played the specified number of
+ * times for every ordered pairing of the characters. Each of these matches is
+ * a job which is run by a {@link Match} on a pool of worker threads, and the
+ * results of a job are appended to the results file as soon as it finishes.
+ * <br>
+ * The results file has one line per round:
+ *
+ * <pre>
+ * p1Ai,p2Ai,p1Character,p2Character,repeat,round,p1Hp,p2Hp,elapsedFrame,timeouts
+ * </pre>
+ *
+ * The first five columns identify the job. The column "timeouts" is the
+ * number of frames of the round, including the break before it, in which the
+ * AIs did not finish processing within the timeout. It depends on the load of
+ * the host and the warm-up of the JIT, so it is not part of the key of a job,
+ * and a resumed tournament compares its results regardless of it.<br>
+ * When the tournament is resumed from an existing results file, the jobs whose
+ * rounds are all in the file are skipped, and the lines of the jobs which were
+ * interrupted are removed so that they are played again.
+ *
+ * @see Match
+ */
+public class Tournament {
+
+	/**
+	 * The header line of the results file.
+	 */
+	private static final String HEADER = "p1Ai,p2Ai,p1Character,p2Character,repeat,round,p1Hp,p2Hp,elapsedFrame,timeouts";
+
+	/**
+	 * The number of columns of a line of the results file.
+	 */
+	private static final int COLUMNS = 10;
+
+	/**
+	 * The number of columns identifying the job of a line of the results file.
+	 */
+	private static final int KEY_COLUMNS = 5;
+
+	/**
+	 * The settings shared by all matches, whose AI and character names are
+	 * replaced for each job.
+	 */
+	private final MatchSetting baseSetting;
+
+	/**
+	 * The names of the AIs taking part in the tournament.
+	 */
+	private final List<String> aiNames;
+
+	/**
+	 * The names of the characters the AIs play with.
+	 */
+	private final List<String> characterNames;
+
+	/**
+	 * The number of times each pairing is played.
+	 */
+	private final int repeatNumber;
+
+	/**
+	 * The number of worker threads.
+	 */
+	private final int threads;
+
+	/**
+	 * The path of the results file.
+	 */
+	private final String resultPath;
+
+	/**
+	 * The directory the replay files are written to, or {@code null} if no
+	 * replay file is written.
+	 */
+	private String replayDirectory;
+
+	/**
+	 * The writer appending to the results file, which is guarded by the
+	 * instance.
+	 */
+	private PrintWriter writer;
+
+	/**
+	 * The class constructor.
+	 *
+	 * @param baseSetting
+	 *            the settings of the matches, which are copied
+	 * @param aiNames
+	 *            the names of the AIs taking part in the tournament
+	 * @param characterNames
+	 *            the names of the characters the AIs play with
+	 * @param repeatNumber
+	 *            the number of times each pairing is played
+	 * @param threads
+	 *            the number of matches played at the same time, or zero or a
+	 *            negative value to use the number of available processors
+	 * @param resultPath
+	 *            the path of the results file, which is resumed if it exists
+	 */
+	public Tournament(MatchSetting baseSetting, List<String> aiNames, List<String> characterNames, int repeatNumber,
+			int threads, String resultPath) {
+		this.baseSetting = new MatchSetting(baseSetting);
+		this.aiNames = new ArrayList<String>(aiNames);
+		this.characterNames = new ArrayList<String>(characterNames);
+		this.repeatNumber = Math.max(1, repeatNumber);
+		this.threads = threads > 0 ? threads : Runtime.getRuntime().availableProcessors();
+		this.resultPath = resultPath;
+		this.replayDirectory = null;
+	}
+
+	/**
+	 * Sets the directory the replay files of the matches are written to.
+	 *
+	 * @param replayDirectory
+	 *            the path of the directory ending with a separator, or
+	 *            {@code null} if no replay file is written
+	 */
+	public void setReplayDirectory(String replayDirectory) {
+		this.replayDirectory = replayDirectory;
+	}
+
+	/**
+	 * Returns every match of the tournament in the order they are played.
+	 *
+	 * @return the jobs of the matches
+	 */
+	public List<Job> createJobs() {
+		ArrayList<Job> jobs = new ArrayList<Job>();
+		for (int repeat = 0; repeat < this.repeatNumber; repeat++) {
+			for (String p1Character : this.characterNames) {
+				for (String p2Character : this.characterNames) {
+					for (String p1Ai : this.aiNames) {
+						for (String p2Ai : this.aiNames) {
+							if (!p1Ai.equals(p2Ai)) {
+								MatchSetting setting = new MatchSetting(this.baseSetting);
+								setting.setAiName(true, p1Ai);
+								setting.setAiName(false, p2Ai);
+								setting.setCharacterName(true, p1Character);
+								setting.setCharacterName(false, p2Character);
+								jobs.add(new Job(setting, repeat));
+							}
+						}
+					}
+				}
+			}
+		}
+		return jobs;
+	}
+
+	/**
+	 * Plays the matches of the tournament which are not in the results file
+	 * yet, and waits until all of them are over.<br>
+	 * A match whose AI cannot be loaded or which fails is logged and left out
+	 * of the results file, so it is played again when the tournament is
+	 * resumed.
+	 *
+	 * @return the number of matches which failed
+	 * @throws IOException
+	 *             if the results file cannot be read or written
+	 */
+	public int run() throws IOException {
+		List<Job> jobs = createJobs();
+		Map<String, List<String>> completed = loadResults();
+		openResultFile(completed);
+
+		ArrayList<Job> pending = new ArrayList<Job>();
+		for (Job job : jobs) {
+			if (!completed.containsKey(job.getKey())) {
+				pending.add(job);
+			}
+		}
+		Logger.getAnonymousLogger().log(Level.INFO,
+				String.format("Tournament: %d matches, %d already played, %d threads", jobs.size(),
+						jobs.size() - pending.size(), this.threads));
+
+		ExecutorService executor = Executors.newFixedThreadPool(this.threads);
+		int failures = 0;
+		try {
+			ArrayList<Future<?>> futures = new ArrayList<Future<?>>();
+			for (Job job : pending) {
+				futures.add(executor.submit(() -> play(job)));
+			}
+
+			for (int i = 0; i < futures.size(); i++) {
+				try {
+					futures.get(i).get();
+				} catch (ExecutionException e) {
+					failures++;
+					Logger.getAnonymousLogger().log(Level.WARNING,
+							"Tournament: match " + pending.get(i).getKey() + " failed", e.getCause());
+				} catch (InterruptedException e) {
+					Thread.currentThread().interrupt();
+					failures += futures.size() - i;
+					break;
+				}
+			}
+		} finally {
+			executor.shutdownNow();
+			synchronized (this) {
+				this.writer.close();
+			}
+		}
+
+		Logger.getAnonymousLogger().log(Level.INFO,
+				String.format("Tournament: %d matches played, %d failed, results in %s", pending.size() - failures,
+						failures, this.resultPath));
+		return failures;
+	}
+
+	/**
+	 * Plays the match of a job and appends its results to the results file.
+	 *
+	 * @param job
+	 *            the job
+	 */
+	private void play(Job job) {
+		Match match = Match.load(job.getSetting());
+		match.setReplayDirectory(this.replayDirectory);
+		List<RoundResult> roundResults = match.call();
+
+		StringBuilder lines = new StringBuilder();
+		for (RoundResult roundResult : roundResults) {
+			int[] score = roundResult.getRemainingHPs();
+			lines.append(job.getKey()).append(',').append(roundResult.getRound()).append(',').append(score[0])
+					.append(',').append(score[1]).append(',').append(roundResult.getElapsedFrame()).append(',')
+					.append(match.getRoundTimeoutCount(roundResult.getRound())).append(System.lineSeparator());
+		}
+
+		synchronized (this) {
+			this.writer.print(lines);
+			this.writer.flush();
+		}
+	}
+
+	/**
+	 * Reads the lines of the completed jobs from the results file.<br>
+	 * A job is completed if the file has a line for each of its rounds.
+	 *
+	 * @return the lines of the completed jobs mapped by the keys of the jobs,
+	 *         which is empty if the file does not exist
+	 * @throws IOException
+	 *             if the results file cannot be read
+	 */
+	private Map<String, List<String>> loadResults() throws IOException {
+		LinkedHashMap<String, List<String>> lines = new LinkedHashMap<String, List<String>>();
+		File file = new File(this.resultPath);
+		if (!file.exists()) {
+			return lines;
+		}
+
+		try (BufferedReader br = new BufferedReader(new FileReader(file))) {
+			String line;
+			while ((line = br.readLine()) != null) {
+				String[] columns = line.split(",");
+				if (line.equals(HEADER) || columns.length != COLUMNS) {
+					continue;
+				}
+
+				String key = String.join(",", Arrays.copyOf(columns, KEY_COLUMNS));
+				lines.computeIfAbsent(key, k -> new ArrayList<String>()).add(line);
+			}
+		}
+
+		lines.values().removeIf(jobLines -> jobLines.size() != this.baseSetting.getRoundMax());
+		return lines;
+	}
+
+	/**
+	 * Opens the writer of the results file.<br>
+	 * The file is rewritten with the lines of the completed jobs, so the lines
+	 * of the interrupted jobs are removed before they are played again.
+	 *
+	 * @param completed
+	 *            the lines of the completed jobs
+	 * @throws IOException
+	 *             if the results file cannot be written
+	 */
+	private void openResultFile(Map<String, List<String>> completed) throws IOException {
+		File file = new File(this.resultPath);
+		File temp = new File(this.resultPath + ".tmp");
+		PrintWriter pw = ResourceLoader.getInstance().openWriteFile(temp.getPath(), false);
+		if (pw == null) {
+			throw new IOException("Cannot write " + temp.getPath());
+		}
+		pw.println(HEADER);
+		for (List<String> jobLines : completed.values()) {
+			for (String line : jobLines) {
+				pw.println(line);
+			}
+		}
+		pw.close();
+		Files.move(temp.toPath(), file.toPath(), StandardCopyOption.REPLACE_EXISTING);
+
+		this.writer = ResourceLoader.getInstance().openWriteFile(this.resultPath, true);
+		if (this.writer == null) {
+			throw new IOException("Cannot write " + this.resultPath);
+		}
+	}
+
+	/**
+	 * A match of the tournament.
+	 */
+	public static class Job {
+
+		/**
+		 * The settings of the match.
+		 */
+		private final MatchSetting setting;
+
+		/**
+		 * The index of the repetition of the pairing, starting from zero.
+		 */
+		private final int repeat;
+
+		/**
+		 * The class constructor.
+		 *
+		 * @param setting
+		 *            the settings of the match
+		 * @param repeat
+		 *            the index of the repetition of the pairing
+		 */
+		public Job(MatchSetting setting, int repeat) {
+			this.setting = setting;
+			this.repeat = repeat;
+		}
+
+		/**
+		 * Returns the settings of the match.
+		 *
+		 * @return the settings of the match
+		 */
+		public MatchSetting getSetting() {
+			return this.setting;
+		}
+
+		/**
+		 * Returns the index of the repetition of the pairing.
+		 *
+		 * @return the index of the repetition, starting from zero
+		 */
+		public int getRepeat() {
+			return this.repeat;
+		}
+
+		/**
+		 * Returns the key identifying the match in the results file, which is
+		 * made of the names of the AIs and the characters and the index of the
+		 * repetition.
+		 *
+		 * @return the key of the match
+		 */
+		public String getKey() {
+			return this.setting.getAiName(true) + "," + this.setting.getAiName(false) + ","
+					+ this.setting.getCharacterName(true) + "," + this.setting.getCharacterName(false) + ","
+					+ this.repeat;
+		}
+	}
+
+}
@@ -0,0 +1,24 @@
+package enumerate;
+
+/**
+ * Class that defines which key the game uses for an AI which did not give a
+ * key for the current frame within its deadline.
+ *
+ * @see aiinterface.AIController
+ */
+public enum AIDeadlinePolicy {
+	/**
+	 * The last key the AI gave is used again, as if the AI held it.
+	 */
+	HOLD_LAST_KEY,
+	/**
+	 * A neutral key, with no button pressed, is used until the AI gives a key
+	 * for the current frame.
+	 */
+	NEUTRAL_KEY,
+	/**
+	 * A key the AI gives after its deadline is discarded, so the last key
+	 * given in time is held until the AI meets its deadline again.
+	 */
+	SKIP,
+}
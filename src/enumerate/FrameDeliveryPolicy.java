@@ -0,0 +1,23 @@
+package enumerate;
+
+/**
+ * Class that defines which of the delayed frames an AI is given when it
+ * processes a frame.
+ *
+ * @see aiinterface.AIController
+ */
+public enum FrameDeliveryPolicy {
+	/**
+	 * The frames are given in order, starting with the oldest one which has
+	 * not been given among the frames kept for the delay, so an AI slower
+	 * than the game falls behind until the frames it did not process fall out
+	 * of the delay.
+	 */
+	IN_ORDER,
+	/**
+	 * The newest frame which is old enough for the delay is given, and the
+	 * older frames which have not been given are skipped, so an AI slower
+	 * than the game keeps a bounded reaction latency.
+	 */
+	LATEST,
+}
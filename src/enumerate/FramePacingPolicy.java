@@ -0,0 +1,22 @@
+package enumerate;
+
+/**
+ * Class that defines what the frame pacer does when the game falls behind its
+ * frame schedule.
+ *
+ * @see util.FramePacer
+ */
+public enum FramePacingPolicy {
+	/**
+	 * The late frames are run without waiting until the game is back on
+	 * schedule, so the number of frames per second is kept.<br>
+	 * If the game is too far behind, the schedule is restarted instead.
+	 */
+	CATCH_UP,
+	/**
+	 * The frame slots which have passed are dropped, and the next frame waits
+	 * for the next slot of the schedule, so a late frame does not shorten the
+	 * following ones.
+	 */
+	DROP,
+}
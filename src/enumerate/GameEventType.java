@@ -0,0 +1,81 @@
+package enumerate;
+
+/**
+ * The types of the events of a fight published by {@link fighting.Fighting}.
+ *
+ * @see fighting.GameEventBus
+ */
+public enum GameEventType {
+	/**
+	 * An attack hit the opponent, who did not guard it.<br>
+	 * The player is the attacker, the action is the attacker's action or
+	 * {@code null} for a projectile, and the value is the damage to the
+	 * opponent.
+	 */
+	HIT,
+	/**
+	 * The opponent guarded an attack.<br>
+	 * The player is the attacker, the action is the attacker's action or
+	 * {@code null} for a projectile, and the value is the damage to the
+	 * opponent.
+	 */
+	GUARD,
+	/**
+	 * A character's HP dropped to zero or below in a match with limited HP.
+	 * <br>
+	 * The player is the knocked out character, and the value is its HP.
+	 */
+	KO,
+	/**
+	 * A character fired a projectile.<br>
+	 * The player is the owner, the action is the action which fired it, and
+	 * the value is the number of projectiles on the stage.
+	 */
+	PROJECTILE_SPAWN,
+	/**
+	 * A character's action at the end of a frame differs from its action at
+	 * the end of the previous frame.<br>
+	 * The action is the new action, and the value is the ordinal of the
+	 * previous action.
+	 */
+	ACTION_CHANGE,
+	/**
+	 * A character started an action, which may be the action it was already
+	 * performing, such as a walk which is continued.<br>
+	 * The action is the started action, the value is 1 if the action
+	 * interrupted another action and destroyed its attack or 0 otherwise, and
+	 * the position is the character's position.
+	 */
+	ACTION_START,
+	/**
+	 * A character's attack reached its first active frame.<br>
+	 * The action is the character's action, and the position is the center of
+	 * the attack's hit area.
+	 */
+	ATTACK_ACTIVE,
+	/**
+	 * A character went beyond an edge of the stage and was moved back onto the
+	 * stage.<br>
+	 * The action is the character's action, and the position is the edge: the
+	 * horizontal position is 0 for the left edge or the stage width for the
+	 * right edge.
+	 */
+	STAGE_EDGE,
+	/**
+	 * The processing of a frame ended. The event is published once per frame,
+	 * after the other events of the frame.<br>
+	 * The player is P1, the action is {@code null}, and the value and the
+	 * position are 0. Consumers use it to update what lasts over frames, such
+	 * as looping sounds and effects.
+	 */
+	FRAME_END;
+
+	/**
+	 * Returns the bit of the type in a mask of event types.
+	 *
+	 * @return the bit of the type
+	 */
+	public int mask() {
+		return 1 << ordinal();
+	}
+}
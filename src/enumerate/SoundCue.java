@@ -0,0 +1,140 @@
+package enumerate;
+
+/**
+ * The class that defines how the sound effect of an action is played when a
+ * character starts it.<br>
+ * The sound effect of an action is the file named after the action, such as
+ * "STAND_A.wav", except for the reactions to a hit, whose cues name the file.
+ */
+public enum SoundCue {
+	/**
+	 * No sound effect is played.
+	 */
+	NONE,
+	/**
+	 * The sound effect is played once every time the action is executed.
+	 */
+	ONCE,
+	/**
+	 * The sound effect is played once until the character stops crouching.
+	 */
+	CROUCH,
+	/**
+	 * The sound effect is looped by the walking source until the character
+	 * stops moving or starts another moving action.
+	 */
+	MOVE,
+	/**
+	 * The sound effect is looped by the source of a free projectile until the
+	 * projectile disappears.
+	 */
+	PROJECTILE,
+	/**
+	 * The sound effect of landing is played by the landing source.
+	 */
+	LANDING,
+	/**
+	 * The action is the recovery from a guarded attack, and the sound effect
+	 * of the guard is played by the landing source.
+	 */
+	GUARD("WeakGuard.wav"),
+	/**
+	 * The action is the recovery from an attack which hit the character, and
+	 * the sound effect of the hit is played by the landing source unless the
+	 * sound is muted.
+	 */
+	HIT("HitA.wav"),
+	/**
+	 * The action is the fall after an attack which knocked the character down,
+	 * and the sound effect of the hit is played by the landing source unless
+	 * the sound is muted.
+	 */
+	DOWN("HitB.wav");
+
+	/**
+	 * The name of the sound effect file of the cue, or {@code null} if the
+	 * file is named after the action.
+	 */
+	private final String fileName;
+
+	/**
+	 * The constructor of a cue whose sound effect file is named after the
+	 * action.
+	 */
+	private SoundCue() {
+		this(null);
+	}
+
+	/**
+	 * The constructor of a cue with its own sound effect file.
+	 *
+	 * @param fileName
+	 *            the name of the sound effect file, or {@code null} if the
+	 *            file is named after the action
+	 */
+	private SoundCue(String fileName) {
+		this.fileName = fileName;
+	}
+
+	/**
+	 * The sound cues of the actions, indexed by the ordinal of the action.
+	 */
+	private static final SoundCue[] CUES = new SoundCue[Action.values().length];
+
+	static {
+		for (Action action : Action.values()) {
+			CUES[action.ordinal()] = NONE;
+		}
+		set(ONCE, Action.JUMP, Action.FOR_JUMP, Action.BACK_JUMP, Action.THROW_A, Action.THROW_B, Action.THROW_HIT,
+				Action.THROW_SUFFER, Action.STAND_A, Action.STAND_B, Action.CROUCH_A, Action.CROUCH_B, Action.AIR_A,
+				Action.AIR_B, Action.AIR_DA, Action.AIR_DB, Action.STAND_FA, Action.STAND_FB, Action.CROUCH_FA,
+				Action.CROUCH_FB, Action.AIR_FA, Action.AIR_FB, Action.AIR_UA, Action.AIR_UB, Action.STAND_F_D_DFA,
+				Action.STAND_F_D_DFB, Action.STAND_D_DB_BA, Action.STAND_D_DB_BB, Action.AIR_F_D_DFA,
+				Action.AIR_F_D_DFB, Action.AIR_D_DB_BA, Action.AIR_D_DB_BB);
+		set(CROUCH, Action.CROUCH);
+		set(MOVE, Action.FORWARD_WALK, Action.DASH, Action.BACK_STEP);
+		set(PROJECTILE, Action.STAND_D_DF_FA, Action.STAND_D_DF_FB, Action.AIR_D_DF_FA, Action.AIR_D_DF_FB,
+				Action.STAND_D_DF_FC);
+		set(LANDING, Action.LANDING);
+		set(GUARD, Action.STAND_GUARD_RECOV, Action.CROUCH_GUARD_RECOV, Action.AIR_GUARD_RECOV);
+		set(HIT, Action.STAND_RECOV, Action.CROUCH_RECOV, Action.AIR_RECOV);
+		set(DOWN, Action.CHANGE_DOWN);
+	}
+
+	/**
+	 * Sets the sound cue of the specified actions.
+	 *
+	 * @param cue
+	 *            the sound cue
+	 * @param actions
+	 *            the actions
+	 */
+	private static void set(SoundCue cue, Action... actions) {
+		for (Action action : actions) {
+			CUES[action.ordinal()] = cue;
+		}
+	}
+
+	/**
+	 * Returns how the sound effect of the specified action is played.
+	 *
+	 * @param action
+	 *            the action
+	 * @return the sound cue of the action
+	 */
+	public static SoundCue of(Action action) {
+		return CUES[action.ordinal()];
+	}
+
+	/**
+	 * Returns the name of the sound effect file of the specified action.
+	 *
+	 * @param action
+	 *            the action
+	 * @return the file name
+	 */
+	public static String getFileName(Action action) {
+		String fileName = of(action).fileName;
+		return fileName != null ? fileName : action.name() + ".wav";
+	}
+}
@@ -3,12 +3,19 @@ package fighting;
 import struct.AttackData;
 import struct.HitArea;
 import struct.MotionData;
+import struct.StateHash;
 
 /**
  * Class that performs attack detection based on attack data.
  */
 public class Attack {
 
+	/**
+	 * The read-only hit area of an empty attack, shared by the instances reset
+	 * by {@link #set(AttackData)}.
+	 */
+	private static final HitArea EMPTY_HIT_AREA = HitArea.readOnly(new HitArea());
+
 	/**
 	 * HitArea's information of this attack hit box set in Motion.csv.
 	 *
@@ -313,6 +320,158 @@ public class Attack {
 		this.downProp = downProp;
 	}
 
+	/**
+	 * Overwrites this instance with the values of the specified Attack
+	 * instance.<br>
+	 * Unlike the copy constructor, the current hit box is updated in place so
+	 * that pooled instances can be reused without allocating.
+	 *
+	 * @param attack
+	 *            Instance of Attack class
+	 */
+	public void set(Attack attack) {
+		this.settingHitArea = attack.settingHitArea;
+		this.settingSpeedX = attack.settingSpeedX;
+		this.settingSpeedY = attack.settingSpeedY;
+
+		if (this.currentHitArea == null) {
+			this.currentHitArea = new HitArea();
+		}
+		this.currentHitArea.set(attack.currentHitArea.getLeft(), attack.currentHitArea.getRight(),
+				attack.currentHitArea.getTop(), attack.currentHitArea.getBottom());
+		this.currentFrame = attack.currentFrame;
+		this.playerNumber = attack.playerNumber;
+		this.speedX = attack.speedX;
+		this.speedY = attack.speedY;
+
+		this.startUp = attack.startUp;
+		this.active = attack.active;
+
+		this.hitDamage = attack.hitDamage;
+		this.guardDamage = attack.guardDamage;
+		this.startAddEnergy = attack.startAddEnergy;
+		this.hitAddEnergy = attack.hitAddEnergy;
+		this.guardAddEnergy = attack.guardAddEnergy;
+		this.giveEnergy = attack.giveEnergy;
+
+		this.impactX = attack.impactX;
+		this.impactY = attack.impactY;
+		this.giveGuardRecov = attack.giveGuardRecov;
+		this.attackType = attack.attackType;
+		this.downProp = attack.downProp;
+	}
+
+	/**
+	 * Overwrites this instance with the values of the specified AttackData
+	 * instance.<br>
+	 * If the argument is {@code null}, this instance is reset to an empty
+	 * attack, as created by {@link #Attack()}.
+	 *
+	 * @param attackData
+	 *            Instance of AttackData, or {@code null}
+	 *
+	 * @see #Attack(AttackData)
+	 */
+	public void set(AttackData attackData) {
+		if (attackData == null) {
+			this.settingHitArea = EMPTY_HIT_AREA;
+			this.settingSpeedX = 0;
+			this.settingSpeedY = 0;
+
+			if (this.currentHitArea == null) {
+				this.currentHitArea = new HitArea();
+			} else {
+				this.currentHitArea.set(0, 0, 0, 0);
+			}
+			this.currentFrame = -1;
+			this.playerNumber = true;
+			this.speedX = 0;
+			this.speedY = 0;
+			this.startUp = 0;
+			this.active = 0;
+
+			this.hitDamage = 0;
+			this.guardDamage = 0;
+			this.startAddEnergy = 0;
+			this.hitAddEnergy = 0;
+			this.guardAddEnergy = 0;
+			this.giveEnergy = 0;
+
+			this.impactX = 0;
+			this.impactY = 0;
+			this.giveGuardRecov = 0;
+			this.attackType = 0;
+			this.downProp = false;
+		} else {
+			this.settingHitArea = attackData.getSettingHitArea();
+			this.settingSpeedX = attackData.getSettingSpeedX();
+			this.settingSpeedY = attackData.getSettingSpeedY();
+
+			this.currentHitArea = attackData.getCurrentHitArea();
+			this.currentFrame = attackData.getCurrentFrame();
+			this.playerNumber = attackData.isPlayerNumber();
+			this.speedX = attackData.getSpeedX();
+			this.speedY = attackData.getSpeedY();
+
+			this.startUp = attackData.getStartUp();
+			this.active = attackData.getActive();
+
+			this.hitDamage = attackData.getHitDamage();
+			this.guardDamage = attackData.getGuardDamage();
+			this.startAddEnergy = attackData.getStartAddEnergy();
+			this.hitAddEnergy = attackData.getHitAddEnergy();
+			this.guardAddEnergy = attackData.getGuardAddEnergy();
+			this.giveEnergy = attackData.getGiveEnergy();
+
+			this.impactX = attackData.getImpactX();
+			this.impactY = attackData.getImpactY();
+			this.giveGuardRecov = attackData.getGiveGuardRecov();
+			this.attackType = attackData.getAttackType();
+			this.downProp = attackData.isDownProp();
+		}
+	}
+
+	/**
+	 * Overwrites this instance with the attack values of the specified motion,
+	 * leaving it in the same state as a newly created instance.
+	 *
+	 * @param motion
+	 *            the motion whose attack values are used
+	 *
+	 * @see Motion
+	 */
+	public void set(Motion motion) {
+		this.settingHitArea = motion.getAttackHitArea();
+		this.settingSpeedX = motion.getAttackSpeedX();
+		this.settingSpeedY = motion.getAttackSpeedY();
+
+		if (this.currentHitArea == null) {
+			this.currentHitArea = new HitArea();
+		} else {
+			this.currentHitArea.set(0, 0, 0, 0);
+		}
+		this.currentFrame = 0;
+		this.playerNumber = false;
+		this.speedX = 0;
+		this.speedY = 0;
+
+		this.startUp = motion.getAttackStartUp();
+		this.active = motion.getAttackActive();
+
+		this.hitDamage = motion.getAttackHitDamage();
+		this.guardDamage = motion.getAttackGuardDamage();
+		this.startAddEnergy = motion.getAttackStartAddEnergy();
+		this.hitAddEnergy = motion.getAttackHitAddEnergy();
+		this.guardAddEnergy = motion.getAttackGuardAddEnergy();
+		this.giveEnergy = motion.getAttackGiveEnergy();
+
+		this.impactX = motion.getAttackImpactX();
+		this.impactY = motion.getAttackImpactY();
+		this.giveGuardRecov = motion.getAttackGiveGuardRecov();
+		this.attackType = motion.getAttackType();
+		this.downProp = motion.isAttackDownProp();
+	}
+
 	/**
  	 * Initialize the instance variables using the provided values.
  	 *
@@ -398,7 +557,27 @@ public class Attack {
 		top = y + this.settingHitArea.getTop();
 		bottom = y + this.settingHitArea.getBottom();
 
-		this.currentHitArea = new HitArea(left, right, top, bottom);
+		if (this.currentHitArea == null) {
+			this.currentHitArea = new HitArea(left, right, top, bottom);
+		} else {
+			this.currentHitArea.set(left, right, top, bottom);
+		}
+	}
+
+	/**
+	 * Returns the hash of this attack's gameplay-relevant fields.
+	 *
+	 * @param slot
+	 *            the slot of the attack: {@link StateHash#SLOT_ATTACK_P1},
+	 *            {@link StateHash#SLOT_ATTACK_P2} or
+	 *            {@link StateHash#SLOT_PROJECTILE}
+	 * @return the hash of this attack
+	 *
+	 * @see StateHash#attack(int, HitArea, int, int, int, int, int, int, boolean)
+	 */
+	public long getStateHash(int slot) {
+		return StateHash.attack(slot, this.currentHitArea, this.speedX, this.speedY, this.currentFrame, this.active,
+				this.hitDamage, this.guardDamage, this.playerNumber);
 	}
 
 	/**
@@ -3,22 +3,22 @@ package fighting;
 import java.io.BufferedReader;
 import java.io.IOException;
 import java.util.ArrayList;
-import java.util.Arrays;
 import java.util.Deque;
 import java.util.LinkedList;
+import java.util.concurrent.ConcurrentHashMap;
 
 import enumerate.Action;
+import enumerate.GameEventType;
 import enumerate.State;
 import image.Image;
 import loader.ResourceLoader;
-import manager.SoundManager;
 import setting.FlagSetting;
 import setting.GameSetting;
-import setting.LaunchSetting;
-import struct.AudioSource;
+import setting.MatchSetting;
 import struct.CharacterData;
 import struct.HitArea;
 import struct.Key;
+import struct.StateHash;
 
 /**
  * A class responsible for updating the information of a character based on the progress of the game.
@@ -30,16 +30,6 @@ public class Character {
      * {@code true} if the character is P1, or {@code false} if P2.
      */
     private boolean playerNumber;
-    /**
-     * These sources are used for different sound effects such as walking landing and different moves and projectiles.
-     */
-    private AudioSource sourceDefault;
-    private AudioSource sourceLanding;
-    private AudioSource sourceWalking;
-    private AudioSource[] sourceProjectTiles = new AudioSource[3];
-    private AudioSource sourceEnergyChange;
-    private AudioSource sourceBorderAlert;
-    private AudioSource sourceHeartBeat;
 
     /**
      * The character's HP.
@@ -154,11 +144,11 @@ public class Character {
     private Deque<Key> processedCommands;
 
     /**
-     * A list that stores all motions of the character.
+     * The table that stores all motions of the character.
      *
      * @see Motion
      */
-    private ArrayList<Motion> motionList;
+    private MotionTable motionTable;
 
     /**
      * The consecutive hit count of the attack.
@@ -171,35 +161,35 @@ public class Character {
      */
     private boolean isSimulateProcess;
     /**
-     * For when the projectile is on screen and active.
-     */
-    private volatile boolean[] isProjectileLive = new boolean[3] ;
-    /**
-     * For when the other player gets hit by the projectile.
+     * The stream of the events of the fight, to which the character publishes
+     * the actions it starts, or {@code null} in the simulator.
+     *
+     * @see GameEventBus
      */
-    private volatile boolean[] ProjectileHit = new boolean[3];
+    private GameEventBus eventBus;
 
     /**
-     * To keep the crouch sound from playing over and over again while crouching.
+     * The attack instance reused for every attack the character performs in the simulator.
      */
-    private String TempName = " ";
+    private Attack attackBuffer;
+
     /**
-     * To stop the footsteps sound effect from playing while in air.
+     * The empty key added to the processed commands in the simulator when no key is input.<br>
+     * Keys are never modified in the simulator, so a single instance can be shared.
      */
-    private String TempName2 = " ";
+    private Key emptyKey;
+
     /**
-     * For playing the Energy alert.
+     * The motion tables read for each character while the window is disabled.<br>
+     * The motions have no images then, so a single table is shared by both players of every match.
      */
-    private int preEnergy = 0;
+    private static final ConcurrentHashMap<String, MotionTable> MOTION_TABLES = new ConcurrentHashMap<String, MotionTable>();
+
     /**
-     * For Projectile attack sound movement and hit detections.size is 3 because 1 player can only have 3 projectiles active at a time.
+     * The settings of the match the character is fighting in.<br>
+     * It is shared with the copies of the character, including the ones in the simulator.
      */
-    private int[] sY = new int[3];
-    private int[] sX = new int[3];
-    private Attack[] projectileAttack =  new Attack[3];
-
-    // same as projecttileAttack (for attack hit detection)
-    private Attack[] projectileAttack2 =  new Attack[3];
+    private MatchSetting matchSetting;
 
     /**
      * Class constructorï¼Ž
@@ -227,8 +217,7 @@ public class Character {
         this.lastHitFrame = 0;
         this.hitCount = 0;
         this.isSimulateProcess = false;
-        this.initializeSound();
-
+        this.matchSetting = MatchSetting.fromLaunchSetting();
     }
 
     /**
@@ -259,12 +248,11 @@ public class Character {
         this.remainingFrame = character.getRemainingFrame();
         this.inputCommands = character.getInputCommand();
         this.processedCommands = character.getProcessedCommand();
-        this.motionList = character.getMotionList();
+        this.motionTable = character.getMotionTable();
         this.lastHitFrame = character.getLastHitFrame();
         this.hitCount = character.getHitCount();
         this.isSimulateProcess = character.isSimulateProcess();
-        initializeSound();
-
+        this.matchSetting = character.getMatchSetting();
     }
 
     /**
@@ -277,7 +265,53 @@ public class Character {
      * @see Motion
      */ 
     public Character(CharacterData characterData, ArrayList<Motion> motionList) {
+        this(characterData, new MotionTable(motionList));
+    }
+
+    /**
+     * Constructor that creates an instance of the Character class using the provided data as arguments.<br>
+     * This constructor is only called within the simulator.
+     *
+     * @param characterData An instance of the CharacterData class that contains character information.
+     * @param motionTable   The table that stores all motions of the character, which is shared, not copied.
+     * @see CharacterData
+     * @see MotionTable
+     */
+    public Character(CharacterData characterData, MotionTable motionTable) {
         initializeList();
+        this.matchSetting = MatchSetting.fromLaunchSetting();
+        initialize(characterData, motionTable);
+    }
+
+    /**
+     * Resets this instance using the provided data as arguments.<br>
+     * This method is only called within the simulator, and lets a single instance be reused for many simulations.
+     * The input and processed command lists are refilled in place.
+     *
+     * @param characterData An instance of the CharacterData class that contains character information.
+     * @param motionList    A list that stores all motions of the character.
+     * @see CharacterData
+     * @see Motion
+     */
+    public void initialize(CharacterData characterData, ArrayList<Motion> motionList) {
+        initialize(characterData, new MotionTable(motionList));
+    }
+
+    /**
+     * Resets this instance using the provided data as arguments.<br>
+     * This method is only called within the simulator, and lets a single instance be reused for many simulations.
+     * The input and processed command lists are refilled in place.
+     *
+     * @param characterData An instance of the CharacterData class that contains character information.
+     * @param motionTable   The table that stores all motions of the character, which is shared, not copied.
+     * @see CharacterData
+     * @see MotionTable
+     */
+    public void initialize(CharacterData characterData, MotionTable motionTable) {
+        if (this.attackBuffer == null) {
+            this.attackBuffer = new Attack();
+            this.emptyKey = new Key();
+        }
 
         this.playerNumber = characterData.isPlayerNumber();
         this.hp = characterData.getHp();
@@ -294,15 +328,63 @@ public class Character {
         this.hitConfirm = characterData.isHitConfirm();
         this.front = characterData.isFront();
         this.control = characterData.isControl();
-        this.attack = new Attack(characterData.getAttack());
+        this.attackBuffer.set(characterData.getAttack());
+        this.attack = this.attackBuffer;
         this.remainingFrame = characterData.getRemainingFrame();
-        this.inputCommands = characterData.getInputCommand();
-        this.processedCommands = characterData.getProcessedCommand();
-        this.motionList = motionList;
+        this.inputCommands.clear();
+        this.inputCommands.addAll(characterData.getInputCommand());
+        this.processedCommands.clear();
+        this.processedCommands.addAll(characterData.getProcessedCommand());
+        this.motionTable = motionTable;
         this.lastHitFrame = characterData.getLastHitFrame();
         this.hitCount = characterData.getHitCount();
         this.isSimulateProcess = true;
-        initializeSound();
+    }
+
+    /**
+     * Copies the fight state of the provided character into this instance in place.<br>
+     * This method is only called within the simulator to take and restore snapshots of a fight.
+     * Keys and motions are never modified in the simulator, so they are shared instead of copied.
+     *
+     * @param character An instance of the Character class used in the simulator.
+     */
+    public void set(Character character) {
+        if (this.attackBuffer == null) {
+            this.attackBuffer = new Attack();
+            this.emptyKey = new Key();
+        }
+
+        this.playerNumber = character.playerNumber;
+        this.hp = character.hp;
+        this.energy = character.energy;
+        this.x = character.x;
+        this.y = character.y;
+        this.graphicSizeX = character.graphicSizeX;
+        this.graphicSizeY = character.graphicSizeY;
+        this.graphicAdjustX = character.graphicAdjustX;
+        this.speedX = character.speedX;
+        this.speedY = character.speedY;
+        this.state = character.state;
+        this.action = character.action;
+        this.hitConfirm = character.hitConfirm;
+        this.front = character.front;
+        this.control = character.control;
+        if (character.attack == null) {
+            this.attack = null;
+        } else {
+            this.attackBuffer.set(character.attack);
+            this.attack = this.attackBuffer;
+        }
+        this.remainingFrame = character.remainingFrame;
+        this.inputCommands.clear();
+        this.inputCommands.addAll(character.inputCommands);
+        this.processedCommands.clear();
+        this.processedCommands.addAll(character.processedCommands);
+        this.motionTable = character.motionTable;
+        this.lastHitFrame = character.lastHitFrame;
+        this.hitCount = character.hitCount;
+        this.isSimulateProcess = true;
+        this.matchSetting = character.matchSetting;
     }
 
     /**
@@ -339,38 +421,33 @@ public class Character {
     public void initializeList() {
         this.inputCommands = new LinkedList<Key>();
         this.processedCommands = new LinkedList<Key>();
-        this.motionList = new ArrayList<Motion>();
+        this.motionTable = new MotionTable(new ArrayList<Motion>());
         this.graphicAdjustInitialX = new int[2];
     }
 
-    public void initializeSound() {
-        if (!this.isSimulateProcess) {
-            this.sourceDefault = SoundManager.getInstance().createAudioSource();
-            this.sourceLanding = SoundManager.getInstance().createAudioSource();
-            this.sourceWalking = SoundManager.getInstance().createAudioSource();
-            this.sourceProjectTiles[0] = SoundManager.getInstance().createAudioSource();
-            this.sourceProjectTiles[1] = SoundManager.getInstance().createAudioSource();
-            this.sourceProjectTiles[2] = SoundManager.getInstance().createAudioSource();
-            this.sourceEnergyChange = SoundManager.getInstance().createAudioSource();
-            this.sourceBorderAlert = SoundManager.getInstance().createAudioSource();
-            this.sourceHeartBeat = SoundManager.getInstance().createAudioSource();
-
-        }
+    /**
+     * Sets the stream of the events of the fight, to which the character publishes the actions it starts.
+     *
+     * @param eventBus the stream of the events of the fight
+     * @see GameEventType#ACTION_START
+     */
+    public void setEventBus(GameEventBus eventBus) {
+        this.eventBus = eventBus;
     }
 
     /**
      * Initializes character information at the beginning of each round.
      */
     public void roundInit() {
-        if (FlagSetting.limitHpFlag) {
-            this.hp = LaunchSetting.maxHp[this.playerNumber ? 0 : 1];
+        if (this.matchSetting.isLimitHp()) {
+            this.hp = this.matchSetting.getMaxHp(this.playerNumber);
         } else {
             this.hp = 0;
         }
 
-        if (FlagSetting.trainingModeFlag) {
-            this.hp = LaunchSetting.maxHp[this.playerNumber ? 0 : 1];
-            this.energy = LaunchSetting.maxEnergy[this.playerNumber ? 0 : 1];
+        if (this.matchSetting.isTrainingMode()) {
+            this.hp = this.matchSetting.getMaxHp(this.playerNumber);
+            this.energy = this.matchSetting.getMaxEnergy(this.playerNumber);
         } else {
             this.energy = 0;
         }
@@ -407,19 +484,11 @@ public class Character {
      * @param resetFlag     A flag indicating whether to interrupt the currently executing action.
      */
     public void runAction(Action executeAction, boolean resetFlag) {
-        Motion exeMotion = this.motionList.get(executeAction.ordinal());
-        String Name;
-
+        Motion exeMotion = this.motionTable.get(executeAction);
+        boolean interrupted = resetFlag && this.action != executeAction;
 
         if (this.action != executeAction) {
             if (resetFlag) {
-
-                for(int a = 0 ; a < this.projectileAttack.length ; a++) {
-                    if(this.projectileAttack[a] == null && this.sourceProjectTiles[a] !=null) {
-                        SoundManager.getInstance().stop(this.sourceProjectTiles[a]);
-                    }
-                }
-
                 destroyAttackInstance();
             }
 
@@ -436,55 +505,13 @@ public class Character {
         }
         this.speedY += exeMotion.getSpeedY();
         this.control = exeMotion.isControl();
-        Name = executeAction.toString();
 
-        // Playing sound effects based on the actions.
-        if (!this.isSimulateProcess) {
-            if (Arrays.asList("JUMP", "FOR_JUMP", "BACK_JUMP", "THROW_A", "THROW_B", "THROW_HIT", "THROW_SUFFER", "STAND_A", "STAND_B", "CROUCH_A", "CROUCH_B", "AIR_A", "AIR_B", "AIR_DA", "AIR_DB", "STAND_FA", "STAND_FB", "CROUCH_FA", "CROUCH_FB", "AIR_FA", "AIR_FB", "AIR_UA", "AIR_UB", "STAND_F_D_DFA", "STAND_F_D_DFB", "STAND_D_DB_BA", "STAND_D_DB_BB", "AIR_F_D_DFA", "AIR_F_D_DFB", "AIR_D_DB_BA", "AIR_D_DB_BB").contains(Name)) {
-                Name = Name + ".wav";
-
-                SoundManager.getInstance().play2(sourceDefault, SoundManager.getInstance().getSoundBuffers().get(Name), this.x, this.y, false);
-
-            } else if (Arrays.asList("CROUCH").contains(Name)) {
-                Name = Name + ".wav";
-                if (!TempName.equals(Name)) {
-                    SoundManager.getInstance().play2(sourceDefault, SoundManager.getInstance().getSoundBuffers().get(Name), this.x, this.y, false);
-                    TempName = Name;
-                }
-            } else if (Arrays.asList("FORWARD_WALK", "DASH", "BACK_STEP").contains(Name)) {
-                Name = Name + ".wav";
-                if (!TempName2.equals(Name)) {
-                    SoundManager.getInstance().play2(sourceWalking, SoundManager.getInstance().getSoundBuffers().get(Name), this.x, this.y, true);
-                    TempName2 = Name;
-                }
-            } else if (Arrays.asList("STAND_D_DF_FA", "STAND_D_DF_FB", "AIR_D_DF_FA", "AIR_D_DF_FB", "STAND_D_DF_FC").contains(Name)) {
-                for(int a = 0 ; a<this.isProjectileLive.length ; a++) {
-                    if(!this.isProjectileLive[a]) {
-                        this.isProjectileLive[a] = true;
-                        sY[a] = this.y;
-                        sX[a] = this.x;
-                        Name = Name + ".wav";
-                        SoundManager.getInstance().play2(sourceProjectTiles[a], SoundManager.getInstance().getSoundBuffers().get(Name), this.x, this.y, true);
-                        break;
-                    }
-                }
-                // if (!this.isProjectileLive) {
-                // this.isProjectileLive = true;
-
-                // sX = this.x;
-                // sY = this.y;
-                // }
-                // Name = Name + ".wav";
-//				SoundManager.getInstance().play2(sourceid4,SoundManager.getInstance().getSoundEffect().get(Name),this.x,this.y,true);
-                //SoundManager.getInstance().play2(sourceProjectTiles, SoundManager.getInstance().getSoundBuffers().get(Name), this.x, this.y, true);
-            }
+        if (this.eventBus != null) {
+            this.eventBus.publish(GameEventType.ACTION_START, this.eventBus.getCurrentFrame(), this.playerNumber,
+                    executeAction, interrupted ? 1 : 0, this.x, this.y);
         }
     }
 
-    public void resetEnergyCount(){
-        this.preEnergy = 0;
-    }
-
     /**
      * Updates character's information.
      */
@@ -494,23 +521,19 @@ public class Character {
         frictionEffect();
         gravityEffect();
 
-        if (FlagSetting.trainingModeFlag) {
-            this.energy = LaunchSetting.maxEnergy[this.playerNumber ? 0 : 1];
-            this.hp = LaunchSetting.maxHp[this.playerNumber ? 0 : 1];
+        if (this.matchSetting.isTrainingMode()) {
+            this.energy = this.matchSetting.getMaxEnergy(this.playerNumber);
+            this.hp = this.matchSetting.getMaxHp(this.playerNumber);
         }
 
-        if (this.energy > LaunchSetting.maxEnergy[this.playerNumber ? 0 : 1]) {
-            this.energy = LaunchSetting.maxEnergy[this.playerNumber ? 0 : 1];
+        if (this.energy > this.matchSetting.getMaxEnergy(this.playerNumber)) {
+            this.energy = this.matchSetting.getMaxEnergy(this.playerNumber);
         }
 
         if (getHitAreaBottom() >= GameSetting.STAGE_HEIGHT) {
-            if (motionList.get(this.action.ordinal()).isLandingFlag()) {
+            if (motionTable.get(this.action).isLandingFlag()) {
                 runAction(Action.LANDING, true);
                 setSpeedY(0);
-
-                if (!this.isSimulateProcess) {
-                    SoundManager.getInstance().play2(sourceLanding, SoundManager.getInstance().getSoundBuffers().get("LANDING.wav"), this.x, this.y, false);
-                }
             }
 
             moveY(GameSetting.STAGE_HEIGHT - this.getHitAreaBottom());
@@ -533,21 +556,10 @@ public class Character {
         }
 
         createAttackInstance();
-        if (this.attack != null) {
-            if (this.attack.isProjectile()) {
-                for(int a = 0 ; a < this.projectileAttack.length ; a++) {
-                    if(this.projectileAttack[a] == null) {
-                        this.projectileAttack[a] =  new Attack (this.attack);
-                        this.projectileAttack2[a] = this.attack;
-
-                        break;
-                    }
-                }
 
-            }
-        }
-
-        if (!this.inputCommands.isEmpty()) {
+        if (this.isSimulateProcess) {
+            this.processedCommands.addLast(this.inputCommands.isEmpty() ? this.emptyKey : this.inputCommands.pop());
+        } else if (!this.inputCommands.isEmpty()) {
             this.processedCommands.addLast(new Key(this.inputCommands.pop()));
         } else {
             this.processedCommands.addLast(new Key());
@@ -555,94 +567,17 @@ public class Character {
 
         if (this.processedCommands.size() > GameSetting.INPUT_LIMIT)
             this.processedCommands.removeFirst();
-
-        // Different Conditions for the sound effects
-        if (!FlagSetting.muteFlag && !this.isSimulateProcess) {
-            if (this.energy > this.preEnergy + 50) {
-                this.preEnergy = this.energy;
-                if (this.playerNumber) {
-                    SoundManager.getInstance().play2(sourceEnergyChange, SoundManager.getInstance().getSoundBuffers().get("EnergyCharge.wav"), 0, 0, false);
-                } else {
-                    SoundManager.getInstance().play2(sourceEnergyChange, SoundManager.getInstance().getSoundBuffers().get("EnergyCharge.wav"), GameSetting.STAGE_WIDTH, 0, false);
-                }
-
-            }
-            if (this.getHitAreaLeft() < 0 || this.getHitAreaRight() > GameSetting.STAGE_WIDTH) {
-                if (!SoundManager.getInstance().isPlaying(sourceBorderAlert)) {
-                    if (this.getHitAreaLeft() < 0) {
-                        SoundManager.getInstance().play2(sourceBorderAlert, SoundManager.getInstance().getSoundBuffers().get("BorderAlert.wav"), 0, 0, false);
-                    } else {
-                        SoundManager.getInstance().play2(sourceBorderAlert, SoundManager.getInstance().getSoundBuffers().get("BorderAlert.wav"), GameSetting.STAGE_WIDTH, 0, false);
-                    }
-
-                }
-            }
-            if(FlagSetting.limitHpFlag) {
-            	if(this.hp < 50) {
-            		if(!SoundManager.getInstance().isPlaying(sourceHeartBeat)) {
-            			if(this.playerNumber)SoundManager.getInstance().play2(sourceHeartBeat,SoundManager.getInstance().getSoundBuffers().get("Heartbeat.wav"),0,0,false);
-            			else SoundManager.getInstance().play2(sourceHeartBeat,SoundManager.getInstance().getSoundBuffers().get("Heartbeat.wav"),GameSetting.STAGE_WIDTH,0,false);
-            		}
-            	}  
-            }
-
-            // This is to make sure crouch sound does not loop while the character is crouching.
-            if (!this.state.toString().equals("CROUCH")) {
-                TempName = " ";
-            }
-            // This is to make sure Character footsteps sound does not play when character is in air.
-            if (this.speedX == 0 || this.state.toString().equals("AIR")) {
-                TempName2 = " ";
-                SoundManager.getInstance().stop(sourceWalking);
-            } else {
-                SoundManager.getInstance().setSourcePos(sourceWalking, this.x, this.y);
-            }
-
-
-            for(int a  = 0 ; a < this.projectileAttack.length ; a++) {
-                if(this.projectileAttack[a] != null) {
-                    if(this.isProjectileLive[a]) {
-                        if (this.projectileAttack[a].updateProjectileAttack() && !this.ProjectileHit[a]) {
-
-                            this.sX[a] = this.sX[a] + (this.projectileAttack[a].getSpeedX());
-                            this.sY[a] = this.sX[a] + (this.projectileAttack[a].getSpeedY());
-                            SoundManager.getInstance().setSourcePos(sourceProjectTiles[a], this.sX[a], this.sY[a]);
-                        } else {
-                            SoundManager.getInstance().stop(sourceProjectTiles[a]);
-                            this.isProjectileLive[a] = false;
-                            this.projectileAttack[a] = null;
-                            this.ProjectileHit[a] = false;
-                        }
-
-                    }
-                }
-            }
-
-        }
     }
 
-
-
     /**
      * Perform processing when an attack hits.
      *
      * @param opponent     Instance of the opponent character.
      * @param attack       Instance of the character's Attack.
      * @param currentFrame Current frame of the current round.
+     * @return {@code true} if the character guarded the attack, {@code false} otherwise
      */
-    public void hitAttack(Character opponent, Attack attack, int currentFrame) {
-
-        if (attack.isProjectile()) {
-            for(int a = 0 ; a < this.projectileAttack.length ; a++) {
-                if(opponent.projectileAttack[a] != null) {
-                    if(attack == opponent.projectileAttack2[a]) {
-                        opponent.ProjectileHit[a] = true;
-                        break;
-                    }
-                }
-            }
-
-        }
+    public boolean hitAttack(Character opponent, Attack attack, int currentFrame) {
 
         int direction = opponent.getHitAreaCenterX() <= getHitAreaCenterX() ? 1 : -1;
         opponent.setHitCount(opponent.getHitCount() + 1);
@@ -654,10 +589,7 @@ public class Character {
             setSpeedX(direction * attack.getImpactX() / 2); // Regular half knockback.
             setRemainingFrame(attack.getGiveGuardRecov());
             opponent.setEnergy(opponent.getEnergy() + attack.getGuardAddEnergy());
-
-            if (!this.isSimulateProcess) {
-                SoundManager.getInstance().play2(sourceLanding, SoundManager.getInstance().getSoundBuffers().get("WeakGuard.wav"), this.x, this.y, false);
-            }
+            return true;
         } else {
             // Handling for throw technique.
             if (attack.getAttackType() == 4) {
@@ -684,13 +616,7 @@ public class Character {
                 // Handling of down technique.
                 if (attack.isDownProp()) {
                     runAction(Action.CHANGE_DOWN, false);
-                    setRemainingFrame(this.motionList.get(this.action.ordinal()).getFrameNumber());
-
-                    if (!FlagSetting.muteFlag && !this.isSimulateProcess) {
-                        SoundManager.getInstance().play2(sourceLanding, SoundManager.getInstance().getSoundBuffers().get("HitB.wav"), this.x, this.y, false);
-
-                    }
-
+                    setRemainingFrame(this.motionTable.get(this.action).getFrameNumber());
                 } else {
                     switch (this.state) {
                         case STAND:
@@ -708,12 +634,9 @@ public class Character {
                         default:
                             break;
                     }
-
-                    if (!FlagSetting.muteFlag && !this.isSimulateProcess) {
-                        SoundManager.getInstance().play2(sourceLanding, SoundManager.getInstance().getSoundBuffers().get("HitA.wav"), this.x, this.y, false);
-                    }
                 }
             }
+            return false;
         }
     }
 
@@ -777,9 +700,16 @@ public class Character {
      * This method creates the hitbox area for the attack.
      */
     private void createAttackInstance() {
-        Motion motion = this.motionList.get(this.action.ordinal());
+        Motion motion = this.motionTable.get(this.action);
 
         if (startActive(motion)) {
+            if (this.isSimulateProcess) {
+                this.attackBuffer.set(motion);
+                this.attack = this.attackBuffer;
+                this.attack.initialize(this.playerNumber, this.x, this.y, this.graphicSizeX, this.front);
+                return;
+            }
+
             this.attack = new Attack(motion.getAttackHitArea(), motion.getAttackSpeedX(), motion.getAttackSpeedY(),
                     motion.getAttackStartUp(), motion.getAttackActive(), motion.getAttackHitDamage(),
                     motion.getAttackGuardDamage(), motion.getAttackStartAddEnergy(), motion.getAttackHitAddEnergy(),
@@ -988,7 +918,7 @@ public class Character {
      * @return the character's hit box's most-right x-coordinate
      */
     public int getHitAreaRight() {
-        HitArea area = this.motionList.get(this.action.ordinal()).getCharacterHitArea();
+        HitArea area = this.motionTable.get(this.action).getCharacterHitArea();
 
         return this.front ? area.getRight() + x : this.graphicSizeX - area.getLeft() + x;
     }
@@ -999,7 +929,7 @@ public class Character {
      * @return the character's hit box's most-left x-coordinate
      */
     public int getHitAreaLeft() {
-        HitArea area = this.motionList.get(this.action.ordinal()).getCharacterHitArea();
+        HitArea area = this.motionTable.get(this.action).getCharacterHitArea();
 
         return this.front ? area.getLeft() + x : this.graphicSizeX - area.getRight() + x;
     }
@@ -1010,7 +940,7 @@ public class Character {
      * @return the character's hit box's most-top y-coordinate
      */
     public int getHitAreaTop() {
-        return this.motionList.get(this.action.ordinal()).getCharacterHitArea().getTop() + y;
+        return this.motionTable.get(this.action).getCharacterHitArea().getTop() + y;
     }
 
     /**
@@ -1019,7 +949,7 @@ public class Character {
      * @return the character's hit box's most-bottom y-coordinate
      */
     public int getHitAreaBottom() {
-        return this.motionList.get(this.action.ordinal()).getCharacterHitArea().getBottom() + y;
+        return this.motionTable.get(this.action).getCharacterHitArea().getBottom() + y;
 
     }
 
@@ -1115,18 +1045,66 @@ public class Character {
         return this.graphicSizeY;
     }
 
+    /**
+     * Returns the motion of the specified action without copying the motion list.
+     *
+     * @param action the action whose motion is returned
+     * @return the motion of the specified action
+     */
+    public Motion getMotion(Action action) {
+        return this.motionTable.get(action);
+    }
+
+    /**
+     * Returns the table containing all motions of the character without copying it.
+     *
+     * @return the table containing all motions of the character
+     */
+    public MotionTable getMotionTable() {
+        return this.motionTable;
+    }
+
+    /**
+     * Returns the settings of the match the character is fighting in.
+     *
+     * @return the settings of the match
+     */
+    public MatchSetting getMatchSetting() {
+        return this.matchSetting;
+    }
+
+    /**
+     * Sets the settings of the match the character is fighting in.<br>
+     * It must be called before {@link #roundInit()} when the character does not fight with the settings of
+     * {@link setting.LaunchSetting}.
+     *
+     * @param matchSetting the settings of the match
+     */
+    public void setMatchSetting(MatchSetting matchSetting) {
+        this.matchSetting = matchSetting;
+    }
+
+    /**
+     * Returns the hash of the character's gameplay-relevant fields, including its attack.
+     *
+     * @return the hash of the character
+     * @see StateHash
+     */
+    public long getStateHash() {
+        int attackSlot = this.playerNumber ? StateHash.SLOT_ATTACK_P1 : StateHash.SLOT_ATTACK_P2;
+
+        return StateHash.character(this.playerNumber, this.hp, this.energy, this.x, this.y, this.speedX, this.speedY,
+                this.state, this.action, this.remainingFrame, this.front, this.control, this.hitConfirm, this.hitCount)
+                ^ (this.attack == null ? StateHash.emptyAttack(attackSlot) : this.attack.getStateHash(attackSlot));
+    }
+
     /**
      * Returns a list containing all motions of the character.
      *
      * @return a list containing all motions of the character
      */
     public ArrayList<Motion> getMotionList() {
-        ArrayList<Motion> temp = new ArrayList<Motion>();
-        for (Motion motion : this.motionList) {
-            temp.add(motion);
-        }
-
-        return temp;
+        return this.motionTable.toList();
     }
 
     /**
@@ -1169,7 +1147,7 @@ public class Character {
      * action and frame number
      */
     public Image getNowImage() {
-        Motion motion = motionList.get(this.action.ordinal());
+        Motion motion = motionTable.get(this.action);
 
         return motion.getImage(Math.abs(this.remainingFrame) % motion.getFrameNumber());
     }
@@ -1356,6 +1334,23 @@ public class Character {
      * @param characterName the character's name
      */
     private void setMotionList(String characterName) {
+        if (!FlagSetting.enableWindow) {
+            // Without images, the motions do not depend on the player and are shared by all matches
+            this.motionTable = MOTION_TABLES.computeIfAbsent(characterName, name -> loadMotionTable(name, 0));
+        } else {
+            this.motionTable = loadMotionTable(characterName, this.playerNumber ? 0 : 1);
+        }
+    }
+
+    /**
+     * Reads the motions of a character from its Motion.csv file.
+     *
+     * @param characterName the name of the character
+     * @param playerIndex   the index of the player whose images are set to the motions (0: P1, 1: P2)
+     * @return the table of the motions
+     */
+    private static MotionTable loadMotionTable(String characterName, int playerIndex) {
+        ArrayList<Motion> motionList = new ArrayList<Motion>();
         try {
             BufferedReader br = ResourceLoader.getInstance()
                     .openReadFile("./data/characters/" + characterName + "/Motion.csv");
@@ -1365,8 +1360,8 @@ public class Character {
 
             while ((line = br.readLine()) != null) {
                 String[] st = line.split(",", 0);
-                Motion motion = new Motion(st, characterName, this.playerNumber ? 0 : 1);
-                this.motionList.add(motion);
+                Motion motion = new Motion(st, characterName, playerIndex);
+                motionList.add(motion);
             }
 
             br.close();
@@ -1374,6 +1369,7 @@ public class Character {
         } catch (IOException e) {
             e.printStackTrace();
         }
+        return new MotionTable(motionList);
     }
 
     /**
@@ -1435,17 +1431,4 @@ public class Character {
     public boolean isSimulateProcess() {
         return this.isSimulateProcess;
     }
-
-    public void close(){
-        // close all sound sources
-        sourceDefault.close();
-        sourceLanding.close();
-        sourceWalking.close();
-        sourceProjectTiles[0].close();
-        sourceProjectTiles[1].close();
-        sourceProjectTiles[2].close();
-        sourceEnergyChange.close();
-        sourceBorderAlert.close();
-        sourceHeartBeat.close();
-    }
 }
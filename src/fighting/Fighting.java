@@ -1,11 +1,13 @@
 package fighting;
 
+import java.util.ArrayDeque;
 import java.util.ArrayList;
 import java.util.Deque;
 import java.util.LinkedList;
 
 import command.CommandTable;
 import enumerate.Action;
+import enumerate.GameEventType;
 import enumerate.State;
 import image.Image;
 import input.KeyData;
@@ -13,9 +15,11 @@ import manager.GraphicManager;
 import setting.FlagSetting;
 import setting.GameSetting;
 import setting.LaunchSetting;
+import setting.MatchSetting;
 import struct.AttackData;
 import struct.CharacterData;
 import struct.FrameData;
+import struct.HitArea;
 import struct.Key;
 
 /**
@@ -60,17 +64,56 @@ public class Fighting {
      */
 	protected CommandTable commandTable;
 
+	/**
+	 * The settings of the match.
+	 *
+	 * @see MatchSetting
+	 */
+	protected MatchSetting matchSetting;
+
+	/**
+	 * The stream of the events of the fight.
+	 *
+	 * @see GameEventBus
+	 */
+	protected GameEventBus eventBus;
+
+	/**
+	 * The actions of both characters at the end of the previous frame, used to
+	 * publish {@link GameEventType#ACTION_CHANGE}.<br>
+	 * Index 0 is P1, index 1 is P2.
+	 */
+	private Action[] previousActions;
 
 	/**
-	 * Class constructor．
+	 * The listener playing the sound effects of the fight, or {@code null} in
+	 * headless mode or if the fight is not initialized by {@link #initialize()}.
+	 *
+	 * @see SoundEffectListener
+	 */
+	private SoundEffectListener soundEffects;
+
+	/**
+	 * Class constructor that uses the current settings of {@link LaunchSetting}.
 	 */
 	public Fighting() {
+		this(MatchSetting.fromLaunchSetting());
+	}
+
+	/**
+	 * Class constructor that uses the specified settings of a match.
+	 *
+	 * @param matchSetting the settings of the match
+	 */
+	public Fighting(MatchSetting matchSetting) {
+		this.matchSetting = matchSetting;
 		this.playerCharacters = new Character[2];
 		this.projectileDeque = new LinkedList<LoopEffect>();
-		this.inputCommands = new LinkedList<KeyData>();
+		this.inputCommands = new ArrayDeque<KeyData>(GameSetting.INPUT_LIMIT + 1);
 		this.commandTable = new CommandTable();
 		this.hitEffects = new LinkedList<LinkedList<HitEffect>>();
-
+		this.eventBus = new GameEventBus();
+		this.previousActions = new Action[2];
 	}
 	
 	public void processingRoundEnd(){
@@ -79,19 +122,33 @@ public class Fighting {
 		this.playerCharacters[1].setProcessedCommand(new LinkedList<Key>());
 		this.playerCharacters[0].setInputCommand(new LinkedList<Key>());
 		this.playerCharacters[1].setInputCommand(new LinkedList<Key>());
-		this.playerCharacters[0].resetEnergyCount();
-		this.playerCharacters[1].resetEnergyCount();
+		if (this.soundEffects != null) {
+			this.soundEffects.resetEnergyCount();
+		}
 	}
 	
 	/**
-     * Initializes P1 and P2 character information and effect lists.
+     * Initializes P1 and P2 character information and effect lists, and subscribes the listeners playing the sound
+     * effects and creating the hit effects to the stream of the events.<br>
+     * The sound effects are played unless in headless mode, and the hit effects are created only with a window.
      */
 	public void initialize() {
 		for (int i = 0; i < 2; i++) {
 			this.playerCharacters[i] = new Character();
-			this.playerCharacters[i].initialize(LaunchSetting.characterNames[i], i == 0);
+			this.playerCharacters[i].setMatchSetting(this.matchSetting);
+			this.playerCharacters[i].initialize(this.matchSetting.getCharacterName(i == 0), i == 0);
+			this.playerCharacters[i].setEventBus(this.eventBus);
 			this.hitEffects.add(new LinkedList<HitEffect>());
 		}
+
+		// nothing is played or drawn in headless mode, so the events are left without subscribers
+		if (!FlagSetting.headless) {
+			this.soundEffects = new SoundEffectListener(this);
+			this.eventBus.subscribe(this.soundEffects, SoundEffectListener.EVENT_TYPES);
+		}
+		if (FlagSetting.enableWindow) {
+			this.eventBus.subscribe(new HitEffectListener(this, this.hitEffects), HitEffectListener.EVENT_TYPES);
+		}
 	}
 
 	/**
@@ -101,6 +158,7 @@ public class Fighting {
      * @param keyData      Key input for P1 and P2. Index 0 is P1, index 1 is P2.
      */
 	public void processingFight(int currentFrame, KeyData keyData) {
+		this.eventBus.setCurrentFrame(currentFrame);
 
 		// 1. Execute actions based on key input
 		processingCommands(currentFrame, keyData);
@@ -110,22 +168,26 @@ public class Fighting {
 		updateAttackParameter();
 		// 4. Update character states
 		updateCharacter();
-
+		// 5. Deliver the events of this frame
+		publishActionChanges(currentFrame);
+		this.eventBus.publish(GameEventType.FRAME_END, currentFrame, true, null, 0, 0, 0);
+		this.eventBus.dispatch();
 	}
 
 	/**
-     * Executes actions based on key input.
+     * Executes actions based on key input.<br>
+     * The key input is copied into the input history, reusing the oldest entry
+     * once the history is full, so the caller may reuse its KeyData.
      *
      * @param currentFrame Current frame
      * @param keyData      Key input for P1 and P2. Index 0 is P1, index 1 is P2.
      */
 	protected void processingCommands(int currentFrame, KeyData keyData) {
-		this.inputCommands.addLast(keyData);
-
-		// Remove oldest data if the list size exceeds the limit (INPUT_LIMIT)
-		while (this.inputCommands.size() > GameSetting.INPUT_LIMIT) {
-			this.inputCommands.removeFirst();
-		}
+		// Reuse the oldest data if the list size reaches the limit (INPUT_LIMIT)
+		KeyData command = this.inputCommands.size() >= GameSetting.INPUT_LIMIT ? this.inputCommands.removeFirst()
+				: new KeyData();
+		command.set(keyData);
+		this.inputCommands.addLast(command);
 
 		// Execute actions
 		for (int i = 0; i < 2; i++) {
@@ -155,8 +217,10 @@ public class Fighting {
 
 			if (detectionHit(this.playerCharacters[opponentIndex], projectile.getAttack())) {
 				int myIndex = opponentIndex == 0 ? 1 : 0;
-				this.playerCharacters[opponentIndex].hitAttack(this.playerCharacters[myIndex], projectile.getAttack(),
-						currentFrame);
+				int hp = this.playerCharacters[opponentIndex].getHp();
+				boolean guard = this.playerCharacters[opponentIndex].hitAttack(this.playerCharacters[myIndex],
+						projectile.getAttack(), currentFrame);
+				publishHit(currentFrame, myIndex, null, projectile.getAttack(), guard, hp);
 			} else {
 				this.projectileDeque.addLast(projectile);
 			}
@@ -169,33 +233,24 @@ public class Fighting {
 
 			if (detectionHit(this.playerCharacters[opponentIndex], attack)) {
 				isHit[i] = true;
+				Action action = this.playerCharacters[i].getAction();
+				int hp = this.playerCharacters[opponentIndex].getHp();
 				// HP等のパラメータの更新
-				this.playerCharacters[opponentIndex].hitAttack(this.playerCharacters[i], attack, currentFrame);
+				boolean guard = this.playerCharacters[opponentIndex].hitAttack(this.playerCharacters[i], attack,
+						currentFrame);
+				publishHit(currentFrame, i, action, attack, guard, hp);
 			}
 		}
 
-		// Process effects (e.g., hit effects, upper effects)
 		for (int i = 0; i < 2; i++) {
-			if (FlagSetting.enableWindow) {
-				if (this.playerCharacters[i].getAttack() != null) {
-					// Set effect based on the current combo
-					int comboState = Math.max(this.playerCharacters[i].getHitCount() - 1, 0);
-					// Limit effect to 4th hit if combo is 4 or more
-					comboState = Math.min(comboState, 3);
-
-					Image[] effect = GraphicManager.getInstance().getHitEffectImageContaier()[comboState];
-					this.hitEffects.get(i).add(new HitEffect(this.playerCharacters[i].getAttack(), effect, isHit[i]));
-
-					// Process upper attacks
-					if (playerCharacters[i].getAction() == Action.STAND_F_D_DFB) {
-						Image[] upper = GraphicManager.getInstance().getUpperImageContainer()[i];
-						Motion motion = this.playerCharacters[i].getMotionList().get(Action.STAND_F_D_DFB.ordinal());
-
-						if (this.playerCharacters[i].startActive(motion)) {
-							this.hitEffects.get(i)
-									.add(new HitEffect(this.playerCharacters[i].getAttack(), upper, true, false));
-						}
-					}
+			// The hit effects are created from the events by HitEffectListener
+			Attack attack = this.playerCharacters[i].getAttack();
+			if (attack != null && this.eventBus.isEnabled(GameEventType.ATTACK_ACTIVE)) {
+				Action action = this.playerCharacters[i].getAction();
+				if (this.playerCharacters[i].startActive(this.playerCharacters[i].getMotion(action))) {
+					HitArea area = attack.getCurrentHitArea();
+					this.eventBus.publish(GameEventType.ATTACK_ACTIVE, currentFrame, i == 0, action, 0,
+							(area.getLeft() + area.getRight()) / 2, (area.getTop() + area.getBottom()) / 2);
 				}
 			}
 
@@ -210,6 +265,51 @@ public class Fighting {
 		}
 	}
 
+	/**
+	 * Publishes the event of an attack which hit the opponent, and the KO of
+	 * the opponent if its HP dropped to zero.
+	 *
+	 * @param currentFrame Current frame
+	 * @param attackerIndex The index of the attacker. 0 is P1, 1 is P2.
+	 * @param action The attacker's action, or {@code null} for a projectile.
+	 * @param attack The attack.
+	 * @param guard {@code true} if the opponent guarded the attack, {@code false} otherwise.
+	 * @param hp The opponent's HP before the attack hit.
+	 */
+	private void publishHit(int currentFrame, int attackerIndex, Action action, Attack attack, boolean guard,
+			int hp) {
+		Character opponent = this.playerCharacters[attackerIndex == 0 ? 1 : 0];
+		GameEventType type = guard ? GameEventType.GUARD : GameEventType.HIT;
+		if (this.eventBus.isEnabled(type)) {
+			HitArea area = attack.getCurrentHitArea();
+			this.eventBus.publish(type, currentFrame, attackerIndex == 0, action, hp - opponent.getHp(),
+					(area.getLeft() + area.getRight()) / 2, (area.getTop() + area.getBottom()) / 2);
+		}
+		if (this.matchSetting.isLimitHp() && hp > 0 && opponent.getHp() <= 0) {
+			this.eventBus.publish(GameEventType.KO, currentFrame, attackerIndex != 0, opponent.getAction(),
+					opponent.getHp(), opponent.getHitAreaCenterX(), opponent.getHitAreaCenterY());
+		}
+	}
+
+	/**
+	 * Publishes the action changes of the characters since the previous frame.
+	 *
+	 * @param currentFrame Current frame
+	 */
+	private void publishActionChanges(int currentFrame) {
+		for (int i = 0; i < 2; i++) {
+			Action action = this.playerCharacters[i].getAction();
+			if (action != this.previousActions[i]) {
+				if (this.previousActions[i] != null) {
+					this.eventBus.publish(GameEventType.ACTION_CHANGE, currentFrame, i == 0, action,
+							this.previousActions[i].ordinal(), this.playerCharacters[i].getHitAreaCenterX(),
+							this.playerCharacters[i].getHitAreaCenterY());
+				}
+				this.previousActions[i] = action;
+			}
+		}
+	}
+
 	/**
 	 * Update attack parameters.
 	 */
@@ -267,6 +367,13 @@ public class Fighting {
 					}
 					this.projectileDeque.addLast(new LoopEffect(attack, temp));
 					this.playerCharacters[i].destroyAttackInstance();
+
+					if (this.eventBus.isEnabled(GameEventType.PROJECTILE_SPAWN)) {
+						HitArea area = attack.getCurrentHitArea();
+						this.eventBus.publish(GameEventType.PROJECTILE_SPAWN, this.eventBus.getCurrentFrame(), i == 0,
+								this.playerCharacters[i].getAction(), this.projectileDeque.size(),
+								(area.getLeft() + area.getRight()) / 2, (area.getTop() + area.getBottom()) / 2);
+					}
 				}
 			}
 
@@ -274,14 +381,6 @@ public class Fighting {
 			if (playerCharacters[i].isControl()) {
 				playerCharacters[i].frontDecision(playerCharacters[i == 0 ? 1 : 0].getHitAreaCenterX());
 			}
-
-			// Updates the all of effects appearing in this stage
-			for (int j = 0; j < this.hitEffects.get(i).size(); j++) {
-				if (!this.hitEffects.get(i).get(j).update()) {
-					this.hitEffects.get(i).remove(j);
-					--j;
-				}
-			}
 		}
 		// Runs pushing.
 		detectionPush();
@@ -360,16 +459,29 @@ public class Fighting {
 					playerCharacters[i].reversalSpeedX();
 				}
 				playerCharacters[i].moveX(-playerCharacters[i].getHitAreaRight() + GameSetting.STAGE_WIDTH);
+				publishStageEdge(i, GameSetting.STAGE_WIDTH);
 
 			} else if (playerCharacters[i].getHitAreaLeft() < 0) {
 				if (playerCharacters[i].getAction() == Action.DOWN) {
 					playerCharacters[i].reversalSpeedX();
 				}
 				playerCharacters[i].moveX(-playerCharacters[i].getHitAreaLeft());
+				publishStageEdge(i, 0);
 			}
 		}
 	}
 
+	/**
+	 * Publishes the event of a character which was moved back onto the stage.
+	 *
+	 * @param index The index of the character. 0 is P1, 1 is P2.
+	 * @param edge The horizontal position of the edge, which is 0 or the stage width.
+	 */
+	private void publishStageEdge(int index, int edge) {
+		this.eventBus.publish(GameEventType.STAGE_EDGE, this.eventBus.getCurrentFrame(), index == 0,
+				this.playerCharacters[index].getAction(), 0, edge, this.playerCharacters[index].getHitAreaCenterY());
+	}
+
 	/**
 	 * Determine whether the next planned action is executable.
 	 *
@@ -381,8 +493,8 @@ public class Fighting {
 	 * @see Action
 	 */
 	protected boolean ableAction(Character character, Action nextAction) {
-		Motion nextMotion = character.getMotionList().get(nextAction.ordinal());
-		Motion nowMotion = character.getMotionList().get(character.getAction().ordinal());
+		Motion nextMotion = character.getMotion(nextAction);
+		Motion nowMotion = character.getMotion(character.getAction());
 
 		if (character.getEnergy() < -nextMotion.getAttackStartAddEnergy()) {
 			return false;
@@ -430,6 +542,15 @@ public class Fighting {
 		return this.playerCharacters.clone();
 	}
 
+	/**
+	 * Returns the settings of the match.
+	 *
+	 * @return The settings of the match.
+	 */
+	public MatchSetting getMatchSetting() {
+		return this.matchSetting;
+	}
+
 	/**
 	 * Creates a frame data containing game information for the current frame.<br>
 	 * It includes information about both characters, the current frame number, the current round,
@@ -462,6 +583,7 @@ public class Fighting {
 		for (int i = 0; i < 2; i++) {
 			this.playerCharacters[i].roundInit();
 			this.hitEffects.get(i).clear();
+			this.previousActions[i] = this.playerCharacters[i].getAction();
 		}
 
 		this.projectileDeque.clear();
@@ -477,6 +599,16 @@ public class Fighting {
 		return new LinkedList<LinkedList<HitEffect>>(this.hitEffects);
 	}
 
+	/**
+	 * Returns the stream of the events of the fight, to which consumers
+	 * subscribe.
+	 *
+	 * @return the stream of the events of the fight
+	 */
+	public GameEventBus getEventBus() {
+		return this.eventBus;
+	}
+
 	/**
 	 * Returns the list of projectile data of both characters.
 	 *
@@ -487,7 +619,8 @@ public class Fighting {
 	}
 
 	public void close(){
-		for (Character character: this.getCharacters())
-			character.close();
+		if (this.soundEffects != null) {
+			this.soundEffects.close();
+		}
 	}
 }
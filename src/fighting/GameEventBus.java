@@ -0,0 +1,453 @@
+package fighting;
+
+import java.util.Arrays;
+
+import enumerate.Action;
+import enumerate.GameEventType;
+
+/**
+ * The stream of the events of a fight, such as hits, guards and action
+ * changes, published by {@link Fighting}.<br>
+ * The events are stored in a ring buffer of primitive arrays, so publishing an
+ * event never allocates. Each event has a sequence number, from which its
+ * fields are read while it is in the buffer. {@link Fighting} delivers the
+ * events of a frame to the listeners at the end of the frame, and a consumer
+ * may also poll the buffer by keeping the sequence number of the next event
+ * it reads.<br>
+ * An event is only stored if a listener subscribes to its type, so a fight
+ * without listeners, such as a simulation, does not pay for the events.<br>
+ * The class is not thread-safe, and the listeners are called on the thread of
+ * the game loop.
+ */
+public class GameEventBus {
+
+	/**
+	 * The default number of events kept in the buffer.
+	 */
+	public static final int DEFAULT_CAPACITY = 256;
+
+	/**
+	 * The value of {@link #actions} for an event without an action.
+	 */
+	private static final int NO_ACTION = -1;
+
+	/**
+	 * The actions indexed by their ordinals.
+	 */
+	private static final Action[] ACTIONS = Action.values();
+
+	/**
+	 * The event types indexed by their ordinals.
+	 */
+	private static final GameEventType[] TYPES = GameEventType.values();
+
+	/**
+	 * The number of events kept in the buffer, which is a power of two.
+	 */
+	private final int capacity;
+
+	/**
+	 * The ordinals of the types of the events.
+	 */
+	private byte[] types;
+
+	/**
+	 * The frames of the events.
+	 */
+	private int[] frames;
+
+	/**
+	 * The players of the events.
+	 */
+	private boolean[] players;
+
+	/**
+	 * The ordinals of the actions of the events, or {@link #NO_ACTION}.
+	 */
+	private int[] actions;
+
+	/**
+	 * The values of the events.
+	 */
+	private int[] values;
+
+	/**
+	 * The horizontal positions of the events.
+	 */
+	private int[] xs;
+
+	/**
+	 * The vertical positions of the events.
+	 */
+	private int[] ys;
+
+	/**
+	 * The frame being processed, used by publishers which do not know it.
+	 */
+	private int currentFrame;
+
+	/**
+	 * The sequence number of the next event to be published.
+	 */
+	private long head;
+
+	/**
+	 * The sequence number of the next event to be delivered to the listeners.
+	 */
+	private long delivered;
+
+	/**
+	 * The number of events which were overwritten before they were delivered.
+	 */
+	private long dropped;
+
+	/**
+	 * The listeners.
+	 */
+	private GameEventListener[] listeners;
+
+	/**
+	 * The masks of the event types each listener subscribes to.
+	 */
+	private int[] listenerMasks;
+
+	/**
+	 * The event types any listener subscribes to.
+	 */
+	private int mask;
+
+	/**
+	 * The class constructor that keeps {@link #DEFAULT_CAPACITY} events.
+	 */
+	public GameEventBus() {
+		this(DEFAULT_CAPACITY);
+	}
+
+	/**
+	 * The class constructor.<br>
+	 * The buffer is allocated when the first listener subscribes.
+	 *
+	 * @param capacity
+	 *            the number of events kept in the buffer, which is rounded up
+	 *            to a power of two
+	 */
+	public GameEventBus(int capacity) {
+		this.capacity = Integer.highestOneBit(Math.max(2, capacity) * 2 - 1);
+		this.listeners = new GameEventListener[0];
+		this.listenerMasks = new int[0];
+	}
+
+	/**
+	 * Subscribes a listener to the specified event types.<br>
+	 * If the listener has already subscribed, its event types are replaced.
+	 *
+	 * @param listener
+	 *            the listener
+	 * @param eventTypes
+	 *            the event types, or none to subscribe to every type
+	 */
+	public void subscribe(GameEventListener listener, GameEventType... eventTypes) {
+		int listenerMask = 0;
+		for (GameEventType type : eventTypes) {
+			listenerMask |= type.mask();
+		}
+		if (eventTypes.length == 0) {
+			listenerMask = (1 << TYPES.length) - 1;
+		}
+
+		int index = indexOf(listener);
+		if (index < 0) {
+			index = this.listeners.length;
+			this.listeners = Arrays.copyOf(this.listeners, index + 1);
+			this.listenerMasks = Arrays.copyOf(this.listenerMasks, index + 1);
+			this.listeners[index] = listener;
+		}
+		this.listenerMasks[index] = listenerMask;
+		updateMask();
+
+		if (this.types == null) {
+			this.types = new byte[this.capacity];
+			this.frames = new int[this.capacity];
+			this.players = new boolean[this.capacity];
+			this.actions = new int[this.capacity];
+			this.values = new int[this.capacity];
+			this.xs = new int[this.capacity];
+			this.ys = new int[this.capacity];
+		}
+	}
+
+	/**
+	 * Unsubscribes a listener.
+	 *
+	 * @param listener
+	 *            the listener
+	 */
+	public void unsubscribe(GameEventListener listener) {
+		int index = indexOf(listener);
+		if (index < 0) {
+			return;
+		}
+
+		int last = this.listeners.length - 1;
+		this.listeners[index] = this.listeners[last];
+		this.listenerMasks[index] = this.listenerMasks[last];
+		this.listeners = Arrays.copyOf(this.listeners, last);
+		this.listenerMasks = Arrays.copyOf(this.listenerMasks, last);
+		updateMask();
+	}
+
+	/**
+	 * Returns whether any listener subscribes to the specified event type.<br>
+	 * A publisher may check this before it computes the fields of an event.
+	 *
+	 * @param type
+	 *            the event type
+	 * @return {@code true} if the events of the type are stored,
+	 *         {@code false} otherwise
+	 */
+	public boolean isEnabled(GameEventType type) {
+		return (this.mask & type.mask()) != 0;
+	}
+
+	/**
+	 * Publishes an event.<br>
+	 * The event is ignored if no listener subscribes to its type.
+	 *
+	 * @param type
+	 *            the type of the event
+	 * @param frame
+	 *            the frame of the event
+	 * @param playerNumber
+	 *            the player of the event. {@code true} if P1, or {@code false}
+	 *            if P2.
+	 * @param action
+	 *            the action of the event, or {@code null}
+	 * @param value
+	 *            the value of the event, whose meaning depends on the type
+	 * @param x
+	 *            the horizontal position of the event
+	 * @param y
+	 *            the vertical position of the event
+	 *
+	 * @see GameEventType
+	 */
+	public void publish(GameEventType type, int frame, boolean playerNumber, Action action, int value, int x, int y) {
+		if ((this.mask & type.mask()) == 0) {
+			return;
+		}
+
+		int slot = (int) this.head & (this.capacity - 1);
+		this.types[slot] = (byte) type.ordinal();
+		this.frames[slot] = frame;
+		this.players[slot] = playerNumber;
+		this.actions[slot] = action == null ? NO_ACTION : action.ordinal();
+		this.values[slot] = value;
+		this.xs[slot] = x;
+		this.ys[slot] = y;
+		this.head++;
+	}
+
+	/**
+	 * Delivers the events published since the previous delivery to the
+	 * listeners subscribing to their types.<br>
+	 * The events which were overwritten before the delivery are counted as
+	 * dropped.
+	 */
+	public void dispatch() {
+		long oldest = getOldestSequence();
+		if (this.delivered < oldest) {
+			this.dropped += oldest - this.delivered;
+			this.delivered = oldest;
+		}
+
+		while (this.delivered < this.head) {
+			long sequence = this.delivered++;
+			int typeMask = 1 << this.types[(int) sequence & (this.capacity - 1)];
+			for (int i = 0; i < this.listeners.length; i++) {
+				if ((this.listenerMasks[i] & typeMask) != 0) {
+					this.listeners[i].onGameEvent(this, sequence);
+				}
+			}
+		}
+	}
+
+	/**
+	 * Discards the events which have not been delivered yet.
+	 */
+	public void clear() {
+		this.delivered = this.head;
+	}
+
+	/**
+	 * Sets the frame being processed.<br>
+	 * Called by {@link Fighting} at the start of each frame.
+	 *
+	 * @param currentFrame
+	 *            the frame being processed
+	 */
+	public void setCurrentFrame(int currentFrame) {
+		this.currentFrame = currentFrame;
+	}
+
+	/**
+	 * Returns the frame being processed, which is the frame of the events
+	 * published by a {@link Character}.
+	 *
+	 * @return the frame being processed
+	 */
+	public int getCurrentFrame() {
+		return this.currentFrame;
+	}
+
+	/**
+	 * Returns the sequence number of the next event to be published.
+	 *
+	 * @return the sequence number of the next event
+	 */
+	public long getSequence() {
+		return this.head;
+	}
+
+	/**
+	 * Returns the sequence number of the oldest event in the buffer.<br>
+	 * A consumer polling the buffer has missed the events before it.
+	 *
+	 * @return the sequence number of the oldest event
+	 */
+	public long getOldestSequence() {
+		return Math.max(0, this.head - this.capacity);
+	}
+
+	/**
+	 * Returns the number of events which were overwritten before they were
+	 * delivered to the listeners.
+	 *
+	 * @return the number of dropped events
+	 */
+	public long getDroppedCount() {
+		return this.dropped;
+	}
+
+	/**
+	 * Returns the type of an event.
+	 *
+	 * @param sequence
+	 *            the sequence number of the event, which must be in the buffer
+	 * @return the type of the event
+	 */
+	public GameEventType getType(long sequence) {
+		return TYPES[this.types[slotOf(sequence)]];
+	}
+
+	/**
+	 * Returns the frame of an event.
+	 *
+	 * @param sequence
+	 *            the sequence number of the event, which must be in the buffer
+	 * @return the frame of the event
+	 */
+	public int getFrame(long sequence) {
+		return this.frames[slotOf(sequence)];
+	}
+
+	/**
+	 * Returns the player of an event.
+	 *
+	 * @param sequence
+	 *            the sequence number of the event, which must be in the buffer
+	 * @return {@code true} if the event belongs to P1, {@code false} if P2
+	 */
+	public boolean isPlayerNumber(long sequence) {
+		return this.players[slotOf(sequence)];
+	}
+
+	/**
+	 * Returns the action of an event.
+	 *
+	 * @param sequence
+	 *            the sequence number of the event, which must be in the buffer
+	 * @return the action of the event, or {@code null} if it has no action
+	 */
+	public Action getAction(long sequence) {
+		int action = this.actions[slotOf(sequence)];
+		return action == NO_ACTION ? null : ACTIONS[action];
+	}
+
+	/**
+	 * Returns the value of an event.
+	 *
+	 * @param sequence
+	 *            the sequence number of the event, which must be in the buffer
+	 * @return the value of the event
+	 *
+	 * @see GameEventType
+	 */
+	public int getValue(long sequence) {
+		return this.values[slotOf(sequence)];
+	}
+
+	/**
+	 * Returns the horizontal position of an event.
+	 *
+	 * @param sequence
+	 *            the sequence number of the event, which must be in the buffer
+	 * @return the horizontal position of the event
+	 */
+	public int getX(long sequence) {
+		return this.xs[slotOf(sequence)];
+	}
+
+	/**
+	 * Returns the vertical position of an event.
+	 *
+	 * @param sequence
+	 *            the sequence number of the event, which must be in the buffer
+	 * @return the vertical position of the event
+	 */
+	public int getY(long sequence) {
+		return this.ys[slotOf(sequence)];
+	}
+
+	/**
+	 * Returns the slot of an event in the buffer.
+	 *
+	 * @param sequence
+	 *            the sequence number of the event
+	 * @return the index of the slot
+	 * @throws IndexOutOfBoundsException
+	 *             if the event is not in the buffer
+	 */
+	private int slotOf(long sequence) {
+		if (sequence < getOldestSequence() || sequence >= this.head) {
+			throw new IndexOutOfBoundsException("Event " + sequence + " is not in the buffer");
+		}
+		return (int) sequence & (this.capacity - 1);
+	}
+
+	/**
+	 * Returns the index of a listener.
+	 *
+	 * @param listener
+	 *            the listener
+	 * @return the index of the listener, or -1 if it has not subscribed
+	 */
+	private int indexOf(GameEventListener listener) {
+		for (int i = 0; i < this.listeners.length; i++) {
+			if (this.listeners[i] == listener) {
+				return i;
+			}
+		}
+		return -1;
+	}
+
+	/**
+	 * Updates the event types any listener subscribes to.
+	 */
+	private void updateMask() {
+		this.mask = 0;
+		for (int listenerMask : this.listenerMasks) {
+			this.mask |= listenerMask;
+		}
+	}
+
+}
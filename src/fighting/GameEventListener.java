@@ -0,0 +1,21 @@
+package fighting;
+
+/**
+ * The interface of a subscriber of the events of a fight.
+ *
+ * @see GameEventBus
+ */
+public interface GameEventListener {
+
+	/**
+	 * Handles an event.<br>
+	 * The fields of the event are read from the bus with the sequence number,
+	 * so no object is created for an event.
+	 *
+	 * @param bus
+	 *            the bus publishing the event
+	 * @param sequence
+	 *            the sequence number of the event
+	 */
+	void onGameEvent(GameEventBus bus, long sequence);
+}
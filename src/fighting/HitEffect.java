@@ -1,6 +1,7 @@
 package fighting;
 
 import image.Image;
+import struct.HitArea;
 
 /**
  * A class that manages the effects displayed when an attack hits and upper attack effects.
@@ -24,6 +25,16 @@ public class HitEffect extends Effect {
 	 */
 	private int variationY;
 
+	/**
+	 * The horizontal position of the center of this effect, used if it has no attack.
+	 */
+	private int x;
+
+	/**
+	 * The vertical position of the center of this effect, used if it has no attack.
+	 */
+	private int y;
+
 	/**
 	 * Constructor for creating an instance of HitEffect with the specified data.
 	 *
@@ -54,6 +65,22 @@ public class HitEffect extends Effect {
 		this.initialize(isHit, variation);
 	}
 
+	/**
+	 * Constructor for creating an instance of HitEffect displayed at the specified position, without an attack.
+	 *
+	 * @param x The horizontal position of the center of the effect
+	 * @param y The vertical position of the center of the effect
+	 * @param hitImages All effect images
+	 * @param isHit The boolean value indicating whether the attack conducted by the character hits the opponent or not
+	 * @param variation Whether to vary the display position of the effect images based on variationX and variationY
+	 */
+	public HitEffect(int x, int y, Image[] hitImages, boolean isHit, boolean variation) {
+		super(null, hitImages);
+		this.x = x;
+		this.y = y;
+		this.initialize(isHit, variation);
+	}
+
 	/**
 	 * Constructor for creating an instance of HitEffect with the specified data.
 	 *
@@ -106,4 +133,32 @@ public class HitEffect extends Effect {
 		return this.variationY;
 	}
 
+	/**
+	 * Returns the horizontal position of the center of this effect.<br>
+	 * If the effect has an attack, it is the center of the attack's current hit area.
+	 *
+	 * @return the horizontal position of the center of this effect
+	 */
+	public int getX() {
+		if (this.attack == null) {
+			return this.x;
+		}
+		HitArea area = this.attack.getCurrentHitArea();
+		return (area.getLeft() + area.getRight()) / 2;
+	}
+
+	/**
+	 * Returns the vertical position of the center of this effect.<br>
+	 * If the effect has an attack, it is the center of the attack's current hit area.
+	 *
+	 * @return the vertical position of the center of this effect
+	 */
+	public int getY() {
+		if (this.attack == null) {
+			return this.y;
+		}
+		HitArea area = this.attack.getCurrentHitArea();
+		return (area.getTop() + area.getBottom()) / 2;
+	}
+
 }
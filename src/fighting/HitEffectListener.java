@@ -0,0 +1,84 @@
+package fighting;
+
+import java.util.LinkedList;
+
+import enumerate.Action;
+import enumerate.GameEventType;
+import image.Image;
+import manager.GraphicManager;
+
+/**
+ * The listener which creates the hit effects and the upper attack effects of a
+ * fight from its events, and updates them at the end of each frame.
+ *
+ * @see GameEventBus
+ * @see HitEffect
+ */
+public class HitEffectListener implements GameEventListener {
+
+	/**
+	 * The event types the listener subscribes to.
+	 */
+	public static final GameEventType[] EVENT_TYPES = { GameEventType.HIT, GameEventType.GUARD,
+			GameEventType.ATTACK_ACTIVE, GameEventType.FRAME_END };
+
+	/**
+	 * The fight whose effects are created.
+	 */
+	private final Fighting fighting;
+
+	/**
+	 * The lists of the effects of both characters, to which the effects are
+	 * added.<br>
+	 * Index 0 is P1, index 1 is P2.
+	 */
+	private final LinkedList<LinkedList<HitEffect>> hitEffects;
+
+	/**
+	 * The class constructor.
+	 *
+	 * @param fighting
+	 *            the fight whose effects are created
+	 * @param hitEffects
+	 *            the lists of the effects of both characters. Index 0 is P1,
+	 *            index 1 is P2.
+	 */
+	public HitEffectListener(Fighting fighting, LinkedList<LinkedList<HitEffect>> hitEffects) {
+		this.fighting = fighting;
+		this.hitEffects = hitEffects;
+	}
+
+	@Override
+	public void onGameEvent(GameEventBus bus, long sequence) {
+		int index = bus.isPlayerNumber(sequence) ? 0 : 1;
+
+		switch (bus.getType(sequence)) {
+		case HIT:
+		case GUARD:
+			// Projectiles have no hit effects.
+			if (bus.getAction(sequence) != null) {
+				// Set effect based on the current combo, limited to the 4th hit
+				int comboState = Math.min(Math.max(this.fighting.playerCharacters[index].getHitCount() - 1, 0), 3);
+				Image[] effect = GraphicManager.getInstance().getHitEffectImageContaier()[comboState];
+				this.hitEffects.get(index)
+						.add(new HitEffect(bus.getX(sequence), bus.getY(sequence), effect, true, true));
+			}
+			break;
+		case ATTACK_ACTIVE:
+			if (bus.getAction(sequence) == Action.STAND_F_D_DFB) {
+				Image[] upper = GraphicManager.getInstance().getUpperImageContainer()[index];
+				this.hitEffects.get(index)
+						.add(new HitEffect(bus.getX(sequence), bus.getY(sequence), upper, true, false));
+			}
+			break;
+		case FRAME_END:
+			// Updates the all of effects appearing in this stage
+			for (LinkedList<HitEffect> effects : this.hitEffects) {
+				effects.removeIf(effect -> !effect.update());
+			}
+			break;
+		default:
+			break;
+		}
+	}
+}
@@ -17,7 +17,8 @@ import struct.HitArea;
 import struct.MotionData;
 
 /**
- * キャラクターが使用できる全モーションのパラメータ及び，それに対応する画像を管理するクラス．
+ * キャラクターが使用できる全モーションのパラメータ及び，それに対応する画像を管理するクラス．<br>
+ * モーションはゲーム，シミュレータ及びAIで共有されるため，読み取り専用であり，その当たり判定も変更できない．
  */
 public class Motion {
 
@@ -200,11 +201,11 @@ public class Motion {
 		this.frameNumber = Integer.valueOf(data[1]);
 		this.speedX = Integer.valueOf(data[2]);
 		this.speedY = Integer.valueOf(data[3]);
-		this.characterHitArea = new HitArea(Integer.valueOf(data[4]), Integer.valueOf(data[5]),
-				Integer.valueOf(data[6]), Integer.valueOf(data[7]));
+		this.characterHitArea = HitArea.readOnly(new HitArea(Integer.valueOf(data[4]), Integer.valueOf(data[5]),
+				Integer.valueOf(data[6]), Integer.valueOf(data[7])));
 		this.state = State.valueOf(data[8]);
-		this.attackHitArea = new HitArea(Integer.valueOf(data[9]), Integer.valueOf(data[10]), Integer.valueOf(data[11]),
-				Integer.valueOf(data[12]));
+		this.attackHitArea = HitArea.readOnly(new HitArea(Integer.valueOf(data[9]), Integer.valueOf(data[10]),
+				Integer.valueOf(data[11]), Integer.valueOf(data[12])));
 		this.attackSpeedX = Integer.valueOf(data[13]);
 		this.attackSpeedY = Integer.valueOf(data[14]);
 		this.attackStartUp = Integer.valueOf(data[15]);
@@ -245,9 +246,9 @@ public class Motion {
 		this.frameNumber = motionData.getFrameNumber();
 		this.speedX = motionData.getSpeedX();
 		this.speedY = motionData.getSpeedY();
-		this.characterHitArea = motionData.getCharacterHitArea();
+		this.characterHitArea = HitArea.readOnly(motionData.getCharacterHitArea());
 		this.state = motionData.getState();
-		this.attackHitArea = motionData.getAttackHitArea();
+		this.attackHitArea = HitArea.readOnly(motionData.getAttackHitArea());
 		this.attackSpeedX = motionData.getAttackSpeedX();
 		this.attackSpeedY = motionData.getAttackSpeedY();
 		this.attackStartUp = motionData.getAttackStartUp();
@@ -622,310 +623,4 @@ public class Motion {
 	public Image getImage(int nowFrame) {
 		return imageList.get((frameNumber - nowFrame) % frameNumber);
 	}
-
-	/**
-	 * Sets the name of this motion.
-	 *
-	 * @param motionName
-	 *            the motion name to be set
-	 */
-	public void setMotionName(String motionName) {
-		this.actionName = motionName;
-	}
-
-	/**
-	 * Set the number of frames in this motion.
-	 *
-	 * @param frameNumber
-	 *            the number of frames to be set
-	 */
-	public void setFrameNumber(int frameNumber) {
-		this.frameNumber = frameNumber;
-	}
-
-	/**
-	 * Sets the {@link #speedX} setting, which stores the horizontal speed
-	 * applied to a character using this motion.
-	 *
-	 * @param speedX
-	 *            the value to assign to the {@link #speedX} setting
-	 */
-	public void setSpeedX(int speedX) {
-		this.speedX = speedX;
-	}
-
-	/**
-	 * Sets the {@link #speedY} setting, which stores the vertical speed applied
-	 * to a character using this motion.
-	 *
-	 * @param speedY
-	 *            the value to assign to the {@link #speedY} setting
-	 */
-	public void setSpeedY(int speedY) {
-		this.speedY = speedY;
-	}
-
-	/**
-	 * Sets the hit area of this attack.
-	 *
-	 * @param attackHitArea
-	 *            the hit area of this attack
-	 */
-	public void setAttackHitArea(HitArea attackHitArea) {
-		this.attackHitArea = attackHitArea;
-	}
-
-	/**
-	 * Sets the character hit area of this motion.
-	 *
-	 * @param characterHitArea
-	 *            the character hit area of this motion
-	 */
-	public void setCharacterHitArea(HitArea characterHitArea) {
-		this.characterHitArea = characterHitArea;
-	}
-
-	/**
-	 * Sets the horizontal speed of the attack hit box.
-	 *
-	 * @param attackSpeedX
-	 *            the horizontal speed of the attack hit box
-	 */
-	public void setAttackSpeedX(int attackSpeedX) {
-		this.attackSpeedX = attackSpeedX;
-	}
-
-	/**
-	 * Sets the vertical speed of the attack hit box.
-	 *
-	 * @param attackSpeedY
-	 *            the vertical speed of the attack hit box
-	 */
-	public void setAttackSpeedY(int attackSpeedY) {
-		this.attackSpeedY = attackSpeedY;
-	}
-
-	/**
-	 * Sets the number of startup frames required for this motion to become
-	 * active
-	 *
-	 * @param attackStartUp
-	 *            the number of startup frames required for this motion to
-	 *            become active
-	 */
-	public void setAttackStartUp(int attackStartUp) {
-		this.attackStartUp = attackStartUp;
-	}
-
-	/**
-	 * Sets the number of active frames.
-	 *
-	 * @param attackActive
-	 *            the number of active frames
-	 */
-	public void setAttackActive(int attackActive) {
-		this.attackActive = attackActive;
-	}
-
-	/**
-	 * Sets the value of the damage to the unguarding opponent when it is hit by
-	 * this motion.
-	 *
-	 * @param attackHitDamage
-	 *            the value of the damage to the unguarding opponent when it is
-	 *            hit by this motion
-	 */
-	public void setAttackHitDamage(int attackHitDamage) {
-		this.attackHitDamage = attackHitDamage;
-	}
-
-	/**
-	 * Sets the value of the damage to the guarding opponent when it is hit by
-	 * this motion.
-	 *
-	 * @param attackGuardDamage
-	 *            the value of the damage to the guarding opponent when it is
-	 *            hit by this motion
-	 */
-	public void setAttackGuardDamage(int attackGuardDamage) {
-		this.attackGuardDamage = attackGuardDamage;
-	}
-
-	/**
-	 * Sets the value of the energy added to the character when it uses this
-	 * motion
-	 *
-	 * @param attackStartAddEnergy
-	 *            the value of the energy added to the character when it uses
-	 *            this motion.
-	 */
-	public void setAttackStartAddEnergy(int attackStartAddEnergy) {
-		this.attackStartAddEnergy = attackStartAddEnergy;
-	}
-
-	/**
-	 * Sets the value of the energy added to the character when this motion hits
-	 * the opponent.
-	 *
-	 * @param attackHitAddEnergy
-	 *            the value of the energy added to the character when this
-	 *            motion hits the opponent
-	 */
-	public void setAttackHitAddEnergy(int attackHitAddEnergy) {
-		this.attackHitAddEnergy = attackHitAddEnergy;
-	}
-
-	/**
-	 * Sets the value of the energy added to the character when this motion is
-	 * guarded by the guarding opponent.
-	 *
-	 * @param attackGuardAddEnergy
-	 *            the value of the energy added to the character when this
-	 *            motion is guarded by the guarding opponent
-	 */
-	public void setAttackGuardAddEnergy(int attackGuardAddEnergy) {
-		this.attackGuardAddEnergy = attackGuardAddEnergy;
-	}
-
-	/**
-	 * Sets the value of the energy given to the opponent when it is hit by this
-	 * motion.
-	 *
-	 * @param attackGiveEnergy
-	 *            the value of the energy given to the opponent when it is hit
-	 *            by this motion
-	 */
-	public void setAttackGiveEnergy(int attackGiveEnergy) {
-		this.attackGiveEnergy = attackGiveEnergy;
-	}
-
-	/**
-	 * Sets the change in the horizontal speed of the opponent when it is hit by
-	 * this motion.
-	 *
-	 * @param attackImpactX
-	 *            the change in the horizontal speed of the opponent when it is
-	 *            hit by this motion
-	 */
-	public void setAttackImpactX(int attackImpactX) {
-		this.attackImpactX = attackImpactX;
-	}
-
-	/**
-	 * Sets the change in the vertical speed of the opponent when it is hit by
-	 * this motion
-	 *
-	 * @param attackImpactY
-	 *            the change in the vertical speed of the opponent when it is
-	 *            hit by this motion
-	 */
-	public void setAttackImpactY(int attackImpactY) {
-		this.attackImpactY = attackImpactY;
-	}
-
-	/**
-	 * Sets the number of frames that the guarding opponent needs to resume to
-	 * its normal status after being hit by this motion.
-	 *
-	 * @param attackGiveGuardRecov
-	 *            the number of frames that the guarding opponent needs to
-	 *            resume to its normal status after being hit by this motion
-	 */
-	public void setAttackGiveGuardRecov(int attackGiveGuardRecov) {
-		this.attackGiveGuardRecov = attackGiveGuardRecov;
-	}
-
-	/**
-	 * Sets the value of the attack type:<br>
-	 * 1 = high,<br>
-	 * 2 = middle,<br>
-	 * 3 = low,<br>
-	 * 4 = throw,<br>
-	 *
-	 * @param attackType
-	 *            the value of the attack type
-	 */
-	public void setAttackType(int attackType) {
-		this.attackType = attackType;
-	}
-
-	/**
-	 * Sets the {@link #control} flag. If the flag is false, a character using
-	 * this motion cannot be controlled until this motion finishes.
-	 *
-	 * @param control
-	 *            the boolean value to give to the flag
-	 */
-	public void setControl(boolean control) {
-		this.control = control;
-	}
-
-	/**
-	 * Sets the flag whether this motion can push down the opponent when it is
-	 * hit by this motion.
-	 *
-	 * @param attackDownProp
-	 *            the flag whether this motion can push down the opponent when
-	 *            it is hit by this motion
-	 */
-	public void setAttackDownProp(boolean attackDownProp) {
-		this.attackDownProp = attackDownProp;
-	}
-
-	/**
-	 * Sets the {@link #cancelAbleFrame} setting. This indicates the first frame
-	 * when this motion can be cancelled.
-	 *
-	 * @param cancelAbleFrame
-	 *            the value to assign to the {@link #cancelAbleFrame} setting
-	 */
-	public void setCancelAbleFrame(int cancelAbleFrame) {
-		this.cancelAbleFrame = cancelAbleFrame;
-	}
-
-	/**
-	 * Sets the {@link #cancelAbleMotionLevel} setting. This indicates the
-	 * maximum level that a motion can have to be able to cancel this motion.
-	 * During cancelable frames, a motion whose level is below this value can
-	 * cancel the current motion.
-	 *
-	 * @param cancelAbleMotionLevel
-	 *            the value to assign to the {@link #cancelAbleMotionLevel}
-	 *            setting
-	 */
-	public void setCancelAbleMotionLevel(int cancelAbleMotionLevel) {
-		this.cancelAbleMotionLevel = cancelAbleMotionLevel;
-	}
-
-	/**
-	 * Sets the {@link #motionLevel} of this motion.
-	 *
-	 * @param motionLevel
-	 *            the value to assign to the {@link #motionLevel} setting
-	 */
-	public void setMotionLevel(int motionLevel) {
-		this.motionLevel = motionLevel;
-	}
-
-	/**
-	 * Sets the {@link #state} setting, which represents the state assigned to
-	 * the character at the end of this motion.
-	 *
-	 * @param state
-	 *            the value to assign to the {@link #state} setting
-	 */
-	public void setState(State state) {
-		this.state = state;
-	}
-
-	/**
-	 * Sets the {@link #landingFlag} setting, a flag encoding whether the
-	 * Landing motion can cancel this motion.
-	 *
-	 * @param landingFlag
-	 *            the value to assign to the {@link #landingFlag} setting
-	 */
-	public void setLandingFlag(boolean landingFlag) {
-		this.landingFlag = landingFlag;
-	}
 }
@@ -0,0 +1,97 @@
+package fighting;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import enumerate.Action;
+import struct.MotionData;
+
+/**
+ * The table of all motions of a character, indexed by
+ * {@link Action#ordinal()}.<br>
+ * The table is backed by an array which is never changed after construction,
+ * so a single table is shared by the character in the game, the game data
+ * given to the AIs and every simulation, and looking up a motion neither
+ * copies nor allocates. The motions and their hit areas are read-only.
+ *
+ * @see Character#getMotionTable()
+ * @see struct.GameData#getMotionTable(boolean)
+ */
+public final class MotionTable {
+
+	/**
+	 * The motions indexed by {@link Action#ordinal()}.
+	 */
+	private final Motion[] motions;
+
+	/**
+	 * The class constructor that creates a table of the specified motions.
+	 *
+	 * @param motions
+	 *            the motions in the order of {@link Action}
+	 */
+	public MotionTable(List<Motion> motions) {
+		this.motions = motions.toArray(new Motion[motions.size()]);
+	}
+
+	/**
+	 * Creates a table of motions without images from the specified motion
+	 * data.
+	 *
+	 * @param motionData
+	 *            the motion data in the order of {@link Action}
+	 * @return the table of the motions
+	 */
+	public static MotionTable fromMotionData(List<MotionData> motionData) {
+		ArrayList<Motion> motions = new ArrayList<Motion>(motionData.size());
+		for (MotionData data : motionData) {
+			motions.add(new Motion(data));
+		}
+		return new MotionTable(motions);
+	}
+
+	/**
+	 * Returns the motion of the specified action.
+	 *
+	 * @param action
+	 *            the action
+	 * @return the motion of the action
+	 */
+	public Motion get(Action action) {
+		return this.motions[action.ordinal()];
+	}
+
+	/**
+	 * Returns the motion at the specified index.
+	 *
+	 * @param index
+	 *            the ordinal of the action
+	 * @return the motion at the index
+	 */
+	public Motion get(int index) {
+		return this.motions[index];
+	}
+
+	/**
+	 * Returns the number of motions in the table.
+	 *
+	 * @return the number of motions
+	 */
+	public int size() {
+		return this.motions.length;
+	}
+
+	/**
+	 * Returns a new list containing all motions of the table.
+	 *
+	 * @return a list containing all motions
+	 */
+	public ArrayList<Motion> toList() {
+		ArrayList<Motion> temp = new ArrayList<Motion>(this.motions.length);
+		for (Motion motion : this.motions) {
+			temp.add(motion);
+		}
+		return temp;
+	}
+
+}
@@ -0,0 +1,430 @@
+package fighting;
+
+import java.util.Iterator;
+
+import enumerate.Action;
+import enumerate.GameEventType;
+import enumerate.SoundCue;
+import enumerate.State;
+import manager.SoundManager;
+import setting.FlagSetting;
+import setting.GameSetting;
+import struct.AudioBuffer;
+import struct.AudioSource;
+import struct.HitArea;
+
+/**
+ * The listener which plays the sound effects of a fight from its events.<br>
+ * The sound effects of the actions are played when the characters start them,
+ * as defined by {@link SoundCue}, and the looping sounds, such as footsteps and
+ * projectiles, are updated at the end of each frame.
+ *
+ * @see GameEventBus
+ */
+public class SoundEffectListener implements GameEventListener {
+
+	/**
+	 * The event types the listener subscribes to.
+	 */
+	public static final GameEventType[] EVENT_TYPES = { GameEventType.ACTION_START, GameEventType.PROJECTILE_SPAWN,
+			GameEventType.STAGE_EDGE, GameEventType.FRAME_END };
+
+	/**
+	 * The maximum number of projectiles of a character whose sounds are played
+	 * at a time.
+	 */
+	private static final int MAX_PROJECTILES = 3;
+
+	/**
+	 * The fight whose sound effects are played.
+	 */
+	private final Fighting fighting;
+
+	/**
+	 * The sources of the sound effects of the actions.<br>
+	 * Index 0 is P1, index 1 is P2.
+	 */
+	private final AudioSource[] sourceDefault;
+
+	/**
+	 * The sources of the sound effects of landing, guards and hits.<br>
+	 * Index 0 is P1, index 1 is P2.
+	 */
+	private final AudioSource[] sourceLanding;
+
+	/**
+	 * The sources of the footsteps.<br>
+	 * Index 0 is P1, index 1 is P2.
+	 */
+	private final AudioSource[] sourceWalking;
+
+	/**
+	 * The sources of the projectiles.<br>
+	 * The first index is the player, 0 for P1 and 1 for P2.
+	 */
+	private final AudioSource[][] sourceProjectiles;
+
+	/**
+	 * The sources of the energy alerts.<br>
+	 * Index 0 is P1, index 1 is P2.
+	 */
+	private final AudioSource[] sourceEnergyChange;
+
+	/**
+	 * The sources of the alerts of the stage edges.<br>
+	 * Index 0 is P1, index 1 is P2.
+	 */
+	private final AudioSource[] sourceBorderAlert;
+
+	/**
+	 * The sources of the heartbeats.<br>
+	 * Index 0 is P1, index 1 is P2.
+	 */
+	private final AudioSource[] sourceHeartBeat;
+
+	/**
+	 * Whether the crouch sound has been played while the character crouches,
+	 * to keep it from playing over and over again.<br>
+	 * Index 0 is P1, index 1 is P2.
+	 */
+	private final boolean[] crouchSoundPlayed;
+
+	/**
+	 * The moving actions whose footsteps are playing, or {@code null}.<br>
+	 * Index 0 is P1, index 1 is P2.
+	 */
+	private final Action[] walkingSoundAction;
+
+	/**
+	 * The energy of the characters when the energy alerts were played last.
+	 * <br>
+	 * Index 0 is P1, index 1 is P2.
+	 */
+	private final int[] preEnergy;
+
+	/**
+	 * Whether the sources of the projectiles are playing.<br>
+	 * The first index is the player, 0 for P1 and 1 for P2.
+	 */
+	private final boolean[][] isProjectileLive;
+
+	/**
+	 * The attacks of the projectiles followed by the sources, or {@code null}
+	 * while the projectile has not been fired yet.<br>
+	 * The first index is the player, 0 for P1 and 1 for P2.
+	 */
+	private final Attack[][] projectileAttacks;
+
+	/**
+	 * The class constructor, which creates the sources of the sound effects.
+	 *
+	 * @param fighting
+	 *            the fight whose sound effects are played
+	 */
+	public SoundEffectListener(Fighting fighting) {
+		this.fighting = fighting;
+		this.sourceDefault = new AudioSource[2];
+		this.sourceLanding = new AudioSource[2];
+		this.sourceWalking = new AudioSource[2];
+		this.sourceProjectiles = new AudioSource[2][MAX_PROJECTILES];
+		this.sourceEnergyChange = new AudioSource[2];
+		this.sourceBorderAlert = new AudioSource[2];
+		this.sourceHeartBeat = new AudioSource[2];
+		this.crouchSoundPlayed = new boolean[2];
+		this.walkingSoundAction = new Action[2];
+		this.preEnergy = new int[2];
+		this.isProjectileLive = new boolean[2][MAX_PROJECTILES];
+		this.projectileAttacks = new Attack[2][MAX_PROJECTILES];
+
+		SoundManager soundManager = SoundManager.getInstance();
+		for (int i = 0; i < 2; i++) {
+			this.sourceDefault[i] = soundManager.createAudioSource();
+			this.sourceLanding[i] = soundManager.createAudioSource();
+			this.sourceWalking[i] = soundManager.createAudioSource();
+			for (int j = 0; j < MAX_PROJECTILES; j++) {
+				this.sourceProjectiles[i][j] = soundManager.createAudioSource();
+			}
+			this.sourceEnergyChange[i] = soundManager.createAudioSource();
+			this.sourceBorderAlert[i] = soundManager.createAudioSource();
+			this.sourceHeartBeat[i] = soundManager.createAudioSource();
+		}
+	}
+
+	@Override
+	public void onGameEvent(GameEventBus bus, long sequence) {
+		int index = bus.isPlayerNumber(sequence) ? 0 : 1;
+
+		switch (bus.getType(sequence)) {
+		case ACTION_START:
+			startAction(index, bus.getAction(sequence), bus.getValue(sequence) != 0, bus.getX(sequence),
+					bus.getY(sequence));
+			break;
+		case PROJECTILE_SPAWN:
+			bindProjectile(index);
+			break;
+		case STAGE_EDGE:
+			if (!FlagSetting.muteFlag && !SoundManager.getInstance().isPlaying(this.sourceBorderAlert[index])) {
+				play(this.sourceBorderAlert[index], "BorderAlert.wav", bus.getX(sequence), 0, false);
+			}
+			break;
+		case FRAME_END:
+			if (!FlagSetting.muteFlag) {
+				for (int i = 0; i < 2; i++) {
+					updateSounds(i);
+				}
+			}
+			break;
+		default:
+			break;
+		}
+	}
+
+	/**
+	 * Plays the sound effect of an action started by a character.
+	 *
+	 * @param index
+	 *            the index of the character. 0 is P1, 1 is P2.
+	 * @param action
+	 *            the started action
+	 * @param interrupted
+	 *            {@code true} if the action interrupted another action and
+	 *            destroyed its attack, {@code false} otherwise
+	 * @param x
+	 *            the horizontal position of the character
+	 * @param y
+	 *            the vertical position of the character
+	 */
+	private void startAction(int index, Action action, boolean interrupted, int x, int y) {
+		SoundManager soundManager = SoundManager.getInstance();
+
+		// The projectiles which have not been fired yet are cancelled.
+		if (interrupted) {
+			for (int j = 0; j < MAX_PROJECTILES; j++) {
+				if (this.isProjectileLive[index][j] && this.projectileAttacks[index][j] == null) {
+					soundManager.stop(this.sourceProjectiles[index][j]);
+					this.isProjectileLive[index][j] = false;
+				}
+			}
+		}
+
+		AudioBuffer buffer = soundManager.getActionSoundBuffer(action);
+		switch (SoundCue.of(action)) {
+		case ONCE:
+			play(this.sourceDefault[index], buffer, x, y, false);
+			break;
+		case CROUCH:
+			if (!this.crouchSoundPlayed[index]) {
+				play(this.sourceDefault[index], buffer, x, y, false);
+				this.crouchSoundPlayed[index] = true;
+			}
+			break;
+		case MOVE:
+			if (this.walkingSoundAction[index] != action) {
+				play(this.sourceWalking[index], buffer, x, y, true);
+				this.walkingSoundAction[index] = action;
+			}
+			break;
+		case PROJECTILE:
+			for (int j = 0; j < MAX_PROJECTILES; j++) {
+				if (!this.isProjectileLive[index][j]) {
+					this.isProjectileLive[index][j] = true;
+					play(this.sourceProjectiles[index][j], buffer, x, y, true);
+					break;
+				}
+			}
+			break;
+		case LANDING:
+		case GUARD:
+			play(this.sourceLanding[index], buffer, x, y, false);
+			break;
+		case HIT:
+		case DOWN:
+			if (!FlagSetting.muteFlag) {
+				play(this.sourceLanding[index], buffer, x, y, false);
+			}
+			break;
+		default:
+			break;
+		}
+	}
+
+	/**
+	 * Binds the newest projectile of a character to the source which started
+	 * playing its sound when the character started the action.
+	 *
+	 * @param index
+	 *            the index of the character. 0 is P1, 1 is P2.
+	 */
+	private void bindProjectile(int index) {
+		int slot = -1;
+		for (int j = 0; j < MAX_PROJECTILES && slot < 0; j++) {
+			if (this.isProjectileLive[index][j] && this.projectileAttacks[index][j] == null) {
+				slot = j;
+			}
+		}
+		if (slot < 0) {
+			return;
+		}
+
+		Iterator<LoopEffect> iterator = this.fighting.projectileDeque.descendingIterator();
+		while (iterator.hasNext()) {
+			Attack attack = iterator.next().getAttack();
+			if (attack.isPlayerNumber() == (index == 0) && !isBound(index, attack)) {
+				this.projectileAttacks[index][slot] = attack;
+				return;
+			}
+		}
+	}
+
+	/**
+	 * Updates the sounds lasting over frames of a character, which are the
+	 * alerts, the footsteps and the projectiles.
+	 *
+	 * @param index
+	 *            the index of the character. 0 is P1, 1 is P2.
+	 */
+	private void updateSounds(int index) {
+		SoundManager soundManager = SoundManager.getInstance();
+		Character character = this.fighting.playerCharacters[index];
+		int edge = index == 0 ? 0 : GameSetting.STAGE_WIDTH;
+
+		if (character.getEnergy() > this.preEnergy[index] + 50) {
+			this.preEnergy[index] = character.getEnergy();
+			play(this.sourceEnergyChange[index], "EnergyCharge.wav", edge, 0, false);
+		}
+		if (this.fighting.matchSetting.isLimitHp() && character.getHp() < 50
+				&& !soundManager.isPlaying(this.sourceHeartBeat[index])) {
+			play(this.sourceHeartBeat[index], "Heartbeat.wav", edge, 0, false);
+		}
+
+		// This is to make sure crouch sound does not loop while the character is crouching.
+		if (character.getState() != State.CROUCH) {
+			this.crouchSoundPlayed[index] = false;
+		}
+		// This is to make sure Character footsteps sound does not play when character is in air.
+		if (character.getSpeedX() == 0 || character.getState() == State.AIR) {
+			this.walkingSoundAction[index] = null;
+			soundManager.stop(this.sourceWalking[index]);
+		} else {
+			soundManager.setSourcePos(this.sourceWalking[index], character.getX(), character.getY());
+		}
+
+		for (int j = 0; j < MAX_PROJECTILES; j++) {
+			Attack attack = this.projectileAttacks[index][j];
+			if (attack == null) {
+				continue;
+			}
+			if (isOnStage(attack)) {
+				HitArea area = attack.getCurrentHitArea();
+				soundManager.setSourcePos(this.sourceProjectiles[index][j], (area.getLeft() + area.getRight()) / 2,
+						(area.getTop() + area.getBottom()) / 2);
+			} else {
+				soundManager.stop(this.sourceProjectiles[index][j]);
+				this.isProjectileLive[index][j] = false;
+				this.projectileAttacks[index][j] = null;
+			}
+		}
+	}
+
+	/**
+	 * Resets the energy at which the energy alerts are played.<br>
+	 * Called at the end of each round.
+	 */
+	public void resetEnergyCount() {
+		this.preEnergy[0] = 0;
+		this.preEnergy[1] = 0;
+	}
+
+	/**
+	 * Closes the sources of the sound effects.
+	 */
+	public void close() {
+		for (int i = 0; i < 2; i++) {
+			this.sourceDefault[i].close();
+			this.sourceLanding[i].close();
+			this.sourceWalking[i].close();
+			for (AudioSource source : this.sourceProjectiles[i]) {
+				source.close();
+			}
+			this.sourceEnergyChange[i].close();
+			this.sourceBorderAlert[i].close();
+			this.sourceHeartBeat[i].close();
+		}
+	}
+
+	/**
+	 * Returns whether a projectile is followed by a source of a character.
+	 *
+	 * @param index
+	 *            the index of the character. 0 is P1, 1 is P2.
+	 * @param attack
+	 *            the attack of the projectile
+	 * @return {@code true} if the projectile is followed, {@code false}
+	 *         otherwise
+	 */
+	private boolean isBound(int index, Attack attack) {
+		for (Attack projectileAttack : this.projectileAttacks[index]) {
+			if (projectileAttack == attack) {
+				return true;
+			}
+		}
+		return false;
+	}
+
+	/**
+	 * Returns whether a projectile is still on the stage, which is neither
+	 * expired nor hit.
+	 *
+	 * @param attack
+	 *            the attack of the projectile
+	 * @return {@code true} if the projectile is on the stage, {@code false}
+	 *         otherwise
+	 */
+	private boolean isOnStage(Attack attack) {
+		for (LoopEffect projectile : this.fighting.projectileDeque) {
+			if (projectile.getAttack() == attack) {
+				return true;
+			}
+		}
+		return false;
+	}
+
+	/**
+	 * Plays a sound effect in a source.
+	 *
+	 * @param source
+	 *            the source
+	 * @param fileName
+	 *            the name of the sound effect file
+	 * @param x
+	 *            the horizontal position of the sound
+	 * @param y
+	 *            the vertical position of the sound
+	 * @param loop
+	 *            {@code true} to loop the sound, {@code false} otherwise
+	 */
+	private void play(AudioSource source, String fileName, int x, int y, boolean loop) {
+		play(source, SoundManager.getInstance().getSoundBuffers().get(fileName), x, y, loop);
+	}
+
+	/**
+	 * Plays a sound buffer in a source.<br>
+	 * Nothing is played if the sound effect is not loaded.
+	 *
+	 * @param source
+	 *            the source
+	 * @param buffer
+	 *            the sound buffer, or {@code null}
+	 * @param x
+	 *            the horizontal position of the sound
+	 * @param y
+	 *            the vertical position of the sound
+	 * @param loop
+	 *            {@code true} to loop the sound, {@code false} otherwise
+	 */
+	private void play(AudioSource source, AudioBuffer buffer, int x, int y, boolean loop) {
+		if (buffer != null) {
+			SoundManager.getInstance().play2(source, buffer, x, y, loop);
+		}
+	}
+}
@@ -26,12 +26,16 @@ import py4j.Py4JException;
 import setting.FlagSetting;
 import setting.GameSetting;
 import setting.LaunchSetting;
+import setting.MatchSetting;
 import struct.AudioData;
 import struct.AudioSource;
 import struct.FrameData;
 import struct.GameData;
 import struct.ScreenData;
 import util.DebugActionData;
+import util.FrameProfiler;
+import util.FrameProfiler.Phase;
+import util.JfrEvents;
 import util.LogWriter;
 import util.ResourceDrawer;
 
@@ -100,6 +104,38 @@ public class Play extends GameScene {
 	private AudioSource sourceBackground;
 
 	private AudioData audioData;
+
+	/**
+	 * 再利用するScreenData及びAudioDataの数．<br>
+	 * 2体のAIがそれぞれ前のターンに渡されたデータを使い, 最新のデータがまだ読まれていなくても, 1つは空きがある．
+	 */
+	private static final int DATA_POOL_SIZE = 4;
+
+	/**
+	 * windowモードで毎フレーム再利用するScreenDataのプール．必要になった時に生成する．
+	 */
+	private ScreenData[] screenDataPool;
+
+	/**
+	 * windowモードで毎フレーム再利用するAudioDataのプール．必要になった時に生成する．
+	 */
+	private AudioData[] audioDataPool;
+
+	/**
+	 * 仮想デバイスから取得した音声データを一時的に格納する配列．
+	 */
+	private float[][] samples;
+
+	/**
+	 * 対戦の設定．対戦開始時にLaunchSetting及びFlagSettingから作成する．
+	 */
+	private MatchSetting matchSetting;
+
+	/**
+	 * 対戦処理の各フェーズの処理時間を計測するプロファイラ．
+	 */
+	private FrameProfiler profiler;
+
 	/**
 	 * クラスコンストラクタ．
 	 */
@@ -116,7 +152,9 @@ public class Play extends GameScene {
 	public void initialize() {
 		InputManager.getInstance().setSceneName(GameSceneName.PLAY);
 
-		this.fighting = new Fighting();
+		this.matchSetting = MatchSetting.fromLaunchSetting();
+		this.profiler = new FrameProfiler(FlagSetting.profileFlag);
+		this.fighting = new Fighting(this.matchSetting);
 		this.fighting.initialize();
 
 		this.nowFrame = 0;
@@ -129,6 +167,9 @@ public class Play extends GameScene {
 		this.frameData = new FrameData();
 		this.screenData = new ScreenData();
 		this.audioData = new AudioData();
+		this.screenDataPool = new ScreenData[DATA_POOL_SIZE];
+		this.audioDataPool = new AudioData[DATA_POOL_SIZE];
+		this.samples = new float[2][GameSetting.SOUND_BUFFER_SIZE];
 		this.keyData = new KeyData();
 		this.roundResults = new ArrayList<RoundResult>();
 
@@ -175,8 +216,11 @@ public class Play extends GameScene {
 
 	@Override
 	public void update() {
-		
-		if (this.currentRound <= GameSetting.ROUND_MAX) {
+		JfrEvents.Update event = new JfrEvents.Update();
+		event.begin();
+		event.set(this.nowFrame, this.currentRound, null);
+
+		if (this.currentRound <= this.matchSetting.getRoundMax()) {
 			// ラウンド開始時に初期化
 			if (this.roundStartFlag) {
 				initRound();
@@ -230,6 +274,7 @@ public class Play extends GameScene {
 			this.setNextGameScene(homeMenu);
 		}
 
+		event.commit();
 	}
 
 	/**
@@ -251,7 +296,10 @@ public class Play extends GameScene {
 	 */
 	private void processingBreakTime() {
 		// ダミーフレームをAIにセット
-		InputManager.getInstance().setFrameData(new FrameData(), new ScreenData(), new AudioData());
+		if (!FlagSetting.headless) {
+			this.screenData = nextScreenData();
+		}
+		InputManager.getInstance().setFrameData(new FrameData(), this.screenData, AudioData.getSilentInstance());
 
 		if (FlagSetting.enableWindow) {
 			GraphicManager.getInstance().drawQuad(0, 0, GameSetting.STAGE_WIDTH, GameSetting.STAGE_HEIGHT, 0, 0, 0, 0);
@@ -271,19 +319,27 @@ public class Play extends GameScene {
 	 * 6. 対戦後の画面情報(ScreenData)を取得する．<br>
 	 * 7. AIにFrameData及びScreenDataを渡す．<br>
 	 * 8. ラウンドが終了しているか判定する.<br>
+	 * <br>
+	 * --profileを指定した場合は各処理の時間を計測し, ラウンド終了時にログに出力する.
 	 */
 	private void processingGame() {
+		this.profiler.beginFrame();
+		// KeyDataは生成せずに再利用する
 		if (this.endFrame != -1) {
-			this.keyData = new KeyData();
+			this.keyData.clear();
+			this.profiler.mark(Phase.INPUT);
 			if (this.endFrame % 30 == 0) {
-				this.fighting.processingFight(this.nowFrame, this.keyData);
+				processingFight();
 			}
 		} else {
-			this.keyData = new KeyData(InputManager.getInstance().getKeyData());
-			this.fighting.processingFight(this.nowFrame, this.keyData);
+			this.keyData.set(InputManager.getInstance().getKeyData());
+			this.profiler.mark(Phase.INPUT);
+			processingFight();
 		}
+		this.profiler.mark(Phase.FIGHT);
 
 		this.frameData = this.fighting.createFrameData(this.nowFrame, this.currentRound);
+		this.profiler.mark(Phase.FRAME_DATA);
 
 		// リプレイログ吐き出し
 		if (!FlagSetting.trainingModeFlag) {
@@ -294,23 +350,31 @@ public class Play extends GameScene {
 			LogWriter.getInstance().updateJson(this.frameData, this.keyData);
 		}
 
+		// P1とP2の行った各アクションの数を数える
+		if (FlagSetting.debugActionFlag) {
+			DebugActionData.getInstance().countPlayerAction(this.fighting.getCharacters());
+		}
+		this.profiler.mark(Phase.LOGGING);
+
 		if (FlagSetting.enableWindow) {
 			// 画面をDrawerクラスで描画
 			ResourceDrawer.getInstance().drawResource(this.fighting.getCharacters(), this.fighting.getProjectileDeque(),
 					this.fighting.getHitEffectList(), this.frameData.getRemainingTimeMilliseconds(), this.currentRound);
 		}
+		this.profiler.mark(Phase.DRAWING);
 
-		// P1とP2の行った各アクションの数を数える
-		if (FlagSetting.debugActionFlag) {
-			DebugActionData.getInstance().countPlayerAction(this.fighting.getCharacters());
+		// headlessモードでは画面が描画されず常に黒いため, 初期化時に生成したScreenDataを使い回す
+		if (!FlagSetting.headless) {
+			this.screenData = nextScreenData();
 		}
-
-		this.screenData = new ScreenData();
-		if (this.nowFrame == 0) {
-			this.audioData = new AudioData();
+		this.profiler.mark(Phase.SCREEN_DATA);
+		if (this.nowFrame == 0 || FlagSetting.headless) {
+			// headlessモードでは音声が常に無音のため, 変換済みの無音データを共有する
+			this.audioData = AudioData.getSilentInstance();
 		} else {
-            this.audioData = new AudioData(SoundManager.getInstance().getVirtualRenderer().sampleAudio());
-        }
+			this.audioData = nextAudioData(SoundManager.getInstance().getVirtualRenderer().sampleAudio(this.samples));
+		}
+		this.profiler.mark(Phase.AUDIO);
 		// AIにFrameDataをセット
 		InputManager.getInstance().setFrameData(this.frameData, this.screenData, this.audioData);
 		
@@ -319,6 +383,8 @@ public class Play extends GameScene {
 			observer.setInformation(this.frameData, this.audioData, this.screenData);
 			observer.onGameUpdate();
 		}
+		this.profiler.mark(Phase.AI_DELIVERY);
+		this.profiler.endFrame();
 
 		// 体力が0orタイムオーバーならラウンド終了処理
 		if (isBeaten() || isTimeOver()) {
@@ -326,6 +392,63 @@ public class Play extends GameScene {
 		}
 	}
 
+	/**
+	 * 現在の画面の情報を, どのAIも使っていないプール内のScreenDataに読み込んで返す．
+	 *
+	 * @return 現在の画面の情報
+	 */
+	private ScreenData nextScreenData() {
+		for (int i = 0; i < this.screenDataPool.length; i++) {
+			ScreenData screenData = this.screenDataPool[i];
+			if (screenData == null) {
+				this.screenDataPool[i] = new ScreenData();
+				return this.screenDataPool[i];
+			} else if (screenData != this.screenData && !InputManager.getInstance().isUsedByAI(screenData)) {
+				screenData.update();
+				return screenData;
+			}
+		}
+		// プールの大きさから起こらないが, 全て使われている場合は新しく生成する
+		return new ScreenData();
+	}
+
+	/**
+	 * 引数の音声データを, どのAIも使っていないプール内のAudioDataで変換して返す．
+	 *
+	 * @param rawData
+	 *            仮想デバイスから取得した音声データ
+	 * @return 変換した音声データ
+	 */
+	private AudioData nextAudioData(float[][] rawData) {
+		for (int i = 0; i < this.audioDataPool.length; i++) {
+			AudioData audioData = this.audioDataPool[i];
+			if (audioData == null) {
+				audioData = new AudioData();
+				this.audioDataPool[i] = audioData;
+			} else if (audioData == this.audioData || InputManager.getInstance().isUsedByAI(audioData)) {
+				continue;
+			}
+			audioData.update(rawData);
+			return audioData;
+		}
+		// プールの大きさから起こらないが, 全て使われている場合は新しく生成する
+		AudioData audioData = new AudioData();
+		audioData.update(rawData);
+		return audioData;
+	}
+
+	/**
+	 * 現在のフレームの対戦処理を行う.<br>
+	 * 処理時間はJFRのイベントとして記録される.
+	 */
+	private void processingFight() {
+		JfrEvents.Fight event = new JfrEvents.Fight();
+		event.begin();
+		this.fighting.processingFight(this.nowFrame, this.keyData);
+		event.set(this.nowFrame, this.currentRound, null);
+		event.commit();
+	}
+
 	/**
 	 * ラウンド終了時の処理を行う.
 	 */
@@ -336,11 +459,12 @@ public class Play extends GameScene {
 		if (FlagSetting.slowmotion) {
 			if (this.endFrame > GameSetting.ROUND_EXTRAFRAME_NUMBER) {
 				this.fighting.processingRoundEnd();
-				RoundResult roundResult = new RoundResult(this.frameData);
+				RoundResult roundResult = new RoundResult(this.frameData, this.matchSetting);
 				this.roundResults.add(roundResult);
 
 				// AIに結果を渡す
 				InputManager.getInstance().sendRoundResult(roundResult);
+				this.profiler.dump("Round " + this.currentRound);
 				this.currentRound++;
 				this.roundStartFlag = true;
 				this.endFrame = -1;
@@ -356,11 +480,12 @@ public class Play extends GameScene {
 		} else {
 			this.endFrame = 0;
 			this.fighting.processingRoundEnd();
-			RoundResult roundResult = new RoundResult(this.frameData);
+			RoundResult roundResult = new RoundResult(this.frameData, this.matchSetting);
 			this.roundResults.add(roundResult);
 
 			// AIに結果を渡す
 			InputManager.getInstance().sendRoundResult(roundResult);
+			this.profiler.dump("Round " + this.currentRound);
 			this.currentRound++;
 			this.roundStartFlag = true;
 			this.endFrame = -1;
@@ -383,7 +508,7 @@ public class Play extends GameScene {
 	 * @return {@code true}: P1 or P2が倒された，{@code false}: otherwise
 	 */
 	private boolean isBeaten() {
-		return FlagSetting.limitHpFlag
+		return this.matchSetting.isLimitHp()
 				&& (this.frameData.getCharacter(true).getHp() <= 0 || this.frameData.getCharacter(false).getHp() <= 0);
 	}
 
@@ -421,6 +546,8 @@ public class Play extends GameScene {
 		this.fighting = null;
 		this.frameData = null;
 		this.screenData = null;
+		this.screenDataPool = null;
+		this.audioDataPool = null;
 		this.keyData = null;
 		// AIの実行を終了する
 		InputManager.getInstance().closeAI();
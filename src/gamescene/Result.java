@@ -150,7 +150,8 @@ public class Result extends GameScene {
 	private void endProcess() {
 		// -aや-nを引数にして起動 or Repeat Countを2以上にして起動した場合の処理
 		if (FlagSetting.automationFlag || FlagSetting.allCombinationFlag || FlagSetting.py4j || FlagSetting.grpcAuto) {
-			if (++this.displayedTime > 300) {
+			// 画面を表示しない場合は結果の表示を待たない
+			if (!FlagSetting.enableWindow || ++this.displayedTime > 300) {
 				// まだ繰り返し回数が残っている場合
 				if (FlagSetting.automationFlag && LaunchSetting.repeatedCount + 1 < LaunchSetting.repeatNumber) {
 					LaunchSetting.repeatedCount++;
@@ -2,11 +2,11 @@ package grpc;
 import java.io.IOException;
 import java.util.Arrays;
 import java.util.Optional;
-import java.util.concurrent.Executors;
 import java.util.concurrent.TimeUnit;
 import java.util.logging.Level;
 import java.util.logging.Logger;
 
+import aiinterface.AIThreads;
 import io.grpc.Server;
 import io.grpc.ServerBuilder;
 import io.grpc.ServerInterceptors;
@@ -28,7 +28,7 @@ public class GrpcServer {
   		ServiceImpl service = new ServiceImpl(this);
     	server = ServerBuilder.forPort(port)
     			.addService(ServerInterceptors.intercept(service, new RequestInterceptor()))
-    			.executor(Executors.newFixedThreadPool(4))
+    			.executor(AIThreads.newExecutor("gRPC", 4))
     			.build();
     	
     	server.start();
@@ -12,6 +12,7 @@ import struct.FrameData;
 import struct.GameData;
 import struct.ScreenData;
 import util.GrpcUtil;
+import util.JfrEvents;
 
 public class ObserverAgent {
 	
@@ -87,6 +88,8 @@ public class ObserverAgent {
 	}
 	
 	public void onGameUpdate() {
+		JfrEvents.GrpcSend event = new JfrEvents.GrpcSend();
+		event.begin();
 		SpectatorGameState response = SpectatorGameState.newBuilder()
   				.setStateFlag(GrpcFlag.PROCESSING)
   				.setFrameData(GrpcUtil.convertFrameData(frameData))
@@ -94,6 +97,9 @@ public class ObserverAgent {
   				.setAudioData(GrpcUtil.convertAudioData(audioData))
   				.build();
 		this.onNext(response);
+		event.set(frameData.getFramesNumber(), frameData.getRound(), null);
+		event.setObserver(true);
+		event.commit();
 	}
 	
 	public void onNext(SpectatorGameState state) {
@@ -29,6 +29,7 @@ import struct.GameData;
 import struct.Key;
 import struct.ScreenData;
 import util.GrpcUtil;
+import util.JfrEvents;
 
 public class PlayerAgent {
 	
@@ -136,7 +137,7 @@ public class PlayerAgent {
 		this.screenData = screenData;
 		this.audioData = audioData;
 		if (this.isBlind()) {
-			this.frameData.removeVisualData();
+			this.frameData = frameData.withoutVisualData();
 			this.screenData = null;
 		}
 	}
@@ -152,6 +153,8 @@ public class PlayerAgent {
 	}
 	
 	public void onGameUpdate() {
+		JfrEvents.GrpcSend event = new JfrEvents.GrpcSend();
+		event.begin();
 		if (!this.waitFlag) {
 			this.startTimer(frameData.getFramesNumber());
 			this.waitFlag = true;
@@ -167,6 +170,8 @@ public class PlayerAgent {
 			response.setNonDelayFrameData(GrpcUtil.convertFrameData(nonDelayFrameData));
 		}
 		this.onNext(response.build());
+		event.set(frameData.getFramesNumber(), frameData.getRound(), this.playerNumber);
+		event.commit();
 	}
 	
 	public void onRoundEnd(RoundResult roundResult) {
@@ -1,6 +1,7 @@
 package informationcontainer;
 
 import setting.FlagSetting;
+import setting.MatchSetting;
 import struct.FrameData;
 
 /**
@@ -55,11 +56,35 @@ public class RoundResult {
 	 *            フレーム内のゲームデータ
 	 */
 	public RoundResult(FrameData frameData) {
+		this(frameData, FlagSetting.limitHpFlag);
+	}
+
+	/**
+	 * 引数として渡されたフレームデータと試合の設定から結果に関する情報を取得するクラスコンストラクタ．
+	 *
+	 * @param frameData
+	 *            フレーム内のゲームデータ
+	 * @param matchSetting
+	 *            試合の設定
+	 */
+	public RoundResult(FrameData frameData, MatchSetting matchSetting) {
+		this(frameData, matchSetting.isLimitHp());
+	}
+
+	/**
+	 * フレームデータから結果に関する情報を取得する．HPモードでは残りHPを0以上に切り上げる．
+	 *
+	 * @param frameData
+	 *            フレーム内のゲームデータ
+	 * @param limitHp
+	 *            HPモードかどうか
+	 */
+	private RoundResult(FrameData frameData, boolean limitHp) {
 		this.currentRound = frameData.getRound();
 		this.elapsedFrame = frameData.getFramesNumber() + 1;
 		this.remainingHPs = new int[] { frameData.getCharacter(true).getHp(), frameData.getCharacter(false).getHp() };
 
-		if (FlagSetting.limitHpFlag) {
+		if (limitHp) {
 			this.remainingHPs[0] = Math.max(this.remainingHPs[0], 0);
 			this.remainingHPs[1] = Math.max(this.remainingHPs[1], 0);
 		}
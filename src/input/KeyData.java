@@ -68,4 +68,50 @@ public class KeyData {
 	public Key[] getKeys() {
 		return this.keys.clone();
 	}
+
+	/**
+	 * 指定したプレイヤーの入力キーを返す．<br>
+	 * {@link #getKeys()}と異なり配列を複製しないため, 毎フレーム呼び出す処理ではこちらを用いる．
+	 *
+	 * @param playerNumber
+	 *            {@code true} if the player is P1, or {@code false} if P2.
+	 * @return 指定したプレイヤーの入力キー
+	 */
+	public Key getKey(boolean playerNumber) {
+		return this.keys[playerNumber ? 0 : 1];
+	}
+
+	/**
+	 * 指定したプレイヤーの入力キーに, 引数のKeyの値をコピーする．
+	 *
+	 * @param playerNumber
+	 *            {@code true} if the player is P1, or {@code false} if P2.
+	 * @param key
+	 *            コピーする入力キー. {@code null}の場合は何も入力していない状態にする．
+	 */
+	public void set(boolean playerNumber, Key key) {
+		this.keys[playerNumber ? 0 : 1].set(key);
+	}
+
+	/**
+	 * 引数のKeyDataの値をこのインスタンスにコピーする．<br>
+	 * インスタンスを生成せずに再利用するために用いる．
+	 *
+	 * @param keyData
+	 *            コピーするKeyData. {@code null}の場合は何も入力していない状態にする．
+	 */
+	public void set(KeyData keyData) {
+		for (int i = 0; i < this.keys.length; i++) {
+			this.keys[i].set(keyData != null && i < keyData.keys.length ? keyData.keys[i] : null);
+		}
+	}
+
+	/**
+	 * 全プレイヤーの入力キーを何も入力していない状態にする．
+	 */
+	public void clear() {
+		for (Key key : this.keys) {
+			key.empty();
+		}
+	}
 }
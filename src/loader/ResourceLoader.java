@@ -42,6 +42,7 @@ import image.CharacterActionImage;
 import image.Image;
 import manager.GraphicManager;
 import manager.SoundManager;
+import setting.FlagSetting;
 import setting.GameSetting;
 import setting.LaunchSetting;
 import setting.ResourceSetting;
@@ -85,6 +86,33 @@ public class ResourceLoader {
 	 */
 	public void loadResource() {
 		Logger.getAnonymousLogger().log(Level.INFO, "Loading the resources");
+		if (!FlagSetting.headless) {
+			loadGraphicResource();
+		}
+
+		// サウンドエフェクト読み込み
+		if (!isLoaded("soundEffect")) {
+			loadSoundEffect();
+
+			addLoadedResource("soundEffect");
+			Logger.getAnonymousLogger().log(Level.INFO, "Sound effects have been loaded.");
+		}
+
+		// BGM読み込み
+		if (!isLoaded("BGM")) {
+			loadBackGroundMusic();
+
+			addLoadedResource("BGM");
+			Logger.getAnonymousLogger().log(Level.INFO, "BGM has been loaded.");
+		}
+
+	}
+
+	/**
+	 * Loads the images of the game.<br>
+	 * They are not loaded in headless mode, where nothing is drawn.
+	 */
+	private void loadGraphicResource() {
 		String graphicPath = "./data/graphics/";
 		String characterGraphicPath = "./data/characters/";
 
@@ -148,23 +176,6 @@ public class ResourceLoader {
 		// キャラクター画像読み込み
 		loadCharacterImages(characterGraphicPath);
 		Logger.getAnonymousLogger().log(Level.INFO, "Character images have been loaded.");
-
-		// サウンドエフェクト読み込み
-		if (!isLoaded("soundEffect")) {
-			loadSoundEffect();
-
-			addLoadedResource("soundEffect");
-			Logger.getAnonymousLogger().log(Level.INFO, "Sound effects have been loaded.");
-		}
-
-		// BGM読み込み
-		if (!isLoaded("BGM")) {
-			loadBackGroundMusic();
-
-			addLoadedResource("BGM");
-			Logger.getAnonymousLogger().log(Level.INFO, "BGM has been loaded.");
-		}
-
 	}
 
 	/**
@@ -425,6 +436,11 @@ public class ResourceLoader {
 	 * @return 新たな画像クラスのインスタンス
 	 */
 	public Image loadTextureFromBufferedImage(BufferedImage bimg) {
+		if (FlagSetting.headless) {
+			// there is no OpenGL context to send the texture to
+			return new Image(0, bimg);
+		}
+
 		// Gather all the pixels
 		int[] pixels = new int[bimg.getWidth() * bimg.getHeight()];
 		bimg.getRGB(0, 0, bimg.getWidth(), bimg.getHeight(), pixels, 0, bimg.getWidth());
@@ -550,6 +566,7 @@ public class ResourceLoader {
                         SoundManager.getInstance().createAudioBuffer(file.getPath(), false));
             }
         }
+        SoundManager.getInstance().updateActionSoundBuffers();
     }
 
     /**
@@ -51,6 +51,7 @@ import org.lwjgl.system.MemoryStack;
 import setting.FlagSetting;
 import setting.GameSetting;
 import setting.LaunchSetting;
+import util.FramePacer;
 
 /**
  * ゲームの進行管理を行うマネージャクラス．
@@ -80,6 +81,13 @@ public class DisplayManager {
 	 * @see GameManager
 	 */
 	public void start(GameManager game) {
+		if (FlagSetting.headless) {
+			// no window, OpenGL context or frame rate limit
+			headlessLoop(game);
+			close();
+			return;
+		}
+
 		// Window, OpenGLの初期化
 		initialize();
 
@@ -186,7 +194,8 @@ public class DisplayManager {
 		// ゲームマネージャ初期化
 		gm.initialize();
 
-		long lastNanos = System.nanoTime();
+		FramePacer pacer = new FramePacer(GameSetting.FPS, LaunchSetting.framePacingPolicy);
+		long pacedFrames = 0;
 		// Runs the rendering loop until the user has attempted to close the
 		// window.
 		while (!glfwWindowShouldClose(this.window)) {
@@ -199,10 +208,13 @@ public class DisplayManager {
 			// ゲーム状態の更新
 			gm.update();
 
-		   	if(!FlagSetting.fastModeFlag){
-		   		syncFrameRate(60, lastNanos);
-		   		lastNanos = System.nanoTime();
-		   	}
+			// 固定スケジュールでフレームレートを保つ
+			if (!FlagSetting.fastModeFlag) {
+				pacer.sync();
+				if (FlagSetting.profileFlag && ++pacedFrames % (GameSetting.FPS * 60) == 0) {
+					pacer.dump("Frame pacing");
+				}
+			}
 			// バックバッファに描画する
 			GraphicManager.getInstance().render();
 
@@ -212,6 +224,26 @@ public class DisplayManager {
 			// invoked during this call.
 			glfwPollEvents();
 		}
+		pacer.dump("Frame pacing");
+	}
+
+	/**
+	 * Runs the main loop of the game in headless mode.<br>
+	 * The game is updated as fast as possible without creating a window or
+	 * an OpenGL context, so nothing is rendered.
+	 *
+	 * @param gm
+	 *            GameManagerクラスのインスタンス
+	 */
+	private void headlessLoop(GameManager gm) {
+		Logger.getAnonymousLogger().log(Level.INFO, "Headless mode");
+
+		gm.initialize();
+
+		while (!gm.isExit()) {
+			gm.update();
+		}
+		gm.close();
 	}
 
 	/**
@@ -229,13 +261,15 @@ public class DisplayManager {
 			}
 		}
 
-		// Free the window callbacks and destroy the window
-		glfwFreeCallbacks(this.window);
-		glfwDestroyWindow(this.window);
+		if (!FlagSetting.headless) {
+			// Free the window callbacks and destroy the window
+			glfwFreeCallbacks(this.window);
+			glfwDestroyWindow(this.window);
 
-		// Terminate GLFW and free the error callback
-		glfwTerminate();
-		glfwSetErrorCallback(null).free();
+			// Terminate GLFW and free the error callback
+			glfwTerminate();
+			glfwSetErrorCallback(null).free();
+		}
 		
 		Logger.getAnonymousLogger().log(Level.INFO, "Close FightingICE");
 		System.exit(0);
@@ -255,15 +289,4 @@ public class DisplayManager {
 		glEnable(GL_BLEND);
 		glBlendFunc(GL_SRC_ALPHA, GL_ONE_MINUS_SRC_ALPHA);
 	}
-
-    private void syncFrameRate(float fps, long lastNanos) {
-
-    	long targetNanos = lastNanos + (long) (1_000_000_000.0f / fps) - 1_000_000L;  // subtract 1 ms to skip the last sleep call
-    	try {
-    		while (System.nanoTime() < targetNanos) {
-    			Thread.sleep(1);
-    		}
-    	}
-    	catch (InterruptedException ignore) {}
-    }
 }
@@ -21,6 +21,7 @@ import java.util.logging.Logger;
 
 import aiinterface.AIController;
 import aiinterface.AIInterface;
+import aiinterface.AIThreads;
 import aiinterface.ThreadController;
 import enumerate.GameSceneName;
 import informationcontainer.AIContainer;
@@ -57,6 +58,11 @@ public class InputManager {
 	 */
 	private AIController[] ais;
 
+	/**
+	 * AIコントローラを動かすスレッド．
+	 */
+	private AIThreads aiThreads;
+
 	/**
 	 * ゲームのシーン名．
 	 */
@@ -89,11 +95,6 @@ public class InputManager {
 	 */
 	private char[] deviceTypes;
 
-	/**
-	 * 1フレーム分のゲームの処理が終わったことを示すオブジェクト．
-	 */
-	private Object endFrame;
-
 	/**
 	 * InputManagerクラスのクラスコンストラクタ．<br>
 	 * デバイスタイプはデフォルトでキーボードを指定する．
@@ -103,6 +104,7 @@ public class InputManager {
 
 		keyboard = new Keyboard();
 		deviceTypes = new char[DEFAULT_DEVICE_NUMBER];
+		aiThreads = new AIThreads("AI");
 		sceneName = GameSceneName.HOME_MENU;
 		this.predifinedAIs = new HashMap<String, AIInterface>();
 
@@ -110,7 +112,6 @@ public class InputManager {
 			this.deviceTypes[i] = DEVICE_TYPE_KEYBOARD;
 		}
 
-		this.endFrame = ThreadController.getInstance().getEndFrame();
 	}
 
 	/**
@@ -154,22 +155,24 @@ public class InputManager {
 	 * 毎フレーム実行され，キーボード入力及びAIの入力情報を取得する．
 	 */
 	public void update() {
-		Key[] keys = new Key[this.deviceTypes.length];
+		// 毎フレームKeyDataを生成せず, バッファに入力をコピーする
+		if (this.buffer == null) {
+			this.buffer = new KeyData();
+		}
 		for (int i = 0; i < this.deviceTypes.length; i++) {
 			switch (this.deviceTypes[i]) {
 			case DEVICE_TYPE_KEYBOARD:
-				keys[i] = getKeyFromKeyboard(i == 0);
+				this.buffer.set(i == 0, getKeyFromKeyboard(i == 0));
 				break;
 			case DEVICE_TYPE_AI:
 			case DEVICE_TYPE_GRPC:
-				keys[i] = getKeyFromAI(this.ais[i]);
+				this.buffer.set(i == 0, getKeyFromAI(this.ais[i]));
 				break;
 			default:
+				this.buffer.set(i == 0, null);
 				break;
 			}
 		}
-
-		this.setKeyData(new KeyData(keys));
 	}
 
 	/**
@@ -245,11 +248,19 @@ public class InputManager {
 	 * @see GameData
 	 */
 	public void startAI(GameData gameData) throws Py4JException{
+		int parties = 0;
+		for (AIController ai : this.ais) {
+			if (ai != null) {
+				parties++;
+			}
+		}
+		ThreadController.getInstance().resetEndFrame(parties);
+
 		for (int i = 0; i < this.deviceTypes.length; i++) {
 			if (this.ais[i] != null) {
 		        Logger.getAnonymousLogger().log(Level.INFO, String.format("Initialize AI controller for P%s", i == 0 ? "1" : "2"));
-				this.ais[i].initialize(ThreadController.getInstance().getAIsObject(i == 0), gameData, i == 0);
-				this.ais[i].start();// start the thread
+				this.ais[i].initialize(ThreadController.getInstance(), gameData, i == 0);
+				this.aiThreads.start(this.ais[i], i == 0);// start the thread
 			}
 		}
 	}
@@ -259,6 +270,7 @@ public class InputManager {
 	 */
 	public void closeAI() {
 		this.buffer = new KeyData();
+		ThreadController.getInstance().resetEndFrame(0);
 		
 		this.deviceTypes = new char[DEFAULT_DEVICE_NUMBER];
 		this.ais = new AIController[DEFAULT_DEVICE_NUMBER];
@@ -270,14 +282,34 @@ public class InputManager {
 	 * @param ai
 	 *            AIの情報を格納したコントローラ
 	 *
-	 * @return AIのキー入力．
+	 * @return AIのキー入力．AIが存在しない場合は{@code null}
 	 * @see AIController
 	 * @see Key
 	 */
 	private Key getKeyFromAI(AIController ai) {
 		if (ai == null)
-			return new Key();
-		return new Key(ai.getInput());
+			return null;
+		return ai.getInput();
+	}
+
+	/**
+	 * 引数のScreenData又はAudioDataをいずれかのAIコントローラがまだ読む可能性があるかどうかを返す．<br>
+	 * ゲームはどのAIも使っていないデータだけを再利用する．
+	 *
+	 * @param data
+	 *            ScreenData又はAudioData
+	 * @return いずれかのAIが使っている場合は{@code true}，そうでない場合は{@code false}
+	 * @see AIController#isUsing(Object)
+	 */
+	public boolean isUsedByAI(Object data) {
+		if (this.ais != null) {
+			for (AIController ai : this.ais) {
+				if (ai != null && ai.isUsing(data)) {
+					return true;
+				}
+			}
+		}
+		return false;
 	}
 
 	/**
@@ -296,25 +328,18 @@ public class InputManager {
 	public void setFrameData(FrameData frameData, ScreenData screenData, AudioData audioData) {
 		for (AIController ai : this.ais) {
 			if (ai != null) {
-				if (!frameData.getEmptyFlag()) {
-					ai.setFrameData(new FrameData(frameData));
-				} else {
-					ai.setFrameData(new FrameData());
-				}
-				ai.setScreenData(new ScreenData(screenData));
-				ai.setAudioData(new AudioData(audioData));
+				// FrameDataは読み取り専用のスナップショットなので, 複製せずに全てのAIで共有する
+				ai.setFrameData(frameData);
+				ai.setScreenData(screenData);
+				ai.setAudioData(audioData);
 			}
 		}
 
-		ThreadController.getInstance().resetAllAIsObj();
+		ThreadController threadController = ThreadController.getInstance();
+		int phase = threadController.getEndFramePhase();
+		threadController.resetAllAIsObj();
 		if (FlagSetting.fastModeFlag) {
-			synchronized (this.endFrame) {
-				try {
-					this.endFrame.wait(20);
-				} catch (InterruptedException e) {
-					e.printStackTrace();
-				}
-			}
+			threadController.awaitEndFrame(phase, LaunchSetting.frameTimeout);
 		}
 	}
 	
@@ -341,11 +366,29 @@ public class InputManager {
 	}
 	
 	public void gameEnd() {
+		if (FlagSetting.fastModeFlag) {
+			ThreadController threadController = ThreadController.getInstance();
+			long timeouts = threadController.getTimeoutCount();
+			Logger.getAnonymousLogger().log(timeouts > 0 ? Level.WARNING : Level.INFO,
+					String.format("AI frame timeouts: %d of %d frames (timeout: %d ms)", timeouts,
+							threadController.getFrameCount(), LaunchSetting.frameTimeout));
+		}
+
 		for (AIController ai : this.ais) {
 			if (ai != null) {
 				ai.gameEnd();
 			}
 		}
+		// AIのスレッドの終了を待つ
+		this.aiThreads.close();
+
+		// AIの思考時間と締め切りに遅れた回数を出力する
+		for (int i = 0; i < 2; i++) {
+			if (this.ais[i] != null) {
+				Logger.getAnonymousLogger().log(Level.INFO,
+						String.format("P%d AI: %s", i + 1, this.ais[i].getDeadlineReport()));
+			}
+		}
 	}
 
 	/**
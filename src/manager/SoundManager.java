@@ -17,6 +17,9 @@ import java.util.logging.Logger;
 
 import org.lwjgl.BufferUtils;
 import org.lwjgl.util.WaveData;
+import enumerate.Action;
+import enumerate.SoundCue;
+import render.audio.NullSoundRender;
 import render.audio.SoundRender;
 import setting.FlagSetting;
 import struct.AudioBuffer;
@@ -83,6 +86,12 @@ public class SoundManager {
      * Sound buffers.
      */
     private Map<String, AudioBuffer> soundBuffer;
+    /**
+     * The sound buffers of the actions' sound effects, indexed by the ordinal of the action.<br>
+     * They are resolved from {@link #soundBuffer} once, so that playing the sound effect of an action does not
+     * build the file name and look it up in every frame.
+     */
+    private volatile AudioBuffer[] actionSoundBuffers;
     /**
      * Background music buffer.
      */
@@ -140,7 +149,12 @@ public class SoundManager {
         if (!FlagSetting.fastModeFlag && !FlagSetting.muteFlag && FlagSetting.enableWindow) {
             this.soundRenderers.add(SoundRender.createDefaultRenderer());
         }
-        virtualRenderer = SoundRender.createVirtualRenderer();
+        if (FlagSetting.headless) {
+            // no OpenAL device is opened, and sampled audio is silent
+            virtualRenderer = new NullSoundRender();
+        } else {
+            virtualRenderer = SoundRender.createVirtualRenderer();
+        }
         this.soundRenderers.add(virtualRenderer);
         this.setListenerValues();
     }
@@ -183,6 +197,10 @@ public class SoundManager {
      * @return a new source id.
      */
     private int createSource() {
+        if (FlagSetting.headless) {
+            return 0;
+        }
+
         // 音溝㝮生戝
         IntBuffer source1 = IntBuffer.wrap(new int[]{alGenSources()});
 
@@ -196,7 +214,7 @@ public class SoundManager {
      *
      * @return a new audio source.
      */
-    public AudioSource createAudioSource() {
+    public synchronized AudioSource createAudioSource() {
         AudioSource audioSource = null;
         int[] sourceIds = new int[soundRenderers.size()];
         for (int i = 0; i < soundRenderers.size(); i++) {
@@ -228,6 +246,10 @@ public class SoundManager {
      * @return 音声ポッファ
      */
     private int registerSound(String filePath) {
+        if (FlagSetting.headless) {
+            return 0;
+        }
+
         // ポッファを生戝
         IntBuffer buffer = BufferUtils.createIntBuffer(1);
         alGenBuffers(buffer);
@@ -352,6 +374,39 @@ public class SoundManager {
         return soundBuffer;
     }
 
+    /**
+     * Gets the sound buffer of the specified action's sound effect.<br>
+     * The buffers are resolved from the sound buffers when this method is first called, or when
+     * {@link #updateActionSoundBuffers()} is called.
+     *
+     * @param action action.
+     * @return the sound buffer, or {@code null} if the action has no sound effect.
+     * @see SoundCue#getFileName(Action)
+     */
+    public AudioBuffer getActionSoundBuffer(Action action) {
+        AudioBuffer[] buffers = this.actionSoundBuffers;
+        if (buffers == null) {
+            buffers = updateActionSoundBuffers();
+        }
+        return buffers[action.ordinal()];
+    }
+
+    /**
+     * Resolves the sound buffers of the actions' sound effects from the sound buffers.<br>
+     * Called after the sound effects are loaded.
+     *
+     * @return the sound buffers indexed by the ordinal of the action.
+     */
+    public AudioBuffer[] updateActionSoundBuffers() {
+        Action[] actions = Action.values();
+        AudioBuffer[] buffers = new AudioBuffer[actions.length];
+        for (Action action : actions) {
+            buffers[action.ordinal()] = this.soundBuffer.get(SoundCue.getFileName(action));
+        }
+        this.actionSoundBuffers = buffers;
+        return buffers;
+    }
+
     /**
      * Delete an audio source.
      *
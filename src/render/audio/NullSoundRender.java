@@ -0,0 +1,74 @@
+package render.audio;
+
+import java.util.Arrays;
+
+import setting.GameSetting;
+
+/**
+ * The sound renderer used in headless mode, which opens no OpenAL device and
+ * ignores every request.<br>
+ * Sampled audio is always silent.
+ */
+public class NullSoundRender extends SoundRender {
+
+    public NullSoundRender() {
+        super(0, 0, null);
+    }
+
+    @Override
+    public void set() {
+    }
+
+    @Override
+    public void play(int sourceId, int bufferId) {
+    }
+
+    @Override
+    public void stop(int sourceId) {
+    }
+
+    @Override
+    public void play(int sourceId, int bufferId, int x, int y, boolean loop) {
+    }
+
+    @Override
+    public void setListenerData() {
+    }
+
+    @Override
+    public void setSource3f(int source, int param, float x, float y, float z) {
+    }
+
+    @Override
+    public void deleteSource(int source) {
+    }
+
+    @Override
+    public void deleteBuffer(int buffer) {
+    }
+
+    @Override
+    public void close() {
+    }
+
+    @Override
+    public boolean isPlaying(int source) {
+        return false;
+    }
+
+    @Override
+    public void alListenerfv(int param, float[] values) {
+    }
+
+    @Override
+    public float[][] sampleAudio() {
+        return new float[2][GameSetting.SOUND_BUFFER_SIZE];
+    }
+
+    @Override
+    public float[][] sampleAudio(float[][] separatedBuffer) {
+        Arrays.fill(separatedBuffer[0], 0);
+        Arrays.fill(separatedBuffer[1], 0);
+        return separatedBuffer;
+    }
+}
@@ -25,6 +25,10 @@ public class SoundRender {
      * The capabilities of the OpenAL Context API.
      */
     ALCCapabilities deviceCaps;
+    /**
+     * The buffer of the interleaved stereo samples rendered by {@link #sampleAudio()}.
+     */
+    private float[] renderBuffer;
 
     public SoundRender(long device, long context, ALCCapabilities deviceCaps) {
         this.device = device;
@@ -211,18 +215,29 @@ public class SoundRender {
      * data from right channel
      */
     public float[][] sampleAudio() {
+        return sampleAudio(new float[][] { new float[GameSetting.SOUND_BUFFER_SIZE], new float[GameSetting.SOUND_BUFFER_SIZE] });
+    }
+
+    /**
+     * Render audio in virtual device in stereo into the given arrays, so that the caller can reuse them
+     * @param separatedBuffer the arrays of the left and the right channel, of {@link GameSetting#SOUND_BUFFER_SIZE}
+     * samples each, which are overwritten
+     * @return {@code separatedBuffer}
+     */
+    public float[][] sampleAudio(float[][] separatedBuffer) {
         set();
-        float[] rawData = new float[GameSetting.SOUND_BUFFER_SIZE * 2];
+        // the interleaved samples are only used here, so the buffer is reused
+        if (this.renderBuffer == null) {
+            this.renderBuffer = new float[GameSetting.SOUND_BUFFER_SIZE * 2];
+        }
+        float[] rawData = this.renderBuffer;
         SOFTLoopback.alcRenderSamplesSOFT(this.device, rawData, GameSetting.SOUND_RENDER_SIZE);
-        float[][] separatedBuffer = new float[2][];
-        float[] leftBuffer = new float[GameSetting.SOUND_BUFFER_SIZE];
-        float[] rightBuffer = new float[GameSetting.SOUND_BUFFER_SIZE];
+        float[] leftBuffer = separatedBuffer[0];
+        float[] rightBuffer = separatedBuffer[1];
         for (int i = 0; i < GameSetting.SOUND_RENDER_SIZE; i++) {
             leftBuffer[i] = rawData[i * 2];
             rightBuffer[i] = rawData[i * 2 + 1];
         }
-        separatedBuffer[0] = leftBuffer;
-        separatedBuffer[1] = rightBuffer;
         return separatedBuffer;
     }
 
@@ -74,6 +74,22 @@ public class FlagSetting {
      * ラウンド終了時にスローモーションを発生させるかどうかのフラグ
      */
     public static boolean slowmotion = false;
+
+    /**
+     * Whether the game runs without any window, OpenGL context or OpenAL device.<br>
+     * The game loop runs as fast as the AIs allow, nothing is drawn, and audio is replaced with a silent stub.
+     */
+    public static boolean headless = false;
+
+    /**
+     * Whether the time of each phase of the processing of a frame is measured and logged at the end of each round.
+     */
+    public static boolean profileFlag = false;
+
+    /**
+     * Whether the AI controllers run on virtual threads when the Java runtime provides them.
+     */
+    public static boolean virtualThreadFlag = false;
     
     public static boolean grpc = false;
     public static boolean grpcAuto = false;
@@ -1,6 +1,9 @@
 package setting;
 
+import enumerate.AIDeadlinePolicy;
+import enumerate.FrameDeliveryPolicy;
 import enumerate.BackgroundType;
+import enumerate.FramePacingPolicy;
 import grpc.GrpcServer;
 import python.PyGatewayServer;
 
@@ -81,6 +84,63 @@ public final class LaunchSetting {
 	public static boolean[] nonDelay = {false, false};
 	
 	public static int grpcPort = 50051;
+
+	/**
+	 * The maximum number of simulation results cached by the simulator.<br>
+	 * Zero disables the cache.
+	 */
+	public static int rolloutCacheSize = 0;
+
+	/**
+	 * The maximum time in milliseconds the game waits in fast mode for the AIs
+	 * to finish processing a frame.<br>
+	 * Zero or a negative value means waiting as long as the AIs need.
+	 */
+	public static int frameTimeout = 20;
+
+	/**
+	 * The time in microseconds an AI has to give its key after a frame is
+	 * sent to it. The default is one frame.
+	 */
+	public static int aiDeadline = 1000000 / GameSetting.FPS;
+
+	/**
+	 * Which key is used for an AI which did not give a key for the current
+	 * frame within its deadline.
+	 */
+	public static AIDeadlinePolicy aiDeadlinePolicy = AIDeadlinePolicy.HOLD_LAST_KEY;
+
+	/**
+	 * Which of the delayed frames an AI is given when it processes a frame.
+	 */
+	public static FrameDeliveryPolicy frameDeliveryPolicy = FrameDeliveryPolicy.IN_ORDER;
+
+	/**
+	 * The number of matches played at the same time by a round-robin
+	 * tournament in headless mode.<br>
+	 * Zero means the number of available processors.
+	 */
+	public static int tournamentThreads = 0;
+
+	/**
+	 * The names of the characters a round-robin tournament in headless mode
+	 * is played with, every pairing of them being played.<br>
+	 * {@code null} means the characters of P1 and P2 only.
+	 */
+	public static String[] tournamentCharacters = null;
+
+	/**
+	 * The path of the results file of a round-robin tournament in headless
+	 * mode, which is resumed if it exists.<br>
+	 * {@code null} means a new file in "./log/point/".
+	 */
+	public static String tournamentResultPath = null;
+
+	/**
+	 * What the frame pacer does when the game falls behind its frame schedule
+	 * in a window without fast mode.
+	 */
+	public static FramePacingPolicy framePacingPolicy = FramePacingPolicy.CATCH_UP;
 	
 	public static GrpcServer grpcServer = null;
 }
@@ -0,0 +1,476 @@
+package setting;
+
+import enumerate.AIDeadlinePolicy;
+import enumerate.FrameDeliveryPolicy;
+
+/**
+ * The settings of one match.<br>
+ * {@link LaunchSetting} and {@link FlagSetting} hold the settings of the whole
+ * process, which allows only one match at a time. An instance of this class is
+ * created from them when a match starts, and the game logic of the match reads
+ * the settings from it, so that several matches with different settings can
+ * run concurrently in one process.<br>
+ * The settings of the display and the sound, such as
+ * {@link FlagSetting#enableWindow} and {@link FlagSetting#muteFlag}, are not
+ * part of a match and stay in {@link FlagSetting}.
+ *
+ * @see #fromLaunchSetting()
+ */
+public class MatchSetting {
+
+	/**
+	 * The names of the characters of P1 and P2.
+	 */
+	private String[] characterNames;
+
+	/**
+	 * The names of the AIs of P1 and P2.
+	 */
+	private String[] aiNames;
+
+	/**
+	 * The maximum HP of P1 and P2.
+	 */
+	private int[] maxHp;
+
+	/**
+	 * The maximum energy of P1 and P2.
+	 */
+	private int[] maxEnergy;
+
+	/**
+	 * The flags whether the screen data is hidden from the AIs of P1 and P2.
+	 */
+	private boolean[] noVisual;
+
+	/**
+	 * The flag whether the match is played in HP mode.
+	 */
+	private boolean limitHp;
+
+	/**
+	 * The flag whether the match is played in training mode.
+	 */
+	private boolean trainingMode;
+
+	/**
+	 * The number of rounds of the match.
+	 */
+	private int roundMax;
+
+	/**
+	 * The maximum time in milliseconds to wait for the AIs in each frame, or
+	 * zero or a negative value to wait as long as the AIs need.
+	 */
+	private int frameTimeout;
+
+	/**
+	 * The time in microseconds an AI has to give its key after a frame is
+	 * sent to it.
+	 */
+	private int aiDeadline;
+
+	/**
+	 * Which key is used for an AI which missed its deadline.
+	 */
+	private AIDeadlinePolicy aiDeadlinePolicy;
+
+	/**
+	 * Which of the delayed frames an AI is given.
+	 */
+	private FrameDeliveryPolicy frameDeliveryPolicy;
+
+	/**
+	 * The maximum number of simulation results cached by the simulator.
+	 */
+	private int rolloutCacheSize;
+
+	/**
+	 * The class constructor that creates the settings of a match with the
+	 * default values of {@link LaunchSetting} and {@link GameSetting}.
+	 */
+	public MatchSetting() {
+		this.characterNames = new String[] { "ZEN", "ZEN" };
+		this.aiNames = new String[] { "KeyBoard", "KeyBoard" };
+		this.maxHp = new int[] { 400, 400 };
+		this.maxEnergy = new int[] { 300, 300 };
+		this.noVisual = new boolean[2];
+		this.limitHp = false;
+		this.trainingMode = false;
+		this.roundMax = 3;
+		this.frameTimeout = 20;
+		this.aiDeadline = 1000000 / GameSetting.FPS;
+		this.aiDeadlinePolicy = AIDeadlinePolicy.HOLD_LAST_KEY;
+		this.frameDeliveryPolicy = FrameDeliveryPolicy.IN_ORDER;
+		this.rolloutCacheSize = 0;
+	}
+
+	/**
+	 * The copy constructor.
+	 *
+	 * @param setting
+	 *            the settings to be copied
+	 */
+	public MatchSetting(MatchSetting setting) {
+		this.characterNames = setting.characterNames.clone();
+		this.aiNames = setting.aiNames.clone();
+		this.maxHp = setting.maxHp.clone();
+		this.maxEnergy = setting.maxEnergy.clone();
+		this.noVisual = setting.noVisual.clone();
+		this.limitHp = setting.limitHp;
+		this.trainingMode = setting.trainingMode;
+		this.roundMax = setting.roundMax;
+		this.frameTimeout = setting.frameTimeout;
+		this.aiDeadline = setting.aiDeadline;
+		this.aiDeadlinePolicy = setting.aiDeadlinePolicy;
+		this.frameDeliveryPolicy = setting.frameDeliveryPolicy;
+		this.rolloutCacheSize = setting.rolloutCacheSize;
+	}
+
+	/**
+	 * Creates the settings of a match from the current values of
+	 * {@link LaunchSetting}, {@link FlagSetting} and {@link GameSetting}.
+	 *
+	 * @return the settings of a match
+	 */
+	public static MatchSetting fromLaunchSetting() {
+		MatchSetting setting = new MatchSetting();
+		setting.characterNames = LaunchSetting.characterNames.clone();
+		setting.aiNames = LaunchSetting.aiNames.clone();
+		setting.maxHp = LaunchSetting.maxHp.clone();
+		setting.maxEnergy = LaunchSetting.maxEnergy.clone();
+		setting.noVisual = LaunchSetting.noVisual.clone();
+		setting.limitHp = FlagSetting.limitHpFlag;
+		setting.trainingMode = FlagSetting.trainingModeFlag;
+		setting.roundMax = GameSetting.ROUND_MAX;
+		setting.frameTimeout = LaunchSetting.frameTimeout;
+		setting.aiDeadline = LaunchSetting.aiDeadline;
+		setting.aiDeadlinePolicy = LaunchSetting.aiDeadlinePolicy;
+		setting.frameDeliveryPolicy = LaunchSetting.frameDeliveryPolicy;
+		setting.rolloutCacheSize = LaunchSetting.rolloutCacheSize;
+		return setting;
+	}
+
+	/**
+	 * Returns the name of the character of the specified player.
+	 *
+	 * @param playerNumber
+	 *            the player side's flag. {@code true} if the player is P1, or
+	 *            {@code false} if P2.
+	 * @return the name of the character
+	 */
+	public String getCharacterName(boolean playerNumber) {
+		return this.characterNames[playerNumber ? 0 : 1];
+	}
+
+	/**
+	 * Returns the names of the characters of P1 and P2.
+	 *
+	 * @return a copy of the names of the characters
+	 */
+	public String[] getCharacterNames() {
+		return this.characterNames.clone();
+	}
+
+	/**
+	 * Sets the name of the character of the specified player.
+	 *
+	 * @param playerNumber
+	 *            the player side's flag. {@code true} if the player is P1, or
+	 *            {@code false} if P2.
+	 * @param characterName
+	 *            the name of the character
+	 */
+	public void setCharacterName(boolean playerNumber, String characterName) {
+		this.characterNames[playerNumber ? 0 : 1] = characterName;
+	}
+
+	/**
+	 * Returns the name of the AI of the specified player.
+	 *
+	 * @param playerNumber
+	 *            the player side's flag. {@code true} if the player is P1, or
+	 *            {@code false} if P2.
+	 * @return the name of the AI
+	 */
+	public String getAiName(boolean playerNumber) {
+		return this.aiNames[playerNumber ? 0 : 1];
+	}
+
+	/**
+	 * Returns the names of the AIs of P1 and P2.
+	 *
+	 * @return a copy of the names of the AIs
+	 */
+	public String[] getAiNames() {
+		return this.aiNames.clone();
+	}
+
+	/**
+	 * Sets the name of the AI of the specified player.
+	 *
+	 * @param playerNumber
+	 *            the player side's flag. {@code true} if the player is P1, or
+	 *            {@code false} if P2.
+	 * @param aiName
+	 *            the name of the AI
+	 */
+	public void setAiName(boolean playerNumber, String aiName) {
+		this.aiNames[playerNumber ? 0 : 1] = aiName;
+	}
+
+	/**
+	 * Returns the maximum HP of the specified player.
+	 *
+	 * @param playerNumber
+	 *            the player side's flag. {@code true} if the player is P1, or
+	 *            {@code false} if P2.
+	 * @return the maximum HP
+	 */
+	public int getMaxHp(boolean playerNumber) {
+		return this.maxHp[playerNumber ? 0 : 1];
+	}
+
+	/**
+	 * Returns the maximum HP of P1 and P2.
+	 *
+	 * @return a copy of the maximum HP
+	 */
+	public int[] getMaxHps() {
+		return this.maxHp.clone();
+	}
+
+	/**
+	 * Sets the maximum HP of the specified player.
+	 *
+	 * @param playerNumber
+	 *            the player side's flag. {@code true} if the player is P1, or
+	 *            {@code false} if P2.
+	 * @param maxHp
+	 *            the maximum HP
+	 */
+	public void setMaxHp(boolean playerNumber, int maxHp) {
+		this.maxHp[playerNumber ? 0 : 1] = maxHp;
+	}
+
+	/**
+	 * Returns the maximum energy of the specified player.
+	 *
+	 * @param playerNumber
+	 *            the player side's flag. {@code true} if the player is P1, or
+	 *            {@code false} if P2.
+	 * @return the maximum energy
+	 */
+	public int getMaxEnergy(boolean playerNumber) {
+		return this.maxEnergy[playerNumber ? 0 : 1];
+	}
+
+	/**
+	 * Returns the maximum energy of P1 and P2.
+	 *
+	 * @return a copy of the maximum energy
+	 */
+	public int[] getMaxEnergies() {
+		return this.maxEnergy.clone();
+	}
+
+	/**
+	 * Sets the maximum energy of the specified player.
+	 *
+	 * @param playerNumber
+	 *            the player side's flag. {@code true} if the player is P1, or
+	 *            {@code false} if P2.
+	 * @param maxEnergy
+	 *            the maximum energy
+	 */
+	public void setMaxEnergy(boolean playerNumber, int maxEnergy) {
+		this.maxEnergy[playerNumber ? 0 : 1] = maxEnergy;
+	}
+
+	/**
+	 * Returns whether the screen data is hidden from the AI of the specified
+	 * player.
+	 *
+	 * @param playerNumber
+	 *            the player side's flag. {@code true} if the player is P1, or
+	 *            {@code false} if P2.
+	 * @return {@code true} if the AI does not receive the screen data,
+	 *         {@code false} otherwise
+	 */
+	public boolean isNoVisual(boolean playerNumber) {
+		return this.noVisual[playerNumber ? 0 : 1];
+	}
+
+	/**
+	 * Sets whether the screen data is hidden from the AI of the specified
+	 * player.
+	 *
+	 * @param playerNumber
+	 *            the player side's flag. {@code true} if the player is P1, or
+	 *            {@code false} if P2.
+	 * @param noVisual
+	 *            {@code true} if the AI does not receive the screen data
+	 */
+	public void setNoVisual(boolean playerNumber, boolean noVisual) {
+		this.noVisual[playerNumber ? 0 : 1] = noVisual;
+	}
+
+	/**
+	 * Returns whether the match is played in HP mode.
+	 *
+	 * @return {@code true} if the match is played in HP mode, {@code false}
+	 *         otherwise
+	 */
+	public boolean isLimitHp() {
+		return this.limitHp;
+	}
+
+	/**
+	 * Sets whether the match is played in HP mode.
+	 *
+	 * @param limitHp
+	 *            {@code true} if the match is played in HP mode
+	 */
+	public void setLimitHp(boolean limitHp) {
+		this.limitHp = limitHp;
+	}
+
+	/**
+	 * Returns whether the match is played in training mode.
+	 *
+	 * @return {@code true} if the match is played in training mode,
+	 *         {@code false} otherwise
+	 */
+	public boolean isTrainingMode() {
+		return this.trainingMode;
+	}
+
+	/**
+	 * Sets whether the match is played in training mode.
+	 *
+	 * @param trainingMode
+	 *            {@code true} if the match is played in training mode
+	 */
+	public void setTrainingMode(boolean trainingMode) {
+		this.trainingMode = trainingMode;
+	}
+
+	/**
+	 * Returns the number of rounds of the match.
+	 *
+	 * @return the number of rounds
+	 */
+	public int getRoundMax() {
+		return this.roundMax;
+	}
+
+	/**
+	 * Sets the number of rounds of the match.
+	 *
+	 * @param roundMax
+	 *            the number of rounds
+	 */
+	public void setRoundMax(int roundMax) {
+		this.roundMax = roundMax;
+	}
+
+	/**
+	 * Returns the maximum time in milliseconds to wait for the AIs in each
+	 * frame.
+	 *
+	 * @return the timeout in milliseconds, or zero or a negative value to wait
+	 *         as long as the AIs need
+	 */
+	public int getFrameTimeout() {
+		return this.frameTimeout;
+	}
+
+	/**
+	 * Sets the maximum time in milliseconds to wait for the AIs in each frame.
+	 *
+	 * @param frameTimeout
+	 *            the timeout in milliseconds, or zero or a negative value to
+	 *            wait as long as the AIs need
+	 */
+	public void setFrameTimeout(int frameTimeout) {
+		this.frameTimeout = frameTimeout;
+	}
+
+	/**
+	 * Returns the time an AI has to give its key after a frame is sent to it.
+	 *
+	 * @return the deadline in microseconds
+	 */
+	public int getAiDeadline() {
+		return this.aiDeadline;
+	}
+
+	/**
+	 * Sets the time an AI has to give its key after a frame is sent to it.
+	 *
+	 * @param aiDeadline
+	 *            the deadline in microseconds
+	 */
+	public void setAiDeadline(int aiDeadline) {
+		this.aiDeadline = aiDeadline;
+	}
+
+	/**
+	 * Returns which key is used for an AI which missed its deadline.
+	 *
+	 * @return the policy of a missed deadline
+	 */
+	public AIDeadlinePolicy getAiDeadlinePolicy() {
+		return this.aiDeadlinePolicy;
+	}
+
+	/**
+	 * Sets which key is used for an AI which missed its deadline.
+	 *
+	 * @param aiDeadlinePolicy
+	 *            the policy of a missed deadline
+	 */
+	public void setAiDeadlinePolicy(AIDeadlinePolicy aiDeadlinePolicy) {
+		this.aiDeadlinePolicy = aiDeadlinePolicy;
+	}
+
+	/**
+	 * Returns which of the delayed frames an AI is given.
+	 *
+	 * @return the policy of the frame delivery
+	 */
+	public FrameDeliveryPolicy getFrameDeliveryPolicy() {
+		return this.frameDeliveryPolicy;
+	}
+
+	/**
+	 * Sets which of the delayed frames an AI is given.
+	 *
+	 * @param frameDeliveryPolicy
+	 *            the policy of the frame delivery
+	 */
+	public void setFrameDeliveryPolicy(FrameDeliveryPolicy frameDeliveryPolicy) {
+		this.frameDeliveryPolicy = frameDeliveryPolicy;
+	}
+
+	/**
+	 * Returns the maximum number of simulation results cached by the
+	 * simulator.
+	 *
+	 * @return the size of the cache, or zero if the cache is disabled
+	 */
+	public int getRolloutCacheSize() {
+		return this.rolloutCacheSize;
+	}
+
+	/**
+	 * Sets the maximum number of simulation results cached by the simulator.
+	 *
+	 * @param rolloutCacheSize
+	 *            the size of the cache, or zero to disable the cache
+	 */
+	public void setRolloutCacheSize(int rolloutCacheSize) {
+		this.rolloutCacheSize = rolloutCacheSize;
+	}
+
+}
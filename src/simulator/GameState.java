@@ -0,0 +1,161 @@
+package simulator;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+
+import enumerate.Action;
+import fighting.Attack;
+import fighting.Character;
+import setting.GameSetting;
+import struct.FrameData;
+import struct.Key;
+
+/**
+ * The snapshot of everything the simulator changes while a fight progresses.<br>
+ * It holds both characters with their attacks, input histories and combo
+ * counters, the projectiles on the stage, the keys and actions still waiting
+ * to be executed, and the current frame number.<br>
+ * Keys, motions and the setting hit boxes of attacks are never modified in the
+ * simulator, so a snapshot shares them with the fight instead of copying them.
+ * Taking a snapshot into an existing instance reuses its buffers, which makes
+ * branching in a tree search cheap.
+ *
+ * @see SimFighting#snapshot(GameState)
+ * @see SimFighting#restore(GameState)
+ * @see Simulator#createGameState(FrameData)
+ */
+public class GameState {
+
+	/**
+	 * The characters of P1 and P2.
+	 */
+	Character[] characters;
+
+	/**
+	 * The attacks of the projectiles on the stage.<br>
+	 * Only the first {@link #projectileCount} elements are valid, the others
+	 * are kept for reuse.
+	 */
+	ArrayList<Attack> projectiles;
+
+	/**
+	 * The number of projectiles on the stage.
+	 */
+	int projectileCount;
+
+	/**
+	 * The key histories of P1 and P2 used to interpret commands.
+	 */
+	ArrayList<Deque<Key>> inputKeys;
+
+	/**
+	 * The actions of P1 and P2 that have not been executed yet.
+	 */
+	ArrayList<Deque<Action>> inputActions;
+
+	/**
+	 * The flags whether P1 and P2 take actions.<br>
+	 * {@code false} means that the action list given to the simulator was
+	 * {@code null}.
+	 */
+	boolean[] hasActions;
+
+	/**
+	 * The keys of P1 and P2 waiting to be executed by the command center.
+	 */
+	ArrayList<Deque<Key>> skillKeys;
+
+	/**
+	 * The frame data used to decide the facing direction when actions are
+	 * converted to keys.
+	 */
+	FrameData frameData;
+
+	/**
+	 * The hash of the state.
+	 */
+	long stateHash;
+
+	/**
+	 * The current frame number.
+	 */
+	int framesNumber;
+
+	/**
+	 * The current round.
+	 */
+	int round;
+
+	/**
+	 * The class constructor that creates an empty snapshot.<br>
+	 * The buffers are allocated on the first snapshot taken into this
+	 * instance.
+	 */
+	public GameState() {
+		this.characters = new Character[2];
+		this.projectiles = new ArrayList<Attack>();
+		this.projectileCount = 0;
+
+		this.inputKeys = new ArrayList<Deque<Key>>(2);
+		this.inputActions = new ArrayList<Deque<Action>>(2);
+		this.hasActions = new boolean[2];
+		this.skillKeys = new ArrayList<Deque<Key>>(2);
+
+		for (int i = 0; i < 2; i++) {
+			this.inputKeys.add(new ArrayDeque<Key>(GameSetting.INPUT_LIMIT + 2));
+			this.inputActions.add(new ArrayDeque<Action>());
+			this.skillKeys.add(new ArrayDeque<Key>());
+		}
+	}
+
+	/**
+	 * Returns whether this instance holds a snapshot.
+	 *
+	 * @return {@code true} if a snapshot has been taken into this instance,
+	 *         {@code false} otherwise
+	 */
+	public boolean isEmpty() {
+		return this.characters[0] == null;
+	}
+
+	/**
+	 * Returns the frame number of this snapshot.
+	 *
+	 * @return the frame number of this snapshot
+	 */
+	public int getFramesNumber() {
+		return this.framesNumber;
+	}
+
+	/**
+	 * Returns the round of this snapshot.
+	 *
+	 * @return the round of this snapshot
+	 */
+	public int getRound() {
+		return this.round;
+	}
+
+	/**
+	 * Returns the hash of this snapshot.<br>
+	 * It is equal to the hash of the frame data created from this snapshot.
+	 *
+	 * @return the hash of this snapshot
+	 *
+	 * @see FrameData#getStateHash()
+	 */
+	public long getStateHash() {
+		return this.stateHash;
+	}
+
+	/**
+	 * Returns the number of projectiles on the stage.
+	 *
+	 * @return the number of projectiles on the stage
+	 */
+	public int getProjectileCount() {
+		return this.projectileCount;
+	}
+
+}
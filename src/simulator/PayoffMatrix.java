@@ -0,0 +1,215 @@
+package simulator;
+
+import enumerate.Action;
+
+/**
+ * The result of simulating every pair of an action of the player and an
+ * action of the opponent from the same frame data.<br>
+ * The deltas are stored in dense row-major arrays, where the row is the index
+ * of the player's action and the column is the index of the opponent's
+ * action. A delta is the value after the simulation minus the value at the
+ * start, so damage taken is negative.
+ *
+ * @see Simulator#evaluatePayoff(struct.FrameData, boolean, Action[], Action[],
+ *      int)
+ */
+public class PayoffMatrix {
+
+	/**
+	 * The actions of the player, one per row.
+	 */
+	private final Action[] myActions;
+
+	/**
+	 * The actions of the opponent, one per column.
+	 */
+	private final Action[] oppActions;
+
+	/**
+	 * The HP deltas of the player.
+	 */
+	final int[] myHpDeltas;
+
+	/**
+	 * The HP deltas of the opponent.
+	 */
+	final int[] oppHpDeltas;
+
+	/**
+	 * The energy deltas of the player.
+	 */
+	final int[] myEnergyDeltas;
+
+	/**
+	 * The energy deltas of the opponent.
+	 */
+	final int[] oppEnergyDeltas;
+
+	/**
+	 * The class constructor.
+	 *
+	 * @param myActions
+	 *            the actions of the player, one per row
+	 * @param oppActions
+	 *            the actions of the opponent, one per column
+	 */
+	PayoffMatrix(Action[] myActions, Action[] oppActions) {
+		this.myActions = myActions;
+		this.oppActions = oppActions;
+
+		int size = myActions.length * oppActions.length;
+		this.myHpDeltas = new int[size];
+		this.oppHpDeltas = new int[size];
+		this.myEnergyDeltas = new int[size];
+		this.oppEnergyDeltas = new int[size];
+	}
+
+	/**
+	 * Returns the number of rows, which is the number of the player's actions.
+	 *
+	 * @return the number of rows
+	 */
+	public int getRows() {
+		return this.myActions.length;
+	}
+
+	/**
+	 * Returns the number of columns, which is the number of the opponent's
+	 * actions.
+	 *
+	 * @return the number of columns
+	 */
+	public int getColumns() {
+		return this.oppActions.length;
+	}
+
+	/**
+	 * Returns the player's action of the specified row.
+	 *
+	 * @param row
+	 *            the index of the row
+	 * @return the player's action of the row
+	 */
+	public Action getMyAction(int row) {
+		return this.myActions[row];
+	}
+
+	/**
+	 * Returns the opponent's action of the specified column.
+	 *
+	 * @param column
+	 *            the index of the column
+	 * @return the opponent's action of the column
+	 */
+	public Action getOppAction(int column) {
+		return this.oppActions[column];
+	}
+
+	/**
+	 * Returns the player's HP delta for the specified pair of actions.
+	 *
+	 * @param row
+	 *            the index of the player's action
+	 * @param column
+	 *            the index of the opponent's action
+	 * @return the player's HP delta
+	 */
+	public int getMyHpDelta(int row, int column) {
+		return this.myHpDeltas[row * this.oppActions.length + column];
+	}
+
+	/**
+	 * Returns the opponent's HP delta for the specified pair of actions.
+	 *
+	 * @param row
+	 *            the index of the player's action
+	 * @param column
+	 *            the index of the opponent's action
+	 * @return the opponent's HP delta
+	 */
+	public int getOppHpDelta(int row, int column) {
+		return this.oppHpDeltas[row * this.oppActions.length + column];
+	}
+
+	/**
+	 * Returns the player's energy delta for the specified pair of actions.
+	 *
+	 * @param row
+	 *            the index of the player's action
+	 * @param column
+	 *            the index of the opponent's action
+	 * @return the player's energy delta
+	 */
+	public int getMyEnergyDelta(int row, int column) {
+		return this.myEnergyDeltas[row * this.oppActions.length + column];
+	}
+
+	/**
+	 * Returns the opponent's energy delta for the specified pair of actions.
+	 *
+	 * @param row
+	 *            the index of the player's action
+	 * @param column
+	 *            the index of the opponent's action
+	 * @return the opponent's energy delta
+	 */
+	public int getOppEnergyDelta(int row, int column) {
+		return this.oppEnergyDeltas[row * this.oppActions.length + column];
+	}
+
+	/**
+	 * Returns the HP difference gained by the player for the specified pair
+	 * of actions, which is the player's HP delta minus the opponent's.
+	 *
+	 * @param row
+	 *            the index of the player's action
+	 * @param column
+	 *            the index of the opponent's action
+	 * @return the HP difference gained by the player
+	 */
+	public int getHpAdvantage(int row, int column) {
+		int index = row * this.oppActions.length + column;
+		return this.myHpDeltas[index] - this.oppHpDeltas[index];
+	}
+
+	/**
+	 * Returns the HP deltas of the player in row-major order.<br>
+	 * The array is not copied and must not be modified.
+	 *
+	 * @return the HP deltas of the player
+	 */
+	public int[] getMyHpDeltas() {
+		return this.myHpDeltas;
+	}
+
+	/**
+	 * Returns the HP deltas of the opponent in row-major order.<br>
+	 * The array is not copied and must not be modified.
+	 *
+	 * @return the HP deltas of the opponent
+	 */
+	public int[] getOppHpDeltas() {
+		return this.oppHpDeltas;
+	}
+
+	/**
+	 * Returns the energy deltas of the player in row-major order.<br>
+	 * The array is not copied and must not be modified.
+	 *
+	 * @return the energy deltas of the player
+	 */
+	public int[] getMyEnergyDeltas() {
+		return this.myEnergyDeltas;
+	}
+
+	/**
+	 * Returns the energy deltas of the opponent in row-major order.<br>
+	 * The array is not copied and must not be modified.
+	 *
+	 * @return the energy deltas of the opponent
+	 */
+	public int[] getOppEnergyDeltas() {
+		return this.oppEnergyDeltas;
+	}
+
+}
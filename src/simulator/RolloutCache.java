@@ -0,0 +1,362 @@
+package simulator;
+
+import java.util.Arrays;
+import java.util.Deque;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import enumerate.Action;
+import setting.GameSetting;
+import struct.AttackData;
+import struct.CharacterData;
+import struct.FrameData;
+import struct.StateHash;
+
+/**
+ * The bounded cache of simulation results used by {@link Simulator}.<br>
+ * A result is keyed by the state hash of the starting frame data, the key
+ * histories of both characters, the frames elapsed since each character was
+ * last hit, the actions of P1 and P2 and the number of simulated frames. The
+ * simulation does not depend on the absolute frame number, so a result is
+ * reused for an equal state reached at another frame, after shifting its frame
+ * numbers.<br>
+ * The key only holds a hash of the starting state, so a result found by its key
+ * is used only if the starting state stored with it is equal to the new one in
+ * every field that the hash covers. A hash collision is counted as a miss.<br>
+ * The least recently used result is evicted when the cache is full. The cache
+ * is safe to use from several threads.
+ *
+ * @see Simulator#setRolloutCache(RolloutCache)
+ * @see FrameData#getStateHash()
+ */
+public class RolloutCache {
+
+	/**
+	 * The maximum number of results kept in the cache.
+	 */
+	private final int capacity;
+
+	/**
+	 * The cached results in access order.
+	 */
+	private final LinkedHashMap<RolloutKey, Rollout> rollouts;
+
+	/**
+	 * The number of simulations answered from the cache.
+	 */
+	private long hits;
+
+	/**
+	 * The number of simulations not found in the cache.
+	 */
+	private long misses;
+
+	/**
+	 * The class constructor.
+	 *
+	 * @param capacity
+	 *            the maximum number of results kept in the cache
+	 */
+	public RolloutCache(int capacity) {
+		if (capacity <= 0) {
+			throw new IllegalArgumentException("capacity must be positive: " + capacity);
+		}
+
+		this.capacity = capacity;
+		this.rollouts = new LinkedHashMap<RolloutKey, Rollout>(16, 0.75f, true) {
+
+			private static final long serialVersionUID = 1L;
+
+			@Override
+			protected boolean removeEldestEntry(Map.Entry<RolloutKey, Rollout> eldest) {
+				return size() > RolloutCache.this.capacity;
+			}
+		};
+	}
+
+	/**
+	 * Creates the key of a simulation.
+	 *
+	 * @param frameData
+	 *            frame data at the start of simulation
+	 * @param p1Act
+	 *            the actions of P1, or {@code null}
+	 * @param p2Act
+	 *            the actions of P2, or {@code null}
+	 * @param simulationLimit
+	 *            the number of frames to be simulated
+	 * @return the key of the simulation
+	 */
+	RolloutKey createKey(FrameData frameData, Deque<Action> p1Act, Deque<Action> p2Act, int simulationLimit) {
+		long hash = frameData.getStateHash();
+		for (int i = 0; i < 2; i++) {
+			CharacterData character = frameData.getCharacter(i == 0);
+			hash = StateHash.mix(hash ^ character.getCommandHash()) + sinceHit(frameData, i == 0);
+		}
+
+		return new RolloutKey(hash, toArray(p1Act), toArray(p2Act), simulationLimit);
+	}
+
+	/**
+	 * Returns the cached result of a simulation, or {@code null} if it is not
+	 * cached.
+	 *
+	 * @param key
+	 *            the key of the simulation
+	 * @param frameData
+	 *            frame data at the start of simulation
+	 * @return the frame data after the simulation, or {@code null}
+	 */
+	FrameData get(RolloutKey key, FrameData frameData) {
+		Rollout rollout;
+		synchronized (this) {
+			rollout = this.rollouts.get(key);
+			if (rollout == null || !rollout.isStartedFrom(frameData)) {
+				this.misses++;
+				return null;
+			}
+			this.hits++;
+		}
+
+		return rollout.toFrameData(frameData);
+	}
+
+	/**
+	 * Stores the result of a simulation.
+	 *
+	 * @param key
+	 *            the key of the simulation
+	 * @param frameData
+	 *            frame data at the start of simulation
+	 * @param result
+	 *            the frame data after the simulation
+	 */
+	void put(RolloutKey key, FrameData frameData, FrameData result) {
+		Rollout rollout = new Rollout(frameData, result);
+		synchronized (this) {
+			this.rollouts.put(key, rollout);
+		}
+	}
+
+	/**
+	 * Returns the maximum number of results kept in the cache.
+	 *
+	 * @return the maximum number of results kept in the cache
+	 */
+	public int getCapacity() {
+		return this.capacity;
+	}
+
+	/**
+	 * Returns the number of results kept in the cache.
+	 *
+	 * @return the number of results kept in the cache
+	 */
+	public synchronized int size() {
+		return this.rollouts.size();
+	}
+
+	/**
+	 * Returns the number of simulations answered from the cache.
+	 *
+	 * @return the number of cache hits
+	 */
+	public synchronized long getHits() {
+		return this.hits;
+	}
+
+	/**
+	 * Returns the number of simulations not found in the cache.
+	 *
+	 * @return the number of cache misses
+	 */
+	public synchronized long getMisses() {
+		return this.misses;
+	}
+
+	/**
+	 * Removes all results and resets the counters.
+	 */
+	public synchronized void clear() {
+		this.rollouts.clear();
+		this.hits = 0;
+		this.misses = 0;
+	}
+
+	@Override
+	public synchronized String toString() {
+		return "RolloutCache[size=" + this.rollouts.size() + "/" + this.capacity + ", hits=" + this.hits
+				+ ", misses=" + this.misses + "]";
+	}
+
+	/**
+	 * Returns the frames elapsed since a character was last hit, limited to
+	 * the length of a combo.
+	 *
+	 * @param frameData
+	 *            frame data at the start of simulation
+	 * @param playerNumber
+	 *            {@code true} for P1, {@code false} for P2
+	 * @return the frames elapsed since the character was last hit
+	 */
+	private static int sinceHit(FrameData frameData, boolean playerNumber) {
+		return Math.min(frameData.getFramesNumber() - frameData.getCharacter(playerNumber).getLastHitFrame(),
+				GameSetting.COMBO_LIMIT + 1);
+	}
+
+	/**
+	 * Returns the actions as an array.
+	 *
+	 * @param actions
+	 *            the actions, or {@code null}
+	 * @return the array of the actions, or {@code null}
+	 */
+	private static Action[] toArray(Deque<Action> actions) {
+		return actions == null ? null : actions.toArray(new Action[actions.size()]);
+	}
+
+	/**
+	 * The key of a simulation.
+	 */
+	static final class RolloutKey {
+
+		private final long stateHash;
+
+		private final Action[] p1Act;
+
+		private final Action[] p2Act;
+
+		private final int simulationLimit;
+
+		private final int hashCode;
+
+		RolloutKey(long stateHash, Action[] p1Act, Action[] p2Act, int simulationLimit) {
+			this.stateHash = stateHash;
+			this.p1Act = p1Act;
+			this.p2Act = p2Act;
+			this.simulationLimit = simulationLimit;
+
+			int hash = Long.hashCode(stateHash);
+			hash = 31 * hash + Arrays.hashCode(p1Act);
+			hash = 31 * hash + Arrays.hashCode(p2Act);
+			this.hashCode = 31 * hash + simulationLimit;
+		}
+
+		@Override
+		public boolean equals(Object obj) {
+			if (this == obj) {
+				return true;
+			}
+			if (!(obj instanceof RolloutKey)) {
+				return false;
+			}
+
+			RolloutKey other = (RolloutKey) obj;
+			return this.stateHash == other.stateHash && this.simulationLimit == other.simulationLimit
+					&& Arrays.equals(this.p1Act, other.p1Act) && Arrays.equals(this.p2Act, other.p2Act);
+		}
+
+		@Override
+		public int hashCode() {
+			return this.hashCode;
+		}
+	}
+
+	/**
+	 * The result of a simulation, stored with its starting state, which
+	 * detects a collision of the keys, and the frame numbers needed to reuse
+	 * it from another frame.
+	 */
+	private static final class Rollout {
+
+		/**
+		 * The read-only frame data at the start of the simulation.
+		 */
+		private final FrameData start;
+
+		private final int startFrame;
+
+		private final int[] startLastHitFrames;
+
+		private final FrameData result;
+
+		Rollout(FrameData frameData, FrameData result) {
+			this.start = frameData;
+			this.startFrame = frameData.getFramesNumber();
+			this.startLastHitFrames = new int[] { frameData.getCharacter(true).getLastHitFrame(),
+					frameData.getCharacter(false).getLastHitFrame() };
+			this.result = copy(result, 0, frameData.getRound(), this.startLastHitFrames, this.startLastHitFrames);
+		}
+
+		/**
+		 * Returns whether the simulation started from the same state as the
+		 * specified frame data, apart from the frame numbers.
+		 *
+		 * @param frameData
+		 *            frame data at the start of simulation
+		 * @return {@code true} if the starting states are equal, {@code false}
+		 *         otherwise
+		 */
+		boolean isStartedFrom(FrameData frameData) {
+			for (int i = 0; i < 2; i++) {
+				if (!this.start.getCharacter(i == 0).hasSameState(frameData.getCharacter(i == 0))
+						|| sinceHit(this.start, i == 0) != sinceHit(frameData, i == 0)) {
+					return false;
+				}
+			}
+
+			Deque<AttackData> projectiles = frameData.getProjectiles();
+			if (this.start.getProjectiles().size() != projectiles.size()) {
+				return false;
+			}
+			Iterator<AttackData> iterator = projectiles.iterator();
+			for (AttackData projectile : this.start.getProjectiles()) {
+				if (!projectile.hasSameState(iterator.next())) {
+					return false;
+				}
+			}
+			return true;
+		}
+
+		/**
+		 * Returns a copy of the result as if the simulation started from the
+		 * specified frame data.
+		 *
+		 * @param frameData
+		 *            frame data at the start of simulation
+		 * @return the frame data after the simulation
+		 */
+		FrameData toFrameData(FrameData frameData) {
+			int[] lastHitFrames = { frameData.getCharacter(true).getLastHitFrame(),
+					frameData.getCharacter(false).getLastHitFrame() };
+
+			return copy(this.result, frameData.getFramesNumber() - this.startFrame, frameData.getRound(),
+					this.startLastHitFrames, lastHitFrames);
+		}
+
+		/**
+		 * Returns a copy of the frame data whose frame numbers are shifted by
+		 * the specified number of frames.<br>
+		 * The last hit frame of a character not hit during the simulation is
+		 * replaced by the one at the start of the new simulation. The read-only
+		 * projectile data are shared with the cached frame data.
+		 */
+		private static FrameData copy(FrameData frameData, int shift, int round, int[] oldLastHitFrames,
+				int[] newLastHitFrames) {
+			CharacterData[] characterData = new CharacterData[2];
+			for (int i = 0; i < 2; i++) {
+				// the copy constructor copies the keys as well
+				characterData[i] = new CharacterData(frameData.getCharacter(i == 0));
+
+				int lastHitFrame = characterData[i].getLastHitFrame();
+				characterData[i].setLastHitFrame(
+						lastHitFrame == oldLastHitFrames[i] ? newLastHitFrames[i] : lastHitFrame + shift);
+			}
+
+			Deque<AttackData> projectiles = frameData.getProjectiles();
+			return new FrameData(characterData, frameData.getFramesNumber() + shift, round, projectiles);
+		}
+	}
+
+}
@@ -1,5 +1,6 @@
 package simulator;
 
+import java.util.ArrayDeque;
 import java.util.ArrayList;
 import java.util.Deque;
 import java.util.LinkedList;
@@ -7,21 +8,25 @@ import java.util.LinkedList;
 import aiinterface.CommandCenter;
 import command.CommandTable;
 import enumerate.Action;
+import enumerate.State;
 import fighting.Attack;
 import fighting.Character;
 import fighting.Fighting;
 import fighting.LoopEffect;
 import fighting.Motion;
+import fighting.MotionTable;
 import setting.GameSetting;
+import setting.MatchSetting;
 import struct.AttackData;
 import struct.CharacterData;
 import struct.FrameData;
 import struct.Key;
+import struct.StateHash;
 
 /**
  * シミュレーション中の対戦処理やキャラクター情報の更新を行うクラス．
  */
-public class SimFighting extends Fighting {
+public class SimFighting extends Fighting implements SimState {
 
 	/**
 	 * キー入力．
@@ -33,26 +38,119 @@ public class SimFighting extends Fighting {
 	 */
 	private ArrayList<Deque<Action>> inputActions;
 
+	/**
+	 * The buffers holding a copy of the actions passed to the simulator, reused
+	 * across simulations.
+	 */
+	private ArrayList<Deque<Action>> actionBuffers;
+
+	/**
+	 * The buffers used as each character's input command list, reused across
+	 * simulations.
+	 */
+	private ArrayList<Deque<Key>> inputCommands;
+
+	/**
+	 * The buffers used as each character's processed command list, reused
+	 * across simulations.
+	 */
+	private ArrayList<Deque<Key>> processedCommands;
+
 	/**
 	 * CommandCenterクラスのインスタンスを格納する配列．
 	 */
 	private CommandCenter[] commandCenter;
 
+	/**
+	 * The projectiles which are no longer on the stage, kept for reuse.
+	 */
+	private Deque<LoopEffect> projectilePool;
+
+	/**
+	 * The flags whether each character's attack hit the opponent in the
+	 * current frame.
+	 */
+	private boolean[] isHit;
+
+	/**
+	 * The flags whether an attack or a projectile of each character hit the
+	 * opponent in the last frame.
+	 */
+	private boolean[] hitLanded;
+
+	/**
+	 * The key input when no key is waiting to be executed.<br>
+	 * Keys are never modified in the simulator, so a single instance can be
+	 * shared.
+	 */
+	private Key emptyKey;
+
+	/**
+	 * The frame data at the start of simulation, used to decide the facing
+	 * direction when actions are converted to keys.
+	 */
+	private FrameData frameData;
+
+	/**
+	 * The hash of the current state of the fight, updated every frame.
+	 *
+	 * @see StateHash
+	 */
+	private long stateHash;
+
+	/**
+	 * The number of frames since the beginning of the round in the current
+	 * state.
+	 */
+	private int framesNumber;
+
 	/**
 	 * クラスコンストラクタ．
 	 */
 	public SimFighting() {
+		this(MatchSetting.fromLaunchSetting());
+	}
+
+	/**
+	 * The class constructor that simulates a fight with the specified settings
+	 * of a match.
+	 *
+	 * @param matchSetting
+	 *            the settings of the match
+	 */
+	public SimFighting(MatchSetting matchSetting) {
+		super(matchSetting);
 		this.playerCharacters = new Character[2];
 		this.projectileDeque = new LinkedList<LoopEffect>();
 		this.commandTable = new CommandTable();
 
 		this.inputKeys = new ArrayList<Deque<Key>>(2);
 		this.inputActions = new ArrayList<Deque<Action>>(2);
+		this.actionBuffers = new ArrayList<Deque<Action>>(2);
+		this.inputCommands = new ArrayList<Deque<Key>>(2);
+		this.processedCommands = new ArrayList<Deque<Key>>(2);
 		this.commandCenter = new CommandCenter[2];
+
+		for (int i = 0; i < 2; i++) {
+			this.inputKeys.add(new ArrayDeque<Key>(GameSetting.INPUT_LIMIT + 2));
+			this.inputActions.add(null);
+			this.actionBuffers.add(new ArrayDeque<Action>());
+			this.inputCommands.add(new ArrayDeque<Key>(GameSetting.INPUT_LIMIT + 2));
+			this.processedCommands.add(new ArrayDeque<Key>(GameSetting.INPUT_LIMIT + 2));
+			this.commandCenter[i] = new CommandCenter();
+		}
+
+		this.projectilePool = new ArrayDeque<LoopEffect>();
+		this.isHit = new boolean[2];
+		this.hitLanded = new boolean[2];
+		this.emptyKey = new Key();
 	}
 
 	/**
-	 * 初期化処理を行う．
+	 * 初期化処理を行う．<br>
+	 * The instance can be initialized again after a simulation, reusing the
+	 * characters, the key and action buffers and the projectiles of the
+	 * previous simulation.
 	 *
 	 * @param motionList
 	 *            P1とP2のモーションを格納したリスト
@@ -66,21 +164,305 @@ public class SimFighting extends Fighting {
 	 */
 	public void initialize(ArrayList<ArrayList<Motion>> motionList, ArrayList<Deque<Action>> actionList,
 			FrameData frameData, boolean playerNumber) {
+		initialize(new MotionTable(motionList.get(0)), new MotionTable(motionList.get(1)), actionList.get(0),
+				actionList.get(1), frameData);
+	}
+
+	/**
+	 * Initializes the simulation without creating a list for the actions.
+	 *
+	 * @param p1Motions
+	 *            the motion table of P1, which is shared, not copied
+	 * @param p2Motions
+	 *            the motion table of P2, which is shared, not copied
+	 * @param p1Act
+	 *            the actions to be performed by P1, or {@code null} if P1 does
+	 *            not take any input
+	 * @param p2Act
+	 *            the actions to be performed by P2, or {@code null} if P2 does
+	 *            not take any input
+	 * @param frameData
+	 *            frame data at the start of simulation
+	 */
+	public void initialize(MotionTable p1Motions, MotionTable p2Motions, Deque<Action> p1Act, Deque<Action> p2Act,
+			FrameData frameData) {
 
 		for (int i = 0; i < 2; i++) {
-			this.playerCharacters[i] = new Character(frameData.getCharacter(i == 0), motionList.get(i));
+			CharacterData characterData = frameData.getCharacter(i == 0);
+			MotionTable motionTable = i == 0 ? p1Motions : p2Motions;
+			if (this.playerCharacters[i] == null) {
+				this.playerCharacters[i] = new Character(characterData, motionTable);
+				this.playerCharacters[i].setMatchSetting(this.matchSetting);
+				this.playerCharacters[i].setInputCommand(this.inputCommands.get(i));
+				this.playerCharacters[i].setProcessedCommand(this.processedCommands.get(i));
+			}
+			this.playerCharacters[i].initialize(characterData, motionTable);
 
-			this.inputKeys.add(this.playerCharacters[i].getProcessedCommand());
-			this.inputActions.add(actionList.get(i));
+			Deque<Key> keyList = this.inputKeys.get(i);
+			keyList.clear();
+			keyList.addAll(this.processedCommands.get(i));
 
-			this.commandCenter[i] = new CommandCenter();
+			this.commandCenter[i].skillCancel();
 			this.commandCenter[i].setFrameData(frameData, i == 0);
 		}
+		setActions(p1Act, p2Act);
+		this.frameData = frameData;
+		this.framesNumber = frameData.getFramesNumber();
+		this.hitLanded[0] = false;
+		this.hitLanded[1] = false;
+
+		clearProjectiles();
 
 		Deque<AttackData> projectiles = frameData.getProjectiles();
 		for (AttackData temp : projectiles) {
-			this.projectileDeque.addLast(new LoopEffect(new Attack(temp), null));
+			LoopEffect projectile = obtainProjectile();
+			projectile.getAttack().set(temp);
+			this.projectileDeque.addLast(projectile);
 		}
+		updateStateHash();
+	}
+
+	/**
+	 * Replaces the actions waiting to be executed.<br>
+	 * The keys of an action already being executed are not affected.
+	 *
+	 * @param p1Act
+	 *            the actions to be performed by P1, or {@code null} if P1 does
+	 *            not take any input
+	 * @param p2Act
+	 *            the actions to be performed by P2, or {@code null} if P2 does
+	 *            not take any input
+	 */
+	public void setActions(Deque<Action> p1Act, Deque<Action> p2Act) {
+		for (int i = 0; i < 2; i++) {
+			Deque<Action> actList = i == 0 ? p1Act : p2Act;
+			if (actList == null) {
+				this.inputActions.set(i, null);
+			} else {
+				Deque<Action> buffer = this.actionBuffers.get(i);
+				buffer.clear();
+				buffer.addAll(actList);
+				this.inputActions.set(i, buffer);
+			}
+		}
+	}
+
+	/**
+	 * Copies the current state of the fight into the specified snapshot.<br>
+	 * The buffers of the snapshot are reused. The frame number and the round
+	 * are not known to this class and are left unchanged.
+	 *
+	 * @param gameState
+	 *            the snapshot to be overwritten
+	 *
+	 * @see #restore(GameState)
+	 */
+	public void snapshot(GameState gameState) {
+		for (int i = 0; i < 2; i++) {
+			if (gameState.characters[i] == null) {
+				gameState.characters[i] = new Character(this.playerCharacters[i]);
+			}
+			gameState.characters[i].set(this.playerCharacters[i]);
+
+			Deque<Key> keyList = gameState.inputKeys.get(i);
+			keyList.clear();
+			keyList.addAll(this.inputKeys.get(i));
+
+			Deque<Action> actList = this.inputActions.get(i);
+			Deque<Action> buffer = gameState.inputActions.get(i);
+			buffer.clear();
+			gameState.hasActions[i] = actList != null;
+			if (actList != null) {
+				buffer.addAll(actList);
+			}
+
+			this.commandCenter[i].copySkillKeys(gameState.skillKeys.get(i));
+		}
+
+		int count = 0;
+		for (LoopEffect projectile : this.projectileDeque) {
+			if (count == gameState.projectiles.size()) {
+				gameState.projectiles.add(new Attack());
+			}
+			gameState.projectiles.get(count++).set(projectile.getAttack());
+		}
+		gameState.projectileCount = count;
+		gameState.frameData = this.frameData;
+		gameState.stateHash = this.stateHash;
+	}
+
+	/**
+	 * Restores the state of the fight from the specified snapshot.<br>
+	 * The snapshot is not changed, so it can be restored any number of times.
+	 *
+	 * @param gameState
+	 *            the snapshot to be restored
+	 *
+	 * @see #snapshot(GameState)
+	 */
+	public void restore(GameState gameState) {
+		for (int i = 0; i < 2; i++) {
+			if (this.playerCharacters[i] == null) {
+				this.playerCharacters[i] = new Character(gameState.characters[i]);
+				this.playerCharacters[i].setInputCommand(this.inputCommands.get(i));
+				this.playerCharacters[i].setProcessedCommand(this.processedCommands.get(i));
+			}
+			this.playerCharacters[i].set(gameState.characters[i]);
+
+			Deque<Key> keyList = this.inputKeys.get(i);
+			keyList.clear();
+			keyList.addAll(gameState.inputKeys.get(i));
+
+			if (gameState.hasActions[i]) {
+				Deque<Action> buffer = this.actionBuffers.get(i);
+				buffer.clear();
+				buffer.addAll(gameState.inputActions.get(i));
+				this.inputActions.set(i, buffer);
+			} else {
+				this.inputActions.set(i, null);
+			}
+
+			this.commandCenter[i].setSkillKeys(gameState.skillKeys.get(i));
+			this.commandCenter[i].setFrameData(gameState.frameData, i == 0);
+		}
+		this.frameData = gameState.frameData;
+		this.framesNumber = gameState.framesNumber;
+		this.hitLanded[0] = false;
+		this.hitLanded[1] = false;
+
+		clearProjectiles();
+		for (int i = 0; i < gameState.projectileCount; i++) {
+			LoopEffect projectile = obtainProjectile();
+			projectile.getAttack().set(gameState.projectiles.get(i));
+			this.projectileDeque.addLast(projectile);
+		}
+		this.stateHash = gameState.stateHash;
+	}
+
+	/**
+	 * Returns the hash of the current state of the fight.<br>
+	 * It is equal to the hash of the frame data created from the current
+	 * state.
+	 *
+	 * @return the hash of the current state of the fight
+	 *
+	 * @see FrameData#getStateHash()
+	 */
+	@Override
+	public long getStateHash() {
+		return this.stateHash;
+	}
+
+	@Override
+	public int getFramesNumber() {
+		return this.framesNumber;
+	}
+
+	@Override
+	public int getHp(boolean playerNumber) {
+		return this.playerCharacters[playerNumber ? 0 : 1].getHp();
+	}
+
+	@Override
+	public int getEnergy(boolean playerNumber) {
+		return this.playerCharacters[playerNumber ? 0 : 1].getEnergy();
+	}
+
+	@Override
+	public int getX(boolean playerNumber) {
+		return this.playerCharacters[playerNumber ? 0 : 1].getX();
+	}
+
+	@Override
+	public int getY(boolean playerNumber) {
+		return this.playerCharacters[playerNumber ? 0 : 1].getY();
+	}
+
+	@Override
+	public int getSpeedX(boolean playerNumber) {
+		return this.playerCharacters[playerNumber ? 0 : 1].getSpeedX();
+	}
+
+	@Override
+	public int getSpeedY(boolean playerNumber) {
+		return this.playerCharacters[playerNumber ? 0 : 1].getSpeedY();
+	}
+
+	@Override
+	public State getState(boolean playerNumber) {
+		return this.playerCharacters[playerNumber ? 0 : 1].getState();
+	}
+
+	@Override
+	public Action getAction(boolean playerNumber) {
+		return this.playerCharacters[playerNumber ? 0 : 1].getAction();
+	}
+
+	@Override
+	public int getRemainingFrame(boolean playerNumber) {
+		return this.playerCharacters[playerNumber ? 0 : 1].getRemainingFrame();
+	}
+
+	@Override
+	public boolean isControl(boolean playerNumber) {
+		return this.playerCharacters[playerNumber ? 0 : 1].isControl();
+	}
+
+	@Override
+	public boolean isFront(boolean playerNumber) {
+		return this.playerCharacters[playerNumber ? 0 : 1].isFront();
+	}
+
+	@Override
+	public int getHitCount(boolean playerNumber) {
+		return this.playerCharacters[playerNumber ? 0 : 1].getHitCount();
+	}
+
+	@Override
+	public boolean isHit(boolean playerNumber) {
+		return this.hitLanded[playerNumber ? 0 : 1];
+	}
+
+	@Override
+	public int getProjectileCount() {
+		return this.projectileDeque.size();
+	}
+
+	/**
+	 * Recomputes the hash of the current state of the fight from the
+	 * characters and the projectiles, without copying them.
+	 */
+	private void updateStateHash() {
+		long hash = this.playerCharacters[0].getStateHash() ^ this.playerCharacters[1].getStateHash();
+
+		long projectileHash = 0;
+		for (LoopEffect projectile : this.projectileDeque) {
+			projectileHash += projectile.getAttack().getStateHash(StateHash.SLOT_PROJECTILE);
+		}
+
+		this.stateHash = hash ^ projectileHash;
+	}
+
+	/**
+	 * Moves all projectiles on the stage to the pool.
+	 */
+	private void clearProjectiles() {
+		while (!this.projectileDeque.isEmpty()) {
+			this.projectilePool.addLast(this.projectileDeque.removeFirst());
+		}
+	}
+
+	/**
+	 * Returns a projectile taken from the pool, or a new one if the pool is
+	 * empty.
+	 *
+	 * @return a projectile whose attack is to be overwritten
+	 */
+	private LoopEffect obtainProjectile() {
+		if (this.projectilePool.isEmpty()) {
+			return new LoopEffect(new Attack(), null);
+		}
+		return this.projectilePool.removeFirst();
 	}
 
 	/**
@@ -105,6 +487,10 @@ public class SimFighting extends Fighting {
 		updateAttackParameter();
 		// 4. キャラクター情報の更新
 		updateCharacter();
+		// 5. update the hash of the state
+		updateStateHash();
+
+		this.framesNumber = currentFrame + 1;
 	}
 
 	/**
@@ -115,16 +501,17 @@ public class SimFighting extends Fighting {
 		for (int i = 0; i < 2; i++) {
 			Deque<Key> keyList = this.inputKeys.get(i);
 			Deque<Action> actList = this.inputActions.get(i);
+			Deque<Key> inputCommand = this.inputCommands.get(i);
 
 			if (keyList.size() > GameSetting.INPUT_LIMIT-1) {
 				keyList.removeFirst();
 			}
 
-			if (!this.playerCharacters[i].getInputCommand().isEmpty()) {
-				Deque<Key> temp = this.playerCharacters[i].getProcessedCommand();
-				keyList.addLast(temp.removeFirst());
-				this.playerCharacters[i].setInputCommand(temp);
-				keyList.add(new Key(this.playerCharacters[i].getInputCommand().getFirst()));
+			if (!inputCommand.isEmpty()) {
+				inputCommand.clear();
+				inputCommand.addAll(this.processedCommands.get(i));
+				keyList.addLast(inputCommand.removeFirst());
+				keyList.addLast(inputCommand.getFirst());
 
 				Action act = this.commandTable.interpretationCommandFromKey(this.playerCharacters[i], keyList);
 				if (ableAction(this.playerCharacters[i], act)) {
@@ -135,16 +522,16 @@ public class SimFighting extends Fighting {
 				if (!actList.isEmpty()) {
 
 					if (ableAction(this.playerCharacters[i], actList.getFirst()) && !commandCenter[i].getSkillFlag()) {
-						this.commandCenter[i].commandCall(actList.removeFirst().name());
+						this.commandCenter[i].commandCall(actList.removeFirst());
 
 					} else if (this.playerCharacters[i].isControl() && !this.commandCenter[i].getSkillFlag()) {
 						actList.removeFirst();
 					}
 				}
 
-				this.inputKeys.get(i).add(this.commandCenter[i].getSkillKey());
+				keyList.addLast(this.commandCenter[i].getSkillFlag() ? this.commandCenter[i].getSkillKey() : this.emptyKey);
 				Action act = this.commandTable.interpretationCommandFromKey(this.playerCharacters[i], keyList);
-				this.playerCharacters[i].setInputCommand(this.commandCenter[i].getSkillKeys());
+				this.commandCenter[i].copySkillKeys(inputCommand);
 
 				if (ableAction(this.playerCharacters[i], act)) {
 					this.playerCharacters[i].runAction(act, true);
@@ -155,7 +542,11 @@ public class SimFighting extends Fighting {
 
 	@Override
 	protected void calculationHit(int currentFrame) {
-		boolean[] isHit = { false, false };
+		boolean[] isHit = this.isHit;
+		isHit[0] = false;
+		isHit[1] = false;
+		this.hitLanded[0] = false;
+		this.hitLanded[1] = false;
 
 		// 波動拳の処理
 		int dequeSize = this.projectileDeque.size();
@@ -165,8 +556,10 @@ public class SimFighting extends Fighting {
 
 			if (detectionHit(this.playerCharacters[opponentIndex], projectile.getAttack())) {
 				int myIndex = opponentIndex == 0 ? 1 : 0;
+				this.hitLanded[myIndex] = true;
 				this.playerCharacters[opponentIndex].hitAttack(this.playerCharacters[myIndex], projectile.getAttack(),
 						currentFrame);
+				this.projectilePool.addLast(projectile);
 
 			} else {
 				this.projectileDeque.addLast(projectile);
@@ -180,6 +573,7 @@ public class SimFighting extends Fighting {
 
 			if (detectionHit(this.playerCharacters[opponentIndex], attack)) {
 				isHit[i] = true;
+				this.hitLanded[i] = true;
 				// HP等のパラメータの更新
 				// Fightingと共通してcharacterを用いているため、音が鳴る処理が実行されてしまう
 				this.playerCharacters[opponentIndex].hitAttack(this.playerCharacters[i], attack, currentFrame);
@@ -207,6 +601,8 @@ public class SimFighting extends Fighting {
 			LoopEffect projectile = this.projectileDeque.removeFirst();
 			if (projectile.getAttack().updateProjectileAttack()) {
 				this.projectileDeque.addLast(projectile);
+			} else {
+				this.projectilePool.addLast(projectile);
 			}
 		}
 
@@ -231,7 +627,10 @@ public class SimFighting extends Fighting {
 			if (this.playerCharacters[i].getAttack() != null) {
 				if (this.playerCharacters[i].getAttack().isProjectile()) {
 
-					this.projectileDeque.addLast(new LoopEffect(this.playerCharacters[i].getAttack(), null));
+					// the character reuses its attack instance, so the projectile keeps a copy
+					LoopEffect projectile = obtainProjectile();
+					projectile.getAttack().set(this.playerCharacters[i].getAttack());
+					this.projectileDeque.addLast(projectile);
 					this.playerCharacters[i].destroyAttackInstance();
 				}
 			}
@@ -253,8 +652,9 @@ public class SimFighting extends Fighting {
 	public FrameData createFrameData(int nowFrame, int round) {
 		CharacterData[] characterData = new CharacterData[2];
 		for (int i = 0; i < 2; i++) {
-			characterData[i] = new CharacterData(this.playerCharacters[i]);
-			characterData[i].setProcessedCommand(this.inputKeys.get(i));
+			// Key instances are shared inside the simulator, so the constructor copies them
+			characterData[i] = new CharacterData(this.playerCharacters[i], this.inputCommands.get(i),
+					this.inputKeys.get(i));
 		}
 
 		Deque<AttackData> newAttackDeque = new LinkedList<AttackData>();
@@ -0,0 +1,173 @@
+package simulator;
+
+import java.util.ArrayDeque;
+import java.util.Deque;
+
+import enumerate.Action;
+import fighting.MotionTable;
+import setting.MatchSetting;
+import struct.FrameData;
+
+/**
+ * The stateful handle which advances a simulated fight one frame at a time.<br>
+ * Unlike {@link Simulator#simulate(FrameData, boolean, Deque, Deque, int)},
+ * the actions are decided frame by frame, so a closed-loop policy can look at
+ * the state after each frame and choose its next action without simulating
+ * again from the root. The state is read through a {@link SimState} view, and
+ * frame data is only created on request.<br>
+ * A session owns its own simulation instance and is not thread-safe. It can
+ * branch by taking a {@link GameState} snapshot and restoring it later.
+ *
+ * @see Simulator#createSession(FrameData)
+ */
+public class SimSession {
+
+	/**
+	 * The simulation instance owned by this session.
+	 */
+	private final SimFighting simFighting;
+
+	/**
+	 * The motion table of P1.
+	 */
+	private final MotionTable p1Motions;
+
+	/**
+	 * The motion table of P2.
+	 */
+	private final MotionTable p2Motions;
+
+	/**
+	 * The buffer used to pass P1's action of each step to the simulation.
+	 */
+	private final Deque<Action> p1Act;
+
+	/**
+	 * The buffer used to pass P2's action of each step to the simulation.
+	 */
+	private final Deque<Action> p2Act;
+
+	/**
+	 * The current round.
+	 */
+	private int round;
+
+	/**
+	 * The class constructor.
+	 *
+	 * @param matchSetting
+	 *            the settings of the match
+	 * @param p1Motions
+	 *            the motion table of P1
+	 * @param p2Motions
+	 *            the motion table of P2
+	 * @param frameData
+	 *            frame data at the start of simulation
+	 */
+	SimSession(MatchSetting matchSetting, MotionTable p1Motions, MotionTable p2Motions, FrameData frameData) {
+		this.simFighting = new SimFighting(matchSetting);
+		this.p1Motions = p1Motions;
+		this.p2Motions = p2Motions;
+		this.p1Act = new ArrayDeque<Action>(1);
+		this.p2Act = new ArrayDeque<Action>(1);
+
+		reset(frameData);
+	}
+
+	/**
+	 * Restarts the session from the specified frame data.
+	 *
+	 * @param frameData
+	 *            frame data at the start of simulation
+	 */
+	public void reset(FrameData frameData) {
+		this.simFighting.initialize(this.p1Motions, this.p2Motions, null, null, frameData);
+		this.round = frameData.getRound();
+	}
+
+	/**
+	 * Advances the fight by one frame and returns the state after it.<br>
+	 * Each action is started in this frame if the character can perform it,
+	 * and is discarded otherwise. Keys of an action already being executed
+	 * continue regardless of the new action. {@code null} means that the
+	 * character starts no new action in this frame.<br>
+	 * The returned view is this session's state, and changes on the next step.
+	 *
+	 * @param p1
+	 *            the action to be performed by P1, or {@code null}
+	 * @param p2
+	 *            the action to be performed by P2, or {@code null}
+	 * @return the state after the frame
+	 */
+	public SimState step(Action p1, Action p2) {
+		this.p1Act.clear();
+		this.p2Act.clear();
+		if (p1 != null) {
+			this.p1Act.addLast(p1);
+		}
+		if (p2 != null) {
+			this.p2Act.addLast(p2);
+		}
+
+		this.simFighting.setActions(this.p1Act, this.p2Act);
+		this.simFighting.processingFight(this.simFighting.getFramesNumber());
+
+		return this.simFighting;
+	}
+
+	/**
+	 * Returns the current state without advancing the fight.
+	 *
+	 * @return the current state
+	 */
+	public SimState peek() {
+		return this.simFighting;
+	}
+
+	/**
+	 * Returns the number of frames since the beginning of the round.
+	 *
+	 * @return the number of frames since the beginning of the round
+	 */
+	public int getFramesNumber() {
+		return this.simFighting.getFramesNumber();
+	}
+
+	/**
+	 * Creates the frame data of the current state.<br>
+	 * It copies the characters and the projectiles, so it should only be
+	 * called when the full frame data is needed.
+	 *
+	 * @return the frame data of the current state
+	 */
+	public FrameData getFrameData() {
+		return this.simFighting.createFrameData(this.simFighting.getFramesNumber(), this.round);
+	}
+
+	/**
+	 * Copies the current state into the specified snapshot.
+	 *
+	 * @param gameState
+	 *            the snapshot to be overwritten
+	 *
+	 * @see #restore(GameState)
+	 */
+	public void snapshot(GameState gameState) {
+		this.simFighting.snapshot(gameState);
+		gameState.framesNumber = this.simFighting.getFramesNumber();
+		gameState.round = this.round;
+	}
+
+	/**
+	 * Restores the state from the specified snapshot, which may have been
+	 * taken by another session or by the simulator.
+	 *
+	 * @param gameState
+	 *            the snapshot to be restored
+	 */
+	public void restore(GameState gameState) {
+		this.simFighting.restore(gameState);
+		this.round = gameState.round;
+	}
+
+}
@@ -0,0 +1,176 @@
+package simulator;
+
+import enumerate.Action;
+import enumerate.State;
+
+/**
+ * The read-only view of the state of a fight in the simulator.<br>
+ * The view reads the simulator's objects directly instead of copying them, so
+ * it is only valid until the simulation advances, and must not be kept.
+ *
+ * @see Simulator#simulate(struct.FrameData, boolean, java.util.Deque,
+ *      java.util.Deque, int, java.util.function.Predicate)
+ * @see StopCondition
+ */
+public interface SimState {
+
+	/**
+	 * Returns the number of frames since the beginning of the round.
+	 *
+	 * @return the number of frames since the beginning of the round
+	 */
+	int getFramesNumber();
+
+	/**
+	 * Returns the character's HP.
+	 *
+	 * @param playerNumber
+	 *            the character's side flag. {@code true} if the character is
+	 *            P1, or {@code false} if P2.
+	 * @return the character's HP
+	 */
+	int getHp(boolean playerNumber);
+
+	/**
+	 * Returns the character's energy.
+	 *
+	 * @param playerNumber
+	 *            the character's side flag. {@code true} if the character is
+	 *            P1, or {@code false} if P2.
+	 * @return the character's energy
+	 */
+	int getEnergy(boolean playerNumber);
+
+	/**
+	 * Returns the character graphic's most top-left x-coordinate.
+	 *
+	 * @param playerNumber
+	 *            the character's side flag. {@code true} if the character is
+	 *            P1, or {@code false} if P2.
+	 * @return the character graphic's most top-left x-coordinate
+	 */
+	int getX(boolean playerNumber);
+
+	/**
+	 * Returns the character graphic's most top-left y-coordinate.
+	 *
+	 * @param playerNumber
+	 *            the character's side flag. {@code true} if the character is
+	 *            P1, or {@code false} if P2.
+	 * @return the character graphic's most top-left y-coordinate
+	 */
+	int getY(boolean playerNumber);
+
+	/**
+	 * Returns the character's horizontal speed.
+	 *
+	 * @param playerNumber
+	 *            the character's side flag. {@code true} if the character is
+	 *            P1, or {@code false} if P2.
+	 * @return the character's horizontal speed
+	 */
+	int getSpeedX(boolean playerNumber);
+
+	/**
+	 * Returns the character's vertical speed.
+	 *
+	 * @param playerNumber
+	 *            the character's side flag. {@code true} if the character is
+	 *            P1, or {@code false} if P2.
+	 * @return the character's vertical speed
+	 */
+	int getSpeedY(boolean playerNumber);
+
+	/**
+	 * Returns the character's state: stand / crouch / in air / down.
+	 *
+	 * @param playerNumber
+	 *            the character's side flag. {@code true} if the character is
+	 *            P1, or {@code false} if P2.
+	 * @return the character's state
+	 */
+	State getState(boolean playerNumber);
+
+	/**
+	 * Returns the character's action.
+	 *
+	 * @param playerNumber
+	 *            the character's side flag. {@code true} if the character is
+	 *            P1, or {@code false} if P2.
+	 * @return the character's action
+	 */
+	Action getAction(boolean playerNumber);
+
+	/**
+	 * Returns the number of frames that the character needs to resume to its
+	 * normal status.
+	 *
+	 * @param playerNumber
+	 *            the character's side flag. {@code true} if the character is
+	 *            P1, or {@code false} if P2.
+	 * @return the number of frames that the character needs to resume to its
+	 *         normal status
+	 */
+	int getRemainingFrame(boolean playerNumber);
+
+	/**
+	 * Returns the flag whether the character can run a new motion.
+	 *
+	 * @param playerNumber
+	 *            the character's side flag. {@code true} if the character is
+	 *            P1, or {@code false} if P2.
+	 * @return {@code true} if the character can run a new motion,
+	 *         {@code false} otherwise
+	 */
+	boolean isControl(boolean playerNumber);
+
+	/**
+	 * Returns the character's facing direction.
+	 *
+	 * @param playerNumber
+	 *            the character's side flag. {@code true} if the character is
+	 *            P1, or {@code false} if P2.
+	 * @return {@code true} if the character is facing right, {@code false}
+	 *         otherwise
+	 */
+	boolean isFront(boolean playerNumber);
+
+	/**
+	 * Returns the number of continuous hits of the character's attacks.
+	 *
+	 * @param playerNumber
+	 *            the character's side flag. {@code true} if the character is
+	 *            P1, or {@code false} if P2.
+	 * @return the number of continuous hits
+	 */
+	int getHitCount(boolean playerNumber);
+
+	/**
+	 * Returns whether an attack or a projectile of the character hit the
+	 * opponent in the last simulated frame.
+	 *
+	 * @param playerNumber
+	 *            the character's side flag. {@code true} if the character is
+	 *            P1, or {@code false} if P2.
+	 * @return {@code true} if the character hit the opponent in the last
+	 *         frame, {@code false} otherwise
+	 */
+	boolean isHit(boolean playerNumber);
+
+	/**
+	 * Returns the number of projectiles on the stage.
+	 *
+	 * @return the number of projectiles on the stage
+	 */
+	int getProjectileCount();
+
+	/**
+	 * Returns the hash of the state.
+	 *
+	 * @return the hash of the state
+	 *
+	 * @see struct.FrameData#getStateHash()
+	 */
+	long getStateHash();
+
+}
@@ -1,11 +1,16 @@
 package simulator;
 
-import java.util.ArrayList;
+import java.util.ArrayDeque;
+import java.util.Arrays;
 import java.util.Deque;
-import java.util.LinkedList;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+import java.util.function.Predicate;
 
 import enumerate.Action;
-import fighting.Motion;
+import fighting.MotionTable;
+import struct.CharacterData;
 import struct.FrameData;
 import struct.GameData;
 
@@ -14,11 +19,37 @@ import struct.GameData;
  */
 public class Simulator {
 
+	/**
+	 * The number of pairs of actions simulated sequentially by one task of
+	 * {@link #evaluatePayoff}.
+	 */
+	private static final int PAYOFF_TASK_SIZE = 8;
+
 	/**
 	 * The variable that holds invariant information in the game.
 	 */
 	private GameData gameData;
 
+	/**
+	 * The simulation instance of each calling thread.<br>
+	 * The simulator is shared by both AIs, so each thread reuses its own
+	 * instance instead of creating one for every simulation.
+	 */
+	private final ThreadLocal<SimFighting> simFighting = ThreadLocal
+			.withInitial(() -> new SimFighting(this.gameData.getMatchSetting()));
+
+	/**
+	 * The pool used by {@link #simulateBatch}.<br>
+	 * {@code null} means the common pool.
+	 */
+	private volatile ForkJoinPool forkJoinPool;
+
+	/**
+	 * The cache of simulation results, or {@code null} if results are not
+	 * cached.
+	 */
+	private volatile RolloutCache rolloutCache;
+
 	/**
 	 * The class constructor that creates an instance of the Simulator class by
 	 * using an instance of the GameData class.
@@ -69,35 +100,533 @@ public class Simulator {
 	 */
 	public FrameData simulate(FrameData frameData, boolean playerNumber, Deque<Action> myAct, Deque<Action> oppAct,
 			int simulationLimit) {
+		return simulate(frameData, playerNumber, myAct, oppAct, simulationLimit, null);
+	}
+
+	/**
+	 * Simulates the progression of a fight like
+	 * {@link #simulate(FrameData, boolean, Deque, Deque, int)}, but stops as
+	 * soon as the given condition holds.<br>
+	 * The condition is tested after every simulated frame, with a view of the
+	 * state which is only valid during the call. The frame number of the
+	 * returned frame data tells the frame the simulation stopped at, which is
+	 * the start frame plus {@code simulationLimit} if the condition never
+	 * held.<br>
+	 * Simulations with a condition are not cached.
+	 *
+	 * @param frameData
+	 *            frame data at the start of simulation
+	 * @param playerNumber
+	 *            boolean value which identifies P1/P2. {@code true} if the
+	 *            player is P1, or {@code false} if P2.
+	 * @param myAct
+	 *            actions to be performed by the player identified by the
+	 *            parameter `player`
+	 * @param oppAct
+	 *            actions to be performed by the opponent of the player
+	 *            identified by the parameter `player`
+	 * @param simulationLimit
+	 *            the maximum number of frames to be simulated
+	 * @param stopCondition
+	 *            the condition to stop the simulation, or {@code null} to
+	 *            simulate all {@code simulationLimit} frames
+	 *
+	 * @return the frame data after the simulation
+	 *
+	 * @see StopCondition
+	 */
+	public FrameData simulate(FrameData frameData, boolean playerNumber, Deque<Action> myAct, Deque<Action> oppAct,
+			int simulationLimit, Predicate<SimState> stopCondition) {
+
+		Deque<Action> p1Act = playerNumber ? myAct : oppAct;
+		Deque<Action> p2Act = playerNumber ? oppAct : myAct;
 
-		// Creates deep copy of each action's list
-		ArrayList<Deque<Action>> tempActionList = new ArrayList<Deque<Action>>(2);
-		Deque<Action> tempP1Act = ((playerNumber ? myAct : oppAct) == null) ? null
-				: new LinkedList<Action>(playerNumber ? myAct : oppAct);
-		Deque<Action> tempP2Act = ((!playerNumber ? myAct : oppAct) == null) ? null
-				: new LinkedList<Action>(!playerNumber ? myAct : oppAct);
-		tempActionList.add(tempP1Act);
-		tempActionList.add(tempP2Act);
-
-		ArrayList<ArrayList<Motion>> tempMotionList = new ArrayList<ArrayList<Motion>>(2);
-//		ArrayList<Motion> p1MotionData = this.gameData.getMotion(playerNumber ? true : false);
-//		ArrayList<Motion> p2MotionData = this.gameData.getMotion(!playerNumber ? true : false);
-		ArrayList<Motion> p1MotionData = this.gameData.getMotion(true);
-		ArrayList<Motion> p2MotionData = this.gameData.getMotion(false);
-		tempMotionList.add(p1MotionData);
-		tempMotionList.add(p2MotionData);
+		RolloutCache cache = stopCondition == null ? this.rolloutCache : null;
+		RolloutCache.RolloutKey key = null;
+		if (cache != null) {
+			key = cache.createKey(frameData, p1Act, p2Act, simulationLimit);
+			FrameData cached = cache.get(key, frameData);
+			if (cached != null) {
+				return cached;
+			}
+		}
 
 		int nowFrame = frameData.getFramesNumber();
 
-		SimFighting simFighting = new SimFighting();
-		simFighting.initialize(tempMotionList, tempActionList, new FrameData(frameData), playerNumber);
+		// The actions are copied into the buffers of the simulation instance,
+		// and the given frame data is only read
+		SimFighting simFighting = this.simFighting.get();
+		simFighting.initialize(this.gameData.getMotionTable(true), this.gameData.getMotionTable(false), p1Act, p2Act,
+				frameData);
 
 		for (int i = 0; i < simulationLimit; i++) {
 			simFighting.processingFight(nowFrame);
 			nowFrame++;
+
+			if (stopCondition != null && stopCondition.test(simFighting)) {
+				break;
+			}
+		}
+
+		FrameData result = simFighting.createFrameData(nowFrame, frameData.getRound());
+		if (cache != null) {
+			cache.put(key, frameData, result);
 		}
 
-		return simFighting.createFrameData(nowFrame, frameData.getRound());
+		return result;
+	}
+
+	/**
+	 * Sets the cache of simulation results used by
+	 * {@link #simulate(FrameData, boolean, Deque, Deque, int)}.<br>
+	 * The simulator is shared by both AIs, and so is the cache.
+	 *
+	 * @param rolloutCache
+	 *            the cache to be used, or {@code null} to disable caching
+	 */
+	public void setRolloutCache(RolloutCache rolloutCache) {
+		this.rolloutCache = rolloutCache;
+	}
+
+	/**
+	 * Returns the cache of simulation results.
+	 *
+	 * @return the cache of simulation results, or {@code null} if results are
+	 *         not cached
+	 */
+	public RolloutCache getRolloutCache() {
+		return this.rolloutCache;
+	}
+
+	/**
+	 * Creates a session which advances the fight described by the given
+	 * {@link FrameData} instance one frame at a time.<br>
+	 * The session owns its own simulation instance, so it can be used
+	 * alongside this simulator, but only by one thread at a time.
+	 *
+	 * @param frameData
+	 *            frame data at the start of simulation
+	 *
+	 * @return the session starting from the frame data
+	 */
+	public SimSession createSession(FrameData frameData) {
+		return new SimSession(this.gameData.getMatchSetting(), this.gameData.getMotionTable(true),
+				this.gameData.getMotionTable(false), frameData);
+	}
+
+	/**
+	 * Creates a snapshot of the fight described by the given
+	 * {@link FrameData} instance, to be used as the root of a tree search.
+	 *
+	 * @param frameData
+	 *            frame data at the start of simulation
+	 *
+	 * @return the snapshot of the fight
+	 *
+	 * @see #simulate(GameState, boolean, Deque, Deque, int, GameState)
+	 */
+	public GameState createGameState(FrameData frameData) {
+		SimFighting simFighting = this.simFighting.get();
+		simFighting.initialize(this.gameData.getMotionTable(true), this.gameData.getMotionTable(false), null, null,
+				frameData);
+
+		GameState gameState = new GameState();
+		simFighting.snapshot(gameState);
+		gameState.framesNumber = frameData.getFramesNumber();
+		gameState.round = frameData.getRound();
+
+		return gameState;
+	}
+
+	/**
+	 * Simulates the progression of a fight starting from a given snapshot and
+	 * returns the snapshot after the simulation.<br>
+	 * The given snapshot is not changed, so a tree search can branch from it
+	 * any number of times without replaying from the root.
+	 *
+	 * @param gameState
+	 *            the snapshot at the start of simulation
+	 * @param playerNumber
+	 *            boolean value which identifies P1/P2. {@code true} if the
+	 *            player is P1, or {@code false} if P2.
+	 * @param myAct
+	 *            actions to be performed by the player identified by the
+	 *            parameter `player`
+	 * @param oppAct
+	 *            actions to be performed by the opponent of the player
+	 *            identified by the parameter `player`
+	 * @param simulationLimit
+	 *            the number of frames to be simulated
+	 *
+	 * @return the snapshot after the simulation
+	 *
+	 * @see #simulate(GameState, boolean, Deque, Deque, int, GameState)
+	 */
+	public GameState simulate(GameState gameState, boolean playerNumber, Deque<Action> myAct, Deque<Action> oppAct,
+			int simulationLimit) {
+		GameState result = new GameState();
+		simulate(gameState, playerNumber, myAct, oppAct, simulationLimit, result);
+
+		return result;
+	}
+
+	/**
+	 * Simulates the progression of a fight starting from a given snapshot and
+	 * stores the snapshot after the simulation into {@code result}.<br>
+	 * The actions replace the actions still waiting in the snapshot, while an
+	 * action whose keys are already being executed continues. As in
+	 * {@link #simulate(FrameData, boolean, Deque, Deque, int)}, a {@code null}
+	 * action list means that the player takes no input at all.<br>
+	 * {@code result} may be the same instance as {@code gameState}, in which
+	 * case the snapshot advances in place.
+	 *
+	 * @param gameState
+	 *            the snapshot at the start of simulation
+	 * @param playerNumber
+	 *            boolean value which identifies P1/P2. {@code true} if the
+	 *            player is P1, or {@code false} if P2.
+	 * @param myAct
+	 *            actions to be performed by the player identified by the
+	 *            parameter `player`
+	 * @param oppAct
+	 *            actions to be performed by the opponent of the player
+	 *            identified by the parameter `player`
+	 * @param simulationLimit
+	 *            the number of frames to be simulated
+	 * @param result
+	 *            the snapshot to be overwritten with the state after the
+	 *            simulation
+	 */
+	public void simulate(GameState gameState, boolean playerNumber, Deque<Action> myAct, Deque<Action> oppAct,
+			int simulationLimit, GameState result) {
+		simulate(gameState, playerNumber, myAct, oppAct, simulationLimit, null, result);
+	}
+
+	/**
+	 * Simulates the progression of a fight starting from a given snapshot like
+	 * {@link #simulate(GameState, boolean, Deque, Deque, int, GameState)}, but
+	 * stops as soon as the given condition holds.<br>
+	 * The frame number of {@code result} tells the frame the simulation
+	 * stopped at.
+	 *
+	 * @param gameState
+	 *            the snapshot at the start of simulation
+	 * @param playerNumber
+	 *            boolean value which identifies P1/P2. {@code true} if the
+	 *            player is P1, or {@code false} if P2.
+	 * @param myAct
+	 *            actions to be performed by the player identified by the
+	 *            parameter `player`
+	 * @param oppAct
+	 *            actions to be performed by the opponent of the player
+	 *            identified by the parameter `player`
+	 * @param simulationLimit
+	 *            the maximum number of frames to be simulated
+	 * @param stopCondition
+	 *            the condition to stop the simulation, or {@code null} to
+	 *            simulate all {@code simulationLimit} frames
+	 * @param result
+	 *            the snapshot to be overwritten with the state after the
+	 *            simulation
+	 *
+	 * @see StopCondition
+	 */
+	public void simulate(GameState gameState, boolean playerNumber, Deque<Action> myAct, Deque<Action> oppAct,
+			int simulationLimit, Predicate<SimState> stopCondition, GameState result) {
+		int nowFrame = gameState.framesNumber;
+		int round = gameState.round;
+
+		SimFighting simFighting = this.simFighting.get();
+		simFighting.restore(gameState);
+		simFighting.setActions(playerNumber ? myAct : oppAct, playerNumber ? oppAct : myAct);
+
+		for (int i = 0; i < simulationLimit; i++) {
+			simFighting.processingFight(nowFrame);
+			nowFrame++;
+
+			if (stopCondition != null && stopCondition.test(simFighting)) {
+				break;
+			}
+		}
+
+		simFighting.snapshot(result);
+		result.framesNumber = nowFrame;
+		result.round = round;
+	}
+
+	/**
+	 * Creates the frame data corresponding to the given snapshot.
+	 *
+	 * @param gameState
+	 *            the snapshot of the fight
+	 *
+	 * @return the frame data corresponding to the snapshot
+	 */
+	public FrameData getFrameData(GameState gameState) {
+		SimFighting simFighting = this.simFighting.get();
+		simFighting.restore(gameState);
+
+		return simFighting.createFrameData(gameState.framesNumber, gameState.round);
+	}
+
+	/**
+	 * Simulates many independent rollouts starting from the same
+	 * {@link FrameData} instance and returns their results in input order.<br>
+	 * The rollouts are spread over the pool set by
+	 * {@link #setForkJoinPool(ForkJoinPool)}, and each of them gives the same
+	 * result as calling {@link #simulate} with the i-th actions.<br>
+	 * The frame data and the action lists are only read, and must not be
+	 * modified until this method returns. The same action list may appear
+	 * more than once.
+	 *
+	 * @param frameData
+	 *            frame data at the start of every simulation
+	 * @param playerNumber
+	 *            boolean value which identifies P1/P2. {@code true} if the
+	 *            player is P1, or {@code false} if P2.
+	 * @param myActs
+	 *            the actions to be performed by the player identified by the
+	 *            parameter `player`, one element per rollout
+	 * @param oppActs
+	 *            the actions to be performed by the opponent, one element per
+	 *            rollout
+	 * @param simulationLimit
+	 *            the number of frames to be simulated in every rollout
+	 *
+	 * @return the frame data after each simulation, in the order of the action
+	 *         lists
+	 *
+	 * @see #simulate(FrameData, boolean, Deque, Deque, int)
+	 */
+	public List<FrameData> simulateBatch(FrameData frameData, boolean playerNumber, List<Deque<Action>> myActs,
+			List<Deque<Action>> oppActs, int simulationLimit) {
+		if (myActs.size() != oppActs.size()) {
+			throw new IllegalArgumentException(
+					"myActs and oppActs must have the same size: " + myActs.size() + " != " + oppActs.size());
+		}
+
+		FrameData[] results = new FrameData[myActs.size()];
+		if (results.length > 0) {
+			ForkJoinPool pool = this.forkJoinPool;
+			(pool == null ? ForkJoinPool.commonPool() : pool).invoke(new BatchTask(frameData, playerNumber, myActs,
+					oppActs, simulationLimit, results, 0, results.length));
+		}
+
+		return Arrays.asList(results);
+	}
+
+	/**
+	 * Simulates every pair of actions of the player and the opponent from the
+	 * same {@link FrameData} instance.
+	 *
+	 * @param frameData
+	 *            frame data at the start of every simulation
+	 * @param playerNumber
+	 *            boolean value which identifies P1/P2. {@code true} if the
+	 *            player is P1, or {@code false} if P2.
+	 * @param simulationLimit
+	 *            the number of frames to be simulated for each pair
+	 *
+	 * @return the HP and energy deltas of every pair of actions
+	 *
+	 * @see #evaluatePayoff(FrameData, boolean, Action[], Action[], int)
+	 */
+	public PayoffMatrix evaluatePayoff(FrameData frameData, boolean playerNumber, int simulationLimit) {
+		return evaluatePayoff(frameData, playerNumber, Action.values(), Action.values(), simulationLimit);
+	}
+
+	/**
+	 * Simulates every pair of an action in {@code myActions} and an action in
+	 * {@code oppActions} from the same {@link FrameData} instance, and returns
+	 * the HP and energy deltas of both characters.<br>
+	 * Each pair gives the same result as calling {@link #simulate} with a
+	 * single action for each character. The pairs are spread over the pool
+	 * set by {@link #setForkJoinPool(ForkJoinPool)}, and each task reuses its
+	 * simulation instance and action buffers, and reads the result directly
+	 * without creating frame data.
+	 *
+	 * @param frameData
+	 *            frame data at the start of every simulation
+	 * @param playerNumber
+	 *            boolean value which identifies P1/P2. {@code true} if the
+	 *            player is P1, or {@code false} if P2.
+	 * @param myActions
+	 *            the actions of the player, one per row of the matrix
+	 * @param oppActions
+	 *            the actions of the opponent, one per column of the matrix
+	 * @param simulationLimit
+	 *            the number of frames to be simulated for each pair
+	 *
+	 * @return the HP and energy deltas of every pair of actions
+	 */
+	public PayoffMatrix evaluatePayoff(FrameData frameData, boolean playerNumber, Action[] myActions,
+			Action[] oppActions, int simulationLimit) {
+		PayoffMatrix matrix = new PayoffMatrix(myActions.clone(), oppActions.clone());
+
+		int size = myActions.length * oppActions.length;
+		if (size > 0) {
+			ForkJoinPool pool = this.forkJoinPool;
+			(pool == null ? ForkJoinPool.commonPool() : pool)
+					.invoke(new PayoffTask(frameData, playerNumber, simulationLimit, matrix, 0, size));
+		}
+
+		return matrix;
+	}
+
+	/**
+	 * Sets the pool used by {@link #simulateBatch} to run the rollouts.
+	 *
+	 * @param forkJoinPool
+	 *            the pool to be used, or {@code null} to use the common pool
+	 */
+	public void setForkJoinPool(ForkJoinPool forkJoinPool) {
+		this.forkJoinPool = forkJoinPool;
+	}
+
+	/**
+	 * Returns the pool used by {@link #simulateBatch} to run the rollouts.
+	 *
+	 * @return the pool used to run the rollouts
+	 */
+	public ForkJoinPool getForkJoinPool() {
+		ForkJoinPool pool = this.forkJoinPool;
+		return pool == null ? ForkJoinPool.commonPool() : pool;
+	}
+
+	/**
+	 * The task which splits a range of rollouts in halves until a single
+	 * rollout is left, and stores each result at the index of its actions.
+	 */
+	private class BatchTask extends RecursiveAction {
+
+		private static final long serialVersionUID = 1L;
+
+		private final FrameData frameData;
+
+		private final boolean playerNumber;
+
+		private final List<Deque<Action>> myActs;
+
+		private final List<Deque<Action>> oppActs;
+
+		private final int simulationLimit;
+
+		private final FrameData[] results;
+
+		private final int from;
+
+		private final int to;
+
+		BatchTask(FrameData frameData, boolean playerNumber, List<Deque<Action>> myActs, List<Deque<Action>> oppActs,
+				int simulationLimit, FrameData[] results, int from, int to) {
+			this.frameData = frameData;
+			this.playerNumber = playerNumber;
+			this.myActs = myActs;
+			this.oppActs = oppActs;
+			this.simulationLimit = simulationLimit;
+			this.results = results;
+			this.from = from;
+			this.to = to;
+		}
+
+		@Override
+		protected void compute() {
+			if (this.to - this.from == 1) {
+				this.results[this.from] = simulate(this.frameData, this.playerNumber, this.myActs.get(this.from),
+						this.oppActs.get(this.from), this.simulationLimit);
+			} else {
+				int middle = (this.from + this.to) >>> 1;
+				invokeAll(new BatchTask(this.frameData, this.playerNumber, this.myActs, this.oppActs,
+						this.simulationLimit, this.results, this.from, middle),
+						new BatchTask(this.frameData, this.playerNumber, this.myActs, this.oppActs,
+								this.simulationLimit, this.results, middle, this.to));
+			}
+		}
+	}
+
+	/**
+	 * The task which splits a range of cells of a payoff matrix in halves,
+	 * and simulates a small range of cells sequentially.
+	 */
+	private class PayoffTask extends RecursiveAction {
+
+		private static final long serialVersionUID = 1L;
+
+		private final FrameData frameData;
+
+		private final boolean playerNumber;
+
+		private final int simulationLimit;
+
+		private final PayoffMatrix matrix;
+
+		private final int from;
+
+		private final int to;
+
+		PayoffTask(FrameData frameData, boolean playerNumber, int simulationLimit, PayoffMatrix matrix, int from,
+				int to) {
+			this.frameData = frameData;
+			this.playerNumber = playerNumber;
+			this.simulationLimit = simulationLimit;
+			this.matrix = matrix;
+			this.from = from;
+			this.to = to;
+		}
+
+		@Override
+		protected void compute() {
+			if (this.to - this.from <= PAYOFF_TASK_SIZE) {
+				evaluate();
+			} else {
+				int middle = (this.from + this.to) >>> 1;
+				invokeAll(new PayoffTask(this.frameData, this.playerNumber, this.simulationLimit, this.matrix,
+						this.from, middle),
+						new PayoffTask(this.frameData, this.playerNumber, this.simulationLimit, this.matrix, middle,
+								this.to));
+			}
+		}
+
+		/**
+		 * Simulates the cells of this task.
+		 */
+		private void evaluate() {
+			CharacterData my = this.frameData.getCharacter(this.playerNumber);
+			CharacterData opp = this.frameData.getCharacter(!this.playerNumber);
+			int myHp = my.getHp();
+			int oppHp = opp.getHp();
+			int myEnergy = my.getEnergy();
+			int oppEnergy = opp.getEnergy();
+
+			MotionTable myMotions = Simulator.this.gameData.getMotionTable(this.playerNumber);
+			MotionTable oppMotions = Simulator.this.gameData.getMotionTable(!this.playerNumber);
+			SimFighting simFighting = Simulator.this.simFighting.get();
+			Deque<Action> myAct = new ArrayDeque<Action>(1);
+			Deque<Action> oppAct = new ArrayDeque<Action>(1);
+			int columns = this.matrix.getColumns();
+
+			for (int i = this.from; i < this.to; i++) {
+				myAct.clear();
+				oppAct.clear();
+				myAct.addLast(this.matrix.getMyAction(i / columns));
+				oppAct.addLast(this.matrix.getOppAction(i % columns));
+
+				simFighting.initialize(this.playerNumber ? myMotions : oppMotions,
+						this.playerNumber ? oppMotions : myMotions, this.playerNumber ? myAct : oppAct,
+						this.playerNumber ? oppAct : myAct, this.frameData);
+
+				int nowFrame = this.frameData.getFramesNumber();
+				for (int j = 0; j < this.simulationLimit; j++) {
+					simFighting.processingFight(nowFrame);
+					nowFrame++;
+				}
+
+				this.matrix.myHpDeltas[i] = simFighting.getHp(this.playerNumber) - myHp;
+				this.matrix.oppHpDeltas[i] = simFighting.getHp(!this.playerNumber) - oppHp;
+				this.matrix.myEnergyDeltas[i] = simFighting.getEnergy(this.playerNumber) - myEnergy;
+				this.matrix.oppEnergyDeltas[i] = simFighting.getEnergy(!this.playerNumber) - oppEnergy;
+			}
+		}
 	}
 
 }
@@ -0,0 +1,70 @@
+package simulator;
+
+import java.util.function.Predicate;
+
+/**
+ * The class providing common conditions to stop a simulation early.<br>
+ * A condition is tested after every simulated frame, and the simulation ends
+ * on the first frame where it holds. The frame number of the returned state
+ * tells the frame the simulation stopped at.
+ *
+ * @see Simulator#simulate(struct.FrameData, boolean, java.util.Deque,
+ *      java.util.Deque, int, Predicate)
+ */
+public final class StopCondition {
+
+	/**
+	 * The class constructor, which is not used.
+	 */
+	private StopCondition() {
+	}
+
+	/**
+	 * Returns the condition which holds when an attack or a projectile of
+	 * either character hits the opponent.
+	 *
+	 * @return the condition
+	 */
+	public static Predicate<SimState> firstHit() {
+		return state -> state.isHit(true) || state.isHit(false);
+	}
+
+	/**
+	 * Returns the condition which holds when an attack or a projectile of the
+	 * specified character hits the opponent.
+	 *
+	 * @param playerNumber
+	 *            the character's side flag. {@code true} if the character is
+	 *            P1, or {@code false} if P2.
+	 * @return the condition
+	 */
+	public static Predicate<SimState> hitBy(boolean playerNumber) {
+		return state -> state.isHit(playerNumber);
+	}
+
+	/**
+	 * Returns the condition which holds when the HP of either character is
+	 * zero or less.
+	 *
+	 * @return the condition
+	 */
+	public static Predicate<SimState> knockOut() {
+		return state -> state.getHp(true) <= 0 || state.getHp(false) <= 0;
+	}
+
+	/**
+	 * Returns the condition which holds when the specified character can run a
+	 * new motion.<br>
+	 * Since the condition is tested after a frame is simulated, an action
+	 * started in the first frame is already running when it is tested first.
+	 *
+	 * @param playerNumber
+	 *            the character's side flag. {@code true} if the character is
+	 *            P1, or {@code false} if P2.
+	 * @return the condition
+	 */
+	public static Predicate<SimState> regainsControl(boolean playerNumber) {
+		return state -> state.isControl(playerNumber);
+	}
+
+}
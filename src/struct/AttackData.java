@@ -4,7 +4,11 @@ import fighting.Attack;
 
 /**
  * The class dealing with data on the attack such as damage amount and required
- * energy amount.
+ * energy amount.<br>
+ * The attack data of a {@link FrameData} are read-only copies, because the
+ * frame is shared with the AIs, and their setters throw an
+ * {@link UnsupportedOperationException}. The copy constructor creates a copy
+ * which can be changed.
  */
 public class AttackData {
 
@@ -139,6 +143,12 @@ public class AttackData {
 	 */
 	private boolean isProjectile;
 
+	/**
+	 * {@code true} if this instance belongs to a frame data and cannot be
+	 * changed, {@code false} otherwise.
+	 */
+	private boolean readOnly;
+
 	/**
 	 * The class constructor.
 	 */
@@ -210,6 +220,21 @@ public class AttackData {
 	 *            an instance of the AttackData class
 	 */
 	public AttackData(AttackData attackData) {
+		this(attackData, false);
+	}
+
+	/**
+	 * The copy constructor that creates a copy of an instance of the AttackData
+	 * class, which is read-only if specified.
+	 *
+	 * @param attackData
+	 *            an instance of the AttackData class
+	 * @param readOnly
+	 *            {@code true} to create a read-only copy for a frame data,
+	 *            {@code false} otherwise
+	 */
+	AttackData(AttackData attackData, boolean readOnly) {
+		this.readOnly = readOnly;
 		if (attackData != null) {
 			this.settingHitArea = attackData.getSettingHitArea();
 			this.settingSpeedX = attackData.getSettingSpeedX();
@@ -484,6 +509,7 @@ public class AttackData {
 	 *            HitArea's setting information
 	 */
 	public void setSettingHitArea(HitArea settingHitArea) {
+		checkWritable();
 		this.settingHitArea = settingHitArea;
 	}
 
@@ -496,6 +522,7 @@ public class AttackData {
 	 *            box (zero means the attack hit box will track the character)
 	 */
 	public void setSettingSpeedX(int settingSpeedX) {
+		checkWritable();
 		this.settingSpeedX = settingSpeedX;
 	}
 
@@ -508,6 +535,7 @@ public class AttackData {
 	 *            (zero means the attack hit box will track the character)
 	 */
 	public void setSettingSpeedY(int settingSpeedY) {
+		checkWritable();
 		this.settingSpeedY = settingSpeedY;
 	}
 
@@ -518,6 +546,7 @@ public class AttackData {
 	 *            the number of frames since this attack was used
 	 */
 	public void setCurrentFrame(int nowFrame) {
+		checkWritable();
 		this.currentFrame = nowFrame;
 	}
 
@@ -529,6 +558,7 @@ public class AttackData {
 	 *            {@code false} if P2.
 	 */
 	public void setPlayerNumber(boolean playerNumber) {
+		checkWritable();
 		this.playerNumber = playerNumber;
 	}
 
@@ -541,6 +571,7 @@ public class AttackData {
 	 *            left and plus when moving right)
 	 */
 	public void setSpeedX(int speedX) {
+		checkWritable();
 		this.speedX = speedX;
 	}
 
@@ -553,6 +584,7 @@ public class AttackData {
 	 *            and plus when moving down)
 	 */
 	public void setSpeedY(int speedY) {
+		checkWritable();
 		this.speedY = speedY;
 	}
 
@@ -565,6 +597,7 @@ public class AttackData {
 	 *            the number of frames in Startup
 	 */
 	public void setStartUp(int startUp) {
+		checkWritable();
 		this.startUp = startUp;
 	}
 
@@ -577,6 +610,7 @@ public class AttackData {
 	 *            the number of frames in Active
 	 */
 	public void setActive(int active) {
+		checkWritable();
 		this.active = active;
 	}
 
@@ -587,6 +621,7 @@ public class AttackData {
 	 *            the damage value to the unguarded opponent hit by this skill
 	 */
 	public void setHitDamage(int hitDamage) {
+		checkWritable();
 		this.hitDamage = hitDamage;
 	}
 
@@ -597,6 +632,7 @@ public class AttackData {
 	 *            the damage value to the guarded opponent hit by this skill
 	 */
 	public void setGuardDamage(int guardDamage) {
+		checkWritable();
 		this.guardDamage = guardDamage;
 	}
 
@@ -608,6 +644,7 @@ public class AttackData {
 	 *            this skill
 	 */
 	public void setStartAddEnergy(int startAddEnergy) {
+		checkWritable();
 		this.startAddEnergy = startAddEnergy;
 	}
 
@@ -620,6 +657,7 @@ public class AttackData {
 	 *            hits the opponent
 	 */
 	public void setHitAddEnergy(int hitAddEnergy) {
+		checkWritable();
 		this.hitAddEnergy = hitAddEnergy;
 	}
 
@@ -632,6 +670,7 @@ public class AttackData {
 	 *            is blocked by the opponent
 	 */
 	public void setGuardAddEnergy(int guardAddEnergy) {
+		checkWritable();
 		this.guardAddEnergy = guardAddEnergy;
 	}
 
@@ -644,6 +683,7 @@ public class AttackData {
 	 *            by this skill
 	 */
 	public void setGiveEnergy(int giveEnergy) {
+		checkWritable();
 		this.giveEnergy = giveEnergy;
 	}
 
@@ -656,6 +696,7 @@ public class AttackData {
 	 *            hit by this skill
 	 */
 	public void setImpactX(int impactX) {
+		checkWritable();
 		this.impactX = impactX;
 	}
 
@@ -668,6 +709,7 @@ public class AttackData {
 	 *            hit by this skill
 	 */
 	public void setImpactY(int impactY) {
+		checkWritable();
 		this.impactY = impactY;
 	}
 
@@ -680,6 +722,7 @@ public class AttackData {
 	 *            to his normal status after being hit by this skill
 	 */
 	public void setGiveGuardRecov(int giveGuardRecov) {
+		checkWritable();
 		this.giveGuardRecov = giveGuardRecov;
 	}
 
@@ -691,6 +734,7 @@ public class AttackData {
 	 *            the value of the attack type
 	 */
 	public void setAttackType(int attackType) {
+		checkWritable();
 		this.attackType = attackType;
 	}
 
@@ -703,9 +747,42 @@ public class AttackData {
 	 *            otherwise.
 	 */
 	public void setDownProp(boolean downProp) {
+		checkWritable();
 		this.downProp = downProp;
 	}
 
+	/**
+	 * Returns the hash of this attack's gameplay-relevant fields.
+	 *
+	 * @param slot
+	 *            the slot of the attack: {@link StateHash#SLOT_ATTACK_P1},
+	 *            {@link StateHash#SLOT_ATTACK_P2} or
+	 *            {@link StateHash#SLOT_PROJECTILE}
+	 * @return the hash of this attack
+	 *
+	 * @see StateHash#attack(int, HitArea, int, int, int, int, int, int, boolean)
+	 */
+	public long getStateHash(int slot) {
+		return StateHash.attack(slot, this.currentHitArea, this.speedX, this.speedY, this.currentFrame, this.active,
+				this.hitDamage, this.guardDamage, this.playerNumber);
+	}
+
+	/**
+	 * Returns whether this attack is equal to the specified one in all fields
+	 * covered by {@link #getStateHash(int)}.
+	 *
+	 * @param attackData
+	 *            the attack to be compared
+	 * @return {@code true} if the fields are equal, {@code false} otherwise
+	 */
+	public boolean hasSameState(AttackData attackData) {
+		return this.speedX == attackData.speedX && this.speedY == attackData.speedY
+				&& this.currentFrame == attackData.currentFrame && this.active == attackData.active
+				&& this.hitDamage == attackData.hitDamage && this.guardDamage == attackData.guardDamage
+				&& this.playerNumber == attackData.playerNumber
+				&& sameHitArea(this.currentHitArea, attackData.currentHitArea);
+	}
+
 	/**
 	 * Sets the boolean value whether this skill is projectile or not.
 	 *
@@ -714,7 +791,49 @@ public class AttackData {
 	 *            if this skill is projectile, {@code false} otherwise.
 	 */
 	public void setIsProjectile(boolean isProjectile) {
+		checkWritable();
 		this.isProjectile = isProjectile;
 	}
 
+	/**
+	 * Returns whether two hit areas have the same coordinates.
+	 *
+	 * @param a
+	 *            a hit area, or {@code null}
+	 * @param b
+	 *            another hit area, or {@code null}
+	 * @return {@code true} if the coordinates are equal, {@code false}
+	 *         otherwise
+	 */
+	private static boolean sameHitArea(HitArea a, HitArea b) {
+		if (a == null || b == null) {
+			return a == b;
+		}
+		return a.getLeft() == b.getLeft() && a.getRight() == b.getRight() && a.getTop() == b.getTop()
+				&& a.getBottom() == b.getBottom();
+	}
+
+	/**
+	 * Returns whether this instance is read-only.
+	 *
+	 * @return {@code true} if this instance belongs to a frame data and cannot
+	 *         be changed, {@code false} otherwise
+	 */
+	public boolean isReadOnly() {
+		return this.readOnly;
+	}
+
+	/**
+	 * Throws an exception if this instance is read-only.
+	 *
+	 * @throws UnsupportedOperationException
+	 *             if this instance belongs to a frame data
+	 */
+	private void checkWritable() {
+		if (this.readOnly) {
+			throw new UnsupportedOperationException(
+					"The attack data of a frame data is read-only, change a copy made by new AttackData(attackData)");
+		}
+	}
+
 }
@@ -43,6 +43,13 @@ public class AudioData {
      */
     private static MFCC mfcc = new MFCC();
 
+    /**
+     * The holder class of the silent audio data, which is created when it is first used.
+     */
+    private static class SilentHolder {
+        private static final AudioData instance = new AudioData();
+    }
+
     /**
      * Class constructor.
      */
@@ -51,6 +58,16 @@ public class AudioData {
     	this.tranformRawData();
     }
 
+    /**
+     * Gets the audio data of silence, which is shared instead of being transformed again in every frame.<br>
+     * Like the copies made by {@link #AudioData(AudioData)}, the returned instance shares its arrays, which must not
+     * be modified.
+     * @return the audio data of silence.
+     */
+    public static AudioData getSilentInstance() {
+        return SilentHolder.instance;
+    }
+
     /**
      * Initialize data.
      */
@@ -60,15 +77,48 @@ public class AudioData {
         this.spectrogramData = new float[2][][];
     }
     
+    /**
+     * Transforms the raw data.<br>
+     * The arrays of a previous transformation are overwritten instead of being allocated again.
+     */
     private void tranformRawData() {
-        fft.process(Arrays.copyOf(this.rawData[0], this.rawData[0].length));
-        this.fftData[0] = new FFTData(fft.getReal(), fft.getImag());
-        fft.process(Arrays.copyOf(this.rawData[1], this.rawData[1].length));
-        this.fftData[1] = new FFTData(fft.getReal(), fft.getImag());
-        this.rawDataAsBytes = NumberConverter.getInstance().getByteArray(this.rawData);
-        this.spectrogramData[0] = mfcc.melSpectrogram(Arrays.copyOf(this.rawData[0], this.rawData[0].length));
-        this.spectrogramData[1] = mfcc.melSpectrogram(Arrays.copyOf(this.rawData[1], this.rawData[1].length));
-        this.spectrogramDataAsBytes = NumberConverter.getInstance().getByteArray(this.spectrogramData);
+        NumberConverter converter = NumberConverter.getInstance();
+        // the transformers are shared by all instances
+        synchronized (AudioData.class) {
+            for (int i = 0; i < 2; i++) {
+                float[] raw = this.rawData[i];
+                if (this.fftData[i] == null) {
+                    float[] real = Arrays.copyOf(raw, raw.length);
+                    float[] imag = new float[raw.length];
+                    fft.process(real, imag);
+                    this.fftData[i] = new FFTData(real, imag);
+                } else {
+                    System.arraycopy(raw, 0, this.fftData[i].getReal(), 0, raw.length);
+                    Arrays.fill(this.fftData[i].getImag(), 0);
+                    fft.process(this.fftData[i].getReal(), this.fftData[i].getImag());
+                    this.fftData[i].updateBytes();
+                }
+
+                this.spectrogramData[i] = this.spectrogramData[i] == null ? mfcc.melSpectrogram(raw)
+                        : mfcc.melSpectrogram(raw, this.spectrogramData[i]);
+            }
+        }
+        this.rawDataAsBytes = this.rawDataAsBytes == null ? converter.getByteArray(this.rawData)
+                : converter.getByteArray(this.rawData, this.rawDataAsBytes);
+        this.spectrogramDataAsBytes = this.spectrogramDataAsBytes == null ? converter.getByteArray(this.spectrogramData)
+                : converter.getByteArray(this.spectrogramData, this.spectrogramDataAsBytes);
+    }
+
+    /**
+     * Replaces the audio data with the transformation of the given raw audio data.<br>
+     * The raw data are copied, and the arrays of this instance are overwritten instead of being allocated again, so
+     * the game can recycle an instance once no AI uses it.
+     * @param rawData raw audio data, of the same size as the raw data of this instance.
+     */
+    public void update(float[][] rawData) {
+        System.arraycopy(rawData[0], 0, this.rawData[0], 0, this.rawData[0].length);
+        System.arraycopy(rawData[1], 0, this.rawData[1], 0, this.rawData[1].length);
+        this.tranformRawData();
     }
 
     /**
@@ -77,13 +127,14 @@ public class AudioData {
      */
     public AudioData(AudioData audioData) {
         int bufferSize = (audioData.getRawData() != null && audioData.getRawData()[0].length > 0) ? audioData.getRawData()[0].length : 0;
-        this.init();
         if (bufferSize > 0) {
             this.rawData = audioData.getRawData();
             this.fftData = audioData.getFftData();
             this.spectrogramData = audioData.getSpectrogramData();
             this.rawDataAsBytes = audioData.getRawDataAsBytes();
             this.spectrogramDataAsBytes = audioData.getSpectrogramDataAsBytes();
+        } else {
+            this.init();
         }
     }
 
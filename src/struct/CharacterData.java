@@ -1,6 +1,7 @@
 package struct;
 
 import java.util.Deque;
+import java.util.Iterator;
 import java.util.LinkedList;
 
 import enumerate.Action;
@@ -9,7 +10,12 @@ import fighting.Character;
 
 /**
  * The class dealing with data on the character such as the character's HP,
- * energy, coordinates.
+ * energy, coordinates.<br>
+ * The character data of a {@link FrameData} are read-only copies, because the
+ * frame is shared with the AIs: their getters return the read-only attack data
+ * without copying it, and their setters throw an
+ * {@link UnsupportedOperationException}. The copy constructor creates a copy
+ * which can be changed.
  */
 public class CharacterData {
 
@@ -148,6 +154,12 @@ public class CharacterData {
 	 */
 	private Deque<Key> processedCommands;
 
+	/**
+	 * {@code true} if this instance belongs to a frame data and cannot be
+	 * changed, {@code false} otherwise.
+	 */
+	private boolean readOnly;
+
 	/**
 	 * The class constructor that acquires information on the character from an
 	 * instance of the Character class passed as the argument and newly creates
@@ -184,14 +196,53 @@ public class CharacterData {
 		this.processedCommands = character.getProcessedCommand();
 	}
 
+	/**
+	 * The class constructor that acquires information on the character from an
+	 * instance of the Character class, with the specified key histories
+	 * instead of the character's own ones.<br>
+	 * The keys are copied. It is used by the simulator, whose characters share
+	 * their keys with it.
+	 *
+	 * @param character
+	 *            an instance of Character class
+	 * @param inputCommands
+	 *            the keys of the action that the character will be executing
+	 * @param processedCommands
+	 *            the keys that the character executed
+	 */
+	public CharacterData(Character character, Deque<Key> inputCommands, Deque<Key> processedCommands) {
+		this(character);
+		this.inputCommands = copyKeys(inputCommands);
+		this.processedCommands = copyKeys(processedCommands);
+	}
+
 	/**
 	 * The copy constructor that creates a copy of an instance of the
-	 * CharacterData class passed as the argument.
+	 * CharacterData class passed as the argument.<br>
+	 * The copy can be changed even if the original is read-only, and its keys
+	 * are copies too.
 	 *
 	 * @param characterData
 	 *            an instance of CharacterData class
 	 */
 	public CharacterData(CharacterData characterData) {
+		this(characterData, false);
+	}
+
+	/**
+	 * The copy constructor that creates a copy of an instance of the
+	 * CharacterData class, which is read-only if specified.<br>
+	 * The keys are copied, so that neither the original nor the copy can
+	 * change the keys of the other one.
+	 *
+	 * @param characterData
+	 *            an instance of CharacterData class
+	 * @param readOnly
+	 *            {@code true} to create a read-only copy for a frame data,
+	 *            {@code false} otherwise
+	 */
+	CharacterData(CharacterData characterData, boolean readOnly) {
+		this.readOnly = readOnly;
 		this.playerNumber = characterData.isPlayerNumber();
 		this.hp = characterData.getHp();
 		this.energy = characterData.getEnergy();
@@ -210,13 +261,13 @@ public class CharacterData {
 		this.action = characterData.getAction();
 		this.front = characterData.isFront();
 		this.control = characterData.isControl();
-		this.attackData = new AttackData(characterData.getAttack());
+		this.attackData = new AttackData(characterData.attackData, readOnly);
 		this.remainingFrame = characterData.getRemainingFrame();
 		this.hitConfirm = characterData.isHitConfirm();
 		this.hitCount = characterData.getHitCount();
 		this.lastHitFrame = characterData.getLastHitFrame();
-		this.inputCommands = characterData.getInputCommand();
-		this.processedCommands = characterData.getProcessedCommand();
+		this.inputCommands = copyKeys(characterData.inputCommands);
+		this.processedCommands = copyKeys(characterData.processedCommands);
 	}
 
 	/**
@@ -396,13 +447,18 @@ public class CharacterData {
 	}
 
 	/**
-	 * Returns the attack data that the character is using.
+	 * Returns the attack data that the character is using.<br>
+	 * If this instance is read-only, the attack data are read-only and are not
+	 * copied.
 	 *
 	 * @return the attack data that the character is using
 	 *
 	 * @see AttackData
 	 */
 	public AttackData getAttack() {
+		if (this.readOnly && this.attackData != null) {
+			return this.attackData;
+		}
 		return new AttackData(this.attackData);
 	}
 
@@ -468,7 +524,8 @@ public class CharacterData {
 
 	/**
 	 * Returns a list storing keys of the action that the character will be
-	 * executing in the simulator.
+	 * executing in the simulator.<br>
+	 * If this instance is read-only, the keys are copies.
 	 *
 	 * @deprecated This method is used only for processing of the simulator. You
 	 *             should not use this method for AI development.
@@ -477,6 +534,10 @@ public class CharacterData {
 	 *         executing in the simulator
 	 */
 	public Deque<Key> getInputCommand() {
+		if (this.readOnly) {
+			return copyKeys(this.inputCommands);
+		}
+
 		LinkedList<Key> temp = new LinkedList<Key>();
 		for (Key key : this.inputCommands) {
 			temp.add(key);
@@ -487,7 +548,8 @@ public class CharacterData {
 
 	/**
 	 * Returns a list storing up to 30 keys that the character executed in the
-	 * simulator.
+	 * simulator.<br>
+	 * If this instance is read-only, the keys are copies.
 	 *
 	 * @deprecated This method is used only for processing of the simulator. You
 	 *             should not use this method for AI development.
@@ -496,6 +558,10 @@ public class CharacterData {
 	 *         simulator
 	 */
 	public Deque<Key> getProcessedCommand() {
+		if (this.readOnly) {
+			return copyKeys(this.processedCommands);
+		}
+
 		LinkedList<Key> temp = new LinkedList<Key>();
 		for (Key key : this.processedCommands) {
 			temp.add(key);
@@ -511,6 +577,7 @@ public class CharacterData {
 	 *            the amount of HP
 	 */
 	public void setHp(int hp) {
+		checkWritable();
 		this.hp = hp;
 	}
 
@@ -521,6 +588,7 @@ public class CharacterData {
 	 *            the amount of energy
 	 */
 	public void setEnergy(int energy) {
+		checkWritable();
 		this.energy = energy;
 	}
 
@@ -531,6 +599,7 @@ public class CharacterData {
 	 *            the character's horizontal position
 	 */
 	public void setX(int x) {
+		checkWritable();
 		this.x = x;
 	}
 
@@ -541,6 +610,7 @@ public class CharacterData {
 	 *            the character's vertical position
 	 */
 	public void setY(int y) {
+		checkWritable();
 		this.y = y;
 	}
 
@@ -551,6 +621,7 @@ public class CharacterData {
 	 *            the character's horizontal speed
 	 */
 	public void setSpeedX(int speedX) {
+		checkWritable();
 		this.speedX = speedX;
 	}
 
@@ -561,6 +632,7 @@ public class CharacterData {
 	 *            the character's vertical speed
 	 */
 	public void setSpeedY(int speedY) {
+		checkWritable();
 		this.speedY = speedY;
 	}
 
@@ -572,6 +644,7 @@ public class CharacterData {
 	 * @see State
 	 */
 	public void setState(State state) {
+		checkWritable();
 		this.state = state;
 	}
 
@@ -583,6 +656,7 @@ public class CharacterData {
 	 * @see Action
 	 */
 	public void setAction(Action action) {
+		checkWritable();
 		this.action = action;
 	}
 
@@ -594,6 +668,7 @@ public class CharacterData {
 	 *            character is facing right, {@code false} otherwise.
 	 */
 	public void setFront(boolean front) {
+		checkWritable();
 		this.front = front;
 	}
 
@@ -607,6 +682,7 @@ public class CharacterData {
 	 *            {@code false} otherwise.
 	 */
 	public void setControl(boolean control) {
+		checkWritable();
 		this.control = control;
 	}
 
@@ -619,6 +695,7 @@ public class CharacterData {
 	 *            normal status you want to set
 	 */
 	public void setRemainingFrame(int remainingFrame) {
+		checkWritable();
 		this.remainingFrame = remainingFrame;
 	}
 
@@ -629,6 +706,7 @@ public class CharacterData {
 	 *            the integer value you want to set
 	 */
 	public void setTop(int top) {
+		checkWritable();
 		this.top = top;
 	}
 
@@ -639,6 +717,7 @@ public class CharacterData {
 	 *            the integer value you want to set
 	 */
 	public void setBottom(int bottom) {
+		checkWritable();
 		this.bottom = bottom;
 	}
 
@@ -650,6 +729,7 @@ public class CharacterData {
 	 *            set
 	 */
 	public void setLeft(int left) {
+		checkWritable();
 		this.left = left;
 	}
 
@@ -661,6 +741,7 @@ public class CharacterData {
 	 *            set
 	 */
 	public void setRight(int right) {
+		checkWritable();
 		this.right = right;
 	}
 
@@ -673,6 +754,7 @@ public class CharacterData {
 	 * @see AttackData
 	 */
 	public void setAttack(AttackData attack) {
+		checkWritable();
 		this.attackData = attack;
 	}
 
@@ -683,6 +765,7 @@ public class CharacterData {
 	 *            the continuous hit count of attacks used by this character
 	 */
 	public void setHitCount(int hitCount) {
+		checkWritable();
 		this.hitCount = hitCount;
 	}
 
@@ -695,6 +778,7 @@ public class CharacterData {
 	 *            character hit the opponent
 	 */
 	public void setLastHitFrame(int lastHitFrame) {
+		checkWritable();
 		this.lastHitFrame = lastHitFrame;
 	}
 
@@ -707,6 +791,7 @@ public class CharacterData {
 	 *            otherwise.
 	 */
 	public void setHitConfirm(boolean hitConfirm) {
+		checkWritable();
 		this.hitConfirm = hitConfirm;
 	}
 
@@ -722,6 +807,7 @@ public class CharacterData {
 	 *            executing in the simulator
 	 */
 	public void setInputCommand(Deque<Key> inputCommand) {
+		checkWritable();
 		this.inputCommands = new LinkedList<Key>(inputCommand);
 	}
 
@@ -737,7 +823,137 @@ public class CharacterData {
 	 *            the simulator
 	 */
 	public void setProcessedCommand(Deque<Key> inputCommand) {
+		checkWritable();
 		this.processedCommands = new LinkedList<Key>(inputCommand);
 	}
 
+	/**
+	 * Returns the hash of the character's input and processed key histories,
+	 * without copying them.
+	 *
+	 * @return the hash of the key histories
+	 *
+	 * @see StateHash#commands(boolean, Iterable, Iterable)
+	 */
+	public long getCommandHash() {
+		return StateHash.commands(this.playerNumber, this.inputCommands, this.processedCommands);
+	}
+
+	/**
+	 * Returns the hash of the character's gameplay-relevant fields, including
+	 * its attack.<br>
+	 * The hash is equal to the one of the character this instance was created
+	 * from.
+	 *
+	 * @return the hash of the character
+	 *
+	 * @see StateHash
+	 */
+	public long getStateHash() {
+		int attackSlot = this.playerNumber ? StateHash.SLOT_ATTACK_P1 : StateHash.SLOT_ATTACK_P2;
+
+		return StateHash.character(this.playerNumber, this.hp, this.energy, this.x, this.y, this.speedX, this.speedY,
+				this.state, this.action, this.remainingFrame, this.front, this.control, this.hitConfirm, this.hitCount)
+				^ (this.attackData == null ? StateHash.emptyAttack(attackSlot) : this.attackData.getStateHash(attackSlot));
+	}
+
+	/**
+	 * Returns whether this character is equal to the specified one in all
+	 * fields covered by {@link #getStateHash()} and {@link #getCommandHash()},
+	 * comparing the key histories without copying them.
+	 *
+	 * @param characterData
+	 *            the character to be compared
+	 * @return {@code true} if the fields are equal, {@code false} otherwise
+	 */
+	public boolean hasSameState(CharacterData characterData) {
+		if (this.playerNumber != characterData.playerNumber || this.hp != characterData.hp
+				|| this.energy != characterData.energy || this.x != characterData.x || this.y != characterData.y
+				|| this.speedX != characterData.speedX || this.speedY != characterData.speedY
+				|| this.state != characterData.state || this.action != characterData.action
+				|| this.remainingFrame != characterData.remainingFrame || this.front != characterData.front
+				|| this.control != characterData.control || this.hitConfirm != characterData.hitConfirm
+				|| this.hitCount != characterData.hitCount) {
+			return false;
+		}
+
+		if (this.attackData == null || characterData.attackData == null) {
+			if (this.attackData != characterData.attackData) {
+				return false;
+			}
+		} else if (!this.attackData.hasSameState(characterData.attackData)) {
+			return false;
+		}
+
+		return sameKeys(this.inputCommands, characterData.inputCommands)
+				&& sameKeys(this.processedCommands, characterData.processedCommands);
+	}
+
+	/**
+	 * Returns whether this instance is read-only.
+	 *
+	 * @return {@code true} if this instance belongs to a frame data and cannot
+	 *         be changed, {@code false} otherwise
+	 */
+	public boolean isReadOnly() {
+		return this.readOnly;
+	}
+
+	/**
+	 * Returns a list of copies of the specified keys.
+	 *
+	 * @param keys
+	 *            the keys to be copied
+	 * @return a list of copies of the keys
+	 */
+	private static LinkedList<Key> copyKeys(Deque<Key> keys) {
+		LinkedList<Key> temp = new LinkedList<Key>();
+		for (Key key : keys) {
+			temp.add(new Key(key));
+		}
+		return temp;
+	}
+
+	/**
+	 * Returns whether two key histories contain the same keys.
+	 *
+	 * @param a
+	 *            a key history
+	 * @param b
+	 *            another key history
+	 * @return {@code true} if the histories are equal, {@code false} otherwise
+	 */
+	private static boolean sameKeys(Deque<Key> a, Deque<Key> b) {
+		if (a.size() != b.size()) {
+			return false;
+		}
+
+		Iterator<Key> iterator = b.iterator();
+		for (Key keyA : a) {
+			Key keyB = iterator.next();
+			if (keyA == null || keyB == null) {
+				if (keyA != keyB) {
+					return false;
+				}
+			} else if (keyA.A != keyB.A || keyA.B != keyB.B || keyA.C != keyB.C || keyA.U != keyB.U
+					|| keyA.R != keyB.R || keyA.D != keyB.D || keyA.L != keyB.L) {
+				return false;
+			}
+		}
+		return true;
+	}
+
+	/**
+	 * Throws an exception if this instance is read-only.
+	 *
+	 * @throws UnsupportedOperationException
+	 *             if this instance belongs to a frame data
+	 */
+	private void checkWritable() {
+		if (this.readOnly) {
+			throw new UnsupportedOperationException(
+					"The character data of a frame data is read-only, change a copy made by new CharacterData(characterData)");
+		}
+	}
+
 }
\ No newline at end of file
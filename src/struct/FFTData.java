@@ -32,6 +32,14 @@ public class FFTData {
         this.imagAsBytes = NumberConverter.getInstance().getByteArray(imag);
     }
 
+    /**
+     * Converts the real and the imaginary parts into the byte sequences again after they were transformed in place.
+     */
+    void updateBytes() {
+        NumberConverter.getInstance().getByteArray(this.real, this.realAsBytes);
+        NumberConverter.getInstance().getByteArray(this.imag, this.imagAsBytes);
+    }
+
     /**
      * Gets real part.
      * @return real part.
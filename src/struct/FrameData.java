@@ -9,7 +9,14 @@ import setting.GameSetting;
 
 /**
  * The class dealing with the information in the game such as the current frame
- * number, number of rounds and character information.
+ * number, number of rounds and character information.<br>
+ * An instance is an immutable snapshot of a frame, which the game shares with
+ * both AIs and their threads. The getters return its read-only character data,
+ * attack data and projectile deque without copying them.<br>
+ * Unlike earlier versions, where the getters returned copies, the setters of
+ * these data throw an {@link UnsupportedOperationException}. An AI which wants
+ * to change them works on a copy, for example
+ * {@code new CharacterData(frameData.getCharacter(true))}.
  */
 public class FrameData {
 
@@ -17,32 +24,32 @@ public class FrameData {
      * The character's data of both characters<br>
      * Index 0 is P1, index 1 is P2.
      */
-    private CharacterData[] characterData;
+    private final CharacterData[] characterData;
 
     /**
      * The current frame of the round.
      */
-    private int currentFrameNumber;
+    private final int currentFrameNumber;
 
     /**
      * The current round number.
      */
-    private int currentRound;
+    private final int currentRound;
 
     /**
-     * The projectile data of both characters.
+     * The read-only projectile data of both characters.
      */
-    private Deque<AttackData> projectileData;
+    private final Deque<AttackData> projectileData;
 
     /**
      * If this value is true, no data are available or they are dummy data.
      */
-    private boolean emptyFlag;
+    private final boolean emptyFlag;
 
     /**
      * imported from {@link CharacterData's front}
      */
-    private boolean[] front;
+    private final boolean[] front;
 
     /**
      * The class constructor.
@@ -51,14 +58,18 @@ public class FrameData {
         this.characterData = new CharacterData[]{null, null};
         this.currentFrameNumber = -1;
         this.currentRound = -1;
-        this.projectileData = new LinkedList<AttackData>();
+        this.projectileData = new ReadOnlyDeque<AttackData>(new LinkedList<AttackData>());
         this.emptyFlag = true;
         this.front = new boolean[2];
     }
 
     /**
      * The class constructor that creates a new instance of the FrameData class
-     * by copying the data passed as the arguments.
+     * from the data passed as the arguments.<br>
+     * The instance keeps read-only copies of the character data and the attack
+     * data of the projectiles, so the arguments are not changed and can still
+     * be changed by the caller. The data which are already read-only, such as
+     * the data of another frame, are shared instead of being copied.
      *
      * @param characterData  an instance of the CharacterData class
      * @param currentFrame   the frame number of the current frame
@@ -69,16 +80,15 @@ public class FrameData {
      */
     public FrameData(CharacterData[] characterData, int currentFrame, int currentRound,
                      Deque<AttackData> projectileData) {
-        this.characterData = new CharacterData[]{characterData[0], characterData[1]};
+        this.characterData = new CharacterData[]{readOnly(characterData[0]), readOnly(characterData[1])};
         this.currentFrameNumber = currentFrame;
         this.currentRound = currentRound;
 
-        // make deep copy of the attacks list
-        this.projectileData = new LinkedList<AttackData>();
+        LinkedList<AttackData> attacks = new LinkedList<AttackData>();
         for (AttackData attack : projectileData) {
-            this.projectileData.add(new AttackData(attack));
+            attacks.add(attack.isReadOnly() ? attack : new AttackData(attack, true));
         }
-        // sample raw audio data
+        this.projectileData = new ReadOnlyDeque<AttackData>(attacks);
         this.emptyFlag = false;
         this.front = new boolean[2];
         this.front[0] = characterData[0].isFront();
@@ -88,58 +98,73 @@ public class FrameData {
     /**
      * A copy constructor that creates a copy of an instance of the FrameData
      * class by copying the values of the variables from an instance of the
-     * FrameData class passed as the argument.
+     * FrameData class passed as the argument.<br>
+     * Since both instances are read-only, the copy shares the character data
+     * and the projectile data of the original.
      *
      * @param frameData an instance of the FrameData class
      */
     public FrameData(FrameData frameData) {
-        this.characterData = new CharacterData[2];
-        this.characterData[0] = frameData.getCharacter(true);
-        this.characterData[1] = frameData.getCharacter(false);
-        this.currentFrameNumber = frameData.getFramesNumber();
-        this.currentRound = frameData.getRound();
-
-        // make deep copy of the attacks list
-        this.projectileData = new LinkedList<AttackData>();
-        Deque<AttackData> temp = frameData.getProjectiles();
-        for (AttackData attack : temp) {
-            this.projectileData.add(new AttackData(attack));
-        }
+        this.characterData = new CharacterData[]{frameData.characterData[0], frameData.characterData[1]};
+        this.currentFrameNumber = frameData.currentFrameNumber;
+        this.currentRound = frameData.currentRound;
+        this.projectileData = frameData.projectileData;
+        this.emptyFlag = frameData.emptyFlag;
+        this.front = frameData.front.clone();
+    }
 
-        this.emptyFlag = frameData.getEmptyFlag();
-        try {
-            this.front = new boolean[2];
-            this.front[0] = this.characterData[0].isFront();
-            this.front[1] = this.characterData[1].isFront();
-        } catch (NullPointerException ex) {
-            // there is no character data
-        }
+    /**
+     * The class constructor that creates the frame data given to an AI which
+     * can access only sound.<br>
+     * It keeps only the frame number and the empty flag of the frame.
+     *
+     * @param currentFrame the frame number of the current frame
+     * @param emptyFlag    {@code true} if the frame is empty, {@code false} otherwise
+     * @see #withoutVisualData()
+     */
+    private FrameData(int currentFrame, boolean emptyFlag) {
+        this.characterData = new CharacterData[]{null, null};
+        this.currentFrameNumber = currentFrame;
+        this.currentRound = -1;
+        this.projectileData = new ReadOnlyDeque<AttackData>(new LinkedList<AttackData>());
+        this.emptyFlag = emptyFlag;
+        this.front = new boolean[2];
     }
 
     /**
-     * Create FrameData for AI
-     * it removes visual-data if the player is able to access only sound, otherwise does nothing
+     * Returns the frame data for an AI which can access only sound.<br>
+     * The returned instance has no character data, no projectile data and no
+     * round, and keeps only the frame number of this instance, which is not
+     * changed.
+     *
+     * @return the frame data without visual data
      */
+    public FrameData withoutVisualData() {
+        return new FrameData(this.currentFrameNumber, this.emptyFlag);
+    }
 
-    public void removeVisualData() {
-        this.characterData = new CharacterData[2];
-//        this.currentFrameNumber = -1;
-        this.currentRound = -1;
-        this.projectileData = new LinkedList<AttackData>();
+    /**
+     * Returns a read-only copy of the character data, or the character data
+     * itself if it is already read-only.
+     *
+     * @param characterData the character data
+     * @return the read-only character data
+     */
+    private static CharacterData readOnly(CharacterData characterData) {
+        return characterData.isReadOnly() ? characterData : new CharacterData(characterData, true);
     }
 
     /**
      * Returns an instance of the CharacterData class of the player specified by
-     * an argument.
+     * an argument.<br>
+     * The instance is read-only and is not copied.
      *
      * @param playerNumber the number of the player. {@code true} if the player is P1, or
      *                     {@code false} if P2.
      * @return an instance of the CharacterData class of the player
      */
     public CharacterData getCharacter(boolean playerNumber) {
-        CharacterData temp = this.characterData[playerNumber ? 0 : 1];
-
-        return temp == null ? null : new CharacterData(temp);
+        return this.characterData[playerNumber ? 0 : 1];
     }
 
     /**
@@ -209,21 +234,19 @@ public class FrameData {
     }
 
     /**
-     * Returns the projectile data of both characters.
+     * Returns the projectile data of both characters.<br>
+     * The deque and its attack data are read-only and are not copied.
      *
      * @return the projectile data of both characters
      */
     public Deque<AttackData> getProjectiles() {
-        // create a deep copy of the attacks list
-        LinkedList<AttackData> attackList = new LinkedList<AttackData>();
-        for (AttackData attack : this.projectileData) {
-            attackList.add(new AttackData(attack));
-        }
-        return attackList;
+        return this.projectileData;
     }
 
     /**
-     * Returns the projectile data of player 1.
+     * Returns the projectile data of player 1.<br>
+     * The deque and its attack data are read-only, and the attack data are not
+     * copied.
      *
      * @return the projectile data of player 1
      */
@@ -231,14 +254,16 @@ public class FrameData {
         LinkedList<AttackData> attackList = new LinkedList<AttackData>();
         for (AttackData attack : this.projectileData) {
             if (attack.isPlayerNumber()) {
-                attackList.add(new AttackData(attack));
+                attackList.add(attack);
             }
         }
-        return attackList;
+        return new ReadOnlyDeque<AttackData>(attackList);
     }
 
     /**
-     * Returns the projectile data of player 2.
+     * Returns the projectile data of player 2.<br>
+     * The deque and its attack data are read-only, and the attack data are not
+     * copied.
      *
      * @return the projectile data of player 2
      */
@@ -246,10 +271,10 @@ public class FrameData {
         LinkedList<AttackData> attackList = new LinkedList<AttackData>();
         for (AttackData attack : this.projectileData) {
             if (!attack.isPlayerNumber()) {
-                attackList.add(new AttackData(attack));
+                attackList.add(attack);
             }
         }
-        return attackList;
+        return new ReadOnlyDeque<AttackData>(attackList);
     }
 
     /**
@@ -284,4 +309,33 @@ public class FrameData {
     public boolean isFront(boolean player) {
         return this.front[player ? 0 : 1];
     }
+
+    /**
+     * Returns the hash of the gameplay-relevant fields of both characters and
+     * all projectiles, without copying them.<br>
+     * The frame number and the round are not part of the hash, so equal fight
+     * states reached at different frames have equal hashes.
+     *
+     * @return the hash of this frame data
+     * @see StateHash
+     */
+    public long getStateHash() {
+        long hash = 0;
+        if (this.characterData != null) {
+            for (CharacterData character : this.characterData) {
+                if (character != null) {
+                    hash ^= character.getStateHash();
+                }
+            }
+        }
+
+        long projectileHash = 0;
+        if (this.projectileData != null) {
+            for (AttackData attack : this.projectileData) {
+                projectileHash += attack.getStateHash(StateHash.SLOT_PROJECTILE);
+            }
+        }
+
+        return hash ^ projectileHash;
+    }
 }
\ No newline at end of file
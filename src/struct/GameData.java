@@ -4,8 +4,11 @@ import java.util.ArrayList;
 
 import fighting.Character;
 import fighting.Motion;
+import fighting.MotionTable;
 import setting.GameSetting;
 import setting.LaunchSetting;
+import setting.MatchSetting;
+import simulator.RolloutCache;
 import simulator.Simulator;
 
 /**
@@ -54,6 +57,14 @@ public class GameData {
 	 */
 	private String[] aiNames;
 
+	/**
+	 * The motion tables of P1 and P2 shared with the characters in the game
+	 * and the simulator.<br>
+	 * An element is created from {@link #characterMotions} on first use if it
+	 * is not given by the characters.
+	 */
+	private MotionTable[] motionTables;
+
 	/**
 	 * The simulator which simulates the progression of a fight starting from a
 	 * given {@link FrameData} instance and executing specified actions for both
@@ -63,6 +74,13 @@ public class GameData {
 	 */
 	private Simulator simulator;
 
+	/**
+	 * The settings of the match, which are used by the simulator.<br>
+	 * It is created from {@link LaunchSetting} on first use if it is not given
+	 * by the characters.
+	 */
+	private MatchSetting matchSetting;
+
 	/**
 	 * The class constructor.
 	 */
@@ -70,6 +88,7 @@ public class GameData {
 		this.maxHPs = new int[2];
 		this.maxEnergies = new int[2];
 		this.characterMotions = new ArrayList<ArrayList<MotionData>>(2);
+		this.motionTables = new MotionTable[2];
 		this.characterNames = new String[2];
 		this.aiNames = new String[2];
 	}
@@ -84,6 +103,22 @@ public class GameData {
 	 * @see Character
 	 */
 	public GameData(Character[] players) {
+		this(players, players[0].getMatchSetting());
+	}
+
+	/**
+	 * The class constructor that creates an instance of the GameData class by
+	 * using character information and the settings of the match.
+	 *
+	 * @param players
+	 *            character information of P1 and P2
+	 * @param matchSetting
+	 *            the settings of the match, which are copied
+	 *
+	 * @see Character
+	 * @see MatchSetting
+	 */
+	public GameData(Character[] players, MatchSetting matchSetting) {
 		this();
 
 		for (int i = 0; i < 2; i++) {
@@ -94,16 +129,21 @@ public class GameData {
 			}
 
 			this.characterMotions.add(motionDataList);
+			this.motionTables[i] = players[i].getMotionTable();
 		}
 
 		this.stageWidth = GameSetting.STAGE_WIDTH;
 		this.stageHeight = GameSetting.STAGE_HEIGHT;
-		this.maxHPs = LaunchSetting.maxHp.clone();
-		this.maxEnergies = LaunchSetting.maxEnergy.clone();
-		this.characterNames = LaunchSetting.characterNames.clone();
-		this.aiNames = LaunchSetting.aiNames.clone();
+		this.matchSetting = new MatchSetting(matchSetting);
+		this.maxHPs = matchSetting.getMaxHps();
+		this.maxEnergies = matchSetting.getMaxEnergies();
+		this.characterNames = matchSetting.getCharacterNames();
+		this.aiNames = matchSetting.getAiNames();
 
 		this.simulator = new Simulator(this);
+		if (matchSetting.getRolloutCacheSize() > 0) {
+			this.simulator.setRolloutCache(new RolloutCache(matchSetting.getRolloutCacheSize()));
+		}
 	}
 
 	/**
@@ -138,12 +178,27 @@ public class GameData {
 	 * @see Motion
 	 */
 	public ArrayList<Motion> getMotion(boolean playerNumber) {
-		ArrayList<Motion> temp = new ArrayList<Motion>();
-		ArrayList<MotionData> copy = this.characterMotions.get(playerNumber ? 0 : 1);
+		return getMotionTable(playerNumber).toList();
+	}
 
-		for (MotionData motionData : copy) {
-			Motion motion = new Motion(motionData);
-			temp.add(motion);
+	/**
+	 * Returns the motion table of the player specified by the argument.<br>
+	 * The table is shared with the game and the simulator. Its motions are
+	 * read-only, so it is given without copying.
+	 *
+	 * @param playerNumber
+	 *            the player side's flag. {@code true} if the player is P1, or
+	 *            {@code false} if P2.
+	 * @return the motion table of the player specified by the argument
+	 * @see MotionTable
+	 */
+	public MotionTable getMotionTable(boolean playerNumber) {
+		int index = playerNumber ? 0 : 1;
+		MotionTable temp = this.motionTables[index];
+		if (temp == null) {
+			// a table created concurrently by another thread is equivalent
+			temp = MotionTable.fromMotionData(this.characterMotions.get(index));
+			this.motionTables[index] = temp;
 		}
 		return temp;
 	}
@@ -223,4 +278,19 @@ public class GameData {
 	public Simulator getSimulator() {
 		return this.simulator;
 	}
+
+	/**
+	 * Returns the settings of the match.<br>
+	 * They must not be modified.
+	 *
+	 * @return the settings of the match
+	 */
+	public MatchSetting getMatchSetting() {
+		MatchSetting temp = this.matchSetting;
+		if (temp == null) {
+			temp = MatchSetting.fromLaunchSetting();
+			this.matchSetting = temp;
+		}
+		return temp;
+	}
 }
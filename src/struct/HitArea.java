@@ -26,6 +26,12 @@ public class HitArea {
 	 */
 	private int bottom;
 
+	/**
+	 * {@code true} if this instance belongs to a motion and cannot be changed,
+	 * {@code false} otherwise.
+	 */
+	private boolean readOnly;
+
 	/**
 	 * The class constructor.
 	 */
@@ -77,6 +83,26 @@ public class HitArea {
 		this.bottom = bottom;
 	}
 
+	/**
+	 * Sets the hit determination area's coordinates to the specified values.
+	 *
+	 * @param left
+	 *            the most left x coordinate of the hit box
+	 * @param right
+	 *            the most right x coordinate of the hit box
+	 * @param top
+	 *            the most top y coordinate of the hit box
+	 * @param bottom
+	 *            the most bottom y coordinate of the hit box
+	 */
+	public void set(int left, int right, int top, int bottom) {
+		checkWritable();
+		this.left = left;
+		this.right = right;
+		this.top = top;
+		this.bottom = bottom;
+	}
+
 	/**
 	 * Updates the hit determination area's coordinates using the specified
 	 * speed.
@@ -87,6 +113,7 @@ public class HitArea {
 	 *            the vertical speed
 	 */
 	public void move(int speedX, int speedY) {
+		checkWritable();
 		this.left += speedX;
 		this.right += speedX;
 		this.top += speedY;
@@ -129,4 +156,47 @@ public class HitArea {
 		return this.bottom;
 	}
 
+	/**
+	 * Returns a read-only instance with the same coordinates as the specified
+	 * hit area.<br>
+	 * The hit areas of the motions are read-only, since the motions are shared
+	 * by the game, the simulator and the AIs.
+	 *
+	 * @param hitArea
+	 *            the hit area
+	 * @return the hit area itself if it is read-only, or a read-only copy of
+	 *         it otherwise
+	 */
+	public static HitArea readOnly(HitArea hitArea) {
+		if (hitArea != null && hitArea.readOnly) {
+			return hitArea;
+		}
+		HitArea temp = new HitArea(hitArea);
+		temp.readOnly = true;
+		return temp;
+	}
+
+	/**
+	 * Returns whether this instance is read-only.
+	 *
+	 * @return {@code true} if this instance belongs to a motion and cannot be
+	 *         changed, {@code false} otherwise
+	 */
+	public boolean isReadOnly() {
+		return this.readOnly;
+	}
+
+	/**
+	 * Throws an exception if this instance is read-only.
+	 *
+	 * @throws UnsupportedOperationException
+	 *             if this instance belongs to a motion
+	 */
+	private void checkWritable() {
+		if (this.readOnly) {
+			throw new UnsupportedOperationException(
+					"The hit area of a motion is read-only, change a copy made by new HitArea(hitArea)");
+		}
+	}
+
 }
@@ -47,6 +47,18 @@ public class Key {
 	 *            an instance of the Key class
 	 */
 	public Key(Key key) {
+		this.set(key);
+	}
+
+	/**
+	 * Sets the keys to the same values as the specified key, which allows an
+	 * instance to be reused instead of creating a copy.
+	 *
+	 * @param key
+	 *            an instance of the Key class, or {@code null} to reset all
+	 *            keys
+	 */
+	public void set(Key key) {
 		if (key != null) {
 			this.A = key.A;
 			this.B = key.B;
@@ -0,0 +1,180 @@
+package struct;
+
+import java.util.AbstractCollection;
+import java.util.Deque;
+import java.util.Iterator;
+
+/**
+ * A read-only view of a deque, which Java 17 does not provide.<br>
+ * The view reads the wrapped deque without copying it, and every method which
+ * would change it throws an {@link UnsupportedOperationException}. It is used
+ * for the deques of the read-only data of a frame, which are shared with the
+ * AIs.
+ *
+ * @param <E>
+ *            the type of the elements
+ */
+class ReadOnlyDeque<E> extends AbstractCollection<E> implements Deque<E> {
+
+	/**
+	 * The wrapped deque.
+	 */
+	private final Deque<E> deque;
+
+	/**
+	 * The class constructor.
+	 *
+	 * @param deque
+	 *            the wrapped deque, which must not be changed afterwards
+	 */
+	ReadOnlyDeque(Deque<E> deque) {
+		this.deque = deque;
+	}
+
+	@Override
+	public int size() {
+		return this.deque.size();
+	}
+
+	@Override
+	public boolean contains(Object o) {
+		return this.deque.contains(o);
+	}
+
+	@Override
+	public Iterator<E> iterator() {
+		return readOnly(this.deque.iterator());
+	}
+
+	@Override
+	public Iterator<E> descendingIterator() {
+		return readOnly(this.deque.descendingIterator());
+	}
+
+	@Override
+	public E getFirst() {
+		return this.deque.getFirst();
+	}
+
+	@Override
+	public E getLast() {
+		return this.deque.getLast();
+	}
+
+	@Override
+	public E peekFirst() {
+		return this.deque.peekFirst();
+	}
+
+	@Override
+	public E peekLast() {
+		return this.deque.peekLast();
+	}
+
+	@Override
+	public E element() {
+		return this.deque.element();
+	}
+
+	@Override
+	public E peek() {
+		return this.deque.peek();
+	}
+
+	@Override
+	public void addFirst(E e) {
+		throw new UnsupportedOperationException();
+	}
+
+	@Override
+	public void addLast(E e) {
+		throw new UnsupportedOperationException();
+	}
+
+	@Override
+	public boolean offerFirst(E e) {
+		throw new UnsupportedOperationException();
+	}
+
+	@Override
+	public boolean offerLast(E e) {
+		throw new UnsupportedOperationException();
+	}
+
+	@Override
+	public E removeFirst() {
+		throw new UnsupportedOperationException();
+	}
+
+	@Override
+	public E removeLast() {
+		throw new UnsupportedOperationException();
+	}
+
+	@Override
+	public E pollFirst() {
+		throw new UnsupportedOperationException();
+	}
+
+	@Override
+	public E pollLast() {
+		throw new UnsupportedOperationException();
+	}
+
+	@Override
+	public boolean removeFirstOccurrence(Object o) {
+		throw new UnsupportedOperationException();
+	}
+
+	@Override
+	public boolean removeLastOccurrence(Object o) {
+		throw new UnsupportedOperationException();
+	}
+
+	@Override
+	public boolean offer(E e) {
+		throw new UnsupportedOperationException();
+	}
+
+	@Override
+	public E remove() {
+		throw new UnsupportedOperationException();
+	}
+
+	@Override
+	public E poll() {
+		throw new UnsupportedOperationException();
+	}
+
+	@Override
+	public void push(E e) {
+		throw new UnsupportedOperationException();
+	}
+
+	@Override
+	public E pop() {
+		throw new UnsupportedOperationException();
+	}
+
+	/**
+	 * Returns an iterator which cannot remove elements.
+	 *
+	 * @param iterator
+	 *            the iterator of the wrapped deque
+	 * @return the read-only iterator
+	 */
+	private static <E> Iterator<E> readOnly(Iterator<E> iterator) {
+		return new Iterator<E>() {
+			@Override
+			public boolean hasNext() {
+				return iterator.hasNext();
+			}
+
+			@Override
+			public E next() {
+				return iterator.next();
+			}
+		};
+	}
+
+}
@@ -15,6 +15,7 @@ import java.nio.ByteBuffer;
 import org.lwjgl.BufferUtils;
 
 import manager.GraphicManager;
+import setting.FlagSetting;
 import setting.GameSetting;
 
 /**
@@ -32,6 +33,20 @@ public class ScreenData {
 	 *
 	 */
 	private BufferedImage displayBufferedImage;
+
+	/**
+	 * The black pixel data shared by all instances in headless mode, where
+	 * the screen is never drawn.
+	 */
+	private static byte[] blackDisplayBytes;
+
+	/**
+	 * The native buffer the pixels of the screen are read into, which is
+	 * reused every frame.<br>
+	 * Only the thread owning the OpenGL context reads the screen, so no
+	 * synchronization is needed.
+	 */
+	private static ByteBuffer pixels;
 	
 	public ScreenData() {
 		this.displayBytes = createDisplayBytes();
@@ -50,6 +65,18 @@ public class ScreenData {
 		this.displayBufferedImage = screenData.getDisplayBufferedImage();
 	}
 
+	/**
+	 * Reads the pixels of the screen again into the array of this instance,
+	 * which is overwritten instead of being allocated again, so that the game
+	 * can recycle an instance once no AI uses it.<br>
+	 * In headless mode the shared black buffer is kept.
+	 */
+	public void update() {
+		if (!FlagSetting.headless) {
+			readPixels().get(this.displayBytes);
+		}
+	}
+
 	/**
 	 * Obtains RGB data of the screen in the form of ByteBuffer.<br>
 	 * Warning: If the window is disabled, will just return a black buffer.
@@ -128,24 +155,50 @@ public class ScreenData {
 
 	/**
 	 * Obtains RGB data of the screen in the form of ByteBuffer<br>
-	 * Warning: If the window is disabled, will just returns a black buffer.
+	 * Warning: If the window is disabled, will just returns a black buffer.<br>
+	 * In headless mode every instance shares the same black buffer. Otherwise
+	 * the pixels are read into a reused native buffer and copied into a new
+	 * array, which {@link #update()} overwrites afterwards.
 	 *
 	 * @return RGB data of the screen in the form of ByteBuffer
 	 */
-	private byte[] createDisplayBytes() {
-		// Allocate memory for the RGB data of the screen
-		ByteBuffer pixels = BufferUtils.createByteBuffer(3 * GameSetting.STAGE_WIDTH * GameSetting.STAGE_HEIGHT);
+	private static byte[] createDisplayBytes() {
+		if (FlagSetting.headless) {
+			// there is no OpenGL context to read from
+			synchronized (ScreenData.class) {
+				if (blackDisplayBytes == null) {
+					blackDisplayBytes = new byte[3 * GameSetting.STAGE_WIDTH * GameSetting.STAGE_HEIGHT];
+				}
+				return blackDisplayBytes;
+			}
+		}
+
+		ByteBuffer screen = readPixels();
+		byte[] buffer = new byte[screen.remaining()];
+		screen.get(buffer);
+
+		return buffer;
+	}
+
+	/**
+	 * Reads the pixels of the screen into the reused native buffer.
+	 *
+	 * @return the native buffer holding the RGB data of the screen, from its
+	 *         start
+	 */
+	private static ByteBuffer readPixels() {
+		// Allocate memory for the RGB data of the screen once
+		if (pixels == null) {
+			pixels = BufferUtils.createByteBuffer(3 * GameSetting.STAGE_WIDTH * GameSetting.STAGE_HEIGHT);
+		}
 		pixels.clear();
 
 		// Assign the RGB data of the screen to pixels, a ByteBuffer
 		// variable
 		glReadPixels(0, 0, GameSetting.STAGE_WIDTH, GameSetting.STAGE_HEIGHT, GL_RGB, GL_UNSIGNED_BYTE, pixels);
 		pixels.rewind();
-		
-		byte[] buffer = new byte[pixels.remaining()];
-		pixels.get(buffer);
 
-		return buffer;
+		return pixels;
 	}
 
 //	private BufferedImage createDisplayBufferedImage(){
@@ -0,0 +1,246 @@
+package struct;
+
+import enumerate.Action;
+import enumerate.State;
+
+/**
+ * The class computing deterministic 64-bit hashes of the gameplay-relevant
+ * parts of a fight, for transposition tables and rollout deduplication.<br>
+ * The hash is Zobrist-style: every field of every slot (P1, P2, the attack of
+ * P1 and P2, a projectile) has its own random 64-bit key, and the
+ * contribution of a field is a mix of its key and its value, which behaves
+ * like looking up an unbounded random table. The contributions of the fields
+ * are combined with XOR, so changing one field changes the hash by
+ * {@code hash ^ field(slot, index, oldValue) ^ field(slot, index, newValue)}.
+ * Projectiles are combined by addition instead, so that two identical
+ * projectiles do not cancel out.<br>
+ * The hashed fields are the characters' HP, energy, position, speed, state,
+ * action, remaining frames, facing direction, control, hit confirmation and
+ * combo count, and the attacks' current hit box, speed, elapsed frames,
+ * active frames, damages and owner. Key histories are not part of the state
+ * hash, and are hashed separately by
+ * {@link #commands(boolean, Iterable, Iterable)}.
+ */
+public final class StateHash {
+
+	/**
+	 * The slot of P1's character.
+	 */
+	public static final int SLOT_P1 = 0;
+
+	/**
+	 * The slot of P2's character.
+	 */
+	public static final int SLOT_P2 = 1;
+
+	/**
+	 * The slot of the attack of P1's character.
+	 */
+	public static final int SLOT_ATTACK_P1 = 2;
+
+	/**
+	 * The slot of the attack of P2's character.
+	 */
+	public static final int SLOT_ATTACK_P2 = 3;
+
+	/**
+	 * The slot of a projectile.
+	 */
+	public static final int SLOT_PROJECTILE = 4;
+
+	/**
+	 * The number of hashed fields of a slot.
+	 */
+	private static final int FIELDS = 13;
+
+	/**
+	 * The random key of each field of each slot.
+	 */
+	private static final long[] KEYS = new long[5 * FIELDS];
+
+	static {
+		long seed = 0x46696768746963L;
+		for (int i = 0; i < KEYS.length; i++) {
+			seed += 0x9E3779B97F4A7C15L;
+			KEYS[i] = mix(seed);
+		}
+	}
+
+	/**
+	 * The class constructor, which is not used.
+	 */
+	private StateHash() {
+	}
+
+	/**
+	 * Returns the contribution of a field to the hash.
+	 *
+	 * @param slot
+	 *            the slot the field belongs to
+	 * @param index
+	 *            the index of the field in the slot
+	 * @param value
+	 *            the value of the field
+	 * @return the contribution of the field
+	 */
+	public static long field(int slot, int index, int value) {
+		return mix(KEYS[slot * FIELDS + index] + value);
+	}
+
+	/**
+	 * Returns the hash of a character's fields.
+	 *
+	 * @param playerNumber
+	 *            the character's side flag. {@code true} if the character is
+	 *            P1, or {@code false} if P2.
+	 * @param hp
+	 *            the character's HP
+	 * @param energy
+	 *            the character's energy
+	 * @param x
+	 *            the character graphic's most top-left x-coordinate
+	 * @param y
+	 *            the character graphic's most top-left y-coordinate
+	 * @param speedX
+	 *            the character's horizontal speed
+	 * @param speedY
+	 *            the character's vertical speed
+	 * @param state
+	 *            the character's state
+	 * @param action
+	 *            the character's action
+	 * @param remainingFrame
+	 *            the number of frames that the character needs to resume to its
+	 *            normal status
+	 * @param front
+	 *            the character's facing direction
+	 * @param control
+	 *            the flag whether the character can run a new motion
+	 * @param hitConfirm
+	 *            the flag whether the character's attack hit the opponent
+	 * @param hitCount
+	 *            the number of continuous hits of the character's attack
+	 * @return the hash of the character's fields
+	 */
+	public static long character(boolean playerNumber, int hp, int energy, int x, int y, int speedX, int speedY,
+			State state, Action action, int remainingFrame, boolean front, boolean control, boolean hitConfirm,
+			int hitCount) {
+		int slot = playerNumber ? SLOT_P1 : SLOT_P2;
+
+		return field(slot, 0, hp) ^ field(slot, 1, energy) ^ field(slot, 2, x) ^ field(slot, 3, y)
+				^ field(slot, 4, speedX) ^ field(slot, 5, speedY) ^ field(slot, 6, state == null ? -1 : state.ordinal())
+				^ field(slot, 7, action == null ? -1 : action.ordinal()) ^ field(slot, 8, remainingFrame)
+				^ field(slot, 9, front ? 1 : 0) ^ field(slot, 10, control ? 1 : 0) ^ field(slot, 11, hitConfirm ? 1 : 0)
+				^ field(slot, 12, hitCount);
+	}
+
+	/**
+	 * Returns the hash of an attack's fields.<br>
+	 * A missing hit box is hashed as a hit box whose coordinates are all zero.
+	 *
+	 * @param slot
+	 *            the slot of the attack: {@link #SLOT_ATTACK_P1},
+	 *            {@link #SLOT_ATTACK_P2} or {@link #SLOT_PROJECTILE}
+	 * @param currentHitArea
+	 *            the attack's hit box in the current frame
+	 * @param speedX
+	 *            the attack's horizontal speed
+	 * @param speedY
+	 *            the attack's vertical speed
+	 * @param currentFrame
+	 *            the number of frames since the attack was used
+	 * @param active
+	 *            the number of frames in Active
+	 * @param hitDamage
+	 *            the damage value to the unguarded opponent
+	 * @param guardDamage
+	 *            the damage value to the guarded opponent
+	 * @param playerNumber
+	 *            the flag whether the attack belongs to P1
+	 * @return the hash of the attack's fields
+	 */
+	public static long attack(int slot, HitArea currentHitArea, int speedX, int speedY, int currentFrame, int active,
+			int hitDamage, int guardDamage, boolean playerNumber) {
+		long hash = field(slot, 4, speedX) ^ field(slot, 5, speedY) ^ field(slot, 6, currentFrame)
+				^ field(slot, 7, active) ^ field(slot, 8, hitDamage) ^ field(slot, 9, guardDamage)
+				^ field(slot, 10, playerNumber ? 1 : 0);
+
+		if (currentHitArea == null) {
+			return hash ^ field(slot, 0, 0) ^ field(slot, 1, 0) ^ field(slot, 2, 0) ^ field(slot, 3, 0);
+		}
+		return hash ^ field(slot, 0, currentHitArea.getLeft()) ^ field(slot, 1, currentHitArea.getRight())
+				^ field(slot, 2, currentHitArea.getTop()) ^ field(slot, 3, currentHitArea.getBottom());
+	}
+
+	/**
+	 * Returns the hash of a missing attack, which equals the hash of an attack
+	 * whose fields are all zero.
+	 *
+	 * @param slot
+	 *            the slot of the attack
+	 * @return the hash of a missing attack
+	 */
+	public static long emptyAttack(int slot) {
+		return attack(slot, null, 0, 0, 0, 0, 0, 0, false);
+	}
+
+	/**
+	 * Returns the hash of a character's key histories.<br>
+	 * Unlike the fields, the keys are hashed in order, because the order of
+	 * the keys decides which command is interpreted.
+	 *
+	 * @param playerNumber
+	 *            the character's side flag. {@code true} if the character is
+	 *            P1, or {@code false} if P2.
+	 * @param inputCommands
+	 *            the keys waiting to be executed by the character
+	 * @param processedCommands
+	 *            the keys executed by the character
+	 * @return the hash of the key histories
+	 */
+	public static long commands(boolean playerNumber, Iterable<Key> inputCommands, Iterable<Key> processedCommands) {
+		long hash = playerNumber ? 1 : 2;
+		if (inputCommands != null) {
+			for (Key key : inputCommands) {
+				hash = hash * 31 + bits(key);
+			}
+		}
+		hash = hash * 31;
+		if (processedCommands != null) {
+			for (Key key : processedCommands) {
+				hash = hash * 31 + bits(key);
+			}
+		}
+		return mix(hash);
+	}
+
+	/**
+	 * Returns the buttons and directions of a key packed into an integer.
+	 *
+	 * @param key
+	 *            the key
+	 * @return the packed key, which is never zero
+	 */
+	private static int bits(Key key) {
+		if (key == null) {
+			return 1;
+		}
+		return 2 | (key.A ? 4 : 0) | (key.B ? 8 : 0) | (key.C ? 16 : 0) | (key.U ? 32 : 0) | (key.R ? 64 : 0)
+				| (key.D ? 128 : 0) | (key.L ? 256 : 0);
+	}
+
+	/**
+	 * Mixes the bits of the specified value (the finalizer of SplitMix64).<br>
+	 * It can be used to combine a hash with other values.
+	 *
+	 * @param z
+	 *            the value to be mixed
+	 * @return the mixed value
+	 */
+	public static long mix(long z) {
+		z = (z ^ (z >>> 30)) * 0xBF58476D1CE4E5B9L;
+		z = (z ^ (z >>> 27)) * 0x94D049BB133111EBL;
+		return z ^ (z >>> 31);
+	}
+
+}
@@ -21,10 +21,19 @@ public class FFT {
      * @param signal audio signals
      */
     public void process(float[] signal) {
-        final int numPoints = signal.length;
-        // initialize real & imag array
-        real = signal;
-        imag = new float[numPoints];
+        process(signal, new float[signal.length]);
+    }
+
+    /**
+     * Performs Fast Fourier Transformation in place on the given arrays, so
+     * that the caller can reuse them.
+     * @param real real parts of the input, replaced by the real parts of the output
+     * @param imag imaginary parts of the input, replaced by the imaginary parts of the output
+     */
+    public void process(float[] real, float[] imag) {
+        final int numPoints = real.length;
+        this.real = real;
+        this.imag = imag;
 
         // perform FFT using the real & imag array
         final double pi = Math.PI;
@@ -0,0 +1,217 @@
+package util;
+
+import java.util.concurrent.locks.LockSupport;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+import enumerate.FramePacingPolicy;
+
+/**
+ * A pacer keeping the game loop on a fixed frame schedule.<br>
+ * The deadline of each frame is the deadline of the previous one plus the
+ * frame period, rather than the time the previous frame ended, so the time
+ * spent by a frame does not shift the following ones. {@link #sync()} waits
+ * for the deadline by parking the thread until {@link #SPIN_NANOS} before it,
+ * and then by spinning, because parking alone may wake up late by a large
+ * part of a millisecond.<br>
+ * When a frame ends after its deadline, it is counted as an overrun and the
+ * schedule is handled by the {@link FramePacingPolicy}. The difference
+ * between the time {@link #sync()} returns and the deadline is recorded as
+ * the jitter, and the time between two returns as the frame time.<br>
+ * The class is not thread-safe.
+ */
+public class FramePacer {
+
+	/**
+	 * The time before a deadline from which the pacer spins instead of
+	 * parking.
+	 */
+	public static final long SPIN_NANOS = 1_000_000L;
+
+	/**
+	 * The maximum number of frames the pacer catches up with
+	 * {@link FramePacingPolicy#CATCH_UP} before it restarts the schedule.
+	 */
+	public static final int MAX_CATCH_UP_FRAMES = 6;
+
+	/**
+	 * The time of one frame in nanoseconds.
+	 */
+	private final long periodNanos;
+
+	/**
+	 * What the pacer does when a frame is late.
+	 */
+	private final FramePacingPolicy policy;
+
+	/**
+	 * The deadline of the next frame, or zero before the first frame.
+	 */
+	private long deadline;
+
+	/**
+	 * The time the previous call of {@link #sync()} returned.
+	 */
+	private long lastWake;
+
+	/**
+	 * The histogram of the lateness of the frames in nanoseconds.
+	 */
+	private final LatencyHistogram jitterHistogram;
+
+	/**
+	 * The histogram of the time between two frames in nanoseconds.
+	 */
+	private final LatencyHistogram frameHistogram;
+
+	/**
+	 * The number of frames which ended after their deadline.
+	 */
+	private long overrunCount;
+
+	/**
+	 * The number of frame slots dropped or skipped by restarting the schedule.
+	 */
+	private long droppedCount;
+
+	/**
+	 * The class constructor.
+	 *
+	 * @param fps
+	 *            the number of frames per second
+	 * @param policy
+	 *            what the pacer does when a frame is late
+	 */
+	public FramePacer(int fps, FramePacingPolicy policy) {
+		this.periodNanos = 1_000_000_000L / fps;
+		this.policy = policy;
+		this.jitterHistogram = new LatencyHistogram();
+		this.frameHistogram = new LatencyHistogram();
+	}
+
+	/**
+	 * Waits until the deadline of the current frame, and schedules the next
+	 * frame.<br>
+	 * The first call returns at once and starts the schedule.
+	 */
+	public void sync() {
+		long now = System.nanoTime();
+		if (this.deadline == 0) {
+			this.deadline = now + this.periodNanos;
+			this.lastWake = now;
+			return;
+		}
+
+		if (now > this.deadline) {
+			this.overrunCount++;
+			long late = (now - this.deadline) / this.periodNanos;
+			if (this.policy == FramePacingPolicy.DROP) {
+				// skip the slots which have passed and wait for the next one
+				this.deadline += (late + 1) * this.periodNanos;
+				this.droppedCount += late + 1;
+			} else if (late >= MAX_CATCH_UP_FRAMES) {
+				// too far behind: start the schedule again from now
+				this.deadline = now;
+				this.droppedCount += late;
+			}
+		}
+
+		now = waitUntil(this.deadline);
+		this.jitterHistogram.record(now - this.deadline);
+		this.frameHistogram.record(now - this.lastWake);
+		this.lastWake = now;
+		this.deadline += this.periodNanos;
+	}
+
+	/**
+	 * Waits until the specified time by parking and then spinning.
+	 *
+	 * @param time
+	 *            the time to wait for, as given by {@link System#nanoTime()}
+	 * @return the time the wait ended
+	 */
+	private static long waitUntil(long time) {
+		long now = System.nanoTime();
+		while (time - now > SPIN_NANOS) {
+			LockSupport.parkNanos(time - now - SPIN_NANOS);
+			now = System.nanoTime();
+		}
+		while (now < time) {
+			Thread.onSpinWait();
+			now = System.nanoTime();
+		}
+		return now;
+	}
+
+	/**
+	 * Restarts the schedule, for example after the game was paused, so that
+	 * the pause is not counted as an overrun.
+	 */
+	public void restart() {
+		this.deadline = 0;
+	}
+
+	/**
+	 * Returns the histogram of the lateness of the frames.
+	 *
+	 * @return the histogram of the jitter in nanoseconds
+	 */
+	public LatencyHistogram getJitterHistogram() {
+		return this.jitterHistogram;
+	}
+
+	/**
+	 * Returns the histogram of the time between two frames.
+	 *
+	 * @return the histogram of the frame time in nanoseconds
+	 */
+	public LatencyHistogram getFrameHistogram() {
+		return this.frameHistogram;
+	}
+
+	/**
+	 * Returns the number of frames which ended after their deadline.
+	 *
+	 * @return the number of overruns
+	 */
+	public long getOverrunCount() {
+		return this.overrunCount;
+	}
+
+	/**
+	 * Returns the number of frame slots dropped, either by
+	 * {@link FramePacingPolicy#DROP} or by restarting the schedule when the
+	 * game was too far behind.
+	 *
+	 * @return the number of dropped frame slots
+	 */
+	public long getDroppedCount() {
+		return this.droppedCount;
+	}
+
+	/**
+	 * Logs the frame time and the jitter in microseconds with the numbers of
+	 * overruns and dropped frame slots, and then resets them.
+	 *
+	 * @param title
+	 *            the title of the dump
+	 */
+	public void dump(String title) {
+		if (this.frameHistogram.getCount() == 0) {
+			return;
+		}
+
+		Logger.getAnonymousLogger().log(Level.INFO, String.format(
+				"%s: %d frames, frame time p50 %.1f us p99 %.1f us max %.1f us, jitter p50 %.1f us p99 %.1f us max %.1f us, %d overruns, %d dropped (%s)",
+				title, this.frameHistogram.getCount(), this.frameHistogram.getPercentile(50) / 1000.0,
+				this.frameHistogram.getPercentile(99) / 1000.0, this.frameHistogram.getMax() / 1000.0,
+				this.jitterHistogram.getPercentile(50) / 1000.0, this.jitterHistogram.getPercentile(99) / 1000.0,
+				this.jitterHistogram.getMax() / 1000.0, this.overrunCount, this.droppedCount, this.policy));
+
+		this.jitterHistogram.reset();
+		this.frameHistogram.reset();
+		this.overrunCount = 0;
+		this.droppedCount = 0;
+	}
+
+}
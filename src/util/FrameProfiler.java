@@ -0,0 +1,205 @@
+package util;
+
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * A profiler measuring how long each phase of the processing of a frame
+ * takes.<br>
+ * The game loop calls {@link #beginFrame()} at the start of a frame,
+ * {@link #mark(Phase)} at the end of each phase, and {@link #endFrame()} at
+ * the end of the frame. The time elapsed since the previous call is added to
+ * the phase, so a phase can be marked several times in a frame. At the end of
+ * the frame, the time of each phase and of the whole frame is recorded in a
+ * {@link LatencyHistogram}, and {@link #dump(String)} logs their percentiles.
+ * <br>
+ * A disabled profiler does nothing and does not read the clock, so the calls
+ * can stay in the game loop.
+ */
+public class FrameProfiler {
+
+	/**
+	 * The phases of the processing of a frame.
+	 */
+	public enum Phase {
+		/** Gathering the key inputs of the players. */
+		INPUT,
+		/** {@link fighting.Fighting#processingFight}. */
+		FIGHT,
+		/** {@link fighting.Fighting#createFrameData}. */
+		FRAME_DATA,
+		/** Writing the replay file and the JSON log, and counting the actions for the debug log. */
+		LOGGING,
+		/** {@link ResourceDrawer#drawResource}. */
+		DRAWING,
+		/** Capturing the screen data. */
+		SCREEN_DATA,
+		/** Sampling the audio and extracting its features. */
+		AUDIO,
+		/** Delivering the frame to the AIs and the gRPC observer. */
+		AI_DELIVERY
+	}
+
+	/**
+	 * The flag whether the profiler measures anything.
+	 */
+	private final boolean enabled;
+
+	/**
+	 * The histograms of the time of each phase, indexed by the ordinal of the
+	 * phase.
+	 */
+	private final LatencyHistogram[] histograms;
+
+	/**
+	 * The histogram of the time of a whole frame.
+	 */
+	private final LatencyHistogram frameHistogram;
+
+	/**
+	 * The time of each phase in the current frame in nanoseconds.
+	 */
+	private final long[] phaseNanos;
+
+	/**
+	 * The time the current frame started.
+	 */
+	private long frameStart;
+
+	/**
+	 * The time the previous phase ended.
+	 */
+	private long lastMark;
+
+	/**
+	 * The class constructor.
+	 *
+	 * @param enabled
+	 *            {@code true} if the profiler measures the frames,
+	 *            {@code false} if it does nothing
+	 */
+	public FrameProfiler(boolean enabled) {
+		this.enabled = enabled;
+		this.histograms = new LatencyHistogram[Phase.values().length];
+		for (int i = 0; i < this.histograms.length; i++) {
+			this.histograms[i] = new LatencyHistogram();
+		}
+		this.frameHistogram = new LatencyHistogram();
+		this.phaseNanos = new long[this.histograms.length];
+	}
+
+	/**
+	 * Returns whether the profiler measures anything.
+	 *
+	 * @return {@code true} if the profiler is enabled, {@code false} otherwise
+	 */
+	public boolean isEnabled() {
+		return this.enabled;
+	}
+
+	/**
+	 * Starts measuring a frame.
+	 */
+	public void beginFrame() {
+		if (!this.enabled) {
+			return;
+		}
+		for (int i = 0; i < this.phaseNanos.length; i++) {
+			this.phaseNanos[i] = 0;
+		}
+		this.frameStart = this.lastMark = System.nanoTime();
+	}
+
+	/**
+	 * Adds the time elapsed since the previous mark, or since the start of the
+	 * frame, to the specified phase.
+	 *
+	 * @param phase
+	 *            the phase which has just ended
+	 */
+	public void mark(Phase phase) {
+		if (!this.enabled) {
+			return;
+		}
+		long now = System.nanoTime();
+		this.phaseNanos[phase.ordinal()] += now - this.lastMark;
+		this.lastMark = now;
+	}
+
+	/**
+	 * Ends measuring a frame and records the time of its phases.
+	 */
+	public void endFrame() {
+		if (!this.enabled) {
+			return;
+		}
+		for (int i = 0; i < this.phaseNanos.length; i++) {
+			this.histograms[i].record(this.phaseNanos[i]);
+		}
+		this.frameHistogram.record(System.nanoTime() - this.frameStart);
+	}
+
+	/**
+	 * Returns the histogram of the time of a phase.
+	 *
+	 * @param phase
+	 *            the phase
+	 * @return the histogram of the phase
+	 */
+	public LatencyHistogram getHistogram(Phase phase) {
+		return this.histograms[phase.ordinal()];
+	}
+
+	/**
+	 * Returns the histogram of the time of a whole frame.
+	 *
+	 * @return the histogram of the frames
+	 */
+	public LatencyHistogram getFrameHistogram() {
+		return this.frameHistogram;
+	}
+
+	/**
+	 * Logs the median, the 99th percentile and the maximum of the time of each
+	 * phase and of the whole frame in microseconds, and then resets the
+	 * histograms.
+	 *
+	 * @param title
+	 *            the title of the dump, such as the round
+	 */
+	public void dump(String title) {
+		if (!this.enabled || this.frameHistogram.getCount() == 0) {
+			return;
+		}
+
+		StringBuilder sb = new StringBuilder();
+		sb.append(String.format("%s: %d frames (us)%n", title, this.frameHistogram.getCount()));
+		sb.append(String.format("%-12s %10s %10s %10s%n", "phase", "p50", "p99", "max"));
+		for (Phase phase : Phase.values()) {
+			appendLine(sb, phase.name(), this.histograms[phase.ordinal()]);
+		}
+		appendLine(sb, "FRAME", this.frameHistogram);
+		Logger.getAnonymousLogger().log(Level.INFO, sb.toString());
+
+		for (LatencyHistogram histogram : this.histograms) {
+			histogram.reset();
+		}
+		this.frameHistogram.reset();
+	}
+
+	/**
+	 * Appends a line of the percentiles of a histogram to a dump.
+	 *
+	 * @param sb
+	 *            the dump
+	 * @param name
+	 *            the name of the line
+	 * @param histogram
+	 *            the histogram
+	 */
+	private static void appendLine(StringBuilder sb, String name, LatencyHistogram histogram) {
+		sb.append(String.format("%-12s %10.1f %10.1f %10.1f%n", name, histogram.getPercentile(50) / 1000.0,
+				histogram.getPercentile(99) / 1000.0, histogram.getMax() / 1000.0));
+	}
+
+}
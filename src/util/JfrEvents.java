@@ -0,0 +1,164 @@
+package util;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/**
+ * The Java Flight Recorder events of the game.<br>
+ * Each event measures the duration of one step of the game loop or of an AI,
+ * and carries the frame, the round and the player it belongs to, so that a
+ * recording shows the steps of a match together with GC pauses and other JVM
+ * events on one timeline. The events are recorded with, for example:
+ *
+ * <pre>
+ * java -XX:StartFlightRecording=filename=match.jfr ...
+ * </pre>
+ *
+ * When no recording is running, an event is not committed and the JIT compiler
+ * removes most of its cost.<br>
+ * An event is used as follows:
+ *
+ * <pre>
+ * JfrEvents.Update event = new JfrEvents.Update();
+ * event.begin();
+ * ...
+ * event.set(frame, round, null);
+ * event.commit();
+ * </pre>
+ */
+public final class JfrEvents {
+
+	/**
+	 * The category of the events.
+	 */
+	private static final String CATEGORY = "FightingICE";
+
+	/**
+	 * The class constructor, which is not used.
+	 */
+	private JfrEvents() {
+	}
+
+	/**
+	 * The base class of the events, which holds the frame, the round and the
+	 * player.
+	 */
+	@StackTrace(false)
+	public abstract static class FrameEvent extends Event {
+
+		/**
+		 * The frame number.
+		 */
+		@Label("Frame")
+		protected int frame;
+
+		/**
+		 * The round number.
+		 */
+		@Label("Round")
+		protected int round;
+
+		/**
+		 * The player, "P1" or "P2", or {@code null} if the event does not
+		 * belong to a player.
+		 */
+		@Label("Player")
+		protected String player;
+
+		/**
+		 * Sets the fields of the event.
+		 *
+		 * @param frame
+		 *            the frame number
+		 * @param round
+		 *            the round number
+		 * @param playerNumber
+		 *            {@code true} if the event belongs to P1, {@code false}
+		 *            if P2, or {@code null} if it does not belong to a player
+		 */
+		public void set(int frame, int round, Boolean playerNumber) {
+			this.frame = frame;
+			this.round = round;
+			this.player = playerNumber == null ? null : playerNumber ? "P1" : "P2";
+		}
+	}
+
+	/**
+	 * The update of the Play scene in one frame.
+	 */
+	@Name("fightingice.Update")
+	@Label("Play Update")
+	@Category(CATEGORY)
+	@Description("Processing of one frame by the Play scene")
+	public static class Update extends FrameEvent {
+	}
+
+	/**
+	 * The fight processing of one frame.
+	 */
+	@Name("fightingice.Fight")
+	@Label("Fight Processing")
+	@Category(CATEGORY)
+	@Description("Fighting.processingFight of one frame")
+	public static class Fight extends FrameEvent {
+	}
+
+	/**
+	 * The processing of one frame by an AI controller.
+	 */
+	@Name("fightingice.AITurn")
+	@Label("AI Turn")
+	@Category(CATEGORY)
+	@Description("One iteration of AIController.run, from the frame signal to the end of the processing")
+	public static class AiTurn extends FrameEvent {
+
+		/**
+		 * The number of frames skipped because this newer frame was delivered
+		 * instead.
+		 */
+		@Label("Skipped Frames")
+		protected int skippedFrames;
+
+		/**
+		 * Sets the number of frames skipped before the frame of the turn.
+		 *
+		 * @param skippedFrames
+		 *            the number of skipped frames
+		 */
+		public void setSkippedFrames(int skippedFrames) {
+			this.skippedFrames = skippedFrames;
+		}
+	}
+
+	/**
+	 * The delivery of one frame to a gRPC client.
+	 */
+	@Name("fightingice.GrpcSend")
+	@Label("gRPC Send")
+	@Category(CATEGORY)
+	@Description("Conversion and sending of one frame to a gRPC player or observer")
+	public static class GrpcSend extends FrameEvent {
+
+		/**
+		 * The flag whether the client is an observer.
+		 */
+		@Label("Observer")
+		protected boolean observer;
+
+		/**
+		 * Sets whether the client is an observer.
+		 *
+		 * @param observer
+		 *            {@code true} if the client is an observer, {@code false}
+		 *            if it is a player
+		 */
+		public void setObserver(boolean observer) {
+			this.observer = observer;
+		}
+	}
+
+}
@@ -0,0 +1,178 @@
+package util;
+
+import java.util.Arrays;
+
+/**
+ * A histogram of durations in nanoseconds with a fixed memory footprint.<br>
+ * Durations are counted in buckets whose width grows with the duration: below
+ * {@value #SUB_BUCKETS} ns each bucket holds one value, and each following
+ * power of two is split into {@value #SUB_BUCKETS} buckets, so a percentile is
+ * accurate to about 3%. Recording a duration only increments a counter and
+ * never allocates, so it can be done in every frame.<br>
+ * The class is not thread-safe.
+ */
+public class LatencyHistogram {
+
+	/**
+	 * The number of bits of the index of a bucket within a power of two.
+	 */
+	private static final int SUB_BUCKET_BITS = 5;
+
+	/**
+	 * The number of buckets of each power of two.
+	 */
+	private static final int SUB_BUCKETS = 1 << SUB_BUCKET_BITS;
+
+	/**
+	 * The number of durations in each bucket.
+	 */
+	private final long[] counts;
+
+	/**
+	 * The number of recorded durations.
+	 */
+	private long totalCount;
+
+	/**
+	 * The sum of the recorded durations in nanoseconds.
+	 */
+	private long totalNanos;
+
+	/**
+	 * The longest recorded duration in nanoseconds.
+	 */
+	private long maxNanos;
+
+	/**
+	 * The class constructor that creates an empty histogram.
+	 */
+	public LatencyHistogram() {
+		this.counts = new long[(Long.SIZE - SUB_BUCKET_BITS) * SUB_BUCKETS];
+	}
+
+	/**
+	 * Records a duration.
+	 *
+	 * @param nanos
+	 *            the duration in nanoseconds. A negative value is recorded as
+	 *            zero.
+	 */
+	public void record(long nanos) {
+		long value = Math.max(0, nanos);
+		this.counts[indexOf(value)]++;
+		this.totalCount++;
+		this.totalNanos += value;
+		if (value > this.maxNanos) {
+			this.maxNanos = value;
+		}
+	}
+
+	/**
+	 * Returns the number of recorded durations.
+	 *
+	 * @return the number of recorded durations
+	 */
+	public long getCount() {
+		return this.totalCount;
+	}
+
+	/**
+	 * Returns the mean of the recorded durations.
+	 *
+	 * @return the mean in nanoseconds, or zero if nothing is recorded
+	 */
+	public long getMean() {
+		return this.totalCount > 0 ? this.totalNanos / this.totalCount : 0;
+	}
+
+	/**
+	 * Returns the longest recorded duration.
+	 *
+	 * @return the longest duration in nanoseconds, or zero if nothing is
+	 *         recorded
+	 */
+	public long getMax() {
+		return this.maxNanos;
+	}
+
+	/**
+	 * Returns the duration below which the specified percentage of the
+	 * recorded durations fall.
+	 *
+	 * @param percentile
+	 *            the percentage between 0 and 100
+	 * @return the percentile in nanoseconds, or zero if nothing is recorded
+	 */
+	public long getPercentile(double percentile) {
+		if (this.totalCount == 0) {
+			return 0;
+		}
+
+		long rank = Math.max(1, (long) Math.ceil(this.totalCount * Math.min(100.0, percentile) / 100.0));
+		long seen = 0;
+		for (int i = 0; i < this.counts.length; i++) {
+			seen += this.counts[i];
+			if (seen >= rank) {
+				return Math.min(highestValueOf(i), this.maxNanos);
+			}
+		}
+		return this.maxNanos;
+	}
+
+	/**
+	 * Adds the durations recorded by another histogram to this one.
+	 *
+	 * @param histogram
+	 *            the histogram to be added
+	 */
+	public void add(LatencyHistogram histogram) {
+		for (int i = 0; i < this.counts.length; i++) {
+			this.counts[i] += histogram.counts[i];
+		}
+		this.totalCount += histogram.totalCount;
+		this.totalNanos += histogram.totalNanos;
+		this.maxNanos = Math.max(this.maxNanos, histogram.maxNanos);
+	}
+
+	/**
+	 * Removes all recorded durations.
+	 */
+	public void reset() {
+		Arrays.fill(this.counts, 0);
+		this.totalCount = 0;
+		this.totalNanos = 0;
+		this.maxNanos = 0;
+	}
+
+	/**
+	 * Returns the index of the bucket of a duration.
+	 *
+	 * @param value
+	 *            the duration in nanoseconds, which is not negative
+	 * @return the index of the bucket
+	 */
+	private static int indexOf(long value) {
+		if (value < SUB_BUCKETS) {
+			return (int) value;
+		}
+		int shift = (Long.SIZE - 1 - Long.numberOfLeadingZeros(value)) - SUB_BUCKET_BITS;
+		return (shift + 1) * SUB_BUCKETS + (int) (value >>> shift) - SUB_BUCKETS;
+	}
+
+	/**
+	 * Returns the longest duration counted in a bucket.
+	 *
+	 * @param index
+	 *            the index of the bucket
+	 * @return the longest duration in nanoseconds
+	 */
+	private static long highestValueOf(int index) {
+		if (index < SUB_BUCKETS) {
+			return index;
+		}
+		int shift = index / SUB_BUCKETS - 1;
+		long lowest = (long) (index % SUB_BUCKETS + SUB_BUCKETS) << shift;
+		return lowest + (1L << shift) - 1;
+	}
+
+}
@@ -21,6 +21,7 @@ import loader.ResourceLoader;
 import setting.FlagSetting;
 import setting.GameSetting;
 import setting.LaunchSetting;
+import setting.MatchSetting;
 import struct.AttackData;
 import struct.CharacterData;
 import struct.FrameData;
@@ -143,10 +144,10 @@ public class LogWriter {
 				dos.writeInt(playerCharacters[i].getX());
 				dos.writeInt(playerCharacters[i].getY());
 
-				byte input = (byte) (convertBtoI(keyData.getKeys()[i].A) + convertBtoI(keyData.getKeys()[i].B) * 2
-						+ convertBtoI(keyData.getKeys()[i].C) * 4 + convertBtoI(keyData.getKeys()[i].D) * 8
-						+ convertBtoI(keyData.getKeys()[i].L) * 16 + convertBtoI(keyData.getKeys()[i].R) * 32
-						+ convertBtoI(keyData.getKeys()[i].U) * 64);
+				Key key = keyData.getKey(i == 0);
+				byte input = (byte) (convertBtoI(key.A) + convertBtoI(key.B) * 2 + convertBtoI(key.C) * 4
+						+ convertBtoI(key.D) * 8 + convertBtoI(key.L) * 16 + convertBtoI(key.R) * 32
+						+ convertBtoI(key.U) * 64);
 
 				dos.writeByte(input);
 			}
@@ -165,14 +166,27 @@ public class LogWriter {
 	 *            リプレイファイルに書き込みを行うためのデータ出力ストリーム
 	 */
 	public void writeHeader(DataOutputStream dos) {
+		writeHeader(dos, MatchSetting.fromLaunchSetting());
+	}
+
+	/**
+	 * リプレイファイルに指定された試合の設定のゲームモードや使用キャラといったヘッダ情報を記述する．<br>
+	 * インスタンスの状態を変更しないため，複数の試合から同時に呼び出すことができる．
+	 *
+	 * @param dos
+	 *            リプレイファイルに記述するための出力ストリーム
+	 * @param matchSetting
+	 *            試合の設定
+	 */
+	public void writeHeader(DataOutputStream dos, MatchSetting matchSetting) {
 		try {
 			for (int i = 0; i < 2; i++) {
-				if (FlagSetting.limitHpFlag) {
+				if (matchSetting.isLimitHp()) {
 					dos.writeInt(-1);
-					dos.writeInt(LaunchSetting.maxHp[i]);
+					dos.writeInt(matchSetting.getMaxHp(i == 0));
 				}
 
-				dos.writeInt(Arrays.asList(GameSetting.CHARACTERS).indexOf(LaunchSetting.characterNames[i]));
+				dos.writeInt(Arrays.asList(GameSetting.CHARACTERS).indexOf(matchSetting.getCharacterName(i == 0)));
 			}
 		} catch (IOException e) {
 			e.printStackTrace();
@@ -191,9 +205,26 @@ public class LogWriter {
 	 * @return 出力ファイル名
 	 */
 	public String createOutputFileName(String path, String timeInfo) {
-		String mode = FlagSetting.limitHpFlag ? "HPMode" : "TimeMode";
+		return createOutputFileName(path, timeInfo, MatchSetting.fromLaunchSetting());
+	}
+
+	/**
+	 * 指定された試合の設定から出力ファイルの名前を生成する．
+	 *
+	 * @param path
+	 *            ファイルを出力する場所のパス
+	 * @param timeInfo
+	 *            現在の時間情報
+	 * @param matchSetting
+	 *            試合の設定
+	 *
+	 * @return 出力ファイル名
+	 */
+	public String createOutputFileName(String path, String timeInfo, MatchSetting matchSetting) {
+		String mode = matchSetting.isLimitHp() ? "HPMode" : "TimeMode";
 
-		return path + mode + "_" + LaunchSetting.aiNames[0] + "_" + LaunchSetting.aiNames[1] + "_" + timeInfo;
+		return path + mode + "_" + matchSetting.getAiName(true) + "_" + matchSetting.getAiName(false) + "_"
+				+ timeInfo;
 	}
 
 	/**
@@ -5,6 +5,8 @@ package util;/*
  */
 
 
+import java.util.Arrays;
+
 import setting.GameSetting;
 
 /**
@@ -28,6 +30,23 @@ public class MFCC {
 
     FFT fft = new FFT();
 
+    /**
+     * The mel filter bank and the Hann window, which depend only on the constants, so they are created once.
+     */
+    private float[][] melBasis;
+    private float[] fftwin;
+
+    /**
+     * The working arrays of the short-time Fourier transform, which are reused while the length of the signal
+     * does not change.
+     */
+    private float[] ypad;
+    private float[][] frame;
+    private float[][] fftmagSpec;
+    private float[] fftFrame;
+    private float[] fftImag;
+    private float[] magSpec;
+
 
     public float[] process(float[] floatInputBuffer) {
         final float[][] mfccResult = dctMfcc(floatInputBuffer);
@@ -65,14 +84,28 @@ public class MFCC {
 
     //mel spectrogram, librosa
     public float[][] melSpectrogram(float[] y){
-        float[][] melBasis = melFilter();
+        return melSpectrogram(y, new float[n_mels][1 + y.length / hop_length]);
+    }
+
+    /**
+     * Computes the mel spectrogram into the given array, so that the caller can reuse it.
+     * @param y the signal
+     * @param melS the array of {@code n_mels} rows of {@code 1 + y.length / hop_length} frames the spectrogram is
+     *        written into
+     * @return {@code melS}
+     */
+    public float[][] melSpectrogram(float[] y, float[][] melS){
+        if (melBasis == null) {
+            melBasis = melFilter();
+        }
         float[][] spectro = stftMagSpec(y);
-        float[][] melS = new float[melBasis.length][spectro[0].length];
         for (int i = 0; i < melBasis.length; i++){
             for (int j = 0; j < spectro[0].length; j++){
+                float sum = 0;
                 for (int k = 0; k < melBasis[0].length; k++){
-                    melS[i][j] += melBasis[i][k]*spectro[k][j];
+                    sum += melBasis[i][k]*spectro[k][j];
                 }
+                melS[i][j] = sum;
             }
         }
         return melS;
@@ -82,10 +115,14 @@ public class MFCC {
     //stft, librosa
     private float[][] stftMagSpec(float[] y){
         //Short-time Fourier transform (STFT)
-        final float[] fftwin = getWindow();
+        if (fftwin == null) {
+            fftwin = getWindow();
+        }
         //pad y with reflect mode so it's centered. This reflect padding implementation is
         // not perfect but works for this demo.
-        float[] ypad = new float[n_fft+y.length];
+        if (ypad == null || ypad.length != n_fft+y.length) {
+            ypad = new float[n_fft+y.length];
+        }
         for (int i = 0; i < n_fft/2; i++){
             ypad[(n_fft/2)-i-1] = y[i+1];
             ypad[(n_fft/2)+y.length+i] = y[y.length-2-i];
@@ -95,9 +132,13 @@ public class MFCC {
         }
 
 
-        final float[][] frame = yFrame(ypad);
-        float[][] fftmagSpec = new float[1+n_fft/2][frame[0].length];
-        float[] fftFrame = new float[n_fft];
+        frame = yFrame(ypad);
+        if (fftmagSpec == null || fftmagSpec[0].length != frame[0].length) {
+            fftmagSpec = new float[1+n_fft/2][frame[0].length];
+            fftFrame = new float[n_fft];
+            fftImag = new float[n_fft];
+            magSpec = new float[n_fft];
+        }
         for (int k = 0; k < frame[0].length; k++){
             for (int l =0; l < n_fft; l++){
                 fftFrame[l] = fftwin[l]*frame[l][k];
@@ -111,8 +152,8 @@ public class MFCC {
     }
 
     private float[] magSpectrogram(float[] frame){
-        float[] magSpec = new float[frame.length];
-        fft.process(frame);
+        Arrays.fill(fftImag, 0);
+        fft.process(frame, fftImag);
         for (int m = 0; m < frame.length; m++) {
             magSpec[m] = fft.real[m] * fft.real[m] + fft.imag[m] * fft.imag[m];
         }
@@ -135,7 +176,7 @@ public class MFCC {
     //frame, librosa
     private float[][] yFrame(float[] ypad){
         final int n_frames = 1 + (ypad.length - n_fft) / hop_length;
-        float[][] winFrames = new float[n_fft][n_frames];
+        float[][] winFrames = frame != null && frame[0].length == n_frames ? frame : new float[n_fft][n_frames];
         for (int i = 0; i < n_fft; i++){
             for (int j = 0; j < n_frames; j++){
                 winFrames[i][j] = ypad[j*hop_length+i];
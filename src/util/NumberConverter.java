@@ -40,10 +40,20 @@ public class NumberConverter {
     }
 
     public byte[] getByteArray(float[][] floatArray){
+        return getByteArray(floatArray, new byte[4*floatArray.length*floatArray[0].length]);
+    }
+
+    /**
+     * Converts the array into the given byte array, so that the caller can reuse it.
+     * @param floatArray the array to be converted
+     * @param byteArray the byte array of 4 bytes per element, which is overwritten
+     * @return {@code byteArray}
+     */
+    public byte[] getByteArray(float[][] floatArray, byte[] byteArray){
         // Set up a ByteBuffer called floatBuffer
         int iMax = floatArray.length;
         int jMax = floatArray[0].length;
-        ByteBuffer floatBuffer = ByteBuffer.allocate(4*iMax*jMax); // 4 bytes in an int
+        ByteBuffer floatBuffer = ByteBuffer.wrap(byteArray);
         floatBuffer.order(ByteOrder.LITTLE_ENDIAN); // Java's default is big-endian
 
         // Copy ints from floatArray into floatBuffer as bytes
@@ -53,15 +63,23 @@ public class NumberConverter {
             }
         }
 
-        // Convert the ByteBuffer to a byte array and return it
-        byte[] byteArray = floatBuffer.array();
         return byteArray;
     }
 
     public byte[] getByteArray(float[] floatArray){
+        return getByteArray(floatArray, new byte[4*floatArray.length]);
+    }
+
+    /**
+     * Converts the array into the given byte array, so that the caller can reuse it.
+     * @param floatArray the array to be converted
+     * @param byteArray the byte array of 4 bytes per element, which is overwritten
+     * @return {@code byteArray}
+     */
+    public byte[] getByteArray(float[] floatArray, byte[] byteArray){
         // Set up a ByteBuffer called floatBuffer
         int iMax = floatArray.length;
-        ByteBuffer intBuffer = ByteBuffer.allocate(4*iMax); // 4 bytes in an int
+        ByteBuffer intBuffer = ByteBuffer.wrap(byteArray);
         intBuffer.order(ByteOrder.LITTLE_ENDIAN); // Java's default is big-endian
 
         // Copy ints from floatArray into floatBuffer as bytes
@@ -69,8 +87,6 @@ public class NumberConverter {
             intBuffer.putFloat(floatArray[i]);
         }
 
-        // Convert the ByteBuffer to a byte array and return it
-        byte[] byteArray = intBuffer.array();
         return byteArray;
     }
 
@@ -91,11 +107,21 @@ public class NumberConverter {
     }
 
     public byte[] getByteArray(float[][][] floatArray){
+        return getByteArray(floatArray, new byte[4*floatArray.length*floatArray[0].length*floatArray[0][0].length]);
+    }
+
+    /**
+     * Converts the array into the given byte array, so that the caller can reuse it.
+     * @param floatArray the array to be converted
+     * @param byteArray the byte array of 4 bytes per element, which is overwritten
+     * @return {@code byteArray}
+     */
+    public byte[] getByteArray(float[][][] floatArray, byte[] byteArray){
         // Set up a ByteBuffer called intBuffer
         int iMax = floatArray.length;
         int jMax = floatArray[0].length;
         int kMax = floatArray[0][0].length;
-        ByteBuffer intBuffer = ByteBuffer.allocate(4*iMax*jMax*kMax); // 4 bytes in an int
+        ByteBuffer intBuffer = ByteBuffer.wrap(byteArray);
         intBuffer.order(ByteOrder.LITTLE_ENDIAN); // Java's default is big-endian
 
         // Copy ints from floatArray into intBuffer as bytes
@@ -106,8 +132,6 @@ public class NumberConverter {
             }
         }
 
-        // Convert the ByteBuffer to a byte array and return it
-        byte[] byteArray = intBuffer.array();
         return byteArray;
     }
 }
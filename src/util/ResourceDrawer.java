@@ -350,16 +350,14 @@ public class ResourceDrawer {
 				HitEffect hitEffect = hitEffects.get(i).get(j);
 
 				if (hitEffect.isHit()) {
-					HitArea area = hitEffect.getAttack().getCurrentHitArea();
 					Image image = hitEffect.getImage();
 
 					BufferedImage tmpImage = image.getBufferedImage();
 					tmpImage = flipImage(tmpImage, i != 0);
 
-					int positionX = area.getLeft() - (image.getWidth() - area.getRight() + area.getLeft()) / 2
-							+ hitEffect.getVariationX();
-					int positionY = area.getTop() - (image.getHeight() - area.getBottom() + area.getTop()) / 2
-							+ hitEffect.getVariationY();
+					// エフェクトの中心に画像の中心を合わせる
+					int positionX = hitEffect.getX() - image.getWidth() / 2 + hitEffect.getVariationX();
+					int positionY = hitEffect.getY() - image.getHeight() / 2 + hitEffect.getVariationY();
 
 					if (hitEffect.getVariationX() == 0 && hitEffect.getVariationY() == 0) {
 						positionX += 30;